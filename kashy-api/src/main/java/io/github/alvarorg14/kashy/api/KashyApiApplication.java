@@ -2,8 +2,10 @@ package io.github.alvarorg14.kashy.api;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 
 @SpringBootApplication
+@ConfigurationPropertiesScan
 public class KashyApiApplication {
 
   public static void main(String[] args) {
@@ -0,0 +1,456 @@
+package io.github.alvarorg14.kashy.api.analytics;
+
+import io.github.alvarorg14.kashy.api.config.ExpenseAnalyticsProperties;
+import io.github.alvarorg14.kashy.api.mapper.ExpenseEntityMapper;
+import io.github.alvarorg14.kashy.api.model.domain.Expense;
+import io.github.alvarorg14.kashy.api.model.domain.ExpenseSummary;
+import io.github.alvarorg14.kashy.api.model.domain.SummaryPeriod;
+import io.github.alvarorg14.kashy.api.model.projection.ExpenseAnalyticsRow;
+import io.github.alvarorg14.kashy.api.repository.ExpenseRepository;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Optional in-memory copy of every expense, held as {@link ExpenseColumns}, that answers summaries
+ * without a database round trip.
+ *
+ * <p>When {@code kashy.expenses.analytics.enabled} is set, the store is loaded from the expenses
+ * table once the application is ready and every write path hands it the expenses it persists,
+ * updates or deletes, which are applied once their transaction commits. Until the first load
+ * completes, and after an amount too large for {@link
+ * io.github.alvarorg14.kashy.api.money.MinorUnits} was seen, {@link #summarize} returns empty and
+ * summaries are computed by the database as usual.
+ *
+ * <p>Changes committed while a load is running are queued and replayed on top of the loaded rows.
+ * The load reads in a repeatable-read transaction on the primary, so more queries in the same
+ * transaction read the versions its snapshot saw of the expenses the queued changes touch, and the
+ * changes the snapshot already reflects are skipped rather than applied twice. Those queries run
+ * without the lock, repeated for the changes queued meanwhile, and only the replay holds it.
+ * Summaries take a read lock and run concurrently; changes take the write lock for the few
+ * microseconds an append needs.
+ *
+ * <p>Only writes through this instance reach the store, so writes by other instances or made
+ * directly in the database leave it behind. {@link #drifted} compares it with the database, and
+ * {@code ExpenseAnalyticsVerifyJob} reloads it when they differ.
+ */
+@Component
+@Slf4j
+public class ExpenseAnalyticsStore {
+
+  // Stays well below the bind parameter limit of a single statement
+  private static final int ID_LOOKUP_CHUNK = 1000;
+
+  // Version a snapshot holding the expense at all reflects the creation of, and none its deletion
+  private static final long CREATED = 0;
+  private static final long DELETED = Long.MAX_VALUE;
+
+  private final ExpenseRepository repository;
+  private final ExpenseAnalyticsProperties properties;
+  private final ExpenseEntityMapper mapper;
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+  // Guarded by lock; columns is null until loaded, pending is non-null while a load runs, outOfStep
+  // marks columns dropped for missing a row
+  private ExpenseColumns columns;
+  private boolean outOfStep;
+  private List<Change> pending;
+  private Set<UUID> pendingIds;
+  private Set<UUID> pendingAddedIds;
+
+  public ExpenseAnalyticsStore(
+      ExpenseRepository repository,
+      ExpenseAnalyticsProperties properties,
+      ExpenseEntityMapper mapper) {
+    this.repository = repository;
+    this.properties = properties;
+    this.mapper = mapper;
+  }
+
+  /**
+   * Returns whether expenses are held in memory at all.
+   *
+   * @return {@code true} if the store is enabled
+   */
+  public boolean enabled() {
+    return properties.enabled();
+  }
+
+  /**
+   * Replaces the held expenses with the ones currently stored.
+   *
+   * @return number of expenses held after the load, or {@code 0} when the store is disabled
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  @Transactional(isolation = Isolation.REPEATABLE_READ)
+  public int load() {
+    if (!enabled()) {
+      return 0;
+    }
+    long started = System.nanoTime();
+    // Must happen before the first statement, which is when the transaction takes its snapshot
+    withWriteLock(
+        () -> {
+          outOfStep = false;
+          pending = new ArrayList<>();
+          pendingIds = new HashSet<>();
+          pendingAddedIds = new HashSet<>();
+        });
+    ExpenseColumns loaded = new ExpenseColumns(0);
+    try {
+      try (Stream<ExpenseAnalyticsRow> rows = repository.streamAnalyticsRows()) {
+        rows.forEach(
+            row -> loaded.append(row.dateTime(), row.amount(), row.category(), row.currency()));
+      }
+      Map<UUID, Long> versions = new HashMap<>();
+      Set<UUID> read = new HashSet<>();
+      Set<UUID> unread = Set.of();
+      do {
+        // Reads outside the lock so that committing writers never wait on the database
+        readVersions(unread, versions);
+        read.addAll(unread);
+        unread =
+            lockedForWrite(
+                () -> {
+                  Set<UUID> queued = new HashSet<>(pendingIds);
+                  queued.removeAll(read);
+                  if (queued.isEmpty()) {
+                    replay(loaded, versions);
+                  }
+                  return queued;
+                });
+      } while (!unread.isEmpty());
+    } catch (ArithmeticException e) {
+      withWriteLock(() -> columns = null);
+      log.warn("Expense amounts exceed the in-memory range, summaries stay in the database", e);
+      return 0;
+    } catch (IllegalStateException e) {
+      withWriteLock(
+          () -> {
+            columns = null;
+            outOfStep = true;
+          });
+      log.warn("Analytics store is out of step with the database, summaries stay there", e);
+      return 0;
+    } catch (RuntimeException e) {
+      withWriteLock(() -> columns = null);
+      throw e;
+    } finally {
+      withWriteLock(
+          () -> {
+            pending = null;
+            pendingIds = null;
+            pendingAddedIds = null;
+          });
+    }
+    log.info(
+        "Loaded {} expenses into the analytics store in {} ms",
+        loaded.size(),
+        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+    return loaded.size();
+  }
+
+  /**
+   * Adds persisted expenses once the current transaction commits.
+   *
+   * <p>Must be called within the transaction that persists the expenses.
+   *
+   * @param expenses the persisted expenses
+   */
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void add(Collection<Expense> expenses) {
+    if (!enabled()) {
+      return;
+    }
+    List<Expense> added = List.copyOf(expenses);
+    List<UUID> ids = added.stream().map(Expense::id).toList();
+    afterCommit(
+        ids,
+        ids,
+        (target, snapshot) -> {
+          for (Expense expense : added) {
+            if (!snapshot.reflects(expense.id(), CREATED)) {
+              append(target, expense);
+            }
+          }
+        });
+  }
+
+  /**
+   * Replaces the values of an updated expense once the current transaction commits.
+   *
+   * <p>Must be called within the transaction that updates the expense.
+   *
+   * @param before the expense as it was read
+   * @param after the expense as it was written, with its new version
+   */
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void update(Expense before, Expense after) {
+    if (!enabled()) {
+      return;
+    }
+    afterCommit(
+        List.of(),
+        List.of(after.id()),
+        (target, snapshot) -> {
+          if (!snapshot.reflects(after.id(), after.version())) {
+            remove(target, before);
+            append(target, after);
+          }
+        });
+  }
+
+  /**
+   * Drops a deleted expense once the current transaction commits.
+   *
+   * <p>Must be called within the transaction that deletes the expense.
+   *
+   * @param expense the deleted expense
+   */
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void remove(Expense expense) {
+    if (!enabled()) {
+      return;
+    }
+    afterCommit(
+        List.of(),
+        List.of(expense.id()),
+        (target, snapshot) -> {
+          if (!snapshot.reflects(expense.id(), DELETED)) {
+            remove(target, expense);
+          }
+        });
+  }
+
+  /**
+   * Drops the expenses of a month once the current transaction commits.
+   *
+   * <p>Must be called within the transaction that removes the expenses.
+   *
+   * @param month first day (UTC) of the month
+   */
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void removeMonth(LocalDate month) {
+    if (!enabled()) {
+      return;
+    }
+    OffsetDateTime from = month.atStartOfDay().atOffset(ZoneOffset.UTC);
+    afterCommit(
+        List.of(), List.of(), (target, snapshot) -> target.removeBetween(from, from.plusMonths(1)));
+  }
+
+  /**
+   * Tells whether the held expenses no longer match the stored ones and the store should be
+   * reloaded.
+   *
+   * <p>Compares the monthly summary of every expense, read from the expenses table on the primary,
+   * with the one computed in memory, and also reports a store dropped for being out of step. No
+   * drift is reported while a load runs. A write through this instance committing during the check
+   * can make the two differ without any drift, which costs a needless reload but never leaves
+   * actual drift unreported.
+   *
+   * @return {@code true} if the store should be reloaded
+   */
+  @Transactional
+  public boolean drifted() {
+    if (!enabled()) {
+      return false;
+    }
+    List<ExpenseSummary> stored =
+        repository.summarize(SummaryPeriod.MONTH.sqlUnit(), null, null).stream()
+            .map(mapper::toDomain)
+            .toList();
+    return lockedForRead(
+        () -> {
+          if (pending != null) {
+            return false;
+          }
+          if (columns == null) {
+            return outOfStep;
+          }
+          return columns
+              .summarize(SummaryPeriod.MONTH, null, null, Integer.MAX_VALUE)
+              .map(held -> !held.equals(stored))
+              .orElse(false);
+        });
+  }
+
+  /**
+   * Aggregates the held expenses by period, category and currency.
+   *
+   * @param period period to group by
+   * @param from inclusive lower bound of the expense date-time, or {@code null} for no bound
+   * @param to exclusive upper bound of the expense date-time, or {@code null} for no bound
+   * @return the same rows as {@code ExpenseRepository#summarize}, or empty if the store is not
+   *     loaded or the summary is too wide or too large to compute in memory
+   */
+  public Optional<List<ExpenseSummary>> summarize(
+      SummaryPeriod period, OffsetDateTime from, OffsetDateTime to) {
+    if (!enabled()) {
+      return Optional.empty();
+    }
+    return lockedForRead(
+        () ->
+            columns == null
+                ? Optional.empty()
+                : columns.summarize(period, from, to, properties.maximumGroups()));
+  }
+
+  /**
+   * Applies a change once the current transaction commits; during a load it is queued instead,
+   * together with the ids of the expenses it adds and of all the expenses it touches.
+   */
+  private void afterCommit(List<UUID> addedIds, List<UUID> touchedIds, Change change) {
+    TransactionSynchronizationManager.registerSynchronization(
+        new TransactionSynchronization() {
+          @Override
+          public void afterCommit() {
+            withWriteLock(() -> apply(addedIds, touchedIds, change));
+          }
+        });
+  }
+
+  private void apply(List<UUID> addedIds, List<UUID> touchedIds, Change change) {
+    if (pending != null) {
+      pendingAddedIds.addAll(addedIds);
+      pendingIds.addAll(touchedIds);
+      pending.add(change);
+      return;
+    }
+    if (columns == null) {
+      return;
+    }
+    try {
+      change.applyTo(columns, Snapshot.NONE);
+    } catch (ArithmeticException e) {
+      columns = null;
+      log.warn("Expense amount exceeds the in-memory range, summaries stay in the database", e);
+    } catch (IllegalStateException e) {
+      columns = null;
+      outOfStep = true;
+      log.warn("Analytics store is out of step with the database, summaries stay there", e);
+    }
+  }
+
+  /** Reads the versions the load's snapshot holds of the given expenses, if it holds them. */
+  private void readVersions(Set<UUID> ids, Map<UUID, Long> versions) {
+    List<UUID> all = List.copyOf(ids);
+    for (int from = 0; from < all.size(); from += ID_LOOKUP_CHUNK) {
+      repository
+          .findVersions(all.subList(from, Math.min(from + ID_LOOKUP_CHUNK, all.size())))
+          .forEach(row -> versions.put(row.id(), row.version()));
+    }
+  }
+
+  /**
+   * Replays the queued changes on the loaded rows and publishes them, ending the load.
+   *
+   * <p>Must hold the write lock, with the versions of every expense the queued changes touch read.
+   * An expense the snapshot lacks was either created after it, by one of the queued adds, in which
+   * case none of its changes are reflected, or deleted before it, in which case all are.
+   */
+  private void replay(ExpenseColumns loaded, Map<UUID, Long> versions) {
+    Set<UUID> addedIds = pendingAddedIds;
+    Snapshot snapshot =
+        (id, version) -> {
+          Long seen = versions.get(id);
+          return seen == null ? !addedIds.contains(id) : seen >= version;
+        };
+    pending.forEach(change -> change.applyTo(loaded, snapshot));
+    columns = loaded;
+    pending = null;
+    pendingIds = null;
+    pendingAddedIds = null;
+  }
+
+  private static void append(ExpenseColumns target, Expense expense) {
+    target.append(expense.dateTime(), expense.amount(), expense.category(), expense.currency());
+  }
+
+  private static void remove(ExpenseColumns target, Expense expense) {
+    if (!target.remove(
+        expense.dateTime(), expense.amount(), expense.category(), expense.currency())) {
+      throw new IllegalStateException("Expense " + expense.id() + " is not held");
+    }
+  }
+
+  private void withWriteLock(Runnable action) {
+    lockedForWrite(
+        () -> {
+          action.run();
+          return null;
+        });
+  }
+
+  private <T> T lockedForRead(Supplier<T> action) {
+    lock.readLock().lock();
+    try {
+      return action.get();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  private <T> T lockedForWrite(Supplier<T> action) {
+    lock.writeLock().lock();
+    try {
+      return action.get();
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /** A committed change to the held expenses. */
+  @FunctionalInterface
+  private interface Change {
+
+    /**
+     * Applies the change.
+     *
+     * @param target columns to change
+     * @param snapshot what the load already read, to skip the changes it reflects
+     */
+    void applyTo(ExpenseColumns target, Snapshot snapshot);
+  }
+
+  /** The state of the expenses a load read. */
+  @FunctionalInterface
+  private interface Snapshot {
+
+    /** Snapshot of a store not loading, which reflects no change. */
+    Snapshot NONE = (id, version) -> false;
+
+    /**
+     * Tells whether the snapshot already holds an expense at or past a version.
+     *
+     * @param id id of the expense
+     * @param version version the change produced, {@link #CREATED} for an add and {@link #DELETED}
+     *     for a deletion
+     * @return {@code true} if applying the change would count it twice
+     */
+    boolean reflects(UUID id, long version);
+  }
+}
@@ -0,0 +1,283 @@
+package io.github.alvarorg14.kashy.api.analytics;
+
+import io.github.alvarorg14.kashy.api.model.domain.Category;
+import io.github.alvarorg14.kashy.api.model.domain.ExpenseSummary;
+import io.github.alvarorg14.kashy.api.model.domain.SummaryPeriod;
+import io.github.alvarorg14.kashy.api.money.MinorUnits;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Expenses held as parallel primitive columns, for scans that aggregate millions of rows.
+ *
+ * <p>Row {@code i} is the expense whose date-time is {@code epochMicros[i]} (microseconds since the
+ * epoch, the precision of {@code timestamptz}), whose amount is {@code amounts[i]} in {@link
+ * MinorUnits}, whose category is the ordinal {@code categories[i]} and whose currency is the
+ * dictionary code {@code currencies[i]}. A row costs 19 bytes and no object, and a summary is a
+ * single pass over the arrays that adds into primitive accumulators indexed by group, so the JIT
+ * can keep the loop free of allocation and pointer chasing. Rows are in no particular order; only
+ * the date-time range of the whole set is tracked.
+ *
+ * <p>Not thread-safe; {@link ExpenseAnalyticsStore} guards access.
+ */
+public final class ExpenseColumns {
+
+  private static final long MICROS_PER_SECOND = 1_000_000;
+  private static final long MICROS_PER_DAY = 86_400 * MICROS_PER_SECOND;
+  private static final Category[] CATEGORIES = Category.values();
+
+  private final List<String> currencyNames = new ArrayList<>();
+  private final Map<String, Short> currencyCodes = new HashMap<>();
+
+  private long[] epochMicros;
+  private long[] amounts;
+  private byte[] categories;
+  private short[] currencies;
+  private int size;
+  private long minMicros = Long.MAX_VALUE;
+  private long maxMicros = Long.MIN_VALUE;
+
+  /**
+   * Creates empty columns.
+   *
+   * @param initialCapacity number of rows to allocate room for up front
+   */
+  public ExpenseColumns(int initialCapacity) {
+    int capacity = Math.max(initialCapacity, 16);
+    epochMicros = new long[capacity];
+    amounts = new long[capacity];
+    categories = new byte[capacity];
+    currencies = new short[capacity];
+  }
+
+  /** Returns the number of rows held. */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Appends an expense.
+   *
+   * @param dateTime date-time of the expense
+   * @param amount amount of the expense
+   * @param category category of the expense
+   * @param currency ISO 4217 code of the expense
+   * @throws ArithmeticException if the amount does not fit in a {@code long} of minor units
+   */
+  public void append(
+      OffsetDateTime dateTime, BigDecimal amount, Category category, String currency) {
+    long minorUnits = MinorUnits.of(amount);
+    if (size == epochMicros.length) {
+      grow();
+    }
+    long micros = toEpochMicros(dateTime);
+    epochMicros[size] = micros;
+    amounts[size] = minorUnits;
+    categories[size] = (byte) category.ordinal();
+    currencies[size] = codeOf(currency);
+    size++;
+    minMicros = Math.min(minMicros, micros);
+    maxMicros = Math.max(maxMicros, micros);
+  }
+
+  /**
+   * Removes one row holding exactly the given values.
+   *
+   * <p>Rows carry no identity, and any row with the same values contributes the same to every
+   * summary, so whichever matches is removed. The last row takes its place, which keeps removal a
+   * single scan without shifting the columns. The tracked date-time range is not narrowed.
+   *
+   * @param dateTime date-time of the expense
+   * @param amount amount of the expense
+   * @param category category of the expense
+   * @param currency ISO 4217 code of the expense
+   * @return {@code true} if a matching row was removed
+   * @throws ArithmeticException if the amount does not fit in a {@code long} of minor units
+   */
+  public boolean remove(
+      OffsetDateTime dateTime, BigDecimal amount, Category category, String currency) {
+    Short code = currencyCodes.get(currency);
+    if (code == null) {
+      return false;
+    }
+    long micros = toEpochMicros(dateTime);
+    long minorUnits = MinorUnits.of(amount);
+    byte ordinal = (byte) category.ordinal();
+    // Recently added rows sit at the end and are the likeliest to be corrected
+    for (int i = size - 1; i >= 0; i--) {
+      if (epochMicros[i] == micros
+          && amounts[i] == minorUnits
+          && categories[i] == ordinal
+          && currencies[i] == code) {
+        int last = --size;
+        epochMicros[i] = epochMicros[last];
+        amounts[i] = amounts[last];
+        categories[i] = categories[last];
+        currencies[i] = currencies[last];
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Removes the rows within a date-time range, keeping the others in order.
+   *
+   * @param from inclusive lower bound
+   * @param to exclusive upper bound
+   * @return number of rows removed
+   */
+  public int removeBetween(OffsetDateTime from, OffsetDateTime to) {
+    long fromMicros = toEpochMicros(from);
+    long toMicros = toEpochMicros(to);
+    int kept = 0;
+    long min = Long.MAX_VALUE;
+    long max = Long.MIN_VALUE;
+    for (int i = 0; i < size; i++) {
+      long micros = epochMicros[i];
+      if (micros >= fromMicros && micros < toMicros) {
+        continue;
+      }
+      epochMicros[kept] = micros;
+      amounts[kept] = amounts[i];
+      categories[kept] = categories[i];
+      currencies[kept] = currencies[i];
+      kept++;
+      min = Math.min(min, micros);
+      max = Math.max(max, micros);
+    }
+    int removed = size - kept;
+    size = kept;
+    minMicros = min;
+    maxMicros = max;
+    return removed;
+  }
+
+  /**
+   * Aggregates the rows by period, category and currency, as {@code ExpenseRepository#summarize}
+   * does in the database.
+   *
+   * <p>The days the range spans are mapped to period indexes once, then a single pass over the rows
+   * filters by date-time and adds count and amount into dense {@code long[]} accumulators, one slot
+   * per period, category and currency combination.
+   *
+   * @param period period to group by, truncated in UTC
+   * @param from inclusive lower bound of the expense date-time, or {@code null} for no bound
+   * @param to exclusive upper bound of the expense date-time, or {@code null} for no bound
+   * @param maximumGroups largest number of combinations to allocate accumulators for
+   * @return one summary per non-empty group, ordered by period start, category name and currency;
+   *     empty if the range spans more than {@code maximumGroups} combinations or a total leaves the
+   *     {@code long} range
+   */
+  public Optional<List<ExpenseSummary>> summarize(
+      SummaryPeriod period, OffsetDateTime from, OffsetDateTime to, int maximumGroups) {
+    long fromMicros = from == null ? Long.MIN_VALUE : toEpochMicros(from);
+    long toMicros = to == null ? Long.MAX_VALUE : toEpochMicros(to);
+    long firstMicros = Math.max(fromMicros, minMicros);
+    long lastMicros = Math.min(toMicros - 1, maxMicros);
+    if (size == 0 || firstMicros > lastMicros) {
+      return Optional.of(List.of());
+    }
+
+    long firstDay = Math.floorDiv(firstMicros, MICROS_PER_DAY);
+    long days = Math.floorDiv(lastMicros, MICROS_PER_DAY) - firstDay + 1;
+    int currencyCount = currencyNames.size();
+    long groupsPerPeriod = (long) CATEGORIES.length * currencyCount;
+    if (days * groupsPerPeriod > Integer.MAX_VALUE) {
+      return Optional.empty();
+    }
+    List<LocalDate> periodStarts = new ArrayList<>();
+    int[] periodOfDay = new int[(int) days];
+    for (int d = 0; d < days; d++) {
+      LocalDate start = period.startOf(LocalDate.ofEpochDay(firstDay + d));
+      if (periodStarts.isEmpty() || !periodStarts.getLast().equals(start)) {
+        periodStarts.add(start);
+      }
+      periodOfDay[d] = periodStarts.size() - 1;
+    }
+    long groups = periodStarts.size() * groupsPerPeriod;
+    if (groups > maximumGroups) {
+      return Optional.empty();
+    }
+
+    long[] counts = new long[(int) groups];
+    long[] totals = new long[(int) groups];
+    int categoryCount = CATEGORIES.length;
+    // Rows within the range are never before the first day, so a plain division finds their day
+    long firstDayMicros = firstDay * MICROS_PER_DAY;
+    for (int i = 0; i < size; i++) {
+      long micros = epochMicros[i];
+      if (micros < fromMicros || micros >= toMicros) {
+        continue;
+      }
+      int day = (int) ((micros - firstDayMicros) / MICROS_PER_DAY);
+      int group =
+          (periodOfDay[day] * categoryCount + categories[i]) * currencyCount + currencies[i];
+      long total = totals[group];
+      long amount = amounts[i];
+      long sum = total + amount;
+      // Same sign test as Math.addExact; a total this large is left to the database
+      if (((total ^ sum) & (amount ^ sum)) < 0) {
+        return Optional.empty();
+      }
+      totals[group] = sum;
+      counts[group]++;
+    }
+
+    List<ExpenseSummary> summaries = new ArrayList<>();
+    for (int group = 0; group < groups; group++) {
+      if (counts[group] == 0) {
+        continue;
+      }
+      BigDecimal total = MinorUnits.toDecimal(totals[group]);
+      summaries.add(
+          ExpenseSummary.builder()
+              .periodStart(periodStarts.get((int) (group / groupsPerPeriod)))
+              .category(CATEGORIES[group / currencyCount % categoryCount])
+              .currency(currencyNames.get(group % currencyCount))
+              .count(counts[group])
+              .total(total)
+              .average(
+                  total.divide(
+                      BigDecimal.valueOf(counts[group]), MinorUnits.SCALE, RoundingMode.HALF_UP))
+              .build());
+    }
+    // Groups come out in ordinal and dictionary order; the database orders by name
+    summaries.sort(
+        Comparator.comparing(ExpenseSummary::periodStart)
+            .thenComparing(summary -> summary.category().name())
+            .thenComparing(ExpenseSummary::currency));
+    return Optional.of(summaries);
+  }
+
+  private short codeOf(String currency) {
+    Short code = currencyCodes.get(currency);
+    if (code == null) {
+      code = (short) currencyNames.size();
+      currencyNames.add(currency);
+      currencyCodes.put(currency, code);
+    }
+    return code;
+  }
+
+  private void grow() {
+    int capacity = epochMicros.length + (epochMicros.length >> 1);
+    epochMicros = Arrays.copyOf(epochMicros, capacity);
+    amounts = Arrays.copyOf(amounts, capacity);
+    categories = Arrays.copyOf(categories, capacity);
+    currencies = Arrays.copyOf(currencies, capacity);
+  }
+
+  private static long toEpochMicros(OffsetDateTime dateTime) {
+    return dateTime.toEpochSecond() * MICROS_PER_SECOND + dateTime.getNano() / 1_000;
+  }
+}
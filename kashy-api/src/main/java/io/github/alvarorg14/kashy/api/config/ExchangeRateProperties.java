@@ -0,0 +1,26 @@
+package io.github.alvarorg14.kashy.api.config;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Positive;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.core.io.Resource;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Settings for the exchange rates used to normalize amounts to a base currency.
+ *
+ * @param referenceCurrency ISO 4217 code every stored rate is quoted against; it has no rows of its
+ *     own and always converts at 1
+ * @param source CSV file or feed the rates are imported from, such as {@code file:}, {@code
+ *     classpath:} or {@code https:} locations; when absent nothing is imported and the rates
+ *     already stored are used as they are
+ * @param chunkSize number of rates written per upsert statement during an import
+ */
+@Validated
+@ConfigurationProperties(prefix = "kashy.exchange-rates")
+public record ExchangeRateProperties(
+    @DefaultValue("EUR") @NotNull @Pattern(regexp = "^[A-Z]{3}$") String referenceCurrency,
+    Resource source,
+    @DefaultValue("5000") @Positive int chunkSize) {}
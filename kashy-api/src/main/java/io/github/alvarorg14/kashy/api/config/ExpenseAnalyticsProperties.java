@@ -0,0 +1,19 @@
+package io.github.alvarorg14.kashy.api.config;
+
+import jakarta.validation.constraints.Positive;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Settings of the in-memory columnar analytics store.
+ *
+ * @param enabled whether every expense is also held in memory, loaded on startup, and summaries are
+ *     computed from there instead of by the database
+ * @param maximumGroups largest number of period, category and currency combinations a summary may
+ *     span to be computed in memory; wider summaries are left to the database
+ */
+@Validated
+@ConfigurationProperties(prefix = "kashy.expenses.analytics")
+public record ExpenseAnalyticsProperties(
+    @DefaultValue("false") boolean enabled, @DefaultValue("1000000") @Positive int maximumGroups) {}
@@ -0,0 +1,16 @@
+package io.github.alvarorg14.kashy.api.config;
+
+import jakarta.validation.constraints.Positive;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Settings for bulk expense creation.
+ *
+ * @param chunkSize number of expenses persisted per transaction. Each chunk is flushed as JDBC
+ *     batches of {@code hibernate.jdbc.batch_size} statements, so it should be a multiple of it.
+ */
+@Validated
+@ConfigurationProperties(prefix = "kashy.expenses.batch")
+public record ExpenseBatchProperties(@DefaultValue("500") @Positive int chunkSize) {}
@@ -0,0 +1,42 @@
+package io.github.alvarorg14.kashy.api.config;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Configuration of the in-memory read caches in front of the expense service.
+ *
+ * @param enabled whether reads are served through the caches at all
+ * @param expenses cache of single expenses by id
+ * @param pages cache of listing pages by filter, cursor and limit
+ * @param summaries cache of summaries by period and range
+ * @param settleAfterWrite how long after a write loaded values are served without being cached, at
+ *     least the replication lag of the read replicas when they are enabled
+ * @param versionExpireAfterWrite how long the version labelling unconditional listings is reused
+ *     before it is read again, unless a write through this instance drops it sooner
+ */
+@Validated
+@ConfigurationProperties(prefix = "kashy.cache")
+public record ExpenseCacheProperties(
+    @DefaultValue("true") boolean enabled,
+    @DefaultValue @Valid Spec expenses,
+    @DefaultValue @Valid Spec pages,
+    @DefaultValue @Valid Spec summaries,
+    @DefaultValue("0s") @NotNull Duration settleAfterWrite,
+    @DefaultValue("1s") @NotNull Duration versionExpireAfterWrite) {
+
+  /**
+   * Bounds of a single cache.
+   *
+   * @param maximumSize maximum number of entries before the least valuable ones are evicted
+   * @param expireAfterWrite how long an entry is served before it is reloaded
+   */
+  public record Spec(
+      @DefaultValue("1000") @Positive long maximumSize,
+      @DefaultValue("5m") @NotNull Duration expireAfterWrite) {}
+}
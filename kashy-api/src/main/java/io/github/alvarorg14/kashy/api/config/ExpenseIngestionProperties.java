@@ -0,0 +1,34 @@
+package io.github.alvarorg14.kashy.api.config;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Settings for asynchronous (write-behind) expense ingestion.
+ *
+ * @param enabled whether single expense creation is queued and acknowledged with {@code 202
+ *     Accepted} instead of being persisted within the request
+ * @param capacity maximum number of expenses waiting in the queue; further submissions are rejected
+ *     with {@code 429 Too Many Requests}
+ * @param batchSize maximum number of queued expenses written per batch; chunked into transactions
+ *     of {@code kashy.expenses.batch.chunk-size}
+ * @param retryAfter wait suggested to rejected clients through the {@code Retry-After} header
+ * @param shutdownTimeout how long shutdown waits for the queue to drain before giving up on the
+ *     remaining expenses
+ * @param failureRetention how long the reason of a failed expense is kept for status lookups
+ * @param maximumFailures maximum number of failed expenses kept for status lookups
+ */
+@Validated
+@ConfigurationProperties(prefix = "kashy.expenses.ingestion")
+public record ExpenseIngestionProperties(
+    @DefaultValue("false") boolean enabled,
+    @DefaultValue("10000") @Positive int capacity,
+    @DefaultValue("500") @Positive int batchSize,
+    @DefaultValue("1s") @NotNull Duration retryAfter,
+    @DefaultValue("30s") @NotNull Duration shutdownTimeout,
+    @DefaultValue("1h") @NotNull Duration failureRetention,
+    @DefaultValue("100000") @Positive long maximumFailures) {}
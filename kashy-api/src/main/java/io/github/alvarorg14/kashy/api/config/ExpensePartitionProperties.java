@@ -0,0 +1,16 @@
+package io.github.alvarorg14.kashy.api.config;
+
+import jakarta.validation.constraints.PositiveOrZero;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Settings for the monthly partitions of the expenses table.
+ *
+ * @param monthsAhead number of months after the current one whose partitions are created in
+ *     advance, so writes never land in the default partition in normal operation
+ */
+@Validated
+@ConfigurationProperties(prefix = "kashy.expenses.partitions")
+public record ExpensePartitionProperties(@DefaultValue("3") @PositiveOrZero int monthsAhead) {}
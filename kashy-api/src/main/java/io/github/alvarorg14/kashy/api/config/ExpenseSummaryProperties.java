@@ -0,0 +1,20 @@
+package io.github.alvarorg14.kashy.api.config;
+
+import jakarta.validation.constraints.Positive;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Settings of the summaries aggregated by the database.
+ *
+ * @param parallelism maximum number of month chunks aggregated at once across all summaries, capped
+ *     at half of {@code spring.datasource.hikari.maximum-pool-size} so that writes always find a
+ *     connection; {@code 1} aggregates every summary in a single query
+ * @param minimumMonths fewest months, from its first to its last expense, a summary must span
+ *     before it is split into month chunks
+ */
+@Validated
+@ConfigurationProperties(prefix = "kashy.expenses.summaries")
+public record ExpenseSummaryProperties(
+    @DefaultValue("4") @Positive int parallelism, @DefaultValue("3") @Positive int minimumMonths) {}
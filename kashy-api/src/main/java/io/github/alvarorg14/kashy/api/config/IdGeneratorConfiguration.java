@@ -0,0 +1,22 @@
+package io.github.alvarorg14.kashy.api.config;
+
+import io.github.alvarorg14.kashy.api.id.IdGenerator;
+import io.github.alvarorg14.kashy.api.id.RandomUuidGenerator;
+import io.github.alvarorg14.kashy.api.id.UuidV7Generator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/** Registers the {@link IdGenerator} selected by {@link IdGeneratorProperties}. */
+@Configuration(proxyBeanMethods = false)
+public class IdGeneratorConfiguration {
+
+  @Bean
+  @ConditionalOnMissingBean
+  public IdGenerator idGenerator(IdGeneratorProperties properties) {
+    return switch (properties.strategy()) {
+      case UUID_V7 -> new UuidV7Generator();
+      case RANDOM -> new RandomUuidGenerator();
+    };
+  }
+}
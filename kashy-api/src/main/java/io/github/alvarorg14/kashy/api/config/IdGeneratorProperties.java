@@ -0,0 +1,21 @@
+package io.github.alvarorg14.kashy.api.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Settings for primary key generation.
+ *
+ * @param strategy the built-in id generator to use
+ */
+@ConfigurationProperties(prefix = "kashy.ids")
+public record IdGeneratorProperties(@DefaultValue("UUID_V7") Strategy strategy) {
+
+  /** Built-in id generation strategies. */
+  public enum Strategy {
+    /** Time-ordered version 7 UUIDs, appended in index order. */
+    UUID_V7,
+    /** Random version 4 UUIDs. */
+    RANDOM
+  }
+}
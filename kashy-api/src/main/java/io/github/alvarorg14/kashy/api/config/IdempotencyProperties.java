@@ -0,0 +1,22 @@
+package io.github.alvarorg14.kashy.api.config;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Settings for {@code Idempotency-Key} handling on expense creation.
+ *
+ * @param retention how long a used key replays its original expense; older keys are forgotten and
+ *     purged from the database
+ * @param maximumSize maximum number of keys held in memory; evicted keys are still found in the
+ *     database
+ */
+@Validated
+@ConfigurationProperties(prefix = "kashy.expenses.idempotency")
+public record IdempotencyProperties(
+    @DefaultValue("24h") @NotNull Duration retention,
+    @DefaultValue("100000") @Positive long maximumSize) {}
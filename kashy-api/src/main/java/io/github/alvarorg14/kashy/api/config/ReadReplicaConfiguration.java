@@ -0,0 +1,83 @@
+package io.github.alvarorg14.kashy.api.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.github.alvarorg14.kashy.api.datasource.ReplicaDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+/**
+ * Routes read-only transactions to the replicas configured by {@link ReadReplicaProperties}.
+ *
+ * <p>The application DataSource defers fetching a physical connection until the first statement, by
+ * which time the transaction manager has flagged the connection read-only. Read-only connections
+ * then come from the {@link ReplicaDataSource}, everything else from the primary pool built from
+ * {@code spring.datasource}, which Liquibase keeps using for migrations.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "kashy.datasource.read-replicas", name = "enabled")
+public class ReadReplicaConfiguration {
+
+  @Bean
+  @ConfigurationProperties("spring.datasource.hikari")
+  public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+    HikariDataSource dataSource =
+        properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    dataSource.setPoolName("kashy-primary");
+    dataSource.addDataSourceProperty("ApplicationName", "kashy-primary");
+    return dataSource;
+  }
+
+  @Bean
+  public ReplicaDataSource replicaDataSource(
+      HikariDataSource primaryDataSource,
+      DataSourceProperties primaryProperties,
+      ReadReplicaProperties properties,
+      ObjectProvider<MeterRegistry> registry) {
+    List<HikariDataSource> pools = new ArrayList<>();
+    for (ReadReplicaProperties.Replica replica : properties.replicas()) {
+      String name = "kashy-replica-" + (pools.size() + 1);
+      HikariDataSource pool =
+          DataSourceBuilder.create()
+              .type(HikariDataSource.class)
+              .url(replica.url())
+              .username(
+                  Objects.requireNonNullElse(replica.username(), primaryProperties.getUsername()))
+              .password(
+                  Objects.requireNonNullElse(replica.password(), primaryProperties.getPassword()))
+              .build();
+      pool.setPoolName(name);
+      pool.addDataSourceProperty("ApplicationName", name);
+      pool.setReadOnly(true);
+      pool.setMaximumPoolSize(properties.maximumPoolSize());
+      pool.setConnectionTimeout(properties.connectionTimeout().toMillis());
+      // Start even if the replica is down; the primary serves reads until it comes up
+      pool.setInitializationFailTimeout(-1);
+      registry.ifAvailable(
+          r -> pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(r)));
+      pools.add(pool);
+    }
+    return new ReplicaDataSource(pools, primaryDataSource);
+  }
+
+  @Bean
+  @Primary
+  public DataSource dataSource(
+      HikariDataSource primaryDataSource, ReplicaDataSource replicaDataSource) {
+    LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+    dataSource.setReadOnlyDataSource(replicaDataSource);
+    return dataSource;
+  }
+}
@@ -0,0 +1,40 @@
+package io.github.alvarorg14.kashy.api.config;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import java.time.Duration;
+import java.util.List;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Configuration of the read replicas serving read-only transactions.
+ *
+ * @param enabled whether read-only transactions are routed to the replicas at all
+ * @param replicas replica databases, used round-robin while healthy
+ * @param maximumPoolSize maximum number of connections of each replica pool
+ * @param connectionTimeout how long a read waits for a replica connection before the replica is
+ *     marked down and the read falls back to the primary
+ * @param healthCheckInterval delay between checks bringing replicas that were marked down back
+ */
+@Validated
+@ConfigurationProperties(prefix = "kashy.datasource.read-replicas")
+public record ReadReplicaProperties(
+    @DefaultValue("false") boolean enabled,
+    @DefaultValue @Valid List<Replica> replicas,
+    @DefaultValue("10") @Positive int maximumPoolSize,
+    @DefaultValue("1s") @NotNull Duration connectionTimeout,
+    @DefaultValue("5s") @NotNull Duration healthCheckInterval) {
+
+  /**
+   * Connection settings of a single replica.
+   *
+   * @param url JDBC URL of the replica
+   * @param username database user, or {@code null} to reuse the primary's
+   * @param password database password, or {@code null} to reuse the primary's
+   */
+  public record Replica(@NotBlank String url, String username, String password) {}
+}
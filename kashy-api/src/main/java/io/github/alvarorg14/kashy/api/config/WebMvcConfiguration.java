@@ -0,0 +1,23 @@
+package io.github.alvarorg14.kashy.api.config;
+
+import io.github.alvarorg14.kashy.api.controller.ExpenseListingVersionInterceptor;
+import io.github.alvarorg14.kashy.api.controller.ExpensesApi;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/** Registers the interceptors of the expenses API. */
+@Configuration(proxyBeanMethods = false)
+@RequiredArgsConstructor
+public class WebMvcConfiguration implements WebMvcConfigurer {
+
+  private final ExpenseListingVersionInterceptor listingVersionInterceptor;
+
+  @Override
+  public void addInterceptors(InterceptorRegistry registry) {
+    registry
+        .addInterceptor(listingVersionInterceptor)
+        .addPathPatterns(ExpensesApi.PATH_LIST_EXPENSES);
+  }
+}
@@ -0,0 +1,38 @@
+package io.github.alvarorg14.kashy.api.config;
+
+import io.github.alvarorg14.kashy.api.json.ExpenseResponseSerializer;
+import io.github.alvarorg14.kashy.api.model.api.ExpenseResponse;
+import org.springframework.boot.http.converter.autoconfigure.ServerHttpMessageConvertersCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.JacksonCborHttpMessageConverter;
+import tools.jackson.databind.JacksonModule;
+import tools.jackson.databind.module.SimpleModule;
+import tools.jackson.dataformat.cbor.CBORMapper;
+
+/**
+ * Registers CBOR next to JSON for API bodies, and the serializers both formats share.
+ *
+ * <p>The converter uses the {@link CBORMapper} auto-configured by Spring Boot, so CBOR documents
+ * share the modules and features of the JSON ones. JSON stays the default; CBOR is only chosen for
+ * requests accepting {@code application/cbor}.
+ */
+@Configuration(proxyBeanMethods = false)
+public class WireFormatConfiguration {
+
+  @Bean
+  public ServerHttpMessageConvertersCustomizer cborMessageConverter(CBORMapper cborMapper) {
+    return converters ->
+        converters.withCborConverter(new JacksonCborHttpMessageConverter(cborMapper));
+  }
+
+  /**
+   * Replaces the reflective serializer of {@link ExpenseResponse}, written once per listed or
+   * exported row. Spring Boot adds module beans to both the JSON and the CBOR mapper.
+   */
+  @Bean
+  public JacksonModule expenseResponseModule() {
+    return new SimpleModule("expense-response")
+        .addSerializer(ExpenseResponse.class, new ExpenseResponseSerializer());
+  }
+}
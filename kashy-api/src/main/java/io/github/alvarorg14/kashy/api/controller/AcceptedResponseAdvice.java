@@ -0,0 +1,47 @@
+package io.github.alvarorg14.kashy.api.controller;
+
+import io.github.alvarorg14.kashy.api.model.api.CreateExpenseResponse;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Answers expense creations that were only queued with {@code 202 Accepted}.
+ *
+ * <p>The generated controller fixes the status of {@code createExpense} to {@code 201 Created}
+ * after the delegate returns, so the delegate flags queued expenses with {@link
+ * #ACCEPTED_ATTRIBUTE} and the status is replaced here, just before the body is written.
+ */
+@ControllerAdvice
+public class AcceptedResponseAdvice implements ResponseBodyAdvice<CreateExpenseResponse> {
+
+  /** Request attribute set when the created expense was queued rather than persisted. */
+  static final String ACCEPTED_ATTRIBUTE = AcceptedResponseAdvice.class.getName() + ".accepted";
+
+  @Override
+  public boolean supports(
+      MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+    return CreateExpenseResponse.class.equals(returnType.getParameterType());
+  }
+
+  @Override
+  public CreateExpenseResponse beforeBodyWrite(
+      CreateExpenseResponse body,
+      MethodParameter returnType,
+      MediaType selectedContentType,
+      Class<? extends HttpMessageConverter<?>> selectedConverterType,
+      ServerHttpRequest request,
+      ServerHttpResponse response) {
+    if (request instanceof ServletServerHttpRequest servletRequest
+        && servletRequest.getServletRequest().getAttribute(ACCEPTED_ATTRIBUTE) != null) {
+      response.setStatusCode(HttpStatus.ACCEPTED);
+    }
+    return body;
+  }
+}
@@ -0,0 +1,25 @@
+package io.github.alvarorg14.kashy.api.controller;
+
+import io.github.alvarorg14.kashy.api.model.api.Datetime;
+import io.github.alvarorg14.kashy.api.model.api.ErrorModel;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+/** Factory for the {@link ErrorModel} entries returned by the API. */
+final class ApiErrors {
+
+  static final String VALIDATION_ERROR = "VALIDATION_ERROR";
+  static final String PERSISTENCE_ERROR = "PERSISTENCE_ERROR";
+  static final String NOT_FOUND = "NOT_FOUND";
+  static final String IDEMPOTENCY_KEY_REUSED = "IDEMPOTENCY_KEY_REUSED";
+  static final String TOO_MANY_REQUESTS = "TOO_MANY_REQUESTS";
+  static final String EXCHANGE_RATE_UNAVAILABLE = "EXCHANGE_RATE_UNAVAILABLE";
+  static final String VERSION_CONFLICT = "VERSION_CONFLICT";
+
+  private ApiErrors() {}
+
+  static ErrorModel error(String code, String reason) {
+    OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+    return new ErrorModel(code, reason, new Datetime(now, ZoneOffset.UTC.getId()));
+  }
+}
@@ -0,0 +1,90 @@
+package io.github.alvarorg14.kashy.api.controller;
+
+import io.github.alvarorg14.kashy.api.exception.ExchangeRateUnavailableException;
+import io.github.alvarorg14.kashy.api.exception.ExpenseNotFoundException;
+import io.github.alvarorg14.kashy.api.exception.ExpenseVersionConflictException;
+import io.github.alvarorg14.kashy.api.exception.IdempotencyKeyReusedException;
+import io.github.alvarorg14.kashy.api.exception.IngestionQueueFullException;
+import io.github.alvarorg14.kashy.api.exception.InvalidCursorException;
+import io.github.alvarorg14.kashy.api.exception.InvalidExpenseVersionException;
+import io.github.alvarorg14.kashy.api.model.api.ErrorResponse;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.ConstraintViolationException;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+/**
+ * Translates exceptions raised while handling API requests into the {@link ErrorResponse} contract
+ * declared in the OpenAPI specification.
+ */
+@RestControllerAdvice
+@Slf4j
+public class ApiExceptionHandler {
+
+  @ExceptionHandler({
+    ConstraintViolationException.class,
+    InvalidCursorException.class,
+    InvalidExpenseVersionException.class
+  })
+  @ResponseStatus(HttpStatus.BAD_REQUEST)
+  public ErrorResponse handleValidationError(RuntimeException exception) {
+    log.debug("Rejected invalid request: {}", exception.getMessage());
+    return errorResponse(ApiErrors.VALIDATION_ERROR, exception.getMessage());
+  }
+
+  @ExceptionHandler(ExpenseNotFoundException.class)
+  @ResponseStatus(HttpStatus.NOT_FOUND)
+  public ErrorResponse handleNotFound(ExpenseNotFoundException exception) {
+    log.debug("Requested expense does not exist: {}", exception.getMessage());
+    return errorResponse(ApiErrors.NOT_FOUND, exception.getMessage());
+  }
+
+  @ExceptionHandler(ExpenseVersionConflictException.class)
+  @ResponseStatus(HttpStatus.CONFLICT)
+  public ErrorResponse handleVersionConflict(ExpenseVersionConflictException exception) {
+    log.debug("Rejected change of an outdated expense: {}", exception.getMessage());
+    return errorResponse(ApiErrors.VERSION_CONFLICT, exception.getMessage());
+  }
+
+  @ExceptionHandler(OptimisticLockingFailureException.class)
+  @ResponseStatus(HttpStatus.CONFLICT)
+  public ErrorResponse handleConcurrentChange(OptimisticLockingFailureException exception) {
+    log.debug("Rejected concurrent change of an expense: {}", exception.getMessage());
+    return errorResponse(
+        ApiErrors.VERSION_CONFLICT, "Expense was changed concurrently; read it again and retry");
+  }
+
+  @ExceptionHandler(IdempotencyKeyReusedException.class)
+  @ResponseStatus(HttpStatus.UNPROCESSABLE_CONTENT)
+  public ErrorResponse handleIdempotencyKeyReused(IdempotencyKeyReusedException exception) {
+    log.debug("Rejected reused idempotency key: {}", exception.getMessage());
+    return errorResponse(ApiErrors.IDEMPOTENCY_KEY_REUSED, exception.getMessage());
+  }
+
+  @ExceptionHandler(ExchangeRateUnavailableException.class)
+  @ResponseStatus(HttpStatus.UNPROCESSABLE_CONTENT)
+  public ErrorResponse handleExchangeRateUnavailable(ExchangeRateUnavailableException exception) {
+    log.debug("Rejected conversion: {}", exception.getMessage());
+    return errorResponse(ApiErrors.EXCHANGE_RATE_UNAVAILABLE, exception.getMessage());
+  }
+
+  @ExceptionHandler(IngestionQueueFullException.class)
+  @ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+  public ErrorResponse handleQueueFull(
+      IngestionQueueFullException exception, HttpServletResponse response) {
+    log.debug("Rejected expense: {}", exception.getMessage());
+    response.setHeader(
+        HttpHeaders.RETRY_AFTER, String.valueOf(exception.getRetryAfter().toSeconds()));
+    return errorResponse(ApiErrors.TOO_MANY_REQUESTS, exception.getMessage());
+  }
+
+  private static ErrorResponse errorResponse(String code, String reason) {
+    return new ErrorResponse(List.of(ApiErrors.error(code, reason)));
+  }
+}
@@ -0,0 +1,71 @@
+package io.github.alvarorg14.kashy.api.controller;
+
+import io.github.alvarorg14.kashy.api.model.domain.ExpenseVersion;
+import io.github.alvarorg14.kashy.api.service.ExchangeRates;
+import io.github.alvarorg14.kashy.api.service.ExpenseService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Answers expense listings the client already holds with {@code 304 Not Modified}.
+ *
+ * <p>Every listing carries the current {@link ExpenseVersion} as {@code ETag} and {@code
+ * Last-Modified}. The ETag is weak and the response varies by {@code Accept}, because the same
+ * version is served as JSON and as CBOR. The check runs before the generated controller, which
+ * fixes listings to {@code 200 OK} once the delegate returns, so an unchanged listing never reaches
+ * the delegate and no page is loaded or mapped.
+ *
+ * <p>Listings normalized to a base currency also change when the exchange rates do, so their ETag
+ * includes the version of the cached rates and they are validated by ETag only: the last
+ * modification time of the expenses says nothing about the rates.
+ *
+ * <p>Only conditional requests read the current version, on the primary database. Listings
+ * requested without {@code If-None-Match} or {@code If-Modified-Since} have nothing to validate, so
+ * they are labelled with {@link ExpenseService#getRecentExpenseVersion()} instead, which is cached
+ * in process and read from a replica. A slightly outdated label is safe: it never matches the
+ * current version once the expenses changed, so the next conditional request reloads.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ExpenseListingVersionInterceptor implements HandlerInterceptor {
+
+  private static final String BASE_CURRENCY_PARAMETER = "baseCurrency";
+
+  private final ExpenseService expenseService;
+  private final ExchangeRates exchangeRates;
+
+  @Override
+  public boolean preHandle(
+      HttpServletRequest request, HttpServletResponse response, Object handler) {
+    if (!HttpMethod.GET.matches(request.getMethod())
+        && !HttpMethod.HEAD.matches(request.getMethod())) {
+      return true;
+    }
+    boolean conditional =
+        request.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+            || request.getHeader(HttpHeaders.IF_MODIFIED_SINCE) != null;
+    ExpenseVersion version =
+        conditional ? expenseService.getExpenseVersion() : expenseService.getRecentExpenseVersion();
+    response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+    ServletWebRequest webRequest = new ServletWebRequest(request, response);
+    boolean normalized = request.getParameter(BASE_CURRENCY_PARAMETER) != null;
+    String tag = normalized ? version.tag() + "-" + exchangeRates.version() : version.tag();
+    String etag = "W/\"" + tag + "\"";
+    boolean notModified =
+        normalized || version.lastModified() == null
+            ? webRequest.checkNotModified(etag)
+            : webRequest.checkNotModified(etag, version.lastModified().toEpochMilli());
+    if (notModified) {
+      log.debug("Expenses not modified since version {}", tag);
+    }
+    return !notModified;
+  }
+}
@@ -1,16 +1,63 @@
 package io.github.alvarorg14.kashy.api.controller;
 
+import io.github.alvarorg14.kashy.api.exception.IngestionQueueFullException;
+import io.github.alvarorg14.kashy.api.exception.InvalidExpenseVersionException;
+import io.github.alvarorg14.kashy.api.export.ExpenseExportWriter;
+import io.github.alvarorg14.kashy.api.export.ExportFormat;
+import io.github.alvarorg14.kashy.api.ingestion.ExpenseIngestionQueue;
 import io.github.alvarorg14.kashy.api.mapper.ExpenseApiMapper;
+import io.github.alvarorg14.kashy.api.metrics.ExpenseMetrics;
+import io.github.alvarorg14.kashy.api.metrics.ExpenseStage;
+import io.github.alvarorg14.kashy.api.model.api.BatchItemResult;
+import io.github.alvarorg14.kashy.api.model.api.BatchItemStatus;
+import io.github.alvarorg14.kashy.api.model.api.Category;
 import io.github.alvarorg14.kashy.api.model.api.CreateExpenseRequest;
 import io.github.alvarorg14.kashy.api.model.api.CreateExpenseResponse;
+import io.github.alvarorg14.kashy.api.model.api.CreateExpensesBatchRequest;
+import io.github.alvarorg14.kashy.api.model.api.CreateExpensesBatchResponse;
 import io.github.alvarorg14.kashy.api.model.api.ExpenseResponse;
+import io.github.alvarorg14.kashy.api.model.api.ExpenseSummaryItem;
+import io.github.alvarorg14.kashy.api.model.api.ExpenseSummaryResponse;
+import io.github.alvarorg14.kashy.api.model.api.GetExpenseIngestionResponse;
+import io.github.alvarorg14.kashy.api.model.api.GetExpenseResponse;
 import io.github.alvarorg14.kashy.api.model.api.ListExpensesResponse;
+import io.github.alvarorg14.kashy.api.model.api.PatchExpenseRequest;
+import io.github.alvarorg14.kashy.api.model.api.SearchExpensesResponse;
+import io.github.alvarorg14.kashy.api.model.api.SummaryPeriod;
+import io.github.alvarorg14.kashy.api.model.api.UpdateExpenseRequest;
+import io.github.alvarorg14.kashy.api.model.api.UpdateExpenseResponse;
 import io.github.alvarorg14.kashy.api.model.domain.Expense;
+import io.github.alvarorg14.kashy.api.model.domain.ExpenseCreationResult;
+import io.github.alvarorg14.kashy.api.model.domain.ExpenseCreationResult.Created;
+import io.github.alvarorg14.kashy.api.model.domain.ExpenseCreationResult.Failed;
+import io.github.alvarorg14.kashy.api.model.domain.ExpenseCursor;
+import io.github.alvarorg14.kashy.api.model.domain.ExpenseFilter;
+import io.github.alvarorg14.kashy.api.model.domain.ExpenseIngestion;
+import io.github.alvarorg14.kashy.api.model.domain.ExpensePage;
+import io.github.alvarorg14.kashy.api.model.domain.ExpenseSearchCursor;
+import io.github.alvarorg14.kashy.api.model.domain.ExpenseSearchPage;
+import io.github.alvarorg14.kashy.api.model.domain.ExpenseSummary;
+import io.github.alvarorg14.kashy.api.service.ExchangeRates;
+import io.github.alvarorg14.kashy.api.service.ExpenseIdempotencyKeys;
 import io.github.alvarorg14.kashy.api.service.ExpenseService;
+import jakarta.servlet.http.HttpServletResponse;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
 import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.UnaryOperator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.databind.ObjectMapper;
 
 /**
  * Implementation of the generated ExpensesApiDelegate interface.
@@ -26,13 +73,39 @@ public class ExpensesApiDelegateImpl implements ExpensesApiDelegate {
 
   private final ExpenseService expenseService;
   private final ExpenseApiMapper apiMapper;
+  private final ObjectMapper objectMapper;
+  private final NativeWebRequest request;
+  private final ExpenseMetrics metrics;
+  private final ExpenseIngestionQueue ingestionQueue;
+  private final ExpenseIdempotencyKeys idempotencyKeys;
+  private final ExchangeRates exchangeRates;
 
   @Override
-  public CreateExpenseResponse createExpense(CreateExpenseRequest createExpenseRequest) {
+  public Optional<NativeWebRequest> getRequest() {
+    return Optional.of(request);
+  }
+
+  @Override
+  public CreateExpenseResponse createExpense(
+      CreateExpenseRequest createExpenseRequest, String idempotencyKey) {
+    return metrics.record(
+        ExpenseStage.CONTROLLER_CREATE,
+        () -> doCreateExpense(createExpenseRequest, idempotencyKey));
+  }
+
+  private CreateExpenseResponse doCreateExpense(
+      CreateExpenseRequest createExpenseRequest, String idempotencyKey) {
     log.debug("Received create expense request");
-    Expense domainExpense = apiMapper.toDomain(createExpenseRequest);
-    Expense createdExpense = expenseService.createExpense(domainExpense);
-    ExpenseResponse expenseResponse = apiMapper.toResponse(createdExpense);
+    Expense domainExpense =
+        metrics.record(
+            ExpenseStage.MAP_REQUEST_TO_DOMAIN, () -> apiMapper.toDomain(createExpenseRequest));
+    Expense createdExpense =
+        ingestionQueue.enabled()
+            ? enqueueExpense(domainExpense, idempotencyKey)
+            : createExpense(domainExpense, idempotencyKey);
+    ExpenseResponse expenseResponse =
+        metrics.record(
+            ExpenseStage.MAP_DOMAIN_TO_RESPONSE, () -> apiMapper.toResponse(createdExpense));
 
     CreateExpenseResponse response = new CreateExpenseResponse();
     response.setData(expenseResponse);
@@ -41,16 +114,328 @@ public class ExpensesApiDelegateImpl implements ExpensesApiDelegate {
     return response;
   }
 
+  private Expense createExpense(Expense expense, String idempotencyKey) {
+    return idempotencyKey == null
+        ? expenseService.createExpense(expense)
+        : expenseService.createExpense(expense, idempotencyKey);
+  }
+
+  private Expense enqueueExpense(Expense expense, String idempotencyKey) {
+    Expense prepared =
+        idempotencyKey == null
+            ? acceptExpense(expense)
+            : acceptExpenseOnce(expense, idempotencyKey);
+    request.setAttribute(
+        AcceptedResponseAdvice.ACCEPTED_ATTRIBUTE, true, NativeWebRequest.SCOPE_REQUEST);
+    request
+        .getNativeResponse(HttpServletResponse.class)
+        .setHeader(
+            HttpHeaders.LOCATION,
+            ExpensesApi.PATH_GET_EXPENSE_INGESTION.replace("{id}", prepared.id().toString()));
+    return prepared;
+  }
+
+  private Expense acceptExpense(Expense expense) {
+    Expense prepared = expenseService.prepareExpense(expense);
+    ingestionQueue.accept(prepared);
+    return prepared;
+  }
+
+  /**
+   * Queues an expense unless its idempotency key was seen before, in which case the expense
+   * accepted with that key is returned instead. The key is recorded before queueing, so a retry
+   * racing the writer still finds it, and forgotten again if the queue rejects the expense or the
+   * writer fails to store it.
+   */
+  private Expense acceptExpenseOnce(Expense expense, String idempotencyKey) {
+    Optional<Expense> replay = idempotencyKeys.find(idempotencyKey, expense);
+    if (replay.isPresent()) {
+      return replay.get();
+    }
+    Expense prepared = expenseService.prepareExpense(expense);
+    try {
+      idempotencyKeys.record(idempotencyKey, expense, prepared);
+    } catch (DataIntegrityViolationException e) {
+      return idempotencyKeys.find(idempotencyKey, expense).orElseThrow(() -> e);
+    }
+    try {
+      ingestionQueue.accept(prepared, idempotencyKey);
+    } catch (IngestionQueueFullException e) {
+      idempotencyKeys.remove(idempotencyKey);
+      throw e;
+    }
+    return prepared;
+  }
+
+  @Override
+  public CreateExpensesBatchResponse createExpenses(
+      CreateExpensesBatchRequest createExpensesBatchRequest) {
+    return metrics.record(
+        ExpenseStage.CONTROLLER_CREATE_BATCH, () -> doCreateExpenses(createExpensesBatchRequest));
+  }
+
+  private CreateExpensesBatchResponse doCreateExpenses(
+      CreateExpensesBatchRequest createExpensesBatchRequest) {
+    log.debug("Received bulk create request");
+    List<Expense> domainExpenses =
+        metrics.record(
+            ExpenseStage.MAP_REQUEST_TO_DOMAIN,
+            () -> createExpensesBatchRequest.getData().stream().map(apiMapper::toDomain).toList());
+    List<ExpenseCreationResult> created = expenseService.createExpenses(domainExpenses);
+    List<BatchItemResult> results =
+        metrics.record(
+            ExpenseStage.MAP_DOMAIN_TO_RESPONSE,
+            () -> created.stream().map(this::toBatchItemResult).toList());
+
+    CreateExpensesBatchResponse response = new CreateExpensesBatchResponse();
+    response.setData(results);
+    return response;
+  }
+
+  @Override
+  public GetExpenseResponse getExpense(UUID id) {
+    return metrics.record(ExpenseStage.CONTROLLER_GET, () -> doGetExpense(id));
+  }
+
+  private GetExpenseResponse doGetExpense(UUID id) {
+    log.debug("Received get expense request for id: {}", id);
+    Expense expense = expenseService.getExpense(id);
+    setETag(expense);
+    GetExpenseResponse response = new GetExpenseResponse();
+    response.setData(
+        metrics.record(ExpenseStage.MAP_DOMAIN_TO_RESPONSE, () -> apiMapper.toResponse(expense)));
+    return response;
+  }
+
+  @Override
+  public UpdateExpenseResponse updateExpense(
+      UUID id, UpdateExpenseRequest updateExpenseRequest, String ifMatch) {
+    return metrics.record(
+        ExpenseStage.CONTROLLER_UPDATE,
+        () -> {
+          log.debug("Received update expense request for id: {}", id);
+          Expense requested =
+              metrics.record(
+                  ExpenseStage.MAP_REQUEST_TO_DOMAIN,
+                  () -> apiMapper.toDomain(updateExpenseRequest));
+          return doUpdateExpense(id, ifMatch, current -> requested);
+        });
+  }
+
+  @Override
+  public UpdateExpenseResponse patchExpense(
+      UUID id, PatchExpenseRequest patchExpenseRequest, String ifMatch) {
+    return metrics.record(
+        ExpenseStage.CONTROLLER_UPDATE,
+        () -> {
+          log.debug("Received patch expense request for id: {}", id);
+          return doUpdateExpense(
+              id,
+              ifMatch,
+              current ->
+                  metrics.record(
+                      ExpenseStage.MAP_REQUEST_TO_DOMAIN,
+                      () -> apiMapper.applyPatch(current, patchExpenseRequest)));
+        });
+  }
+
+  private UpdateExpenseResponse doUpdateExpense(
+      UUID id, String ifMatch, UnaryOperator<Expense> changes) {
+    Expense updated = expenseService.updateExpense(id, parseVersion(ifMatch), changes).current();
+    setETag(updated);
+    UpdateExpenseResponse response = new UpdateExpenseResponse();
+    response.setData(
+        metrics.record(ExpenseStage.MAP_DOMAIN_TO_RESPONSE, () -> apiMapper.toResponse(updated)));
+    return response;
+  }
+
+  @Override
+  public void deleteExpense(UUID id, String ifMatch) {
+    metrics.record(
+        ExpenseStage.CONTROLLER_DELETE,
+        () -> {
+          log.debug("Received delete expense request for id: {}", id);
+          expenseService.deleteExpense(id, parseVersion(ifMatch));
+        });
+  }
+
+  /** Sends the version of a single expense as its strong {@code ETag}. */
+  private void setETag(Expense expense) {
+    request
+        .getNativeResponse(HttpServletResponse.class)
+        .setHeader(HttpHeaders.ETAG, "\"" + expense.version() + "\"");
+  }
+
+  /**
+   * Reads the version an {@code If-Match} header refers to.
+   *
+   * @return the version, or {@code null} when the header is absent or {@code *}
+   * @throws InvalidExpenseVersionException if the header is not a quoted version number
+   */
+  static Long parseVersion(String ifMatch) {
+    if (ifMatch == null || ifMatch.isBlank() || ifMatch.strip().equals("*")) {
+      return null;
+    }
+    String tag = ifMatch.strip();
+    try {
+      if (tag.length() < 2 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+        throw new NumberFormatException("Not a strong entity tag");
+      }
+      return Long.parseLong(tag, 1, tag.length() - 1, 10);
+    } catch (NumberFormatException e) {
+      throw new InvalidExpenseVersionException(ifMatch, e);
+    }
+  }
+
+  @Override
+  public GetExpenseIngestionResponse getExpenseIngestion(UUID id) {
+    return metrics.record(ExpenseStage.CONTROLLER_GET_INGESTION, () -> doGetExpenseIngestion(id));
+  }
+
+  private GetExpenseIngestionResponse doGetExpenseIngestion(UUID id) {
+    log.debug("Received get expense ingestion request for id: {}", id);
+    ExpenseIngestion ingestion = ingestionQueue.status(id);
+    GetExpenseIngestionResponse response = new GetExpenseIngestionResponse();
+    response.setData(
+        metrics.record(ExpenseStage.MAP_DOMAIN_TO_RESPONSE, () -> apiMapper.toResponse(ingestion)));
+    return response;
+  }
+
   @Override
-  public ListExpensesResponse listExpenses() {
+  public ListExpensesResponse listExpenses(
+      Integer limit,
+      String cursor,
+      OffsetDateTime from,
+      OffsetDateTime to,
+      Category category,
+      String currency,
+      BigDecimal minAmount,
+      BigDecimal maxAmount,
+      String baseCurrency) {
+    return metrics.record(
+        ExpenseStage.CONTROLLER_LIST,
+        () ->
+            doListExpenses(
+                limit,
+                cursor,
+                apiMapper.toFilter(from, to, category, currency, minAmount, maxAmount),
+                baseCurrency));
+  }
+
+  private ListExpensesResponse doListExpenses(
+      Integer limit, String cursor, ExpenseFilter filter, String baseCurrency) {
     log.debug("Received list expenses request");
-    List<Expense> expenses = expenseService.listExpenses();
-    List<ExpenseResponse> expenseResponses = expenses.stream().map(apiMapper::toResponse).toList();
+    ExpenseCursor after = cursor == null ? null : ExpenseCursor.decode(cursor);
+    // Resolved before the page is read, so an unknown base currency fails without a query
+    ExchangeRates.Converter converter =
+        baseCurrency == null ? null : exchangeRates.converterTo(baseCurrency);
+    ExpensePage page = expenseService.listExpenses(filter, after, limit);
+    List<ExpenseResponse> expenseResponses =
+        metrics.record(
+            ExpenseStage.MAP_DOMAIN_TO_RESPONSE,
+            () ->
+                page.expenses().stream()
+                    .map(
+                        expense ->
+                            converter == null
+                                ? apiMapper.toResponse(expense)
+                                : toNormalizedResponse(expense, converter))
+                    .toList());
+    metrics.countListed(expenseResponses.size());
 
     ListExpensesResponse response = new ListExpensesResponse();
     response.setData(expenseResponses);
+    response.setNextCursor(page.next().map(ExpenseCursor::encode).orElse(null));
 
     log.info("Retrieved {} expenses", expenseResponses.size());
     return response;
   }
+
+  private ExpenseResponse toNormalizedResponse(Expense expense, ExchangeRates.Converter converter) {
+    LocalDate day = expense.dateTime().withOffsetSameInstant(ZoneOffset.UTC).toLocalDate();
+    return apiMapper
+        .toResponse(expense)
+        .normalizedAmount(converter.convert(expense.amount(), expense.currency(), day));
+  }
+
+  @Override
+  public SearchExpensesResponse searchExpenses(String q, Integer limit, String cursor) {
+    return metrics.record(ExpenseStage.CONTROLLER_SEARCH, () -> doSearchExpenses(q, limit, cursor));
+  }
+
+  private SearchExpensesResponse doSearchExpenses(String query, Integer limit, String cursor) {
+    log.debug("Received search expenses request");
+    ExpenseSearchCursor after = cursor == null ? null : ExpenseSearchCursor.decode(cursor);
+    ExpenseSearchPage page = expenseService.searchExpenses(query, after, limit);
+    List<ExpenseResponse> expenseResponses =
+        metrics.record(
+            ExpenseStage.MAP_DOMAIN_TO_RESPONSE,
+            () -> page.expenses().stream().map(apiMapper::toResponse).toList());
+
+    SearchExpensesResponse response = new SearchExpensesResponse();
+    response.setData(expenseResponses);
+    response.setNextCursor(page.next().map(ExpenseSearchCursor::encode).orElse(null));
+
+    log.info("Found {} expenses", expenseResponses.size());
+    return response;
+  }
+
+  @Override
+  public StreamingResponseBody exportExpenses() {
+    ExportFormat format = ExportFormat.negotiate(request.getHeader(HttpHeaders.ACCEPT));
+    log.debug("Received export expenses request as {}", format);
+
+    HttpServletResponse response = request.getNativeResponse(HttpServletResponse.class);
+    response.setContentType(format.mediaType().toString());
+    response.setHeader(
+        HttpHeaders.CONTENT_DISPOSITION,
+        ContentDisposition.attachment()
+            .filename("expenses." + format.fileExtension())
+            .build()
+            .toString());
+
+    return out -> {
+      ExpenseExportWriter writer = ExpenseExportWriter.create(format, out, objectMapper);
+      expenseService.exportExpenses(expense -> writer.write(apiMapper.toResponse(expense)));
+      writer.flush();
+      log.info("Exported expenses as {}", format);
+    };
+  }
+
+  @Override
+  public ExpenseSummaryResponse summarizeExpenses(
+      SummaryPeriod period, OffsetDateTime from, OffsetDateTime to, String baseCurrency) {
+    return metrics.record(
+        ExpenseStage.CONTROLLER_SUMMARIZE,
+        () -> doSummarizeExpenses(period, from, to, baseCurrency));
+  }
+
+  private ExpenseSummaryResponse doSummarizeExpenses(
+      SummaryPeriod period, OffsetDateTime from, OffsetDateTime to, String baseCurrency) {
+    log.debug("Received summarize expenses request");
+    List<ExpenseSummary> summaries =
+        expenseService.summarizeExpenses(apiMapper.toDomain(period), from, to, baseCurrency);
+    List<ExpenseSummaryItem> items =
+        metrics.record(
+            ExpenseStage.MAP_DOMAIN_TO_RESPONSE,
+            () -> summaries.stream().map(apiMapper::toResponse).toList());
+
+    ExpenseSummaryResponse response = new ExpenseSummaryResponse();
+    response.setPeriod(period);
+    response.setData(items);
+
+    log.info("Summarized expenses into {} groups", items.size());
+    return response;
+  }
+
+  private BatchItemResult toBatchItemResult(ExpenseCreationResult result) {
+    return switch (result) {
+      case Created created ->
+          new BatchItemResult(created.index(), BatchItemStatus.CREATED)
+              .data(apiMapper.toResponse(created.expense()));
+      case Failed failed ->
+          new BatchItemResult(failed.index(), BatchItemStatus.FAILED)
+              .error(ApiErrors.error(ApiErrors.PERSISTENCE_ERROR, failed.reason()));
+    };
+  }
 }
@@ -0,0 +1,125 @@
+package io.github.alvarorg14.kashy.api.controller;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+/**
+ * Buffers small API responses so they are sent with a {@code Content-Length}.
+ *
+ * <p>Jackson streams bodies without a length, and the servlet container compresses every response
+ * of unknown length, so without this filter {@code server.compression.min-response-size} would
+ * never skip a small body. Only bodies below that size are held: once a response reaches it, the
+ * buffered bytes are written out and the rest streams through, chunked and compressed, so large
+ * pages never sit in memory twice. Exports are excluded and always stream.
+ */
+@Component
+public class ResponseContentLengthFilter extends OncePerRequestFilter {
+
+  private static final String API_PATH_PREFIX = "/api/";
+
+  private final int threshold;
+
+  public ResponseContentLengthFilter(
+      @Value("${server.compression.min-response-size:2KB}") DataSize threshold) {
+    this.threshold = (int) Math.min(threshold.toBytes(), Integer.MAX_VALUE);
+  }
+
+  @Override
+  protected boolean shouldNotFilter(HttpServletRequest request) {
+    String path = request.getRequestURI().substring(request.getContextPath().length());
+    return !path.startsWith(API_PATH_PREFIX) || path.equals(ExpensesApi.PATH_EXPORT_EXPENSES);
+  }
+
+  @Override
+  protected void doFilterInternal(
+      HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+      throws ServletException, IOException {
+    ThresholdResponseWrapper buffered = new ThresholdResponseWrapper(response, threshold);
+    try {
+      filterChain.doFilter(request, buffered);
+    } finally {
+      buffered.copyBodyToResponse();
+    }
+  }
+
+  /**
+   * Caches the body written through the output stream until it reaches the threshold, then writes
+   * the cached bytes out and passes the rest straight to the response.
+   */
+  private static final class ThresholdResponseWrapper extends ContentCachingResponseWrapper {
+
+    private final int threshold;
+    private ServletOutputStream outputStream;
+    private boolean streaming;
+
+    ThresholdResponseWrapper(HttpServletResponse response, int threshold) {
+      super(response);
+      this.threshold = threshold;
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+      if (outputStream == null) {
+        ServletOutputStream cached = super.getOutputStream();
+        outputStream =
+            new ServletOutputStream() {
+              @Override
+              public void write(int b) throws IOException {
+                if (streaming) {
+                  getResponse().getOutputStream().write(b);
+                } else {
+                  cached.write(b);
+                  spillIfFull();
+                }
+              }
+
+              @Override
+              public void write(byte[] b, int off, int len) throws IOException {
+                if (streaming) {
+                  getResponse().getOutputStream().write(b, off, len);
+                } else {
+                  cached.write(b, off, len);
+                  spillIfFull();
+                }
+              }
+
+              @Override
+              public void flush() throws IOException {
+                if (streaming) {
+                  getResponse().getOutputStream().flush();
+                }
+              }
+
+              @Override
+              public boolean isReady() {
+                return cached.isReady();
+              }
+
+              @Override
+              public void setWriteListener(WriteListener listener) {
+                cached.setWriteListener(listener);
+              }
+            };
+      }
+      return outputStream;
+    }
+
+    private void spillIfFull() throws IOException {
+      if (getContentSize() >= threshold) {
+        // Writes the cached bytes without a Content-Length, leaving the length to the container
+        copyBodyToResponse(false);
+        streaming = true;
+      }
+    }
+  }
+}
@@ -0,0 +1,121 @@
+package io.github.alvarorg14.kashy.api.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+/**
+ * Read-only DataSource spreading connections over replica pools, falling back to the primary.
+ *
+ * <p>Healthy replicas are used round-robin. A replica that fails to hand out a connection is marked
+ * down at once and skipped until {@link #checkHealth()} finds it answering again; while no replica
+ * is up, connections come from the primary so reads keep working.
+ */
+@Slf4j
+public class ReplicaDataSource extends AbstractDataSource implements Closeable {
+
+  private static final int VALIDATION_TIMEOUT_SECONDS = 1;
+
+  private final List<Replica> replicas;
+  private final DataSource primary;
+  private final AtomicInteger next = new AtomicInteger();
+
+  /**
+   * Creates a DataSource over the given replica pools.
+   *
+   * @param replicas replica pools, all considered healthy until they fail
+   * @param primary DataSource used while no replica is healthy
+   */
+  public ReplicaDataSource(List<HikariDataSource> replicas, DataSource primary) {
+    this.replicas = replicas.stream().map(Replica::new).toList();
+    this.primary = primary;
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    int size = replicas.size();
+    int start = size == 0 ? 0 : Math.floorMod(next.getAndIncrement(), size);
+    for (int i = 0; i < size; i++) {
+      Replica replica = replicas.get((start + i) % size);
+      if (replica.healthy) {
+        try {
+          return replica.pool.getConnection();
+        } catch (SQLException e) {
+          replica.markDown(e);
+        }
+      }
+    }
+    return primary.getConnection();
+  }
+
+  @Override
+  public Connection getConnection(String username, String password) throws SQLException {
+    throw new SQLFeatureNotSupportedException("Replica credentials are configured per pool");
+  }
+
+  /**
+   * Validates a connection of every replica, bringing recovered replicas back into rotation and
+   * taking failing ones out of it.
+   */
+  public void checkHealth() {
+    for (Replica replica : replicas) {
+      try (Connection connection = replica.pool.getConnection()) {
+        if (connection.isValid(VALIDATION_TIMEOUT_SECONDS)) {
+          replica.markUp();
+        } else {
+          replica.markDown(null);
+        }
+      } catch (SQLException e) {
+        replica.markDown(e);
+      }
+    }
+  }
+
+  /**
+   * Tells whether any replica is currently in rotation.
+   *
+   * @return {@code false} when reads are served by the primary
+   */
+  public boolean hasHealthyReplica() {
+    return replicas.stream().anyMatch(replica -> replica.healthy);
+  }
+
+  @Override
+  public void close() {
+    replicas.forEach(replica -> replica.pool.close());
+  }
+
+  private static final class Replica {
+
+    private final HikariDataSource pool;
+    private volatile boolean healthy = true;
+
+    private Replica(HikariDataSource pool) {
+      this.pool = pool;
+    }
+
+    private void markUp() {
+      if (!healthy) {
+        healthy = true;
+        log.info("Replica {} is healthy again", pool.getPoolName());
+      }
+    }
+
+    private void markDown(SQLException cause) {
+      if (healthy) {
+        healthy = false;
+        log.warn(
+            "Replica {} marked down, reading from other replicas or the primary",
+            pool.getPoolName(),
+            cause);
+      }
+    }
+  }
+}
@@ -0,0 +1,9 @@
+package io.github.alvarorg14.kashy.api.exception;
+
+/** Thrown when amounts must be converted from or to a currency that has no exchange rates. */
+public class ExchangeRateUnavailableException extends RuntimeException {
+
+  public ExchangeRateUnavailableException(String currency) {
+    super("No exchange rates are available for currency: " + currency);
+  }
+}
@@ -0,0 +1,11 @@
+package io.github.alvarorg14.kashy.api.exception;
+
+import java.util.UUID;
+
+/** Thrown when an expense is requested by an id that does not exist. */
+public class ExpenseNotFoundException extends RuntimeException {
+
+  public ExpenseNotFoundException(UUID id) {
+    super("Expense not found: " + id);
+  }
+}
@@ -0,0 +1,13 @@
+package io.github.alvarorg14.kashy.api.exception;
+
+import java.util.UUID;
+
+/** Thrown when an expense is changed on the basis of a version it no longer has. */
+public class ExpenseVersionConflictException extends RuntimeException {
+
+  public ExpenseVersionConflictException(UUID id, long actual, long expected) {
+    super(
+        "Expense %s is at version %d, not %d; read it again and retry"
+            .formatted(id, actual, expected));
+  }
+}
@@ -0,0 +1,9 @@
+package io.github.alvarorg14.kashy.api.exception;
+
+/** Thrown when an {@code Idempotency-Key} is sent again with a different request. */
+public class IdempotencyKeyReusedException extends RuntimeException {
+
+  public IdempotencyKeyReusedException(String key) {
+    super("Idempotency key was already used with a different request: " + key);
+  }
+}
@@ -0,0 +1,17 @@
+package io.github.alvarorg14.kashy.api.exception;
+
+import java.time.Duration;
+import lombok.Getter;
+
+/** Thrown when an expense cannot be accepted because the ingestion queue is full or closed. */
+@Getter
+public class IngestionQueueFullException extends RuntimeException {
+
+  /** How long clients should wait before submitting again. */
+  private final Duration retryAfter;
+
+  public IngestionQueueFullException(Duration retryAfter) {
+    super("Ingestion queue is full, retry later");
+    this.retryAfter = retryAfter;
+  }
+}
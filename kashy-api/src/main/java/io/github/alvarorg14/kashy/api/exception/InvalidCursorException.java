@@ -0,0 +1,13 @@
+package io.github.alvarorg14.kashy.api.exception;
+
+/** Thrown when a client supplies a pagination cursor that was not issued by the API. */
+public class InvalidCursorException extends RuntimeException {
+
+  public InvalidCursorException(String token) {
+    super("Malformed pagination cursor: " + token);
+  }
+
+  public InvalidCursorException(String token, Throwable cause) {
+    super("Malformed pagination cursor: " + token, cause);
+  }
+}
@@ -0,0 +1,9 @@
+package io.github.alvarorg14.kashy.api.exception;
+
+/** Thrown when a client supplies an {@code If-Match} value that is not an expense version. */
+public class InvalidExpenseVersionException extends RuntimeException {
+
+  public InvalidExpenseVersionException(String value, Throwable cause) {
+    super("Malformed expense version: " + value, cause);
+  }
+}
@@ -0,0 +1,109 @@
+package io.github.alvarorg14.kashy.api.export;
+
+import io.github.alvarorg14.kashy.api.model.api.ExpenseResponse;
+import io.github.alvarorg14.kashy.api.money.MinorUnits;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeFormatter;
+
+/** Writes expenses as RFC 4180 CSV, preceded by a header row. */
+final class CsvExpenseExportWriter implements ExpenseExportWriter {
+
+  static final String HEADER =
+      "id,description,dateTime,amount,currency,category,notes,createdAt,updatedAt";
+
+  private static final String RECORD_SEPARATOR = "\r\n";
+  private static final char DELIMITER = ',';
+  private static final char QUOTE = '"';
+
+  private final Writer writer;
+  private boolean headerWritten;
+
+  CsvExpenseExportWriter(OutputStream out) {
+    this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+  }
+
+  @Override
+  public void write(ExpenseResponse expense) {
+    try {
+      writeHeaderOnce();
+      writer.write(String.valueOf(expense.getId()));
+      writeField(expense.getDescription());
+      writeField(format(expense.getDateTime()));
+      writeAmount(expense.getAmount());
+      writeField(expense.getCurrency());
+      writeField(expense.getCategory() == null ? null : expense.getCategory().getValue());
+      writeField(expense.getNotes());
+      writeField(format(expense.getCreatedAt()));
+      writeField(format(expense.getUpdatedAt()));
+      writer.write(RECORD_SEPARATOR);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  @Override
+  public void flush() {
+    try {
+      writeHeaderOnce();
+      writer.flush();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  // Deferred to the first write or flush so that empty exports still get a header row
+  private void writeHeaderOnce() throws IOException {
+    if (!headerWritten) {
+      writer.write(HEADER);
+      writer.write(RECORD_SEPARATOR);
+      headerWritten = true;
+    }
+  }
+
+  // Stored amounts are written digit by digit from their minor units; any other scale, or an amount
+  // beyond the long range, falls back to toPlainString, which renders the same characters
+  private void writeAmount(BigDecimal amount) throws IOException {
+    if (amount == null || amount.scale() != MinorUnits.SCALE || amount.precision() > 18) {
+      writeField(amount == null ? null : amount.toPlainString());
+      return;
+    }
+    writer.write(DELIMITER);
+    MinorUnits.write(MinorUnits.of(amount), writer);
+  }
+
+  private void writeField(String value) throws IOException {
+    writer.write(DELIMITER);
+    if (value == null) {
+      return;
+    }
+    if (!needsQuoting(value)) {
+      writer.write(value);
+      return;
+    }
+    writer.write(QUOTE);
+    writer.write(value.replace("\"", "\"\""));
+    writer.write(QUOTE);
+  }
+
+  private static boolean needsQuoting(String value) {
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c == DELIMITER || c == QUOTE || c == '\n' || c == '\r') {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static String format(OffsetDateTime dateTime) {
+    return dateTime == null ? null : DateTimeFormatter.ISO_OFFSET_DATE_TIME.format(dateTime);
+  }
+}
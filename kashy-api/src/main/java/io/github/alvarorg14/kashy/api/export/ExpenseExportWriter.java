@@ -0,0 +1,42 @@
+package io.github.alvarorg14.kashy.api.export;
+
+import io.github.alvarorg14.kashy.api.model.api.ExpenseResponse;
+import java.io.OutputStream;
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * Writes exported expenses to an output stream one record at a time.
+ *
+ * <p>Implementations hold no more than a single record plus a fixed-size buffer, so memory use is
+ * independent of the number of rows written. They are not thread-safe. I/O failures are reported as
+ * {@link java.io.UncheckedIOException} so writers can be used directly as row callbacks.
+ */
+public sealed interface ExpenseExportWriter
+    permits NdjsonExpenseExportWriter, CsvExpenseExportWriter {
+
+  /**
+   * Writes a single expense record.
+   *
+   * @param expense the expense to write
+   */
+  void write(ExpenseResponse expense);
+
+  /** Flushes any buffered output to the underlying stream without closing it. */
+  void flush();
+
+  /**
+   * Creates a writer for the given format.
+   *
+   * @param format the negotiated export format
+   * @param out destination stream; not closed by the writer
+   * @param objectMapper mapper used for JSON based formats
+   * @return a writer emitting records in the given format
+   */
+  static ExpenseExportWriter create(
+      ExportFormat format, OutputStream out, ObjectMapper objectMapper) {
+    return switch (format) {
+      case NDJSON -> new NdjsonExpenseExportWriter(out, objectMapper);
+      case CSV -> new CsvExpenseExportWriter(out);
+    };
+  }
+}
@@ -0,0 +1,55 @@
+package io.github.alvarorg14.kashy.api.export;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Comparator;
+import java.util.List;
+import org.springframework.http.MediaType;
+
+/** Wire formats supported by the expense export. */
+public enum ExportFormat {
+  NDJSON(MediaType.APPLICATION_NDJSON, "ndjson"),
+  CSV(new MediaType("text", "csv", StandardCharsets.UTF_8), "csv");
+
+  private final MediaType mediaType;
+  private final String fileExtension;
+
+  ExportFormat(MediaType mediaType, String fileExtension) {
+    this.mediaType = mediaType;
+    this.fileExtension = fileExtension;
+  }
+
+  public MediaType mediaType() {
+    return mediaType;
+  }
+
+  public String fileExtension() {
+    return fileExtension;
+  }
+
+  /**
+   * Picks the export format preferred by an {@code Accept} header.
+   *
+   * <p>Media types are considered by descending quality value, keeping header order for ties. A
+   * missing header or a wildcard resolves to {@link #NDJSON}.
+   *
+   * @param acceptHeader raw {@code Accept} header value, may be {@code null}
+   * @return the negotiated format
+   */
+  public static ExportFormat negotiate(String acceptHeader) {
+    if (acceptHeader == null || acceptHeader.isBlank()) {
+      return NDJSON;
+    }
+    List<MediaType> accepted =
+        MediaType.parseMediaTypes(acceptHeader).stream()
+            .sorted(Comparator.comparingDouble(MediaType::getQualityValue).reversed())
+            .toList();
+    for (MediaType candidate : accepted) {
+      for (ExportFormat format : values()) {
+        if (candidate.includes(format.mediaType)) {
+          return format;
+        }
+      }
+    }
+    return NDJSON;
+  }
+}
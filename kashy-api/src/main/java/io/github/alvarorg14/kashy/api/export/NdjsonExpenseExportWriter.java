@@ -0,0 +1,40 @@
+package io.github.alvarorg14.kashy.api.export;
+
+import io.github.alvarorg14.kashy.api.model.api.ExpenseResponse;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import tools.jackson.databind.ObjectMapper;
+
+/** Writes expenses as newline-delimited JSON, one {@link ExpenseResponse} object per line. */
+final class NdjsonExpenseExportWriter implements ExpenseExportWriter {
+
+  private static final int LINE_SEPARATOR = '\n';
+
+  private final OutputStream out;
+  private final ObjectMapper objectMapper;
+
+  NdjsonExpenseExportWriter(OutputStream out, ObjectMapper objectMapper) {
+    this.out = out;
+    this.objectMapper = objectMapper;
+  }
+
+  @Override
+  public void write(ExpenseResponse expense) {
+    try {
+      out.write(objectMapper.writeValueAsBytes(expense));
+      out.write(LINE_SEPARATOR);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  @Override
+  public void flush() {
+    try {
+      out.flush();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
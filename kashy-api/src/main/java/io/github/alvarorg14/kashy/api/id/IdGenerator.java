@@ -0,0 +1,23 @@
+package io.github.alvarorg14.kashy.api.id;
+
+import java.util.UUID;
+
+/**
+ * Strategy for generating primary keys of new records.
+ *
+ * <p>Implementations must be thread-safe and must never return the same id twice, across every
+ * instance sharing the database: a reused id fails the write on the {@code expense_ids} primary
+ * key. Both built-in strategies carry at least 62 random bits per id, which makes a collision
+ * negligible. Declaring a bean of this type replaces the one selected by {@code
+ * kashy.ids.strategy}.
+ */
+@FunctionalInterface
+public interface IdGenerator {
+
+  /**
+   * Generates a new unique id.
+   *
+   * @return a new id, never {@code null}
+   */
+  UUID nextId();
+}
@@ -0,0 +1,12 @@
+package io.github.alvarorg14.kashy.api.id;
+
+import java.util.UUID;
+
+/** Generates random (version 4) UUIDs. Ids carry no ordering, so inserts land all over indexes. */
+public final class RandomUuidGenerator implements IdGenerator {
+
+  @Override
+  public UUID nextId() {
+    return UUID.randomUUID();
+  }
+}
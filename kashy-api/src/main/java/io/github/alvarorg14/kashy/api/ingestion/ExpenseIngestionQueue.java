@@ -0,0 +1,270 @@
+package io.github.alvarorg14.kashy.api.ingestion;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.alvarorg14.kashy.api.config.ExpenseIngestionProperties;
+import io.github.alvarorg14.kashy.api.exception.ExpenseNotFoundException;
+import io.github.alvarorg14.kashy.api.exception.IngestionQueueFullException;
+import io.github.alvarorg14.kashy.api.model.domain.Expense;
+import io.github.alvarorg14.kashy.api.model.domain.ExpenseCreationResult;
+import io.github.alvarorg14.kashy.api.model.domain.ExpenseCreationResult.Failed;
+import io.github.alvarorg14.kashy.api.model.domain.ExpenseIngestion;
+import io.github.alvarorg14.kashy.api.repository.ExpenseRepository;
+import io.github.alvarorg14.kashy.api.service.ExpenseIdempotencyKeys;
+import io.github.alvarorg14.kashy.api.service.ExpenseService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+
+/**
+ * Bounded write-behind queue for expense creation.
+ *
+ * <p>When {@code kashy.expenses.ingestion.enabled} is set, requests hand their prepared expense to
+ * {@link #accept(Expense)} and return right away; a single writer thread drains the queue and
+ * persists up to {@code batch-size} expenses at a time through {@link
+ * ExpenseService#persistExpenses(List)}, so peaks are absorbed by the queue instead of by the
+ * connection pool. A full queue rejects new expenses rather than blocking the request thread.
+ *
+ * <p>Queued expenses are tracked until written, and failures are remembered for a while, so {@link
+ * #status(UUID)} can report the progress of every accepted id. On shutdown the queue stops
+ * accepting once the web server has stopped taking requests, and the writer drains what is left.
+ *
+ * <p>An idempotency key is recorded when its expense is accepted, so retries arriving while it is
+ * queued replay it. Expenses that fail to be written, or are still queued when the shutdown times
+ * out, forget their key, so a retry with it creates the expense instead of replaying an id that was
+ * never stored.
+ */
+@Component
+@Slf4j
+public class ExpenseIngestionQueue implements SmartLifecycle {
+
+  private static final long POLL_INTERVAL_MILLIS = 100;
+
+  private final ExpenseService expenseService;
+  private final ExpenseRepository repository;
+  private final ExpenseIdempotencyKeys idempotencyKeys;
+  private final TransactionOperations transactions;
+  private final ExpenseIngestionProperties properties;
+  private final BlockingQueue<Expense> queue;
+  private final Map<UUID, Expense> pending = new ConcurrentHashMap<>();
+  private final Map<UUID, String> pendingKeys = new ConcurrentHashMap<>();
+  private final Cache<UUID, String> failures;
+  private final Counter rejected;
+  private volatile boolean running;
+  private Thread writer;
+
+  public ExpenseIngestionQueue(
+      ExpenseService expenseService,
+      ExpenseRepository repository,
+      ExpenseIdempotencyKeys idempotencyKeys,
+      TransactionOperations transactions,
+      ExpenseIngestionProperties properties,
+      MeterRegistry registry) {
+    this.expenseService = expenseService;
+    this.repository = repository;
+    this.idempotencyKeys = idempotencyKeys;
+    this.transactions = transactions;
+    this.properties = properties;
+    this.queue = new ArrayBlockingQueue<>(properties.capacity());
+    this.failures =
+        Caffeine.newBuilder()
+            .maximumSize(properties.maximumFailures())
+            .expireAfterWrite(properties.failureRetention())
+            .build();
+    Gauge.builder("kashy.expenses.ingestion.queue.size", queue, BlockingQueue::size)
+        .description("Expenses accepted but not yet written")
+        .baseUnit("expenses")
+        .register(registry);
+    this.rejected =
+        Counter.builder("kashy.expenses.ingestion.rejected")
+            .description("Expenses rejected because the ingestion queue was full")
+            .baseUnit("expenses")
+            .register(registry);
+  }
+
+  /**
+   * Returns whether expense creation goes through this queue.
+   *
+   * @return {@code true} in ingestion mode
+   */
+  public boolean enabled() {
+    return properties.enabled();
+  }
+
+  /**
+   * Queues a prepared expense for writing.
+   *
+   * @param expense the expense, with its id and timestamps already assigned
+   * @throws IngestionQueueFullException if the queue is full or no longer accepting expenses
+   */
+  public void accept(Expense expense) {
+    pending.put(expense.id(), expense);
+    if (!running || !queue.offer(expense)) {
+      pending.remove(expense.id());
+      rejected.increment();
+      throw new IngestionQueueFullException(properties.retryAfter());
+    }
+  }
+
+  /**
+   * Queues a prepared expense whose idempotency key is already recorded.
+   *
+   * <p>The key is forgotten if the expense ends up not being written. A rejected expense keeps it:
+   * the caller decides what to do with the key then.
+   *
+   * @param expense the expense, with its id and timestamps already assigned
+   * @param idempotencyKey the key recorded for the expense
+   * @throws IngestionQueueFullException if the queue is full or no longer accepting expenses
+   */
+  public void accept(Expense expense, String idempotencyKey) {
+    pendingKeys.put(expense.id(), idempotencyKey);
+    try {
+      accept(expense);
+    } catch (IngestionQueueFullException e) {
+      pendingKeys.remove(expense.id());
+      throw e;
+    }
+  }
+
+  /**
+   * Returns the ingestion status of an expense.
+   *
+   * <p>Expenses neither queued nor remembered as failed are looked up in the database, so stored
+   * expenses report {@link ExpenseIngestion.Status#PERSISTED} however they were created. The lookup
+   * bypasses the read cache and runs in a read-write transaction, on the primary: a replica that
+   * has not replayed the write yet would report a just-persisted expense as unknown.
+   *
+   * @param id the expense id
+   * @return the ingestion status
+   * @throws ExpenseNotFoundException if the id is unknown
+   */
+  public ExpenseIngestion status(UUID id) {
+    // Written expenses leave the pending map only after they committed, so no id falls in between
+    if (pending.containsKey(id)) {
+      return ExpenseIngestion.pending(id);
+    }
+    String reason = failures.getIfPresent(id);
+    if (reason != null) {
+      return ExpenseIngestion.failed(id, reason);
+    }
+    if (!Boolean.TRUE.equals(transactions.execute(status -> repository.existsById(id)))) {
+      throw new ExpenseNotFoundException(id);
+    }
+    return ExpenseIngestion.persisted(id);
+  }
+
+  @Override
+  public void start() {
+    running = true;
+    writer = Thread.ofPlatform().name("expense-ingestion-writer").start(this::drain);
+    log.info("Expense ingestion queue started with capacity {}", properties.capacity());
+  }
+
+  @Override
+  public void stop() {
+    running = false;
+    log.info("Draining {} queued expenses", queue.size());
+    try {
+      if (!writer.join(properties.shutdownTimeout())) {
+        writer.interrupt();
+        List<Expense> unwritten = new ArrayList<>();
+        queue.drainTo(unwritten);
+        log.error("Shutdown timed out, {} queued expenses were not written", unwritten.size());
+        unwritten.forEach(expense -> forgetKey(expense.id()));
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  @Override
+  public boolean isRunning() {
+    return running;
+  }
+
+  @Override
+  public boolean isAutoStartup() {
+    return properties.enabled();
+  }
+
+  /**
+   * Stops after the web server, whose lifecycle phases sit just below the default phase, so no
+   * request is still submitting expenses while the queue drains.
+   */
+  @Override
+  public int getPhase() {
+    return SmartLifecycle.DEFAULT_PHASE - 4096;
+  }
+
+  private void drain() {
+    while (running || !queue.isEmpty()) {
+      try {
+        Expense first = queue.poll(POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+        if (first == null) {
+          continue;
+        }
+        List<Expense> batch = new ArrayList<>(properties.batchSize());
+        batch.add(first);
+        queue.drainTo(batch, properties.batchSize() - 1);
+        write(batch);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+    }
+  }
+
+  private void write(List<Expense> batch) {
+    try {
+      List<ExpenseCreationResult> results = expenseService.persistExpenses(batch);
+      for (ExpenseCreationResult result : results) {
+        if (result instanceof Failed failed) {
+          UUID id = batch.get(failed.index()).id();
+          failures.put(id, failed.reason());
+          forgetKey(id);
+        }
+      }
+      log.debug("Wrote {} queued expenses", batch.size());
+    } catch (Throwable e) {
+      // Errors included: the writer is the only thread draining the queue, so it must outlive any
+      // batch, or accepted expenses would wait forever while accept keeps taking more
+      log.error("Writing {} queued expenses failed", batch.size(), e);
+      batch.forEach(
+          expense -> {
+            failures.put(expense.id(), "Expense could not be stored: " + e.getMessage());
+            forgetKey(expense.id());
+          });
+    } finally {
+      batch.forEach(
+          expense -> {
+            pending.remove(expense.id());
+            pendingKeys.remove(expense.id());
+          });
+    }
+  }
+
+  /** Forgets the idempotency key of an expense that will not be written, if it has one. */
+  private void forgetKey(UUID id) {
+    String key = pendingKeys.remove(id);
+    if (key == null) {
+      return;
+    }
+    try {
+      idempotencyKeys.remove(key);
+    } catch (RuntimeException e) {
+      log.error("Forgetting idempotency key of unwritten expense {} failed", id, e);
+    }
+  }
+}
@@ -0,0 +1,38 @@
+package io.github.alvarorg14.kashy.api.job;
+
+import io.github.alvarorg14.kashy.api.service.ExchangeRateImporter;
+import io.github.alvarorg14.kashy.api.service.ExchangeRates;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Imports the exchange rates and refreshes the in-memory rate cache.
+ *
+ * <p>Runs once on startup and then on {@code kashy.exchange-rates.import-cron}, daily by default,
+ * after the reference rates are usually published. The cache is reloaded even when the import fails
+ * or no source is configured, so rates written by another instance are picked up too.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ExchangeRateImportJob {
+
+  private final ExchangeRateImporter importer;
+  private final ExchangeRates exchangeRates;
+
+  /** Imports the configured rates and reloads the cache. */
+  @EventListener(ApplicationReadyEvent.class)
+  @Scheduled(cron = "${kashy.exchange-rates.import-cron:0 30 16 * * *}")
+  public void importRates() {
+    try {
+      importer.importRates();
+    } catch (RuntimeException e) {
+      log.error("Exchange rate import failed, keeping the stored rates", e);
+    }
+    exchangeRates.reload();
+  }
+}
@@ -0,0 +1,33 @@
+package io.github.alvarorg14.kashy.api.job;
+
+import io.github.alvarorg14.kashy.api.analytics.ExpenseAnalyticsStore;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically compares the analytics store with the expenses table and reloads it when they
+ * differ.
+ *
+ * <p>The store only sees the writes of its own instance, so this repairs the drift left by other
+ * instances, rollup rebuilds or changes made directly in the database. The schedule is configured
+ * with {@code kashy.expenses.analytics.verify-cron}, every fifteen minutes by default, and does
+ * nothing while the store is disabled.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ExpenseAnalyticsVerifyJob {
+
+  private final ExpenseAnalyticsStore store;
+
+  /** Reloads the analytics store if it no longer matches the stored expenses. */
+  @Scheduled(cron = "${kashy.expenses.analytics.verify-cron:0 */15 * * * *}")
+  public void verify() {
+    if (store.drifted()) {
+      log.warn("Analytics store differs from the stored expenses, reloading it");
+      store.load();
+    }
+  }
+}
@@ -0,0 +1,29 @@
+package io.github.alvarorg14.kashy.api.job;
+
+import io.github.alvarorg14.kashy.api.service.ExpenseMonthlyRollups;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically rebuilds the monthly expense rollups from the expenses table.
+ *
+ * <p>Rollups are maintained incrementally by every write, so the rebuild only repairs drift, for
+ * example after expenses were changed directly in the database. The schedule is configured with
+ * {@code kashy.expenses.rollups.rebuild-cron} and is disabled ({@code -}) by default.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ExpenseMonthlyRollupRebuildJob {
+
+  private final ExpenseMonthlyRollups rollups;
+
+  /** Rebuilds every monthly rollup. */
+  @Scheduled(cron = "${kashy.expenses.rollups.rebuild-cron:-}")
+  public void rebuild() {
+    log.info("Starting monthly expense rollup rebuild");
+    rollups.rebuild();
+  }
+}
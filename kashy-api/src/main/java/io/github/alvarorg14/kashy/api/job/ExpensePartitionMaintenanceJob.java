@@ -0,0 +1,33 @@
+package io.github.alvarorg14.kashy.api.job;
+
+import io.github.alvarorg14.kashy.api.service.ExpensePartitions;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Creates the monthly expense partitions ahead of time.
+ *
+ * <p>Runs once on startup and then on {@code kashy.expenses.partitions.maintenance-cron}, daily by
+ * default, so the partitions of the coming months always exist before their first expense.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ExpensePartitionMaintenanceJob {
+
+  private final ExpensePartitions partitions;
+
+  /** Creates the partitions missing for the current month and the months ahead. */
+  @EventListener(ApplicationReadyEvent.class)
+  @Scheduled(cron = "${kashy.expenses.partitions.maintenance-cron:0 0 3 * * *}")
+  public void createPartitions() {
+    int created = partitions.createPartitions(YearMonth.now(ZoneOffset.UTC));
+    log.debug("Expense partition maintenance created {} partitions", created);
+  }
+}
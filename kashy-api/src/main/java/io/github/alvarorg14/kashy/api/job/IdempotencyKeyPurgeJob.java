@@ -0,0 +1,25 @@
+package io.github.alvarorg14.kashy.api.job;
+
+import io.github.alvarorg14.kashy.api.service.ExpenseIdempotencyKeys;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Removes expired idempotency keys from the database.
+ *
+ * <p>Runs on {@code kashy.expenses.idempotency.purge-cron}, hourly by default. Expired keys are
+ * already ignored on lookup, so the job only keeps the table from growing.
+ */
+@Component
+@RequiredArgsConstructor
+public class IdempotencyKeyPurgeJob {
+
+  private final ExpenseIdempotencyKeys idempotencyKeys;
+
+  /** Deletes the keys older than the configured retention. */
+  @Scheduled(cron = "${kashy.expenses.idempotency.purge-cron:0 0 * * * *}")
+  public void purge() {
+    idempotencyKeys.purgeExpired();
+  }
+}
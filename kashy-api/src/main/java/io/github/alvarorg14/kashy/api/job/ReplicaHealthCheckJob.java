@@ -0,0 +1,26 @@
+package io.github.alvarorg14.kashy.api.job;
+
+import io.github.alvarorg14.kashy.api.datasource.ReplicaDataSource;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically validates the read replicas so that replicas marked down return to rotation once
+ * they recover. Runs every {@code kashy.datasource.read-replicas.health-check-interval} while
+ * replica routing is enabled.
+ */
+@Component
+@ConditionalOnProperty(prefix = "kashy.datasource.read-replicas", name = "enabled")
+@RequiredArgsConstructor
+public class ReplicaHealthCheckJob {
+
+  private final ReplicaDataSource replicaDataSource;
+
+  /** Checks every replica. */
+  @Scheduled(fixedDelayString = "${kashy.datasource.read-replicas.health-check-interval:5s}")
+  public void checkHealth() {
+    replicaDataSource.checkHealth();
+  }
+}
@@ -0,0 +1,114 @@
+package io.github.alvarorg14.kashy.api.json;
+
+import io.github.alvarorg14.kashy.api.model.api.ExpenseResponse;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.UUID;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.core.SerializableString;
+import tools.jackson.core.StreamWriteCapability;
+import tools.jackson.core.io.SerializedString;
+import tools.jackson.databind.SerializationContext;
+import tools.jackson.databind.ValueSerializer;
+
+/**
+ * Writes {@link ExpenseResponse} field by field, without the reflective bean serializer.
+ *
+ * <p>Listings and exports write one response per row, so this is the hottest serializer of the API.
+ * Property names are pre-encoded once and values are written straight to the generator, producing
+ * the same document as the bean serializer, in its property order, in JSON as well as in CBOR.
+ *
+ * <p>Property inclusion and date formats are fixed here rather than read from the mapper, so a new
+ * model property or a change to the application's Jackson settings must be mirrored. Its test
+ * checks every property of the generated model against the application's own mappers.
+ */
+public class ExpenseResponseSerializer extends ValueSerializer<ExpenseResponse> {
+
+  private static final SerializableString AMOUNT = new SerializedString("amount");
+  private static final SerializableString CATEGORY = new SerializedString("category");
+  private static final SerializableString CREATED_AT = new SerializedString("createdAt");
+  private static final SerializableString CURRENCY = new SerializedString("currency");
+  private static final SerializableString DATE_TIME = new SerializedString("dateTime");
+  private static final SerializableString DESCRIPTION = new SerializedString("description");
+  private static final SerializableString ID = new SerializedString("id");
+  private static final SerializableString NOTES = new SerializedString("notes");
+  private static final SerializableString NORMALIZED_AMOUNT =
+      new SerializedString("normalizedAmount");
+  private static final SerializableString UPDATED_AT = new SerializedString("updatedAt");
+  private static final SerializableString VERSION = new SerializedString("version");
+
+  @Override
+  public void serialize(ExpenseResponse value, JsonGenerator gen, SerializationContext ctxt) {
+    gen.writeStartObject(value);
+    writeUuid(gen, ID, value.getId());
+    writeString(gen, DESCRIPTION, value.getDescription());
+    writeDateTime(gen, DATE_TIME, value.getDateTime());
+    writeDecimal(gen, AMOUNT, value.getAmount());
+    writeString(gen, CURRENCY, value.getCurrency());
+    gen.writeName(CATEGORY);
+    if (value.getCategory() == null) {
+      gen.writeNull();
+    } else {
+      gen.writeString(value.getCategory().getValue());
+    }
+    writeDateTime(gen, CREATED_AT, value.getCreatedAt());
+    writeDateTime(gen, UPDATED_AT, value.getUpdatedAt());
+    gen.writeName(VERSION);
+    if (value.getVersion() == null) {
+      gen.writeNull();
+    } else {
+      gen.writeNumber(value.getVersion());
+    }
+    // Nullable properties come last in the bean serializer's order, sorted by name; the normalized
+    // amount is only present in listings normalized to a base currency
+    if (value.getNormalizedAmount() != null) {
+      writeDecimal(gen, NORMALIZED_AMOUNT, value.getNormalizedAmount());
+    }
+    writeString(gen, NOTES, value.getNotes());
+    gen.writeEndObject();
+  }
+
+  @Override
+  public Class<?> handledType() {
+    return ExpenseResponse.class;
+  }
+
+  private static void writeString(JsonGenerator gen, SerializableString name, String value) {
+    gen.writeName(name);
+    gen.writeString(value);
+  }
+
+  private static void writeDecimal(JsonGenerator gen, SerializableString name, BigDecimal value) {
+    gen.writeName(name);
+    gen.writeNumber(value);
+  }
+
+  private static void writeDateTime(
+      JsonGenerator gen, SerializableString name, OffsetDateTime value) {
+    gen.writeName(name);
+    if (value == null) {
+      gen.writeNull();
+    } else {
+      gen.writeString(DateTimeFormatter.ISO_OFFSET_DATE_TIME.format(value));
+    }
+  }
+
+  private static void writeUuid(JsonGenerator gen, SerializableString name, UUID value) {
+    gen.writeName(name);
+    if (value == null) {
+      gen.writeNull();
+    } else if (gen.has(StreamWriteCapability.CAN_WRITE_BINARY_NATIVELY)) {
+      // Binary formats such as CBOR carry the 16 raw bytes, as the standard UUID serializer does
+      byte[] bytes =
+          ByteBuffer.allocate(16)
+              .putLong(value.getMostSignificantBits())
+              .putLong(value.getLeastSignificantBits())
+              .array();
+      gen.writeBinary(bytes);
+    } else {
+      gen.writeString(value.toString());
+    }
+  }
+}
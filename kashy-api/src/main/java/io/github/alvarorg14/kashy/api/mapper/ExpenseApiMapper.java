@@ -2,9 +2,22 @@ package io.github.alvarorg14.kashy.api.mapper;
 
 import io.github.alvarorg14.kashy.api.model.api.CreateExpenseRequest;
 import io.github.alvarorg14.kashy.api.model.api.ExpenseResponse;
+import io.github.alvarorg14.kashy.api.model.api.ExpenseSummaryItem;
+import io.github.alvarorg14.kashy.api.model.api.PatchExpenseRequest;
+import io.github.alvarorg14.kashy.api.model.api.UpdateExpenseRequest;
+import io.github.alvarorg14.kashy.api.model.domain.Category;
 import io.github.alvarorg14.kashy.api.model.domain.Expense;
+import io.github.alvarorg14.kashy.api.model.domain.ExpenseFilter;
+import io.github.alvarorg14.kashy.api.model.domain.ExpenseIngestion;
+import io.github.alvarorg14.kashy.api.model.domain.ExpenseSummary;
+import io.github.alvarorg14.kashy.api.model.domain.SummaryPeriod;
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.Objects;
+import org.mapstruct.BeanMapping;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
+import org.mapstruct.NullValueMappingStrategy;
 
 /**
  * MapStruct mapper for converting between API DTOs and domain models.
@@ -18,8 +31,8 @@ public interface ExpenseApiMapper {
   /**
    * Maps a CreateExpenseRequest DTO to a domain Expense.
    *
-   * <p>Note: id, createdAt, and updatedAt are not present in the request and will be set by the
-   * service layer.
+   * <p>Note: id, createdAt, updatedAt and version are not present in the request and will be set by
+   * the service layer.
    *
    * @param request the create expense request DTO
    * @return domain Expense model (without id and timestamps)
@@ -27,13 +40,111 @@ public interface ExpenseApiMapper {
   @Mapping(target = "id", ignore = true)
   @Mapping(target = "createdAt", ignore = true)
   @Mapping(target = "updatedAt", ignore = true)
+  @Mapping(target = "version", ignore = true)
   Expense toDomain(CreateExpenseRequest request);
 
+  /**
+   * Maps an UpdateExpenseRequest DTO to the domain Expense it replaces the stored one with.
+   *
+   * <p>Note: id, createdAt, updatedAt and version are kept from the stored expense by the service
+   * layer.
+   *
+   * @param request the update expense request DTO
+   * @return domain Expense model (without id, timestamps and version)
+   */
+  @Mapping(target = "id", ignore = true)
+  @Mapping(target = "createdAt", ignore = true)
+  @Mapping(target = "updatedAt", ignore = true)
+  @Mapping(target = "version", ignore = true)
+  Expense toDomain(UpdateExpenseRequest request);
+
+  /**
+   * Applies the fields present in a PatchExpenseRequest DTO to a domain Expense.
+   *
+   * @param expense the stored expense
+   * @param patch the patch expense request DTO
+   * @return the expense with every non-null field of the patch replaced
+   */
+  default Expense applyPatch(Expense expense, PatchExpenseRequest patch) {
+    return expense.toBuilder()
+        .description(Objects.requireNonNullElse(patch.getDescription(), expense.description()))
+        .dateTime(Objects.requireNonNullElse(patch.getDateTime(), expense.dateTime()))
+        .amount(Objects.requireNonNullElse(patch.getAmount(), expense.amount()))
+        .currency(Objects.requireNonNullElse(patch.getCurrency(), expense.currency()))
+        .category(patch.getCategory() == null ? expense.category() : toDomain(patch.getCategory()))
+        .notes(patch.getNotes() == null ? expense.notes() : patch.getNotes())
+        .build();
+  }
+
+  /**
+   * Maps an API Category to the domain Category.
+   *
+   * @param category the API category
+   * @return domain Category
+   */
+  Category toDomain(io.github.alvarorg14.kashy.api.model.api.Category category);
+
   /**
    * Maps a domain Expense to an ExpenseResponse DTO.
    *
+   * <p>The normalized amount is left unset; it is only filled in for listings normalized to a base
+   * currency.
+   *
    * @param expense the domain expense model
    * @return ExpenseResponse DTO
    */
+  @Mapping(target = "normalizedAmount", ignore = true)
   ExpenseResponse toResponse(Expense expense);
+
+  /**
+   * Maps a domain ExpenseIngestion to its API representation.
+   *
+   * @param ingestion the domain ingestion status
+   * @return API ExpenseIngestion
+   */
+  io.github.alvarorg14.kashy.api.model.api.ExpenseIngestion toResponse(ExpenseIngestion ingestion);
+
+  /**
+   * Maps the filter query parameters of the list operation to a domain ExpenseFilter.
+   *
+   * @param from inclusive lower bound of the expense date-time
+   * @param to exclusive upper bound of the expense date-time
+   * @param category API category to match
+   * @param currency currency to match
+   * @param minAmount inclusive lower bound of the amount
+   * @param maxAmount inclusive upper bound of the amount
+   * @return domain ExpenseFilter; absent parameters do not restrict the listing
+   */
+  @BeanMapping(nullValueMappingStrategy = NullValueMappingStrategy.RETURN_DEFAULT)
+  ExpenseFilter toFilter(
+      OffsetDateTime from,
+      OffsetDateTime to,
+      io.github.alvarorg14.kashy.api.model.api.Category category,
+      String currency,
+      BigDecimal minAmount,
+      BigDecimal maxAmount);
+
+  /**
+   * Maps a domain ExpenseSummary to an ExpenseSummaryItem DTO.
+   *
+   * @param summary the domain expense summary
+   * @return ExpenseSummaryItem DTO
+   */
+  ExpenseSummaryItem toResponse(ExpenseSummary summary);
+
+  /**
+   * Maps an API SummaryPeriod to the domain SummaryPeriod.
+   *
+   * @param period the API summary period
+   * @return domain SummaryPeriod
+   */
+  SummaryPeriod toDomain(io.github.alvarorg14.kashy.api.model.api.SummaryPeriod period);
+
+  /**
+   * Maps a domain SummaryPeriod to the API SummaryPeriod.
+   *
+   * @param period the domain summary period
+   * @return API SummaryPeriod
+   */
+  io.github.alvarorg14.kashy.api.model.api.SummaryPeriod toResponse(SummaryPeriod period);
 }
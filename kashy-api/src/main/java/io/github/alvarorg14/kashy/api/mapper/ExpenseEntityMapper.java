@@ -1,23 +1,35 @@
 package io.github.alvarorg14.kashy.api.mapper;
 
 import io.github.alvarorg14.kashy.api.model.domain.Expense;
+import io.github.alvarorg14.kashy.api.model.domain.ExpenseSummary;
 import io.github.alvarorg14.kashy.api.model.entity.ExpenseEntity;
+import io.github.alvarorg14.kashy.api.model.projection.ExpenseSearchProjection;
+import io.github.alvarorg14.kashy.api.model.projection.ExpenseSummaryProjection;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 
 /**
  * MapStruct mapper for converting between domain models and JPA entities.
  *
- * <p>Maps between domain Expense models and ExpenseEntity JPA entities for persistence operations.
+ * <p>Maps between domain Expense models and ExpenseEntity JPA entities for persistence operations,
+ * and from read-only query projections to domain models.
  */
 @Mapper(componentModel = "spring")
 public interface ExpenseEntityMapper {
 
   /**
-   * Maps a domain Expense to an ExpenseEntity for persistence.
+   * Maps a domain Expense to a new ExpenseEntity for persistence.
+   *
+   * <p>The version is left unset, which marks the entity as new: Hibernate inserts it with version
+   * 0 instead of first looking for an existing row to merge into.
    *
    * @param expense the domain expense model
    * @return ExpenseEntity for database operations
    */
+  @Mapping(target = "version", ignore = true)
   ExpenseEntity toEntity(Expense expense);
 
   /**
@@ -27,4 +39,30 @@ public interface ExpenseEntityMapper {
    * @return domain Expense model
    */
   Expense toDomain(ExpenseEntity entity);
+
+  /**
+   * Maps a row of the expense summary query to a domain ExpenseSummary.
+   *
+   * @param projection the summary query row
+   * @return domain ExpenseSummary model
+   */
+  ExpenseSummary toDomain(ExpenseSummaryProjection projection);
+
+  /**
+   * Maps a row of the expense search query to a domain Expense, dropping its rank.
+   *
+   * @param projection the search query row
+   * @return domain Expense model
+   */
+  Expense toDomain(ExpenseSearchProjection projection);
+
+  /**
+   * Converts a timestamp read by a native query to the UTC date-time used by domain models.
+   *
+   * @param instant the timestamp, or {@code null}
+   * @return the date-time at UTC, or {@code null}
+   */
+  default OffsetDateTime toDateTime(Instant instant) {
+    return instant == null ? null : instant.atOffset(ZoneOffset.UTC);
+  }
 }
@@ -0,0 +1,69 @@
+package io.github.alvarorg14.kashy.api.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Supplier;
+import org.springframework.stereotype.Component;
+
+/**
+ * Micrometer instrumentation of the expense hot path.
+ *
+ * <p>All meters are registered up front, so recording a stage costs a map lookup and two clock
+ * reads. Percentiles and histogram buckets are configured per meter prefix under {@code
+ * management.metrics.distribution} rather than hard-coded here.
+ */
+@Component
+public class ExpenseMetrics {
+
+  private final Map<ExpenseStage, Timer> timers = new EnumMap<>(ExpenseStage.class);
+  private final Counter listedRows;
+
+  public ExpenseMetrics(MeterRegistry registry) {
+    for (ExpenseStage stage : ExpenseStage.values()) {
+      timers.put(
+          stage,
+          Timer.builder(stage.meterName())
+              .description("Time spent in a stage of the expense request path")
+              .tag("stage", stage.tag())
+              .register(registry));
+    }
+    this.listedRows =
+        Counter.builder("kashy.expenses.listed.rows")
+            .description("Expenses returned by listing requests")
+            .baseUnit("rows")
+            .register(registry);
+  }
+
+  /**
+   * Runs the given work and records its duration under the stage.
+   *
+   * @param stage the stage being timed
+   * @param work the work making up the stage
+   * @return the result of the work
+   */
+  public <T> T record(ExpenseStage stage, Supplier<T> work) {
+    return timers.get(stage).record(work);
+  }
+
+  /**
+   * Runs the given work and records its duration under the stage.
+   *
+   * @param stage the stage being timed
+   * @param work the work making up the stage
+   */
+  public void record(ExpenseStage stage, Runnable work) {
+    timers.get(stage).record(work);
+  }
+
+  /**
+   * Counts the rows returned by a listing request.
+   *
+   * @param rows number of expenses in the returned page
+   */
+  public void countListed(int rows) {
+    listedRows.increment(rows);
+  }
+}
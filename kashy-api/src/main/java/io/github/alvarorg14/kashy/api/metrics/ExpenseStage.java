@@ -0,0 +1,79 @@
+package io.github.alvarorg14.kashy.api.metrics;
+
+/**
+ * Timed stages of the expense request path.
+ *
+ * <p>Each stage is published as a Micrometer timer named after its layer and tagged with the stage
+ * name, so the latency of a request can be broken down into controller, service, mapping and
+ * persistence time. JSON serialization happens after the controller returns and is the remainder of
+ * {@code http.server.requests}.
+ */
+public enum ExpenseStage {
+  CONTROLLER_CREATE(Layer.CONTROLLER, "create"),
+  CONTROLLER_CREATE_BATCH(Layer.CONTROLLER, "create-batch"),
+  CONTROLLER_GET(Layer.CONTROLLER, "get"),
+  CONTROLLER_GET_INGESTION(Layer.CONTROLLER, "get-ingestion"),
+  CONTROLLER_UPDATE(Layer.CONTROLLER, "update"),
+  CONTROLLER_DELETE(Layer.CONTROLLER, "delete"),
+  CONTROLLER_LIST(Layer.CONTROLLER, "list"),
+  CONTROLLER_SEARCH(Layer.CONTROLLER, "search"),
+  CONTROLLER_SUMMARIZE(Layer.CONTROLLER, "summarize"),
+
+  SERVICE_CREATE(Layer.SERVICE, "create"),
+  SERVICE_CREATE_BATCH(Layer.SERVICE, "create-batch"),
+  SERVICE_PERSIST_BATCH(Layer.SERVICE, "persist-batch"),
+  SERVICE_GET(Layer.SERVICE, "get"),
+  SERVICE_UPDATE(Layer.SERVICE, "update"),
+  SERVICE_DELETE(Layer.SERVICE, "delete"),
+  SERVICE_LIST(Layer.SERVICE, "list"),
+  SERVICE_SEARCH(Layer.SERVICE, "search"),
+  SERVICE_SUMMARIZE(Layer.SERVICE, "summarize"),
+  SERVICE_VERSION(Layer.SERVICE, "version"),
+
+  MAP_REQUEST_TO_DOMAIN(Layer.MAPPING, "request-to-domain"),
+  MAP_DOMAIN_TO_RESPONSE(Layer.MAPPING, "domain-to-response"),
+  MAP_DOMAIN_TO_ENTITY(Layer.MAPPING, "domain-to-entity"),
+  MAP_ENTITY_TO_DOMAIN(Layer.MAPPING, "entity-to-domain"),
+
+  PERSIST_SAVE(Layer.PERSISTENCE, "save"),
+  PERSIST_INSERT_BATCH(Layer.PERSISTENCE, "insert-batch"),
+  PERSIST_ROLLUP_UPDATE(Layer.PERSISTENCE, "rollup-update"),
+  PERSIST_FIND_BY_ID(Layer.PERSISTENCE, "find-by-id"),
+  PERSIST_UPDATE(Layer.PERSISTENCE, "update"),
+  PERSIST_DELETE(Layer.PERSISTENCE, "delete"),
+  PERSIST_FIND_PAGE(Layer.PERSISTENCE, "find-page"),
+  PERSIST_SEARCH(Layer.PERSISTENCE, "search"),
+  PERSIST_SUMMARIZE(Layer.PERSISTENCE, "summarize"),
+  PERSIST_ANALYTICS_SUMMARIZE(Layer.PERSISTENCE, "analytics-summarize");
+
+  private final Layer layer;
+  private final String tag;
+
+  ExpenseStage(Layer layer, String tag) {
+    this.layer = layer;
+    this.tag = tag;
+  }
+
+  /** Name of the timer the stage is recorded in. */
+  public String meterName() {
+    return layer.meterName;
+  }
+
+  /** Value of the {@code stage} tag identifying the stage within its timer. */
+  public String tag() {
+    return tag;
+  }
+
+  private enum Layer {
+    CONTROLLER("kashy.expenses.controller"),
+    SERVICE("kashy.expenses.service"),
+    MAPPING("kashy.expenses.mapping"),
+    PERSISTENCE("kashy.expenses.persistence");
+
+    private final String meterName;
+
+    Layer(String meterName) {
+      this.meterName = meterName;
+    }
+  }
+}
@@ -0,0 +1,13 @@
+package io.github.alvarorg14.kashy.api.model.domain;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Exchange rate of a currency on a day.
+ *
+ * @param currency ISO 4217 currency code
+ * @param date day the rate was published for
+ * @param rate units of the currency per unit of the reference currency
+ */
+public record ExchangeRate(String currency, LocalDate date, BigDecimal rate) {}
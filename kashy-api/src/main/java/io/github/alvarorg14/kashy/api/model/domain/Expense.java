@@ -20,8 +20,9 @@ import lombok.Builder;
  * @param notes Optional extended description or notes
  * @param createdAt Timestamp when the expense was created
  * @param updatedAt Timestamp when the expense was last updated
+ * @param version Optimistic locking version, 0 when created and incremented by every update
  */
-@Builder
+@Builder(toBuilder = true)
 public record Expense(
     UUID id,
     String description,
@@ -31,4 +32,5 @@ public record Expense(
     Category category,
     String notes,
     OffsetDateTime createdAt,
-    OffsetDateTime updatedAt) {}
+    OffsetDateTime updatedAt,
+    Long version) {}
@@ -0,0 +1,33 @@
+package io.github.alvarorg14.kashy.api.model.domain;
+
+/**
+ * Outcome of creating a single expense as part of a batch.
+ *
+ * <p>Each result carries the zero-based position of the expense in the submitted batch, so callers
+ * can correlate outcomes with their input.
+ */
+public sealed interface ExpenseCreationResult {
+
+  /**
+   * Returns the zero-based position of the expense in the submitted batch.
+   *
+   * @return the batch index
+   */
+  int index();
+
+  /**
+   * The expense was persisted.
+   *
+   * @param index position of the expense in the batch
+   * @param expense the created expense with generated id and timestamps
+   */
+  record Created(int index, Expense expense) implements ExpenseCreationResult {}
+
+  /**
+   * The expense could not be persisted; nothing was stored for it.
+   *
+   * @param index position of the expense in the batch
+   * @param reason human-readable cause of the failure
+   */
+  record Failed(int index, String reason) implements ExpenseCreationResult {}
+}
@@ -0,0 +1,75 @@
+package io.github.alvarorg14.kashy.api.model.domain;
+
+import io.github.alvarorg14.kashy.api.exception.InvalidCursorException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Keyset position within the expense listing.
+ *
+ * <p>Points at the last expense of a page using the {@code (dateTime, id)} sort key, so the next
+ * page can be fetched with a range predicate instead of an offset. The token form is opaque to
+ * clients and must only be produced by {@link #encode()}.
+ *
+ * @param dateTime date-time of the last expense returned
+ * @param id id of the last expense returned, used to break date-time ties
+ */
+public record ExpenseCursor(OffsetDateTime dateTime, UUID id) {
+
+  private static final String SEPARATOR = "|";
+  private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+  private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+  public ExpenseCursor {
+    Objects.requireNonNull(dateTime, "dateTime must not be null");
+    Objects.requireNonNull(id, "id must not be null");
+  }
+
+  /**
+   * Creates the cursor pointing right after the given expense.
+   *
+   * @param expense the last expense of a page
+   * @return cursor for the page that follows
+   */
+  public static ExpenseCursor after(Expense expense) {
+    return new ExpenseCursor(expense.dateTime(), expense.id());
+  }
+
+  /**
+   * Decodes a token previously produced by {@link #encode()}.
+   *
+   * @param token opaque cursor token
+   * @return the decoded cursor
+   * @throws InvalidCursorException if the token is malformed
+   */
+  public static ExpenseCursor decode(String token) {
+    try {
+      String raw = new String(DECODER.decode(token), StandardCharsets.UTF_8);
+      int separator = raw.indexOf(SEPARATOR);
+      if (separator < 0) {
+        throw new InvalidCursorException(token);
+      }
+      Instant instant = Instant.parse(raw.substring(0, separator));
+      UUID id = UUID.fromString(raw.substring(separator + 1));
+      return new ExpenseCursor(instant.atOffset(ZoneOffset.UTC), id);
+    } catch (IllegalArgumentException | DateTimeParseException e) {
+      throw new InvalidCursorException(token, e);
+    }
+  }
+
+  /**
+   * Encodes this cursor as a URL-safe opaque token.
+   *
+   * @return the token to hand out to clients
+   */
+  public String encode() {
+    String raw = dateTime.toInstant() + SEPARATOR + id;
+    return ENCODER.encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+}
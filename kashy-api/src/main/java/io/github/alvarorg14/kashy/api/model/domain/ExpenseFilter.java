@@ -0,0 +1,50 @@
+package io.github.alvarorg14.kashy.api.model.domain;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import lombok.Builder;
+
+/**
+ * Criteria restricting which expenses are listed.
+ *
+ * <p>Every criterion is optional; {@code null} means the criterion does not restrict the result.
+ * Bounds on the date-time are half-open ({@code from} inclusive, {@code to} exclusive) while bounds
+ * on the amount are inclusive.
+ *
+ * @param from only expenses occurring at or after this date-time
+ * @param to only expenses occurring before this date-time
+ * @param category only expenses of this category
+ * @param currency only expenses in this ISO 4217 currency
+ * @param minAmount only expenses with at least this amount
+ * @param maxAmount only expenses with at most this amount
+ */
+@Builder
+public record ExpenseFilter(
+    OffsetDateTime from,
+    OffsetDateTime to,
+    Category category,
+    String currency,
+    BigDecimal minAmount,
+    BigDecimal maxAmount) {
+
+  /** Filter that matches every expense. */
+  public static final ExpenseFilter NONE = ExpenseFilter.builder().build();
+
+  /**
+   * Tells whether the given expense satisfies every criterion of this filter.
+   *
+   * <p>Applies the same semantics as the listing query, so it can decide in memory whether a
+   * listing would include the expense.
+   *
+   * @param expense the expense to test
+   * @return {@code true} if the expense would be listed under this filter
+   */
+  public boolean matches(Expense expense) {
+    return (from == null || !expense.dateTime().isBefore(from))
+        && (to == null || expense.dateTime().isBefore(to))
+        && (category == null || category == expense.category())
+        && (currency == null || currency.equals(expense.currency()))
+        && (minAmount == null || expense.amount().compareTo(minAmount) >= 0)
+        && (maxAmount == null || expense.amount().compareTo(maxAmount) <= 0);
+  }
+}
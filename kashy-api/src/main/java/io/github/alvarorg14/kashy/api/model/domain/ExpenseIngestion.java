@@ -0,0 +1,35 @@
+package io.github.alvarorg14.kashy.api.model.domain;
+
+import java.util.UUID;
+
+/**
+ * Progress of an expense accepted for asynchronous ingestion.
+ *
+ * @param id identifier assigned to the expense when it was accepted
+ * @param status how far the expense has got
+ * @param reason human-readable cause of the failure, present only when {@link Status#FAILED}
+ */
+public record ExpenseIngestion(UUID id, Status status, String reason) {
+
+  /** Stage of an accepted expense. */
+  public enum Status {
+    /** Queued, not yet written. */
+    PENDING,
+    /** Stored in the expenses table. */
+    PERSISTED,
+    /** Could not be stored; nothing was written for it. */
+    FAILED
+  }
+
+  public static ExpenseIngestion pending(UUID id) {
+    return new ExpenseIngestion(id, Status.PENDING, null);
+  }
+
+  public static ExpenseIngestion persisted(UUID id) {
+    return new ExpenseIngestion(id, Status.PERSISTED, null);
+  }
+
+  public static ExpenseIngestion failed(UUID id, String reason) {
+    return new ExpenseIngestion(id, Status.FAILED, reason);
+  }
+}
@@ -0,0 +1,26 @@
+package io.github.alvarorg14.kashy.api.model.domain;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * A single page of the expense listing.
+ *
+ * @param expenses expenses of this page, newest first
+ * @param nextCursor cursor of the following page, or {@code null} when this is the last page
+ */
+public record ExpensePage(List<Expense> expenses, ExpenseCursor nextCursor) {
+
+  public ExpensePage {
+    expenses = List.copyOf(expenses);
+  }
+
+  /**
+   * Returns the cursor of the following page, if any.
+   *
+   * @return the next cursor, or empty when this is the last page
+   */
+  public Optional<ExpenseCursor> next() {
+    return Optional.ofNullable(nextCursor);
+  }
+}
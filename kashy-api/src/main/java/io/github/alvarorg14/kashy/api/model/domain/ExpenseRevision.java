@@ -0,0 +1,18 @@
+package io.github.alvarorg14.kashy.api.model.domain;
+
+/**
+ * An expense before and after an update.
+ *
+ * <p>Both are needed by whatever mirrors expenses elsewhere: rollups, caches and the analytics
+ * store take the previous values out and put the current ones in.
+ *
+ * @param previous the expense as it was read
+ * @param current the expense as it was written, the same as {@code previous} if nothing changed
+ */
+public record ExpenseRevision(Expense previous, Expense current) {
+
+  /** Tells whether the update changed the expense at all. */
+  public boolean changed() {
+    return !previous.version().equals(current.version());
+  }
+}
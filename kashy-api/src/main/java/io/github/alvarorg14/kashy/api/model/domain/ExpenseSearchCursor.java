@@ -0,0 +1,73 @@
+package io.github.alvarorg14.kashy.api.model.domain;
+
+import io.github.alvarorg14.kashy.api.exception.InvalidCursorException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Keyset position within the results of an expense search.
+ *
+ * <p>Points at the last expense of a page using the {@code (rank, dateTime, id)} sort key of the
+ * search, so the next page continues right after it even when equally ranked expenses span pages.
+ * The token form is opaque to clients and must only be produced by {@link #encode()}.
+ *
+ * @param rank relevance of the last expense returned
+ * @param dateTime date-time of the last expense returned, used to break rank ties
+ * @param id id of the last expense returned, used to break date-time ties
+ */
+public record ExpenseSearchCursor(float rank, OffsetDateTime dateTime, UUID id) {
+
+  private static final String SEPARATOR = "|";
+  private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+  private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+  public ExpenseSearchCursor {
+    Objects.requireNonNull(dateTime, "dateTime must not be null");
+    Objects.requireNonNull(id, "id must not be null");
+  }
+
+  /**
+   * Decodes a token previously produced by {@link #encode()}.
+   *
+   * @param token opaque cursor token
+   * @return the decoded cursor
+   * @throws InvalidCursorException if the token is malformed
+   */
+  public static ExpenseSearchCursor decode(String token) {
+    try {
+      String raw = new String(DECODER.decode(token), StandardCharsets.UTF_8);
+      String[] parts = raw.split("\\" + SEPARATOR, -1);
+      if (parts.length != 3) {
+        throw new InvalidCursorException(token);
+      }
+      float rank = Float.parseFloat(parts[0]);
+      if (!Float.isFinite(rank)) {
+        throw new InvalidCursorException(token);
+      }
+      Instant instant = Instant.parse(parts[1]);
+      UUID id = UUID.fromString(parts[2]);
+      return new ExpenseSearchCursor(rank, instant.atOffset(ZoneOffset.UTC), id);
+    } catch (IllegalArgumentException | DateTimeParseException e) {
+      throw new InvalidCursorException(token, e);
+    }
+  }
+
+  /**
+   * Encodes this cursor as a URL-safe opaque token.
+   *
+   * <p>The rank is written in its shortest exact form, so the decoded value compares equal to the
+   * one computed by the database.
+   *
+   * @return the token to hand out to clients
+   */
+  public String encode() {
+    String raw = rank + SEPARATOR + dateTime.toInstant() + SEPARATOR + id;
+    return ENCODER.encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+}
@@ -0,0 +1,26 @@
+package io.github.alvarorg14.kashy.api.model.domain;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * A single page of expense search results.
+ *
+ * @param expenses matching expenses of this page, most relevant first
+ * @param nextCursor cursor of the following page, or {@code null} when this is the last page
+ */
+public record ExpenseSearchPage(List<Expense> expenses, ExpenseSearchCursor nextCursor) {
+
+  public ExpenseSearchPage {
+    expenses = List.copyOf(expenses);
+  }
+
+  /**
+   * Returns the cursor of the following page, if any.
+   *
+   * @return the next cursor, or empty when this is the last page
+   */
+  public Optional<ExpenseSearchCursor> next() {
+    return Optional.ofNullable(nextCursor);
+  }
+}
@@ -0,0 +1,24 @@
+package io.github.alvarorg14.kashy.api.model.domain;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import lombok.Builder;
+
+/**
+ * Aggregated figures of the expenses sharing a period, category and currency.
+ *
+ * @param periodStart first day (UTC) of the period
+ * @param category category of the grouped expenses
+ * @param currency ISO 4217 currency code of the grouped expenses
+ * @param count number of expenses in the group
+ * @param total sum of the amounts of the group
+ * @param average mean amount of the group
+ */
+@Builder
+public record ExpenseSummary(
+    LocalDate periodStart,
+    Category category,
+    String currency,
+    long count,
+    BigDecimal total,
+    BigDecimal average) {}
@@ -0,0 +1,23 @@
+package io.github.alvarorg14.kashy.api.model.domain;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Version of the whole expense collection.
+ *
+ * <p>Every expense write gives the monthly rollups it touches new revisions within its own
+ * transaction, and each commit raises their sum, so two equal versions describe the same expenses
+ * and a version read after a write never equals one read before it.
+ *
+ * @param revision sum of the revisions of all monthly rollups
+ * @param lastModified when the expenses last changed, or {@code null} if none were ever written
+ */
+public record ExpenseVersion(long revision, Instant lastModified) {
+
+  /** Returns a short opaque token that differs whenever the version differs. */
+  public String tag() {
+    long micros = lastModified == null ? 0 : ChronoUnit.MICROS.between(Instant.EPOCH, lastModified);
+    return Long.toString(revision, 36) + "-" + Long.toString(micros, 36);
+  }
+}
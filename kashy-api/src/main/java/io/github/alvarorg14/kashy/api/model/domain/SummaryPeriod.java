@@ -0,0 +1,46 @@
+package io.github.alvarorg14.kashy.api.model.domain;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Calendar period used to group expenses in a summary.
+ *
+ * <p>Periods are evaluated in UTC; weeks start on Monday (ISO 8601).
+ */
+public enum SummaryPeriod {
+  DAY("day"),
+  WEEK("week"),
+  MONTH("month");
+
+  private final String sqlUnit;
+
+  SummaryPeriod(String sqlUnit) {
+    this.sqlUnit = sqlUnit;
+  }
+
+  /**
+   * Returns the unit understood by the database {@code date_trunc} function.
+   *
+   * @return the truncation unit of this period
+   */
+  public String sqlUnit() {
+    return sqlUnit;
+  }
+
+  /**
+   * Returns the first day of the period a day belongs to, as {@code date_trunc} with {@link
+   * #sqlUnit()} computes it.
+   *
+   * @param day the day
+   * @return the day itself, the Monday of its week or the first day of its month
+   */
+  public LocalDate startOf(LocalDate day) {
+    return switch (this) {
+      case DAY -> day;
+      case WEEK -> day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+      case MONTH -> day.withDayOfMonth(1);
+    };
+  }
+}
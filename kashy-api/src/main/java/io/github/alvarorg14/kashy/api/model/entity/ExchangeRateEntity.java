@@ -0,0 +1,51 @@
+package io.github.alvarorg14.kashy.api.model.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * JPA entity representing the exchange rate of one currency on one day.
+ *
+ * <p>This entity maps to the exchange_rates table. Rates are written in bulk by the importer
+ * through upserts and read back as a whole into the in-memory rate cache.
+ */
+@Entity
+@Table(name = "exchange_rates")
+@IdClass(ExchangeRateEntity.Key.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ExchangeRateEntity {
+
+  @Id
+  @Column(name = "currency", nullable = false, length = 3)
+  private String currency;
+
+  @Id
+  @Column(name = "rate_date", nullable = false)
+  private LocalDate rateDate;
+
+  @Column(name = "rate", nullable = false, precision = 19, scale = 10)
+  private BigDecimal rate;
+
+  /**
+   * Composite primary key of an exchange rate row.
+   *
+   * @param currency ISO 4217 currency code
+   * @param rateDate day the rate was published for
+   */
+  public record Key(String currency, LocalDate rateDate) implements Serializable {}
+}
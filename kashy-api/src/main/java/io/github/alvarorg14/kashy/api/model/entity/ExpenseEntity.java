@@ -7,6 +7,7 @@ import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import java.math.BigDecimal;
 import java.time.OffsetDateTime;
 import java.util.UUID;
@@ -15,6 +16,8 @@ import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.PartitionKey;
 
 /**
  * JPA entity representing an expense in the database.
@@ -22,8 +25,21 @@ import lombok.Setter;
  * <p>This entity maps to the expenses table and is used for persistence operations. It uses Lombok
  * annotations to reduce boilerplate while maintaining compatibility with JPA requirements (no-arg
  * constructor, getters/setters).
+ *
+ * <p>Updates are optimistically locked by {@link #version}: Hibernate increments it and only
+ * updates the row if it still holds the version that was read, so concurrent edits fail instead of
+ * overwriting each other. With {@link DynamicUpdate} the {@code UPDATE} statement only sets the
+ * columns that changed, keeping the write-ahead log small.
+ *
+ * <p>The table is partitioned by {@link #dateTime} and its primary key is {@code (id, date_time)},
+ * since PostgreSQL requires the partition key in every unique constraint. The id alone is mapped as
+ * the identifier and kept unique by the unpartitioned {@code expense_ids} table, which triggers on
+ * {@code expenses} maintain in the writing transaction. Lookups by id read the date-time from there
+ * so they reach a single partition, and {@link PartitionKey} adds the loaded date-time to every
+ * {@code UPDATE} and {@code DELETE} for the same reason.
  */
 @Entity
+@DynamicUpdate
 @Table(name = "expenses")
 @Getter
 @Setter
@@ -39,6 +55,7 @@ public class ExpenseEntity {
   @Column(name = "description", nullable = false, length = 255)
   private String description;
 
+  @PartitionKey
   @Column(name = "date_time", nullable = false)
   private OffsetDateTime dateTime;
 
@@ -60,4 +77,8 @@ public class ExpenseEntity {
 
   @Column(name = "updated_at", nullable = false)
   private OffsetDateTime updatedAt;
+
+  @Version
+  @Column(name = "version", nullable = false)
+  private Long version;
 }
@@ -0,0 +1,63 @@
+package io.github.alvarorg14.kashy.api.model.entity;
+
+import io.github.alvarorg14.kashy.api.model.domain.Category;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * JPA entity representing the running totals of one month, category and currency.
+ *
+ * <p>This entity maps to the expense_monthly_rollups table. Rows are maintained by the expense
+ * write paths through atomic upserts rather than by loading and saving entities.
+ */
+@Entity
+@Table(name = "expense_monthly_rollups")
+@IdClass(ExpenseMonthlyRollupEntity.Key.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ExpenseMonthlyRollupEntity {
+
+  @Id
+  @Column(name = "month", nullable = false)
+  private LocalDate month;
+
+  @Id
+  @Enumerated(EnumType.STRING)
+  @Column(name = "category", nullable = false, length = 50)
+  private Category category;
+
+  @Id
+  @Column(name = "currency", nullable = false, length = 3)
+  private String currency;
+
+  @Column(name = "expense_count", nullable = false)
+  private long expenseCount;
+
+  @Column(name = "total_amount", nullable = false, precision = 38, scale = 4)
+  private BigDecimal totalAmount;
+
+  /**
+   * Composite primary key of a rollup row.
+   *
+   * @param month first day (UTC) of the month
+   * @param category expense category
+   * @param currency ISO 4217 currency code
+   */
+  public record Key(LocalDate month, Category category, String currency) implements Serializable {}
+}
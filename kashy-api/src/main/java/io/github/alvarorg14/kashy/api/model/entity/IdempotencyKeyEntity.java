@@ -0,0 +1,47 @@
+package io.github.alvarorg14.kashy.api.model.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * JPA entity representing an {@code Idempotency-Key} already used to create an expense.
+ *
+ * <p>This entity maps to the idempotency_keys table. Each row keeps a fingerprint of the original
+ * request and a JSON copy of the created expense, so replays are answered without reading the
+ * expenses table.
+ */
+@Entity
+@Table(name = "idempotency_keys")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IdempotencyKeyEntity {
+
+  @Id
+  @Column(name = "idempotency_key", nullable = false, updatable = false, length = 255)
+  private String idempotencyKey;
+
+  @Column(name = "request_hash", nullable = false, length = 64)
+  private String requestHash;
+
+  @Column(name = "expense_id", nullable = false)
+  private UUID expenseId;
+
+  // Read as text; rows are only written by IdempotencyKeyRepository#insert, which casts to jsonb
+  @Column(name = "expense", nullable = false, columnDefinition = "jsonb")
+  private String expense;
+
+  @Column(name = "created_at", nullable = false)
+  private OffsetDateTime createdAt;
+}
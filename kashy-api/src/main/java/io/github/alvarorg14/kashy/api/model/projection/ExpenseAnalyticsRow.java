@@ -0,0 +1,18 @@
+package io.github.alvarorg14.kashy.api.model.projection;
+
+import io.github.alvarorg14.kashy.api.model.domain.Category;
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+
+/**
+ * Read-only projection of the expense columns held by the analytics store.
+ *
+ * <p>Constructed directly by the query, so no entities are loaded or managed.
+ *
+ * @param dateTime date-time of the expense
+ * @param amount amount of the expense
+ * @param category category of the expense
+ * @param currency ISO 4217 currency code of the expense
+ */
+public record ExpenseAnalyticsRow(
+    OffsetDateTime dateTime, BigDecimal amount, Category category, String currency) {}
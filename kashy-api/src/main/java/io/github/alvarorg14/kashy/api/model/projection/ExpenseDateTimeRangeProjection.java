@@ -0,0 +1,16 @@
+package io.github.alvarorg14.kashy.api.model.projection;
+
+import java.time.Instant;
+
+/**
+ * Read-only projection of the earliest and latest expense date-times in a range.
+ *
+ * <p>Backed directly by the result set, so no entities are loaded or managed. Both are {@code null}
+ * when the range holds no expense.
+ */
+public interface ExpenseDateTimeRangeProjection {
+
+  Instant getFirst();
+
+  Instant getLast();
+}
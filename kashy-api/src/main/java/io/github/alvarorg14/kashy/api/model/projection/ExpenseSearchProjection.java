@@ -0,0 +1,35 @@
+package io.github.alvarorg14.kashy.api.model.projection;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Read-only projection of one row of the expense search query, with its relevance.
+ *
+ * <p>Backed directly by the result set, so no entities are loaded or managed.
+ */
+public interface ExpenseSearchProjection {
+
+  UUID getId();
+
+  String getDescription();
+
+  Instant getDateTime();
+
+  BigDecimal getAmount();
+
+  String getCurrency();
+
+  String getCategory();
+
+  String getNotes();
+
+  Instant getCreatedAt();
+
+  Instant getUpdatedAt();
+
+  Long getVersion();
+
+  float getRank();
+}
@@ -0,0 +1,24 @@
+package io.github.alvarorg14.kashy.api.model.projection;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Read-only projection of one row of the expense summary query.
+ *
+ * <p>Backed directly by the aggregated result set, so no entities are loaded or managed.
+ */
+public interface ExpenseSummaryProjection {
+
+  LocalDate getPeriodStart();
+
+  String getCategory();
+
+  String getCurrency();
+
+  long getCount();
+
+  BigDecimal getTotal();
+
+  BigDecimal getAverage();
+}
@@ -0,0 +1,15 @@
+package io.github.alvarorg14.kashy.api.model.projection;
+
+import java.time.Instant;
+
+/**
+ * Read-only projection of the expense collection version.
+ *
+ * <p>Backed directly by the result set, so no entities are loaded or managed.
+ */
+public interface ExpenseVersionProjection {
+
+  long getRevision();
+
+  Instant getLastModified();
+}
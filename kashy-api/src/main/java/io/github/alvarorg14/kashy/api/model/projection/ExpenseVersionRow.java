@@ -0,0 +1,13 @@
+package io.github.alvarorg14.kashy.api.model.projection;
+
+import java.util.UUID;
+
+/**
+ * Read-only projection of the id and optimistic locking version of an expense.
+ *
+ * <p>Constructed directly by the query, so no entities are loaded or managed.
+ *
+ * @param id id of the expense
+ * @param version version of the expense
+ */
+public record ExpenseVersionRow(UUID id, long version) {}
@@ -0,0 +1,96 @@
+package io.github.alvarorg14.kashy.api.money;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Fixed-point representation of amounts as a {@code long} count of ten-thousandths.
+ *
+ * <p>Amounts are stored as {@code numeric(19,4)}, so every stored amount is an integer number of
+ * minor units at {@link #SCALE} 4. Hot paths that add up or format many amounts work on these
+ * {@code long} values instead of {@link BigDecimal}, which allocates on every addition. Conversions
+ * happen at the boundaries and are exact: {@link #of(BigDecimal)} rounds like an assignment to
+ * {@code numeric(19,4)} and {@link #toDecimal(long)} restores the stored value. A {@code long}
+ * covers amounts up to 922,337,203,685,477.5807, below the column's maximum; conversions and sums
+ * beyond it fail with {@link ArithmeticException} instead of wrapping around, and {@link
+ * MinorUnitsSum} falls back to {@link BigDecimal} for them.
+ */
+public final class MinorUnits {
+
+  /** Number of decimal places of an amount, the scale of the amount columns. */
+  public static final int SCALE = 4;
+
+  private static final long ONE = 10_000;
+
+  private MinorUnits() {}
+
+  /**
+   * Converts an amount to minor units.
+   *
+   * <p>Extra decimal places are rounded half away from zero, as PostgreSQL does when the amount is
+   * stored. Amounts already at scale 4, such as every amount read from the database, convert
+   * without rounding or intermediate {@link java.math.BigInteger}.
+   *
+   * @param amount the amount
+   * @return the amount in ten-thousandths
+   * @throws ArithmeticException if the amount does not fit in a {@code long}
+   */
+  public static long of(BigDecimal amount) {
+    return amount.setScale(SCALE, RoundingMode.HALF_UP).movePointRight(SCALE).longValueExact();
+  }
+
+  /**
+   * Converts minor units back to an amount at scale 4.
+   *
+   * @param minorUnits the amount in ten-thousandths
+   * @return the amount, equal to the stored {@code numeric(19,4)} value
+   */
+  public static BigDecimal toDecimal(long minorUnits) {
+    return BigDecimal.valueOf(minorUnits, SCALE);
+  }
+
+  /**
+   * Adds two amounts.
+   *
+   * @throws ArithmeticException if the sum does not fit in a {@code long}
+   */
+  public static long add(long a, long b) {
+    return Math.addExact(a, b);
+  }
+
+  /**
+   * Writes an amount in plain notation with four decimal places, as {@link
+   * BigDecimal#toPlainString()} renders a scale 4 amount, without creating any string.
+   *
+   * @param minorUnits the amount in ten-thousandths
+   * @param out destination of the characters
+   * @throws IOException if the writer fails
+   */
+  public static void write(long minorUnits, Writer out) throws IOException {
+    // Quotient and remainder are negated rather than the value, so Long.MIN_VALUE is handled too
+    long whole = minorUnits / ONE;
+    long fraction = minorUnits % ONE;
+    if (minorUnits < 0) {
+      out.write('-');
+      whole = -whole;
+      fraction = -fraction;
+    }
+    writeDigits(whole, out);
+    out.write('.');
+    for (long divisor = ONE / 10; divisor > 0; divisor /= 10) {
+      out.write((char) ('0' + fraction / divisor % 10));
+    }
+  }
+
+  private static void writeDigits(long value, Writer out) throws IOException {
+    long divisor = 1;
+    while (value / divisor >= 10) {
+      divisor *= 10;
+    }
+    for (; divisor > 0; divisor /= 10) {
+      out.write((char) ('0' + value / divisor % 10));
+    }
+  }
+}
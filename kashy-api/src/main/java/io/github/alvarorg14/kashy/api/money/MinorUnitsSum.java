@@ -0,0 +1,86 @@
+package io.github.alvarorg14.kashy.api.money;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Running total of amounts, kept in {@link MinorUnits} while it fits in a {@code long}.
+ *
+ * <p>Adding an amount is a primitive addition with an overflow check and allocates nothing. Should
+ * the total leave the {@code long} range, or an amount not fit in one, the excess is carried in a
+ * {@link BigDecimal} so the total stays exact however large it grows. Not thread-safe; partial sums
+ * computed concurrently are combined with {@link #add(MinorUnitsSum)}.
+ */
+public final class MinorUnitsSum {
+
+  private long total;
+  private BigDecimal overflow;
+
+  /**
+   * Adds an amount given in minor units.
+   *
+   * @param minorUnits the amount in ten-thousandths
+   */
+  public void add(long minorUnits) {
+    long sum = total + minorUnits;
+    // Same sign test as Math.addExact, without the exception on the rare overflow
+    if (((total ^ sum) & (minorUnits ^ sum)) < 0) {
+      carry(MinorUnits.toDecimal(total));
+      total = minorUnits;
+    } else {
+      total = sum;
+    }
+  }
+
+  /**
+   * Adds an amount, rounded to scale 4 as the amount columns store it.
+   *
+   * @param amount the amount
+   */
+  public void add(BigDecimal amount) {
+    long minorUnits;
+    try {
+      minorUnits = MinorUnits.of(amount);
+    } catch (ArithmeticException e) {
+      carry(amount.setScale(MinorUnits.SCALE, RoundingMode.HALF_UP));
+      return;
+    }
+    add(minorUnits);
+  }
+
+  /**
+   * Adds another running total to this one.
+   *
+   * @param other the total to add; left unchanged
+   */
+  public void add(MinorUnitsSum other) {
+    if (other.overflow != null) {
+      carry(other.overflow);
+    }
+    add(other.total);
+  }
+
+  /** Tells whether the total has left the {@code long} range at some point. */
+  public boolean overflowed() {
+    return overflow != null;
+  }
+
+  /**
+   * Returns the total in minor units.
+   *
+   * @throws ArithmeticException if the total does not fit in a {@code long}
+   */
+  public long toMinorUnits() {
+    return overflow == null ? total : Math.addExact(MinorUnits.of(overflow), total);
+  }
+
+  /** Returns the exact total at scale 4. */
+  public BigDecimal toDecimal() {
+    BigDecimal decimal = MinorUnits.toDecimal(total);
+    return overflow == null ? decimal : overflow.add(decimal);
+  }
+
+  private void carry(BigDecimal amount) {
+    overflow = overflow == null ? amount : overflow.add(amount);
+  }
+}
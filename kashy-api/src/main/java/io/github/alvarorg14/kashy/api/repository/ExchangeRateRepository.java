@@ -0,0 +1,58 @@
+package io.github.alvarorg14.kashy.api.repository;
+
+import io.github.alvarorg14.kashy.api.model.domain.ExchangeRate;
+import io.github.alvarorg14.kashy.api.model.entity.ExchangeRateEntity;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository interface for the exchange rates.
+ *
+ * <p>Rates are written in bulk by the importer and read back whole into the in-memory rate cache;
+ * summaries normalized to a base currency also read them in SQL through the {@code exchange_rate}
+ * function.
+ */
+@Repository
+public interface ExchangeRateRepository
+    extends JpaRepository<ExchangeRateEntity, ExchangeRateEntity.Key> {
+
+  /**
+   * Inserts or replaces many rates in a single statement.
+   *
+   * <p>The rates travel as one JSON array parameter and are expanded by the database, so a chunk of
+   * thousands of rates costs one round trip and one statement execution.
+   *
+   * @param rates JSON array of objects with {@code currency}, {@code date} and {@code rate} fields
+   * @return number of rows inserted or updated
+   */
+  @Modifying
+  @Query(
+      value =
+          """
+          INSERT INTO exchange_rates AS r (currency, rate_date, rate)
+          SELECT x.currency, x.date, x.rate
+          FROM jsonb_to_recordset(CAST(:rates AS jsonb)) AS x(currency varchar, date date, rate numeric)
+          ON CONFLICT (currency, rate_date) DO UPDATE
+          SET rate = EXCLUDED.rate
+          WHERE r.rate <> EXCLUDED.rate
+          """,
+      nativeQuery = true)
+  int upsertAll(String rates);
+
+  /**
+   * Reads every stored rate without managing them as entities.
+   *
+   * @return all rates, ordered by currency and date
+   */
+  @Query(
+      """
+      SELECT new io.github.alvarorg14.kashy.api.model.domain.ExchangeRate(
+          r.currency, r.rateDate, r.rate)
+      FROM ExchangeRateEntity r
+      ORDER BY r.currency, r.rateDate
+      """)
+  List<ExchangeRate> findAllRates();
+}
@@ -0,0 +1,22 @@
+package io.github.alvarorg14.kashy.api.repository;
+
+import io.github.alvarorg14.kashy.api.model.entity.ExpenseEntity;
+import java.util.List;
+
+/** Bulk write operations for expenses that bypass the per-entity save path. */
+public interface ExpenseBatchRepository {
+
+  /**
+   * Inserts new expenses in a single transaction using JDBC batching.
+   *
+   * <p>Unlike {@code saveAll}, entities with an assigned id are persisted without a preceding
+   * {@code SELECT}, so Hibernate can group the inserts into batches of {@code
+   * hibernate.jdbc.batch_size}. The persistence context is cleared afterwards, keeping memory flat
+   * across consecutive calls.
+   *
+   * @param entities new expenses; none of them may already exist
+   * @throws org.springframework.dao.DataAccessException if any insert fails, in which case none of
+   *     the given expenses are stored
+   */
+  void insertAll(List<ExpenseEntity> entities);
+}
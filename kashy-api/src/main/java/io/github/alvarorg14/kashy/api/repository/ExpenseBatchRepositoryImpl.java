@@ -0,0 +1,22 @@
+package io.github.alvarorg14.kashy.api.repository;
+
+import io.github.alvarorg14.kashy.api.model.entity.ExpenseEntity;
+import jakarta.persistence.EntityManager;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.transaction.annotation.Transactional;
+
+/** JPA implementation of {@link ExpenseBatchRepository}, wired into {@link ExpenseRepository}. */
+@RequiredArgsConstructor
+class ExpenseBatchRepositoryImpl implements ExpenseBatchRepository {
+
+  private final EntityManager entityManager;
+
+  @Override
+  @Transactional
+  public void insertAll(List<ExpenseEntity> entities) {
+    entities.forEach(entityManager::persist);
+    entityManager.flush();
+    entityManager.clear();
+  }
+}
@@ -0,0 +1,195 @@
+package io.github.alvarorg14.kashy.api.repository;
+
+import io.github.alvarorg14.kashy.api.model.entity.ExpenseMonthlyRollupEntity;
+import io.github.alvarorg14.kashy.api.model.projection.ExpenseSummaryProjection;
+import io.github.alvarorg14.kashy.api.model.projection.ExpenseVersionProjection;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Repository interface for the monthly expense rollups.
+ *
+ * <p>Rollups hold the running count and total of every month, category and currency, so monthly
+ * summaries read one row per group instead of scanning the expenses table. All writes must run in
+ * the transaction of the expense change they account for.
+ *
+ * <p>Every write of a rollup row also gives it a new {@code revision} from a sequence, drawn while
+ * the row is locked, and stamps it with {@code clock_timestamp()}. Rows are emptied rather than
+ * deleted, so the sum of all revisions grows with every committed change and versions the whole
+ * collection without any row shared by all writers.
+ */
+@Repository
+public interface ExpenseMonthlyRollupRepository
+    extends JpaRepository<ExpenseMonthlyRollupEntity, ExpenseMonthlyRollupEntity.Key> {
+
+  /**
+   * Adds a delta to the rollup of a month, category and currency, creating it if missing.
+   *
+   * <p>Runs as a single atomic upsert, so concurrent writers of the same group never lose updates.
+   * Negative deltas account for removed expenses.
+   *
+   * @param month first day (UTC) of the month
+   * @param category expense category name
+   * @param currency ISO 4217 currency code
+   * @param count number of expenses to add
+   * @param amount amount to add to the total
+   */
+  @Modifying
+  @Query(
+      value =
+          """
+          INSERT INTO expense_monthly_rollups AS r
+            (month, category, currency, expense_count, total_amount)
+          VALUES (:month, :category, :currency, :count, :amount)
+          ON CONFLICT (month, category, currency) DO UPDATE
+          SET expense_count = r.expense_count + EXCLUDED.expense_count,
+              total_amount = r.total_amount + EXCLUDED.total_amount,
+              revision = nextval('expense_rollup_revision_seq'),
+              updated_at = clock_timestamp()
+          """,
+      nativeQuery = true)
+  void add(LocalDate month, String category, String currency, long count, BigDecimal amount);
+
+  /**
+   * Locks the rollups against concurrent writers until the current transaction ends.
+   *
+   * <p>Expense writers block on their rollup upsert while the lock is held, so a rebuild neither
+   * misses nor double counts expenses written while it runs.
+   */
+  @Modifying
+  @Query(value = "LOCK TABLE expense_monthly_rollups IN EXCLUSIVE MODE", nativeQuery = true)
+  void lockForRebuild();
+
+  /**
+   * Empties the rollup rows of a month, keeping them so that the collection version still grows.
+   *
+   * @param month first day (UTC) of the month
+   * @return number of rollup rows emptied
+   */
+  @Modifying
+  @Query(
+      value =
+          """
+          UPDATE expense_monthly_rollups
+          SET expense_count = 0,
+              total_amount = 0,
+              revision = nextval('expense_rollup_revision_seq'),
+              updated_at = clock_timestamp()
+          WHERE month = :month
+            AND (expense_count <> 0 OR total_amount <> 0)
+          """,
+      nativeQuery = true)
+  int clearMonth(LocalDate month);
+
+  /** Empties every rollup row, keeping them so that the collection version still grows. */
+  @Modifying
+  @Query(
+      value =
+          """
+          UPDATE expense_monthly_rollups
+          SET expense_count = 0,
+              total_amount = 0,
+              revision = nextval('expense_rollup_revision_seq'),
+              updated_at = clock_timestamp()
+          WHERE expense_count <> 0 OR total_amount <> 0
+          """,
+      nativeQuery = true)
+  void clearAllRollups();
+
+  /**
+   * Recomputes every rollup row from the expenses table, over the emptied rows.
+   *
+   * @return number of rollup rows written
+   */
+  @Modifying
+  @Query(
+      value =
+          """
+          INSERT INTO expense_monthly_rollups AS r
+            (month, category, currency, expense_count, total_amount)
+          SELECT CAST(date_trunc('month', e.date_time AT TIME ZONE 'UTC') AS date),
+                 e.category, e.currency, COUNT(*), SUM(e.amount)
+          FROM expenses e
+          GROUP BY 1, 2, 3
+          ON CONFLICT (month, category, currency) DO UPDATE
+          SET expense_count = EXCLUDED.expense_count,
+              total_amount = EXCLUDED.total_amount,
+              revision = nextval('expense_rollup_revision_seq'),
+              updated_at = clock_timestamp()
+          """,
+      nativeQuery = true)
+  int insertFromExpenses();
+
+  /**
+   * Reads the monthly summary from the rollups, ordered by month, category and currency.
+   *
+   * @param from first month to include, or {@code null} for no bound
+   * @param to first month to exclude, or {@code null} for no bound
+   * @return one row per month, category and currency with at least one expense
+   */
+  @Transactional(readOnly = true)
+  @Query(
+      value =
+          """
+          SELECT r.month AS "periodStart",
+                 r.category AS "category",
+                 r.currency AS "currency",
+                 r.expense_count AS "count",
+                 r.total_amount AS "total",
+                 ROUND(r.total_amount / r.expense_count, 4) AS "average"
+          FROM expense_monthly_rollups r
+          WHERE r.expense_count > 0
+            AND (CAST(:from AS date) IS NULL OR r.month >= CAST(:from AS date))
+            AND (CAST(:to AS date) IS NULL OR r.month < CAST(:to AS date))
+          ORDER BY 1, 2, 3
+          """,
+      nativeQuery = true)
+  List<ExpenseSummaryProjection> summarize(LocalDate from, LocalDate to);
+
+  /**
+   * Lists the currencies of the expenses in a range of months.
+   *
+   * @param from first month to include, or {@code null} for no bound
+   * @param to first month to exclude, or {@code null} for no bound
+   * @return the ISO 4217 codes with at least one expense in the range
+   */
+  @Transactional(readOnly = true)
+  @Query(
+      value =
+          """
+          SELECT DISTINCT r.currency
+          FROM expense_monthly_rollups r
+          WHERE r.expense_count > 0
+            AND (CAST(:from AS date) IS NULL OR r.month >= CAST(:from AS date))
+            AND (CAST(:to AS date) IS NULL OR r.month < CAST(:to AS date))
+          """,
+      nativeQuery = true)
+  List<String> findCurrencies(LocalDate from, LocalDate to);
+
+  /**
+   * Reads the version of the expense collection.
+   *
+   * <p>Aggregates the revisions of the rollup rows, one per month, category and currency, so its
+   * cost does not grow with the number of expenses. A rollup row takes its new revision while
+   * locked, after every earlier writer of that row committed, so each commit raises the sum and a
+   * version read after a commit never equals one read before it, whatever order concurrent writers
+   * drew their revisions in.
+   *
+   * @return the sum of all revisions and the latest modification time
+   */
+  @Query(
+      value =
+          """
+          SELECT CAST(COALESCE(SUM(r.revision), 0) AS bigint) AS "revision",
+                 MAX(r.updated_at) AS "lastModified"
+          FROM expense_monthly_rollups r
+          """,
+      nativeQuery = true)
+  ExpenseVersionProjection findVersion();
+}
@@ -0,0 +1,28 @@
+package io.github.alvarorg14.kashy.api.repository;
+
+import io.github.alvarorg14.kashy.api.model.domain.Expense;
+import io.github.alvarorg14.kashy.api.model.domain.ExpenseCursor;
+import io.github.alvarorg14.kashy.api.model.domain.ExpenseFilter;
+import java.util.List;
+import org.springframework.data.domain.Limit;
+
+/** Read-only listing of expenses projected straight from the selected columns. */
+public interface ExpensePageRepository {
+
+  /**
+   * Returns a page of the expenses matching the filter, ordered by {@code (dateTime, id)}
+   * descending.
+   *
+   * <p>Seeks directly into the {@code (date_time, id)} indexes instead of skipping rows with an
+   * offset, so every page costs the same regardless of how deep the client has paged. Rows are
+   * constructed as domain expenses by the query itself, so no entity is materialized, tracked or
+   * mapped and the persistence context stays empty.
+   *
+   * @param filter criteria the expenses must match
+   * @param cursor keyset position of the last expense of the previous page, or {@code null} for the
+   *     first page
+   * @param limit maximum number of rows to return
+   * @return the page of expenses following the given position
+   */
+  List<Expense> findPage(ExpenseFilter filter, ExpenseCursor cursor, Limit limit);
+}
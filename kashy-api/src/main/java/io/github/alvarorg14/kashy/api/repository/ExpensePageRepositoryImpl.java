@@ -0,0 +1,52 @@
+package io.github.alvarorg14.kashy.api.repository;
+
+import io.github.alvarorg14.kashy.api.model.domain.Expense;
+import io.github.alvarorg14.kashy.api.model.domain.ExpenseCursor;
+import io.github.alvarorg14.kashy.api.model.domain.ExpenseFilter;
+import io.github.alvarorg14.kashy.api.model.entity.ExpenseEntity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+/** JPA implementation of {@link ExpensePageRepository}, wired into {@link ExpenseRepository}. */
+@RequiredArgsConstructor
+class ExpensePageRepositoryImpl implements ExpensePageRepository {
+
+  private final EntityManager entityManager;
+
+  @Override
+  public List<Expense> findPage(ExpenseFilter filter, ExpenseCursor cursor, Limit limit) {
+    CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+    CriteriaQuery<Expense> query = cb.createQuery(Expense.class);
+    Root<ExpenseEntity> root = query.from(ExpenseEntity.class);
+    // A constructor expression: Hibernate instantiates the record from the row, skipping entities
+    query.select(
+        cb.construct(
+            Expense.class,
+            root.get("id"),
+            root.get("description"),
+            root.get("dateTime"),
+            root.get("amount"),
+            root.get("currency"),
+            root.get("category"),
+            root.get("notes"),
+            root.get("createdAt"),
+            root.get("updatedAt"),
+            root.get("version")));
+    Predicate predicate =
+        ExpenseSpecifications.matching(filter)
+            .and(ExpenseSpecifications.after(cursor))
+            .toPredicate(root, query, cb);
+    if (predicate != null) {
+      query.where(predicate);
+    }
+    query.orderBy(QueryUtils.toOrders(ExpenseSpecifications.KEYSET_ORDER, root, cb));
+    return entityManager.createQuery(query).setMaxResults(limit.max()).getResultList();
+  }
+}
@@ -0,0 +1,60 @@
+package io.github.alvarorg14.kashy.api.repository;
+
+import io.github.alvarorg14.kashy.api.model.entity.ExpenseEntity;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.RepositoryDefinition;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository interface for the monthly partitions of the expenses table.
+ *
+ * <p>The expenses table is range-partitioned by {@code date_time}, one partition per UTC month
+ * named {@code expenses_YYYY_MM}, plus a default partition for months without one. Partitions are
+ * created and detached by the database functions installed with the partitioning changeset, which
+ * serialize on an advisory lock so concurrent maintenance runs are safe.
+ */
+@Repository
+@RepositoryDefinition(domainClass = ExpenseEntity.class, idClass = UUID.class)
+public interface ExpensePartitionRepository {
+
+  /**
+   * Creates the partition of a month, moving its rows out of the default partition.
+   *
+   * <p>Writes to the default partition wait while the partition is attached; when it holds no rows
+   * of the month, as for future months, that takes only a catalog update.
+   *
+   * @param month any day of the month
+   * @return {@code true} if the partition was created, {@code false} if it already existed
+   */
+  @Query(value = "SELECT create_expenses_partition(CAST(:month AS date))", nativeQuery = true)
+  boolean createPartition(LocalDate month);
+
+  /**
+   * Detaches the partition of a month, keeping it as a standalone {@code expenses_YYYY_MM} table.
+   *
+   * <p>Detaching only updates the catalog; no expense rows are read or moved. The ids of the month
+   * are removed from {@code expense_ids} in the same transaction.
+   *
+   * @param month any day of the month
+   * @return {@code true} if the partition was detached, {@code false} if there was none
+   */
+  @Query(value = "SELECT detach_expenses_partition(CAST(:month AS date))", nativeQuery = true)
+  boolean detachPartition(LocalDate month);
+
+  /**
+   * Returns the months with rows in the default partition.
+   *
+   * @return first day (UTC) of every month held by the default partition
+   */
+  @Query(
+      value =
+          """
+          SELECT DISTINCT CAST(date_trunc('month', date_time AT TIME ZONE 'UTC') AS date)
+          FROM expenses_default
+          """,
+      nativeQuery = true)
+  List<LocalDate> findDefaultPartitionMonths();
+}
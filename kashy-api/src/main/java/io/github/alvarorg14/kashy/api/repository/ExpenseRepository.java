@@ -1,15 +1,272 @@
 package io.github.alvarorg14.kashy.api.repository;
 
 import io.github.alvarorg14.kashy.api.model.entity.ExpenseEntity;
+import io.github.alvarorg14.kashy.api.model.projection.ExpenseAnalyticsRow;
+import io.github.alvarorg14.kashy.api.model.projection.ExpenseDateTimeRangeProjection;
+import io.github.alvarorg14.kashy.api.model.projection.ExpenseSearchProjection;
+import io.github.alvarorg14.kashy.api.model.projection.ExpenseSummaryProjection;
+import io.github.alvarorg14.kashy.api.model.projection.ExpenseVersionRow;
+import jakarta.persistence.QueryHint;
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Repository interface for expense persistence operations.
  *
- * <p>Provides standard CRUD operations for ExpenseEntity through Spring Data JPA. Additional query
- * methods can be added here as needed.
+ * <p>Provides standard CRUD operations for ExpenseEntity through Spring Data JPA, filtered keyset
+ * listing projected into domain expenses, full-text search, and aggregate queries read through
+ * projections.
  */
 @Repository
-public interface ExpenseRepository extends JpaRepository<ExpenseEntity, UUID> {}
+public interface ExpenseRepository
+    extends JpaRepository<ExpenseEntity, UUID>,
+        JpaSpecificationExecutor<ExpenseEntity>,
+        ExpenseBatchRepository,
+        ExpensePageRepository {
+
+  /**
+   * Finds an expense by id in the partition that holds it.
+   *
+   * <p>The date-time is read from {@code expense_ids} first, so only the partition of that month is
+   * scanned instead of the primary key index of every partition.
+   *
+   * @param id the expense id
+   * @return the expense, or empty if there is none with the id
+   */
+  @Override
+  @Query(
+      value =
+          """
+          SELECT e.id, e.description, e.date_time, e.amount, e.currency, e.category, e.notes,
+                 e.created_at, e.updated_at, e.version
+          FROM expenses e
+          WHERE e.id = :id
+            AND e.date_time = (SELECT i.date_time FROM expense_ids i WHERE i.id = :id)
+          """,
+      nativeQuery = true)
+  Optional<ExpenseEntity> findById(UUID id);
+
+  /**
+   * Tells whether an expense exists, from {@code expense_ids} alone.
+   *
+   * @param id the expense id
+   * @return {@code true} if an expense has the id
+   */
+  @Override
+  @Query(value = "SELECT EXISTS (SELECT 1 FROM expense_ids i WHERE i.id = :id)", nativeQuery = true)
+  boolean existsById(UUID id);
+
+  /**
+   * Streams every expense, ordered by {@code (dateTime, id)} descending.
+   *
+   * <p>Rows are read through a forward-only JDBC cursor in batches of the configured fetch size, so
+   * only one batch is held by the driver at a time. Must be called within a transaction and the
+   * stream must be closed by the caller.
+   *
+   * @return stream over all expenses, newest first
+   */
+  @QueryHints({
+    @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+    @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+  })
+  @Query("SELECT e FROM ExpenseEntity e ORDER BY e.dateTime DESC, e.id DESC")
+  Stream<ExpenseEntity> streamAll();
+
+  /**
+   * Streams the date-time, amount, category and currency of every expense, in no particular order.
+   *
+   * <p>Only the columns the analytics store keeps are read, in large fetches, and no entities are
+   * managed. Must be called within a transaction and the stream must be closed by the caller.
+   *
+   * @return stream over the analytics columns of all expenses
+   */
+  @QueryHints({
+    @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "10000"),
+    @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+  })
+  @Query(
+      """
+      SELECT new io.github.alvarorg14.kashy.api.model.projection.ExpenseAnalyticsRow(
+          e.dateTime, e.amount, e.category, e.currency)
+      FROM ExpenseEntity e
+      """)
+  Stream<ExpenseAnalyticsRow> streamAnalyticsRows();
+
+  /**
+   * Returns the versions of the stored expenses among the given ids.
+   *
+   * @param ids ids to look up
+   * @return the id and version of each expense that exists, in no particular order
+   */
+  @Query(
+      """
+      SELECT new io.github.alvarorg14.kashy.api.model.projection.ExpenseVersionRow(e.id, e.version)
+      FROM ExpenseEntity e
+      WHERE e.id IN :ids
+      """)
+  List<ExpenseVersionRow> findVersions(Collection<UUID> ids);
+
+  /**
+   * Aggregates expenses by period, category and currency.
+   *
+   * <p>Grouping and arithmetic run in the database; only one row per group is returned. Periods are
+   * truncated in UTC and groups are ordered by period start, category and currency.
+   *
+   * @param unit {@code date_trunc} unit of the period ({@code day}, {@code week} or {@code month})
+   * @param from inclusive lower bound of the expense date-time, or {@code null} for no bound
+   * @param to exclusive upper bound of the expense date-time, or {@code null} for no bound
+   * @return one row per period, category and currency
+   */
+  @Transactional(readOnly = true)
+  @Query(
+      value =
+          """
+          SELECT CAST(date_trunc(:unit, e.date_time AT TIME ZONE 'UTC') AS date) AS "periodStart",
+                 e.category AS "category",
+                 e.currency AS "currency",
+                 COUNT(*) AS "count",
+                 SUM(e.amount) AS "total",
+                 ROUND(AVG(e.amount), 4) AS "average"
+          FROM expenses e
+          WHERE (CAST(:from AS timestamptz) IS NULL OR e.date_time >= CAST(:from AS timestamptz))
+            AND (CAST(:to AS timestamptz) IS NULL OR e.date_time < CAST(:to AS timestamptz))
+          GROUP BY 1, 2, 3
+          ORDER BY 1, 2, 3
+          """,
+      nativeQuery = true)
+  List<ExpenseSummaryProjection> summarize(String unit, OffsetDateTime from, OffsetDateTime to);
+
+  /**
+   * Finds the earliest and latest expense date-times in a range.
+   *
+   * <p>Both are read from the date-time indexes of the partitions, so no expense rows are scanned.
+   *
+   * @param from inclusive lower bound of the expense date-time, or {@code null} for no bound
+   * @param to exclusive upper bound of the expense date-time, or {@code null} for no bound
+   * @return the first and last date-time, both {@code null} when no expense is in the range
+   */
+  @Transactional(readOnly = true)
+  @Query(
+      value =
+          """
+          SELECT MIN(e.date_time) AS "first", MAX(e.date_time) AS "last"
+          FROM expenses e
+          WHERE (CAST(:from AS timestamptz) IS NULL OR e.date_time >= CAST(:from AS timestamptz))
+            AND (CAST(:to AS timestamptz) IS NULL OR e.date_time < CAST(:to AS timestamptz))
+          """,
+      nativeQuery = true)
+  ExpenseDateTimeRangeProjection findDateTimeRange(OffsetDateTime from, OffsetDateTime to);
+
+  /**
+   * Aggregates expenses by period and category with every amount converted to one base currency.
+   *
+   * <p>Amounts are first summed per day, category and currency. The conversion factor of each
+   * distinct currency and day is then computed once through the {@code exchange_rate} function, and
+   * the daily sums are converted with it and added up per period and category. Rates are therefore
+   * looked up once per currency and day, not per expense or group, and no expense leaves the
+   * database. Every currency involved must have rates, otherwise its amounts drop out of the
+   * totals.
+   *
+   * @param unit {@code date_trunc} unit of the period ({@code day}, {@code week} or {@code month})
+   * @param from inclusive lower bound of the expense date-time, or {@code null} for no bound
+   * @param to exclusive upper bound of the expense date-time, or {@code null} for no bound
+   * @param baseCurrency ISO 4217 code the amounts are converted to
+   * @param referenceCurrency ISO 4217 code the stored rates are quoted against
+   * @return one row per period and category, in the base currency
+   */
+  @Transactional(readOnly = true)
+  @Query(
+      value =
+          """
+          WITH daily AS (
+            SELECT CAST(date_trunc(:unit, e.date_time AT TIME ZONE 'UTC') AS date) AS period_start,
+                   e.category,
+                   e.currency,
+                   CAST(e.date_time AT TIME ZONE 'UTC' AS date) AS day,
+                   COUNT(*) AS expense_count,
+                   SUM(e.amount) AS total
+            FROM expenses e
+            WHERE (CAST(:from AS timestamptz) IS NULL OR e.date_time >= CAST(:from AS timestamptz))
+              AND (CAST(:to AS timestamptz) IS NULL OR e.date_time < CAST(:to AS timestamptz))
+            GROUP BY 1, 2, 3, 4
+          ), factors AS (
+            SELECT k.currency,
+                   k.day,
+                   exchange_rate(:baseCurrency, k.day, :referenceCurrency)
+                     / exchange_rate(k.currency, k.day, :referenceCurrency) AS factor
+            FROM (SELECT DISTINCT d.currency, d.day FROM daily d WHERE d.currency <> :baseCurrency) k
+          )
+          SELECT d.period_start AS "periodStart",
+                 d.category AS "category",
+                 CAST(:baseCurrency AS varchar) AS "currency",
+                 SUM(d.expense_count) AS "count",
+                 ROUND(SUM(CASE WHEN d.currency = :baseCurrency THEN d.total
+                                ELSE d.total * f.factor END), 4) AS "total",
+                 ROUND(SUM(CASE WHEN d.currency = :baseCurrency THEN d.total
+                                ELSE d.total * f.factor END) / SUM(d.expense_count), 4) AS "average"
+          FROM daily d
+          LEFT JOIN factors f ON f.currency = d.currency AND f.day = d.day
+          GROUP BY 1, 2
+          ORDER BY 1, 2
+          """,
+      nativeQuery = true)
+  List<ExpenseSummaryProjection> summarizeIn(
+      String unit,
+      OffsetDateTime from,
+      OffsetDateTime to,
+      String baseCurrency,
+      String referenceCurrency);
+
+  /**
+   * Searches expense descriptions and notes, most relevant first.
+   *
+   * <p>The query uses web search syntax ({@code "quoted phrases"}, {@code or}, {@code -excluded})
+   * and is matched against the {@code search_vector} generated column through its GIN index, so
+   * only matching rows are read. Matches in the description rank above matches in the notes. Rows
+   * are ordered by {@code (rank, date_time, id)} descending and paged with a keyset predicate on
+   * that key.
+   *
+   * @param query search terms as typed by the user
+   * @param rank rank of the last row of the previous page, or {@code null} for the first page
+   * @param dateTime date-time of the last row of the previous page, or {@code null}
+   * @param id id of the last row of the previous page, or {@code null}
+   * @param limit maximum number of rows to return
+   * @return the matching rows following the given position, with their rank
+   */
+  @Query(
+      value =
+          """
+          SELECT e.id AS "id",
+                 e.description AS "description",
+                 e.date_time AS "dateTime",
+                 e.amount AS "amount",
+                 e.currency AS "currency",
+                 e.category AS "category",
+                 e.notes AS "notes",
+                 e.created_at AS "createdAt",
+                 e.updated_at AS "updatedAt",
+                 e.version AS "version",
+                 ts_rank(e.search_vector, q.query) AS "rank"
+          FROM expenses e, websearch_to_tsquery('simple', :query) AS q(query)
+          WHERE e.search_vector @@ q.query
+            AND (CAST(:rank AS real) IS NULL
+                 OR (ts_rank(e.search_vector, q.query), e.date_time, e.id)
+                    < (CAST(:rank AS real), CAST(:dateTime AS timestamptz), CAST(:id AS uuid)))
+          ORDER BY 11 DESC, e.date_time DESC, e.id DESC
+          LIMIT :limit
+          """,
+      nativeQuery = true)
+  List<ExpenseSearchProjection> search(
+      String query, Float rank, OffsetDateTime dateTime, UUID id, int limit);
+}
@@ -0,0 +1,78 @@
+package io.github.alvarorg14.kashy.api.repository;
+
+import io.github.alvarorg14.kashy.api.model.domain.ExpenseCursor;
+import io.github.alvarorg14.kashy.api.model.domain.ExpenseFilter;
+import io.github.alvarorg14.kashy.api.model.entity.ExpenseEntity;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Query predicates for listing expenses.
+ *
+ * <p>Only the criteria actually set end up in the generated SQL, so every combination of filters
+ * gets a statement the planner can match against the {@code (…, date_time, id)} indexes.
+ */
+public final class ExpenseSpecifications {
+
+  /** Listing order, newest first with ties broken by id; matches the keyset indexes. */
+  public static final Sort KEYSET_ORDER =
+      Sort.by(Sort.Order.desc("dateTime"), Sort.Order.desc("id"));
+
+  private ExpenseSpecifications() {}
+
+  /**
+   * Returns the predicate matching the given filter.
+   *
+   * @param filter the listing filter
+   * @return specification restricted to the set criteria
+   */
+  public static Specification<ExpenseEntity> matching(ExpenseFilter filter) {
+    List<Specification<ExpenseEntity>> criteria = new ArrayList<>();
+    if (filter.from() != null) {
+      criteria.add(
+          (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("dateTime"), filter.from()));
+    }
+    if (filter.to() != null) {
+      criteria.add((root, query, cb) -> cb.lessThan(root.get("dateTime"), filter.to()));
+    }
+    if (filter.category() != null) {
+      criteria.add((root, query, cb) -> cb.equal(root.get("category"), filter.category()));
+    }
+    if (filter.currency() != null) {
+      criteria.add((root, query, cb) -> cb.equal(root.get("currency"), filter.currency()));
+    }
+    if (filter.minAmount() != null) {
+      criteria.add(
+          (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("amount"), filter.minAmount()));
+    }
+    if (filter.maxAmount() != null) {
+      criteria.add(
+          (root, query, cb) -> cb.lessThanOrEqualTo(root.get("amount"), filter.maxAmount()));
+    }
+    return Specification.allOf(criteria);
+  }
+
+  /**
+   * Returns the predicate matching expenses that sort strictly after the given keyset position.
+   *
+   * <p>Written as {@code date_time <= ? AND (date_time < ? OR id < ?)} rather than a plain
+   * disjunction so the date-time bound becomes an index condition: the scan starts right at the
+   * cursor instead of walking past every newer row.
+   *
+   * @param cursor the keyset position, or {@code null} for the first page
+   * @return specification restricted to the rows after the cursor
+   */
+  public static Specification<ExpenseEntity> after(ExpenseCursor cursor) {
+    if (cursor == null) {
+      return Specification.unrestricted();
+    }
+    return (root, query, cb) ->
+        cb.and(
+            cb.lessThanOrEqualTo(root.get("dateTime"), cursor.dateTime()),
+            cb.or(
+                cb.lessThan(root.get("dateTime"), cursor.dateTime()),
+                cb.lessThan(root.get("id"), cursor.id())));
+  }
+}
@@ -0,0 +1,53 @@
+package io.github.alvarorg14.kashy.api.repository;
+
+import io.github.alvarorg14.kashy.api.model.entity.IdempotencyKeyEntity;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository interface for the idempotency keys of expense creation.
+ *
+ * <p>Keys are inserted with a plain {@code INSERT} rather than {@code save}, so a key already used
+ * by a concurrent request fails on the primary key instead of being merged over.
+ */
+@Repository
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKeyEntity, String> {
+
+  /**
+   * Records a used key.
+   *
+   * <p>Blocks while another open transaction holds the same key, then fails with a unique violation
+   * if that transaction committed.
+   *
+   * @param key the idempotency key
+   * @param requestHash fingerprint of the original request
+   * @param expenseId id of the created expense
+   * @param expense JSON copy of the created expense
+   * @param createdAt when the key was used
+   */
+  @Modifying
+  @Query(
+      value =
+          """
+          INSERT INTO idempotency_keys
+            (idempotency_key, request_hash, expense_id, expense, created_at)
+          VALUES (:key, :requestHash, :expenseId, CAST(:expense AS jsonb), :createdAt)
+          """,
+      nativeQuery = true)
+  void insert(
+      String key, String requestHash, UUID expenseId, String expense, OffsetDateTime createdAt);
+
+  /**
+   * Removes the keys used before the given instant.
+   *
+   * @param cutoff keys created before this instant are removed
+   * @return number of keys removed
+   */
+  @Modifying
+  @Query(value = "DELETE FROM idempotency_keys WHERE created_at < :cutoff", nativeQuery = true)
+  int deleteCreatedBefore(OffsetDateTime cutoff);
+}
@@ -0,0 +1,298 @@
+package io.github.alvarorg14.kashy.api.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.alvarorg14.kashy.api.config.ExpenseCacheProperties;
+import io.github.alvarorg14.kashy.api.model.domain.Expense;
+import io.github.alvarorg14.kashy.api.model.domain.ExpenseCreationResult;
+import io.github.alvarorg14.kashy.api.model.domain.ExpenseCreationResult.Created;
+import io.github.alvarorg14.kashy.api.model.domain.ExpenseCursor;
+import io.github.alvarorg14.kashy.api.model.domain.ExpenseFilter;
+import io.github.alvarorg14.kashy.api.model.domain.ExpensePage;
+import io.github.alvarorg14.kashy.api.model.domain.ExpenseRevision;
+import io.github.alvarorg14.kashy.api.model.domain.ExpenseSearchCursor;
+import io.github.alvarorg14.kashy.api.model.domain.ExpenseSearchPage;
+import io.github.alvarorg14.kashy.api.model.domain.ExpenseSummary;
+import io.github.alvarorg14.kashy.api.model.domain.ExpenseVersion;
+import io.github.alvarorg14.kashy.api.model.domain.SummaryPeriod;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+/**
+ * Caching decorator of {@link ExpenseServiceImpl}.
+ *
+ * <p>Serves single expenses, listing pages and summaries from bounded Caffeine caches configured by
+ * {@link ExpenseCacheProperties}. Writes evict only the entries they can change: a listing page is
+ * dropped when a new, changed or deleted expense matches its filter and sorts within the page's
+ * keyset window, and a summary when the expense falls within its date-time range. A change is
+ * checked both as it was and as it is, since it may leave one page or summary for another. Hit,
+ * miss, put and eviction counts are published to Micrometer under the {@code cache.*} meters.
+ *
+ * <p>A load racing a write may read the data from before it, so every write bumps a generation
+ * before evicting and a load is only cached if no write happened while it ran. Loads may also read
+ * a replica that has not replayed a write yet; those starting within {@link
+ * ExpenseCacheProperties#settleAfterWrite()} of the last write are served but not cached.
+ *
+ * <p>The recent collection version, which labels listings requested without a conditional header,
+ * is kept for {@link ExpenseCacheProperties#versionExpireAfterWrite()} and dropped by every write
+ * through this instance; writes of other instances show up once it expires. The current version,
+ * which validates conditional requests, is never cached.
+ */
+@Service
+@Primary
+@ConditionalOnProperty(prefix = "kashy.cache", name = "enabled", matchIfMissing = true)
+@Slf4j
+public class CachingExpenseService implements ExpenseService {
+
+  private final ExpenseService delegate;
+  private final Cache<UUID, Expense> expenses;
+  private final Cache<PageKey, ExpensePage> pages;
+  private final Cache<SummaryKey, List<ExpenseSummary>> summaries;
+  private final Cache<Boolean, ExpenseVersion> recentVersion;
+  private final ExchangeRates exchangeRates;
+  private final long settleAfterWriteNanos;
+  private final AtomicLong writes = new AtomicLong();
+  private volatile long lastWriteNanos;
+
+  public CachingExpenseService(
+      ExpenseServiceImpl delegate,
+      ExpenseCacheProperties properties,
+      ExchangeRates exchangeRates,
+      MeterRegistry registry) {
+    this.delegate = delegate;
+    this.exchangeRates = exchangeRates;
+    this.expenses = build(properties.expenses(), "expenses", registry);
+    this.pages = build(properties.pages(), "expense-pages", registry);
+    this.summaries = build(properties.summaries(), "expense-summaries", registry);
+    this.recentVersion =
+        build(
+            new ExpenseCacheProperties.Spec(1, properties.versionExpireAfterWrite()),
+            "expense-version",
+            registry);
+    this.settleAfterWriteNanos = properties.settleAfterWrite().toNanos();
+    this.lastWriteNanos = System.nanoTime() - settleAfterWriteNanos;
+  }
+
+  @Override
+  public Expense createExpense(Expense expense) {
+    Expense created = delegate.createExpense(expense);
+    evictAffectedBy(List.of(created));
+    return created;
+  }
+
+  @Override
+  public Expense createExpense(Expense expense, String idempotencyKey) {
+    Expense created = delegate.createExpense(expense, idempotencyKey);
+    evictAffectedBy(List.of(created));
+    return created;
+  }
+
+  @Override
+  public List<ExpenseCreationResult> createExpenses(List<Expense> expenses) {
+    return evictCreated(delegate.createExpenses(expenses));
+  }
+
+  @Override
+  public Expense prepareExpense(Expense expense) {
+    return delegate.prepareExpense(expense);
+  }
+
+  @Override
+  public List<ExpenseCreationResult> persistExpenses(List<Expense> expenses) {
+    return evictCreated(delegate.persistExpenses(expenses));
+  }
+
+  @Override
+  public Expense getExpense(UUID id) {
+    return getOrLoad(expenses, id, () -> delegate.getExpense(id));
+  }
+
+  @Override
+  public ExpenseRevision updateExpense(
+      UUID id, Long expectedVersion, UnaryOperator<Expense> changes) {
+    ExpenseRevision revision = delegate.updateExpense(id, expectedVersion, changes);
+    if (revision.changed()) {
+      evictAffectedBy(List.of(revision.previous(), revision.current()));
+      expenses.invalidate(id);
+    }
+    return revision;
+  }
+
+  @Override
+  public Expense deleteExpense(UUID id, Long expectedVersion) {
+    Expense deleted = delegate.deleteExpense(id, expectedVersion);
+    evictAffectedBy(List.of(deleted));
+    expenses.invalidate(id);
+    return deleted;
+  }
+
+  @Override
+  public ExpensePage listExpenses(ExpenseFilter filter, ExpenseCursor cursor, int limit) {
+    return getOrLoad(
+        pages,
+        new PageKey(filter, cursor, limit),
+        () -> delegate.listExpenses(filter, cursor, limit));
+  }
+
+  @Override
+  public ExpenseSearchPage searchExpenses(String query, ExpenseSearchCursor cursor, int limit) {
+    // Not cached: free-text queries rarely repeat, and a write cannot tell which ones it affects
+    return delegate.searchExpenses(query, cursor, limit);
+  }
+
+  @Override
+  public void exportExpenses(Consumer<Expense> sink) {
+    delegate.exportExpenses(sink);
+  }
+
+  @Override
+  public List<ExpenseSummary> summarizeExpenses(
+      SummaryPeriod period, OffsetDateTime from, OffsetDateTime to, String baseCurrency) {
+    // Normalized summaries are keyed by the rates they were converted with, so a reload of the
+    // rates makes them miss instead of serving amounts converted at outdated rates
+    String ratesVersion = baseCurrency == null ? null : exchangeRates.version();
+    return getOrLoad(
+        summaries,
+        new SummaryKey(period, from, to, baseCurrency, ratesVersion),
+        () -> delegate.summarizeExpenses(period, from, to, baseCurrency));
+  }
+
+  @Override
+  public ExpenseVersion getExpenseVersion() {
+    // Never cached: the version is what tells clients whether their copy is still current
+    return delegate.getExpenseVersion();
+  }
+
+  @Override
+  public ExpenseVersion getRecentExpenseVersion() {
+    return getOrLoad(recentVersion, Boolean.TRUE, delegate::getRecentExpenseVersion);
+  }
+
+  /**
+   * Drops every cached entry.
+   *
+   * <p>Needed after expenses were changed without going through this service, for example by direct
+   * database maintenance.
+   */
+  public void invalidateAll() {
+    recordWrite();
+    expenses.invalidateAll();
+    pages.invalidateAll();
+    summaries.invalidateAll();
+  }
+
+  private List<ExpenseCreationResult> evictCreated(List<ExpenseCreationResult> results) {
+    evictAffectedBy(
+        results.stream()
+            .filter(Created.class::isInstance)
+            .map(r -> ((Created) r).expense())
+            .toList());
+    return results;
+  }
+
+  private void evictAffectedBy(List<Expense> changed) {
+    if (changed.isEmpty()) {
+      return;
+    }
+    // Runs after the write committed. Recording it first means loads still running see a new
+    // generation and are not cached, and loads starting within the settle period, which may read a
+    // replica behind the write, are not cached either, so nothing evicted here comes back stale
+    recordWrite();
+    pages
+        .asMap()
+        .entrySet()
+        .removeIf(
+            entry ->
+                changed.stream().anyMatch(e -> entry.getKey().isAffectedBy(e, entry.getValue())));
+    summaries.asMap().keySet().removeIf(key -> changed.stream().anyMatch(key::covers));
+    log.debug("Evicted cached pages and summaries affected by {} changed expenses", changed.size());
+  }
+
+  /**
+   * Marks a committed write, before the entries it affects are evicted.
+   *
+   * <p>Loads that started earlier see a newer generation when they finish and are not cached.
+   */
+  private void recordWrite() {
+    writes.incrementAndGet();
+    lastWriteNanos = System.nanoTime();
+    recentVersion.invalidateAll();
+  }
+
+  /**
+   * Returns the cached value or loads and caches it.
+   *
+   * <p>Loads run outside the cache: {@code Cache.get(key, loader)} would hold a map lock for a
+   * whole database round trip and, before JDK 24, pin the virtual thread's carrier while it waits
+   * for a pooled connection, which can stall every request behind it. Concurrent misses of the same
+   * key may both load. A load is only cached if no write was recorded while it ran and it started
+   * after the settle period of the last write; otherwise it may hold data the write replaced, and
+   * is returned without being cached.
+   */
+  private <K, V> V getOrLoad(Cache<K, V> cache, K key, Supplier<V> loader) {
+    V value = cache.getIfPresent(key);
+    if (value == null) {
+      long generation = writes.get();
+      long started = System.nanoTime();
+      value = loader.get();
+      if (writes.get() == generation && started - lastWriteNanos >= settleAfterWriteNanos) {
+        cache.put(key, value);
+      }
+    }
+    return value;
+  }
+
+  private static <K, V> Cache<K, V> build(
+      ExpenseCacheProperties.Spec spec, String name, MeterRegistry registry) {
+    Cache<K, V> cache =
+        Caffeine.newBuilder()
+            .maximumSize(spec.maximumSize())
+            .expireAfterWrite(spec.expireAfterWrite())
+            .recordStats()
+            .build();
+    return CaffeineCacheMetrics.monitor(registry, cache, name);
+  }
+
+  /** Identifies a cached listing page. */
+  private record PageKey(ExpenseFilter filter, ExpenseCursor cursor, int limit) {
+
+    /**
+     * Tells whether a new, changed or deleted expense changes the given page of this key.
+     *
+     * <p>The page covers the keyset window from the cursor (exclusive) down to its last row, or to
+     * the end of the listing when it is the last page. Pages are keyed by position rather than by
+     * offset, so pages outside the window stay valid. Date-time ties count as inside the window.
+     */
+    boolean isAffectedBy(Expense expense, ExpensePage page) {
+      OffsetDateTime dateTime = expense.dateTime();
+      return filter.matches(expense)
+          && (cursor == null || !dateTime.isAfter(cursor.dateTime()))
+          && page.next().map(next -> !dateTime.isBefore(next.dateTime())).orElse(true);
+    }
+  }
+
+  /** Identifies a cached summary. */
+  private record SummaryKey(
+      SummaryPeriod period,
+      OffsetDateTime from,
+      OffsetDateTime to,
+      String baseCurrency,
+      String ratesVersion) {
+
+    boolean covers(Expense expense) {
+      OffsetDateTime dateTime = expense.dateTime();
+      return (from == null || !dateTime.isBefore(from)) && (to == null || dateTime.isBefore(to));
+    }
+  }
+}
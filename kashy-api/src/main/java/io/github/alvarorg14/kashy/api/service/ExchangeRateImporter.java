@@ -0,0 +1,130 @@
+package io.github.alvarorg14.kashy.api.service;
+
+import io.github.alvarorg14.kashy.api.config.ExchangeRateProperties;
+import io.github.alvarorg14.kashy.api.model.domain.ExchangeRate;
+import io.github.alvarorg14.kashy.api.repository.ExchangeRateRepository;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Imports exchange rates from the configured CSV file or feed into the {@code exchange_rates}
+ * table.
+ *
+ * <p>The source uses the layout of the ECB historical reference rates: a {@code Date} column
+ * followed by one column per currency, each row holding the units of every currency per unit of the
+ * reference currency on that day. Empty and {@code N/A} cells are skipped, as is a column for the
+ * reference currency itself. Rates are upserted in chunks of {@link
+ * ExchangeRateProperties#chunkSize()}, one statement each, so re-importing a full history only
+ * rewrites the rates that changed.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ExchangeRateImporter {
+
+  // LocalDate and BigDecimal must be written as ISO dates and plain numbers for jsonb_to_recordset
+  private static final ObjectMapper JSON = JsonMapper.builder().build();
+
+  private final ExchangeRateRepository repository;
+  private final ExchangeRateProperties properties;
+  private final TransactionOperations transactions;
+
+  /**
+   * Imports the rates of the configured source.
+   *
+   * <p>Does nothing when no source is configured. Each chunk commits on its own, so a failure part
+   * way leaves the rates already written in place for the next run to complete.
+   *
+   * @return number of rates inserted or changed
+   * @throws UncheckedIOException if the source cannot be read
+   */
+  public int importRates() {
+    Resource source = properties.source();
+    if (source == null) {
+      log.debug("No exchange rate source configured, skipping import");
+      return 0;
+    }
+    List<ExchangeRate> rates;
+    try (Reader reader = new InputStreamReader(source.getInputStream(), StandardCharsets.UTF_8)) {
+      rates = parse(reader, properties.referenceCurrency());
+    } catch (IOException e) {
+      throw new UncheckedIOException("Exchange rates could not be read from " + source, e);
+    }
+
+    int chunkSize = properties.chunkSize();
+    int written = 0;
+    for (int from = 0; from < rates.size(); from += chunkSize) {
+      String chunk =
+          JSON.writeValueAsString(rates.subList(from, Math.min(from + chunkSize, rates.size())));
+      written += transactions.execute(status -> repository.upsertAll(chunk));
+    }
+    log.info(
+        "Imported {} exchange rates from {}, {} new or changed", rates.size(), source, written);
+    return written;
+  }
+
+  /**
+   * Parses rates in the ECB wide CSV layout.
+   *
+   * @param reader the CSV content, starting with the header row
+   * @param referenceCurrency currency the rates are quoted against, whose column is ignored
+   * @return the parsed rates, in source order
+   * @throws IllegalArgumentException if the header has no {@code Date} column first, or a row has
+   *     an invalid date or rate
+   */
+  static List<ExchangeRate> parse(Reader reader, String referenceCurrency) throws IOException {
+    BufferedReader lines = new BufferedReader(reader);
+    String header = lines.readLine();
+    if (header == null) {
+      return List.of();
+    }
+    String[] currencies = header.strip().split(",", -1);
+    if (!"Date".equalsIgnoreCase(currencies[0].strip())) {
+      throw new IllegalArgumentException("Exchange rate CSV must start with a Date column");
+    }
+
+    List<ExchangeRate> rates = new ArrayList<>();
+    String line;
+    int lineNumber = 1;
+    while ((line = lines.readLine()) != null) {
+      lineNumber++;
+      if (line.isBlank()) {
+        continue;
+      }
+      String[] cells = line.split(",", -1);
+      try {
+        LocalDate date = LocalDate.parse(cells[0].strip());
+        for (int i = 1; i < Math.min(cells.length, currencies.length); i++) {
+          String currency = currencies[i].strip();
+          String cell = cells[i].strip();
+          if (currency.isEmpty()
+              || currency.equals(referenceCurrency)
+              || cell.isEmpty()
+              || cell.equalsIgnoreCase("N/A")) {
+            continue;
+          }
+          rates.add(new ExchangeRate(currency, date, new BigDecimal(cell)));
+        }
+      } catch (DateTimeParseException | NumberFormatException e) {
+        throw new IllegalArgumentException("Invalid exchange rate CSV line " + lineNumber, e);
+      }
+    }
+    return rates;
+  }
+}
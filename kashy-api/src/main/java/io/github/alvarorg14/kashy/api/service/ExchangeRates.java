@@ -0,0 +1,201 @@
+package io.github.alvarorg14.kashy.api.service;
+
+import io.github.alvarorg14.kashy.api.config.ExchangeRateProperties;
+import io.github.alvarorg14.kashy.api.exception.ExchangeRateUnavailableException;
+import io.github.alvarorg14.kashy.api.model.domain.ExchangeRate;
+import io.github.alvarorg14.kashy.api.repository.ExchangeRateRepository;
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * In-memory, date-indexed cache of the stored exchange rates.
+ *
+ * <p>Each currency keeps its publication days as a sorted {@code int[]} of epoch days next to the
+ * matching rates, so finding the rate of a day is a binary search over a primitive array with no
+ * per-lookup allocation. The rate of a day is the latest one published on or before it, or the
+ * earliest one published after it for days before the first publication, the same rule the {@code
+ * exchange_rate} SQL function applies. The whole table is swapped in at once by {@link #reload()},
+ * so readers never see a half-loaded snapshot.
+ */
+@Component
+@Slf4j
+public class ExchangeRates {
+
+  /** Scale of converted amounts, the scale amounts are stored with. */
+  public static final int AMOUNT_SCALE = 4;
+
+  private final ExchangeRateRepository repository;
+  private final String referenceCurrency;
+  private volatile Snapshot snapshot = new Snapshot(Map.of(), "0-0");
+
+  public ExchangeRates(ExchangeRateRepository repository, ExchangeRateProperties properties) {
+    this.repository = repository;
+    this.referenceCurrency = properties.referenceCurrency();
+  }
+
+  /**
+   * Replaces the cached rates with the ones currently stored.
+   *
+   * @return number of rates loaded
+   */
+  @Transactional(readOnly = true)
+  public int reload() {
+    List<ExchangeRate> rates = repository.findAllRates();
+    snapshot = Snapshot.of(rates);
+    log.info("Loaded {} exchange rates of {} currencies", rates.size(), snapshot.rates().size());
+    return rates.size();
+  }
+
+  /** Returns the ISO 4217 code every rate is quoted against. */
+  public String referenceCurrency() {
+    return referenceCurrency;
+  }
+
+  /**
+   * Tells whether amounts can be converted from and to a currency.
+   *
+   * @param currency ISO 4217 currency code
+   * @return {@code true} for the reference currency and for every currency with at least one rate
+   */
+  public boolean supports(String currency) {
+    return referenceCurrency.equals(currency) || snapshot.rates().containsKey(currency);
+  }
+
+  /**
+   * Returns a short opaque token that differs whenever the cached rates differ.
+   *
+   * <p>Lets caches and validators of normalized amounts tell a rate change from an unchanged
+   * snapshot.
+   */
+  public String version() {
+    return snapshot.version();
+  }
+
+  /**
+   * Returns a converter bound to the current snapshot.
+   *
+   * <p>All conversions of one converter use the same rates, even if a reload happens meanwhile, so
+   * the rows of one response are always converted consistently.
+   *
+   * @param baseCurrency ISO 4217 code amounts are converted to
+   * @return the converter
+   * @throws ExchangeRateUnavailableException if the base currency has no rates
+   */
+  public Converter converterTo(String baseCurrency) {
+    Snapshot current = snapshot;
+    if (!referenceCurrency.equals(baseCurrency) && !current.rates().containsKey(baseCurrency)) {
+      throw new ExchangeRateUnavailableException(baseCurrency);
+    }
+    return new Converter(current, baseCurrency);
+  }
+
+  /** Converts amounts to one base currency using the rates of one snapshot. */
+  public final class Converter {
+
+    private final Snapshot snapshot;
+    private final String baseCurrency;
+    private final Map<FactorKey, BigDecimal> factors = new HashMap<>();
+
+    private Converter(Snapshot snapshot, String baseCurrency) {
+      this.snapshot = snapshot;
+      this.baseCurrency = baseCurrency;
+    }
+
+    /**
+     * Converts an amount of a currency on a day to the base currency.
+     *
+     * <p>The factor of each currency and day is computed once per converter, so converting a page
+     * costs one division per distinct currency and day rather than per row.
+     *
+     * @param amount amount to convert
+     * @param currency ISO 4217 code of the amount
+     * @param day day whose rates apply
+     * @return the amount in the base currency, rounded half up to {@value #AMOUNT_SCALE} decimals
+     * @throws ExchangeRateUnavailableException if the currency has no rates
+     */
+    public BigDecimal convert(BigDecimal amount, String currency, LocalDate day) {
+      if (currency.equals(baseCurrency)) {
+        return amount;
+      }
+      BigDecimal factor =
+          factors.computeIfAbsent(
+              new FactorKey(currency, day),
+              key ->
+                  rateOf(baseCurrency, key.day())
+                      .divide(rateOf(key.currency(), key.day()), MathContext.DECIMAL128));
+      return amount.multiply(factor).setScale(AMOUNT_SCALE, RoundingMode.HALF_UP);
+    }
+
+    private BigDecimal rateOf(String currency, LocalDate day) {
+      if (referenceCurrency.equals(currency)) {
+        return BigDecimal.ONE;
+      }
+      CurrencyRates rates = snapshot.rates().get(currency);
+      if (rates == null) {
+        throw new ExchangeRateUnavailableException(currency);
+      }
+      return rates.on(day);
+    }
+  }
+
+  private record FactorKey(String currency, LocalDate day) {}
+
+  /** Immutable set of rates of every currency, as published by {@link #reload()}. */
+  private record Snapshot(Map<String, CurrencyRates> rates, String version) {
+
+    /** Builds a snapshot from rates ordered by currency and date. */
+    static Snapshot of(List<ExchangeRate> ordered) {
+      Map<String, CurrencyRates> rates = new HashMap<>();
+      long hash = 0;
+      int start = 0;
+      for (int i = 1; i <= ordered.size(); i++) {
+        if (i == ordered.size()
+            || !ordered.get(i).currency().equals(ordered.get(start).currency())) {
+          List<ExchangeRate> run = ordered.subList(start, i);
+          rates.put(run.getFirst().currency(), CurrencyRates.of(run));
+          start = i;
+        }
+      }
+      for (ExchangeRate rate : ordered) {
+        hash = 31 * hash + rate.currency().hashCode();
+        hash = 31 * hash + rate.date().toEpochDay();
+        hash = 31 * hash + rate.rate().stripTrailingZeros().hashCode();
+      }
+      return new Snapshot(
+          Map.copyOf(rates), Long.toString(ordered.size(), 36) + "-" + Long.toString(hash, 36));
+    }
+  }
+
+  /** Rates of one currency, indexed by publication day. */
+  record CurrencyRates(int[] epochDays, BigDecimal[] rates) {
+
+    static CurrencyRates of(List<ExchangeRate> ordered) {
+      int[] epochDays = new int[ordered.size()];
+      BigDecimal[] rates = new BigDecimal[ordered.size()];
+      for (int i = 0; i < ordered.size(); i++) {
+        epochDays[i] = Math.toIntExact(ordered.get(i).date().toEpochDay());
+        rates[i] = ordered.get(i).rate();
+      }
+      return new CurrencyRates(epochDays, rates);
+    }
+
+    /**
+     * Returns the latest rate on or before the day, or the earliest one if the day precedes all.
+     */
+    BigDecimal on(LocalDate day) {
+      int index = Arrays.binarySearch(epochDays, Math.toIntExact(day.toEpochDay()));
+      // A miss returns -(insertion point) - 1; the rate in effect is the one just before that point
+      int effective = index >= 0 ? index : Math.max(-index - 2, 0);
+      return rates[effective];
+    }
+  }
+}
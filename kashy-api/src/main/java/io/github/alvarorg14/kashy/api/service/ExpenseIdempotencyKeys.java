@@ -0,0 +1,199 @@
+package io.github.alvarorg14.kashy.api.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.github.alvarorg14.kashy.api.config.IdempotencyProperties;
+import io.github.alvarorg14.kashy.api.exception.IdempotencyKeyReusedException;
+import io.github.alvarorg14.kashy.api.model.domain.Expense;
+import io.github.alvarorg14.kashy.api.repository.IdempotencyKeyRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.cfg.DateTimeFeature;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Remembers the expense created for each {@code Idempotency-Key}.
+ *
+ * <p>Keys live in the {@code idempotency_keys} table, written in the transaction that creates the
+ * expense, behind a bounded in-memory index. Index entries expire when their key does, {@link
+ * IdempotencyProperties#retention()} after it was used, however late they were loaded. A replay is
+ * answered from the index or from the stored JSON copy of the expense, never from the expenses
+ * table. Each key also stores a fingerprint of its request, so reusing it for a different expense
+ * is rejected rather than silently replayed.
+ */
+@Component
+@Slf4j
+public class ExpenseIdempotencyKeys {
+
+  // Offsets are kept as sent, so a replay carries the exact date-times of the original response
+  private static final ObjectMapper JSON =
+      JsonMapper.builder().disable(DateTimeFeature.ADJUST_DATES_TO_CONTEXT_TIME_ZONE).build();
+
+  private final IdempotencyKeyRepository repository;
+  private final IdempotencyProperties properties;
+  private final TransactionOperations transactions;
+  private final Cache<String, Entry> index;
+
+  public ExpenseIdempotencyKeys(
+      IdempotencyKeyRepository repository,
+      IdempotencyProperties properties,
+      TransactionOperations transactions,
+      MeterRegistry registry) {
+    this.repository = repository;
+    this.properties = properties;
+    this.transactions = transactions;
+    this.index =
+        Caffeine.newBuilder()
+            .maximumSize(properties.maximumSize())
+            .expireAfter(Expiry.writing((String key, Entry entry) -> entry.remainingLifetime()))
+            .recordStats()
+            .build();
+    CaffeineCacheMetrics.monitor(registry, index, "idempotency-keys");
+  }
+
+  /**
+   * Returns the expense already created with the given key.
+   *
+   * @param key the idempotency key
+   * @param request the expense being submitted, without id and timestamps
+   * @return the originally created expense, or empty if the key is unused or expired
+   * @throws IdempotencyKeyReusedException if the key was used for a different request
+   */
+  public Optional<Expense> find(String key, Expense request) {
+    Entry entry = index.getIfPresent(key);
+    if (entry == null) {
+      OffsetDateTime cutoff = OffsetDateTime.now().minus(properties.retention());
+      // Read-write, so the lookup reaches the primary even when reads are routed to replicas
+      entry =
+          transactions
+              .execute(status -> repository.findById(key))
+              .filter(stored -> stored.getCreatedAt().isAfter(cutoff))
+              .map(
+                  stored ->
+                      new Entry(
+                          stored.getRequestHash(),
+                          fromJson(stored.getExpense()),
+                          expiry(stored.getCreatedAt())))
+              .orElse(null);
+      if (entry == null) {
+        return Optional.empty();
+      }
+      // Cached only for what is left of the key's retention, not for a whole new one
+      if (entry.remainingLifetime().isPositive()) {
+        index.put(key, entry);
+      }
+    }
+    if (!entry.requestHash().equals(fingerprint(request))) {
+      throw new IdempotencyKeyReusedException(key);
+    }
+    return Optional.of(entry.expense());
+  }
+
+  /**
+   * Records the expense created with the given key.
+   *
+   * <p>Joins the transaction creating the expense, so the key and the expense commit together. The
+   * key enters the in-memory index only once that transaction commits.
+   *
+   * @param key the idempotency key
+   * @param request the expense as submitted, without id and timestamps
+   * @param created the created expense
+   * @throws org.springframework.dao.DataIntegrityViolationException if a concurrent request
+   *     recorded the same key first
+   */
+  @Transactional
+  public void record(String key, Expense request, Expense created) {
+    Entry entry = new Entry(fingerprint(request), created, expiry(created.createdAt()));
+    repository.insert(
+        key,
+        entry.requestHash(),
+        created.id(),
+        JSON.writeValueAsString(created),
+        created.createdAt());
+    TransactionSynchronizationManager.registerSynchronization(
+        new TransactionSynchronization() {
+          @Override
+          public void afterCommit() {
+            index.put(key, entry);
+          }
+        });
+  }
+
+  /**
+   * Forgets a key, for example when the expense recorded for it could not be accepted after all.
+   *
+   * @param key the idempotency key
+   */
+  @Transactional
+  public void remove(String key) {
+    repository.deleteById(key);
+    index.invalidate(key);
+  }
+
+  /**
+   * Removes the keys older than the retention from the database.
+   *
+   * @return number of keys removed
+   */
+  @Transactional
+  public int purgeExpired() {
+    int purged = repository.deleteCreatedBefore(OffsetDateTime.now().minus(properties.retention()));
+    log.info("Purged {} expired idempotency keys", purged);
+    return purged;
+  }
+
+  /**
+   * Returns a fingerprint of the fields a client submits for an expense.
+   *
+   * <p>Date-times are compared as instants and amounts by value, so equivalent requests match
+   * however they were formatted.
+   */
+  static String fingerprint(Expense request) {
+    String canonical =
+        String.join(
+            "\u0000",
+            request.description(),
+            request.dateTime().toInstant().toString(),
+            request.amount().stripTrailingZeros().toPlainString(),
+            request.currency(),
+            request.category().name(),
+            String.valueOf(request.notes()));
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      return HexFormat.of().formatHex(digest.digest(canonical.getBytes(StandardCharsets.UTF_8)));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+
+  private Instant expiry(OffsetDateTime createdAt) {
+    return createdAt.toInstant().plus(properties.retention());
+  }
+
+  private static Expense fromJson(String json) {
+    return JSON.readValue(json, Expense.class);
+  }
+
+  private record Entry(String requestHash, Expense expense, Instant expiresAt) {
+
+    Duration remainingLifetime() {
+      return Duration.between(Instant.now(), expiresAt);
+    }
+  }
+}
@@ -0,0 +1,169 @@
+package io.github.alvarorg14.kashy.api.service;
+
+import io.github.alvarorg14.kashy.api.model.domain.Category;
+import io.github.alvarorg14.kashy.api.model.domain.Expense;
+import io.github.alvarorg14.kashy.api.money.MinorUnitsSum;
+import io.github.alvarorg14.kashy.api.repository.ExpenseMonthlyRollupRepository;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Keeps the monthly expense rollups in step with the expenses table.
+ *
+ * <p>Every expense write path records its changes here within its own transaction, so the rollups
+ * commit or roll back together with the expenses they account for. Every rollup row written takes a
+ * new revision, which is what versions the expense collection, so writers only ever lock the rollup
+ * rows of the months, categories and currencies they touch.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ExpenseMonthlyRollups {
+
+  private final ExpenseMonthlyRollupRepository repository;
+
+  /**
+   * Adds the given expenses to their monthly rollups.
+   *
+   * <p>Expenses are grouped by month, category and currency first, so each affected rollup row is
+   * updated once. Amounts are added up with a {@link MinorUnitsSum}, so grouping a large batch
+   * allocates one accumulator per rollup row rather than a {@code BigDecimal} per expense. Must be
+   * called within the transaction that persists the expenses.
+   *
+   * @param expenses the persisted expenses
+   */
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void add(Collection<Expense> expenses) {
+    Map<Key, Delta> deltas = new LinkedHashMap<>();
+    for (Expense expense : expenses) {
+      deltaOf(deltas, expense).add(expense.amount());
+    }
+    write(deltas);
+  }
+
+  /**
+   * Moves an updated expense from the rollup of its previous values to the rollup of its new ones.
+   *
+   * <p>When month, category and currency did not change, the single rollup is written with the
+   * difference of the amounts only. Must be called within the transaction that updates the expense.
+   *
+   * @param before the expense as it was read
+   * @param after the expense as it was written
+   */
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void update(Expense before, Expense after) {
+    Map<Key, Delta> deltas = new LinkedHashMap<>();
+    deltaOf(deltas, before).subtract(before.amount());
+    deltaOf(deltas, after).add(after.amount());
+    write(deltas);
+  }
+
+  /**
+   * Removes a deleted expense from its monthly rollup.
+   *
+   * <p>Must be called within the transaction that deletes the expense.
+   *
+   * @param expense the deleted expense
+   */
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void remove(Expense expense) {
+    Map<Key, Delta> deltas = new LinkedHashMap<>();
+    deltaOf(deltas, expense).subtract(expense.amount());
+    write(deltas);
+  }
+
+  /**
+   * Removes the rollups of a month whose expenses left the expenses table as a whole.
+   *
+   * <p>Must be called within the transaction that removes the expenses.
+   *
+   * @param month first day (UTC) of the month
+   */
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void removeMonth(LocalDate month) {
+    int rows = repository.clearMonth(month);
+    log.debug("Emptied {} monthly expense rollups of {}", rows, month);
+  }
+
+  /**
+   * Recomputes every rollup from the expenses table.
+   *
+   * <p>Holds an exclusive lock on the rollups for the duration of the rebuild; concurrent expense
+   * writes wait for it to finish and are then applied on top of the rebuilt rows.
+   *
+   * @return number of rollup rows written
+   */
+  @Transactional
+  public int rebuild() {
+    repository.lockForRebuild();
+    repository.clearAllRollups();
+    int rows = repository.insertFromExpenses();
+    log.info("Rebuilt {} monthly expense rollups", rows);
+    return rows;
+  }
+
+  /**
+   * Returns the month, as its first day in UTC, that the given date-time belongs to.
+   *
+   * @param dateTime the date-time
+   * @return first day of the UTC month
+   */
+  static LocalDate monthOf(OffsetDateTime dateTime) {
+    return dateTime.withOffsetSameInstant(ZoneOffset.UTC).toLocalDate().withDayOfMonth(1);
+  }
+
+  /**
+   * Tells whether the given bound falls exactly on the start of a UTC month.
+   *
+   * @param dateTime the bound, or {@code null} for no bound
+   * @return {@code true} if the bound is absent or a UTC month start
+   */
+  static boolean isMonthBoundary(OffsetDateTime dateTime) {
+    return dateTime == null
+        || monthOf(dateTime).atStartOfDay().atOffset(ZoneOffset.UTC).isEqual(dateTime);
+  }
+
+  private static Delta deltaOf(Map<Key, Delta> deltas, Expense expense) {
+    Key key = new Key(monthOf(expense.dateTime()), expense.category(), expense.currency());
+    return deltas.computeIfAbsent(key, k -> new Delta());
+  }
+
+  private void write(Map<Key, Delta> deltas) {
+    deltas.forEach(
+        (key, delta) ->
+            repository.add(
+                key.month(),
+                key.category().name(),
+                key.currency(),
+                delta.count,
+                delta.amount.toDecimal()));
+  }
+
+  private record Key(LocalDate month, Category category, String currency) {}
+
+  private static final class Delta {
+
+    private long count;
+    private final MinorUnitsSum amount = new MinorUnitsSum();
+
+    void add(BigDecimal expenseAmount) {
+      count++;
+      amount.add(expenseAmount);
+    }
+
+    void subtract(BigDecimal expenseAmount) {
+      count--;
+      amount.add(expenseAmount.negate());
+    }
+  }
+}
@@ -0,0 +1,79 @@
+package io.github.alvarorg14.kashy.api.service;
+
+import io.github.alvarorg14.kashy.api.analytics.ExpenseAnalyticsStore;
+import io.github.alvarorg14.kashy.api.config.ExpensePartitionProperties;
+import io.github.alvarorg14.kashy.api.repository.ExpensePartitionRepository;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.TreeSet;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Maintains the monthly partitions of the expenses table.
+ *
+ * <p>Partitions are created ahead of time, so new expenses go straight into their month. Expenses
+ * of months without a partition, such as back-dated ones, land in the default partition until the
+ * next maintenance run moves them into a partition of their own.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ExpensePartitions {
+
+  private final ExpensePartitionRepository repository;
+
+  private final ExpenseMonthlyRollups rollups;
+
+  private final ExpenseAnalyticsStore analytics;
+
+  private final ExpensePartitionProperties properties;
+
+  /**
+   * Creates the partitions of the given month and of the configured months ahead of it, and of
+   * every month with rows in the default partition.
+   *
+   * @param current the current month
+   * @return number of partitions created
+   */
+  @Transactional
+  public int createPartitions(YearMonth current) {
+    TreeSet<LocalDate> months = new TreeSet<>(repository.findDefaultPartitionMonths());
+    for (int i = 0; i <= properties.monthsAhead(); i++) {
+      months.add(current.plusMonths(i).atDay(1));
+    }
+    int created = 0;
+    for (LocalDate month : months) {
+      if (repository.createPartition(month)) {
+        log.info("Created expenses partition for {}", YearMonth.from(month));
+        created++;
+      }
+    }
+    return created;
+  }
+
+  /**
+   * Detaches the partition of a month for archiving, together with its ids, its monthly rollups and
+   * its expenses held by the analytics store.
+   *
+   * <p>The partition stays in the database as the standalone table {@code expenses_YYYY_MM}, ready
+   * to be dumped and dropped. Detaching only touches the catalog, so it is cheap regardless of the
+   * size of the month. Cached listing pages and summaries expire on their own schedule.
+   *
+   * @param month the month to detach
+   * @return {@code true} if the partition was detached, {@code false} if there was none
+   */
+  @Transactional
+  public boolean detach(YearMonth month) {
+    LocalDate first = month.atDay(1);
+    if (!repository.detachPartition(first)) {
+      return false;
+    }
+    rollups.removeMonth(first);
+    analytics.removeMonth(first);
+    log.info("Detached expenses partition for {}", month);
+    return true;
+  }
+}
@@ -1,7 +1,21 @@
 package io.github.alvarorg14.kashy.api.service;
 
 import io.github.alvarorg14.kashy.api.model.domain.Expense;
+import io.github.alvarorg14.kashy.api.model.domain.ExpenseCreationResult;
+import io.github.alvarorg14.kashy.api.model.domain.ExpenseCursor;
+import io.github.alvarorg14.kashy.api.model.domain.ExpenseFilter;
+import io.github.alvarorg14.kashy.api.model.domain.ExpensePage;
+import io.github.alvarorg14.kashy.api.model.domain.ExpenseRevision;
+import io.github.alvarorg14.kashy.api.model.domain.ExpenseSearchCursor;
+import io.github.alvarorg14.kashy.api.model.domain.ExpenseSearchPage;
+import io.github.alvarorg14.kashy.api.model.domain.ExpenseSummary;
+import io.github.alvarorg14.kashy.api.model.domain.ExpenseVersion;
+import io.github.alvarorg14.kashy.api.model.domain.SummaryPeriod;
+import java.time.OffsetDateTime;
 import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
 
 /**
  * Service interface for expense business logic operations.
@@ -14,8 +28,8 @@ public interface ExpenseService {
   /**
    * Creates a new expense.
    *
-   * <p>Generates a UUID, sets creation and update timestamps, and persists the expense to the
-   * database.
+   * <p>Generates an id with the configured id generator, sets creation and update timestamps, and
+   * persists the expense to the database together with its monthly rollup in one transaction.
    *
    * @param expense the expense to create (without id and timestamps)
    * @return the created expense with generated id and timestamps
@@ -23,9 +37,183 @@ public interface ExpenseService {
   Expense createExpense(Expense expense);
 
   /**
-   * Retrieves all expenses.
+   * Creates a new expense at most once per idempotency key.
    *
-   * @return list of all expenses, ordered by creation date (newest first)
+   * <p>The first call with a key creates the expense like {@link #createExpense(Expense)} and
+   * records the key in the same transaction. Later calls with the same key and request, including
+   * concurrent ones, return the originally created expense without writing anything.
+   *
+   * @param expense the expense to create (without id and timestamps)
+   * @param idempotencyKey client-chosen key identifying the creation
+   * @return the created expense, or the one created earlier with the same key
+   * @throws io.github.alvarorg14.kashy.api.exception.IdempotencyKeyReusedException if the key was
+   *     used for a different expense
+   */
+  Expense createExpense(Expense expense, String idempotencyKey);
+
+  /**
+   * Creates many expenses at once.
+   *
+   * <p>Expenses are persisted in chunks of the configured size, each chunk in its own transaction
+   * using JDBC batch inserts and a single rollup update per month, category and currency. A failing
+   * chunk does not undo the chunks committed before it; its expenses are retried individually so
+   * that only the offending ones are reported as failed. Must not be called within an existing
+   * transaction, otherwise chunks are no longer independent.
+   *
+   * @param expenses the expenses to create (without ids and timestamps)
+   * @return one result per expense, in input order
+   */
+  List<ExpenseCreationResult> createExpenses(List<Expense> expenses);
+
+  /**
+   * Assigns an id and the creation and update timestamps to a new expense without persisting it.
+   *
+   * @param expense the expense to prepare (without id and timestamps)
+   * @return the expense with generated id and timestamps
+   */
+  Expense prepareExpense(Expense expense);
+
+  /**
+   * Persists expenses that already carry their id and timestamps.
+   *
+   * <p>Behaves like {@link #createExpenses(List)}, chunk by chunk with per-item results, but keeps
+   * the ids and timestamps assigned by {@link #prepareExpense(Expense)}. Must not be called within
+   * an existing transaction.
+   *
+   * @param expenses the prepared expenses
+   * @return one result per expense, in input order
+   */
+  List<ExpenseCreationResult> persistExpenses(List<Expense> expenses);
+
+  /**
+   * Retrieves a single expense.
+   *
+   * @param id the expense id
+   * @return the expense
+   * @throws io.github.alvarorg14.kashy.api.exception.ExpenseNotFoundException if no expense has the
+   *     given id
+   */
+  Expense getExpense(UUID id);
+
+  /**
+   * Changes a stored expense.
+   *
+   * <p>The expense is read without locking it and only the fields whose value changes are written,
+   * together with a new update timestamp, in one versioned {@code UPDATE} that also moves the
+   * expense between monthly rollups. If nothing changes, nothing is written and the version stays.
+   *
+   * @param id the expense id
+   * @param expectedVersion version the change applies to, or {@code null} for whichever is stored
+   * @param changes turns the stored expense into the desired one; the id, timestamps and version of
+   *     its result are ignored
+   * @return the expense before and after the change
+   * @throws io.github.alvarorg14.kashy.api.exception.ExpenseNotFoundException if no expense has the
+   *     given id
+   * @throws io.github.alvarorg14.kashy.api.exception.ExpenseVersionConflictException if the expense
+   *     is not at the expected version
+   * @throws org.springframework.dao.OptimisticLockingFailureException if another change of the
+   *     expense committed while this one was being written
+   */
+  ExpenseRevision updateExpense(UUID id, Long expectedVersion, UnaryOperator<Expense> changes);
+
+  /**
+   * Deletes a stored expense, together with its share of the monthly rollups.
+   *
+   * @param id the expense id
+   * @param expectedVersion version to delete, or {@code null} for whichever is stored
+   * @return the deleted expense
+   * @throws io.github.alvarorg14.kashy.api.exception.ExpenseNotFoundException if no expense has the
+   *     given id
+   * @throws io.github.alvarorg14.kashy.api.exception.ExpenseVersionConflictException if the expense
+   *     is not at the expected version
+   * @throws org.springframework.dao.OptimisticLockingFailureException if another change of the
+   *     expense committed while it was being deleted
+   */
+  Expense deleteExpense(UUID id, Long expectedVersion);
+
+  /**
+   * Retrieves a page of the expenses matching a filter.
+   *
+   * <p>Cursors are only meaningful together with the filter of the page that produced them.
+   *
+   * @param filter criteria the expenses must match; {@link ExpenseFilter#NONE} lists every expense
+   * @param cursor position to continue from, or {@code null} for the first page
+   * @param limit maximum number of expenses to return; must be positive
+   * @return page of expenses ordered by date-time (newest first), with the cursor of the next page
+   *     if more expenses are available
+   */
+  ExpensePage listExpenses(ExpenseFilter filter, ExpenseCursor cursor, int limit);
+
+  /**
+   * Searches the description and notes of every expense.
+   *
+   * <p>Matching runs in the database against a full-text index, so no expense is loaded unless it
+   * matches. Cursors are only meaningful together with the query of the page that produced them.
+   *
+   * @param query search terms in web search syntax; must contain at least one word
+   * @param cursor position to continue from, or {@code null} for the first page
+   * @param limit maximum number of expenses to return; must be positive
+   * @return page of matching expenses, most relevant first and newest first among equally relevant
+   *     ones, with the cursor of the next page if more matches are available
+   */
+  ExpenseSearchPage searchExpenses(String query, ExpenseSearchCursor cursor, int limit);
+
+  /**
+   * Streams every expense to the given sink, newest first.
+   *
+   * <p>Expenses are handed over one at a time while the underlying query is still being read, and
+   * are not retained afterwards, so memory use does not grow with the number of expenses. The sink
+   * runs inside a read-only transaction and should not block for long.
+   *
+   * @param sink receives each expense in order
+   */
+  void exportExpenses(Consumer<Expense> sink);
+
+  /**
+   * Summarizes expenses per period, category and currency.
+   *
+   * <p>Totals, counts and averages are computed by the database; no individual expense is loaded.
+   * Monthly summaries whose bounds are absent or fall on UTC month starts are read from the monthly
+   * rollups, costing one row per month, category and currency regardless of the number of expenses.
+   * Other summaries in the original currencies are computed by the in-memory analytics store when
+   * it is enabled and loaded.
+   *
+   * <p>With a base currency, every amount is converted at the exchange rates of its day and groups
+   * are no longer split by currency. The conversion runs in the database over daily sums, so large
+   * ranges are not converted row by row.
+   *
+   * @param period calendar period expenses are grouped into
+   * @param from inclusive lower bound of the expense date-time, or {@code null} for no bound
+   * @param to exclusive upper bound of the expense date-time, or {@code null} for no bound
+   * @param baseCurrency ISO 4217 code to convert every amount to, or {@code null} to keep the
+   *     original currencies
+   * @return one summary per period, category and currency, ordered by period start, category and
+   *     currency
+   * @throws io.github.alvarorg14.kashy.api.exception.ExchangeRateUnavailableException if the base
+   *     currency or a currency of the summarized expenses has no exchange rates
+   */
+  List<ExpenseSummary> summarizeExpenses(
+      SummaryPeriod period, OffsetDateTime from, OffsetDateTime to, String baseCurrency);
+
+  /**
+   * Returns the current version of the expense collection.
+   *
+   * <p>Aggregated from the revisions of the monthly rollups, which every expense write moves,
+   * without loading any expense, so clients can cheaply tell whether anything changed since their
+   * last read. Always read on the primary database.
+   *
+   * @return the version of the stored expenses
+   */
+  ExpenseVersion getExpenseVersion();
+
+  /**
+   * Returns a recent version of the expense collection.
+   *
+   * <p>May trail {@link #getExpenseVersion()} briefly, since it may come from a read replica or an
+   * in-process cache, so it is only fit for labelling a listing about to be read, never for
+   * confirming that a client's copy is still current.
+   *
+   * @return the version of the stored expenses, possibly slightly outdated
    */
-  List<Expense> listExpenses();
+  ExpenseVersion getRecentExpenseVersion();
 }
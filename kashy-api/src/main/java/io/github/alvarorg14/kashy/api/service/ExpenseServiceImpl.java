@@ -1,15 +1,52 @@
 package io.github.alvarorg14.kashy.api.service;
 
+import io.github.alvarorg14.kashy.api.analytics.ExpenseAnalyticsStore;
+import io.github.alvarorg14.kashy.api.config.ExpenseBatchProperties;
+import io.github.alvarorg14.kashy.api.exception.ExchangeRateUnavailableException;
+import io.github.alvarorg14.kashy.api.exception.ExpenseNotFoundException;
+import io.github.alvarorg14.kashy.api.exception.ExpenseVersionConflictException;
+import io.github.alvarorg14.kashy.api.id.IdGenerator;
 import io.github.alvarorg14.kashy.api.mapper.ExpenseEntityMapper;
+import io.github.alvarorg14.kashy.api.metrics.ExpenseMetrics;
+import io.github.alvarorg14.kashy.api.metrics.ExpenseStage;
 import io.github.alvarorg14.kashy.api.model.domain.Expense;
+import io.github.alvarorg14.kashy.api.model.domain.ExpenseCreationResult;
+import io.github.alvarorg14.kashy.api.model.domain.ExpenseCreationResult.Created;
+import io.github.alvarorg14.kashy.api.model.domain.ExpenseCreationResult.Failed;
+import io.github.alvarorg14.kashy.api.model.domain.ExpenseCursor;
+import io.github.alvarorg14.kashy.api.model.domain.ExpenseFilter;
+import io.github.alvarorg14.kashy.api.model.domain.ExpensePage;
+import io.github.alvarorg14.kashy.api.model.domain.ExpenseRevision;
+import io.github.alvarorg14.kashy.api.model.domain.ExpenseSearchCursor;
+import io.github.alvarorg14.kashy.api.model.domain.ExpenseSearchPage;
+import io.github.alvarorg14.kashy.api.model.domain.ExpenseSummary;
+import io.github.alvarorg14.kashy.api.model.domain.ExpenseVersion;
+import io.github.alvarorg14.kashy.api.model.domain.SummaryPeriod;
+import io.github.alvarorg14.kashy.api.model.entity.ExpenseEntity;
+import io.github.alvarorg14.kashy.api.model.projection.ExpenseSearchProjection;
+import io.github.alvarorg14.kashy.api.model.projection.ExpenseVersionProjection;
+import io.github.alvarorg14.kashy.api.repository.ExpenseMonthlyRollupRepository;
 import io.github.alvarorg14.kashy.api.repository.ExpenseRepository;
+import jakarta.persistence.EntityManager;
+import java.time.LocalDate;
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionOperations;
 
 /**
  * Implementation of ExpenseService providing expense business logic.
@@ -24,37 +61,434 @@ public class ExpenseServiceImpl implements ExpenseService {
 
   private final ExpenseRepository repository;
   private final ExpenseEntityMapper mapper;
+  private final EntityManager entityManager;
+  private final ExpenseBatchProperties batchProperties;
+  private final IdGenerator idGenerator;
+  private final ExpenseMonthlyRollups rollups;
+  private final ExpenseMonthlyRollupRepository rollupRepository;
+  private final TransactionOperations transactions;
+  private final ExpenseMetrics metrics;
+  private final ExpenseIdempotencyKeys idempotencyKeys;
+  private final ExchangeRates exchangeRates;
+  private final ExpenseAnalyticsStore analytics;
+  private final ExpenseSummaryEngine summaryEngine;
 
   @Override
   @Transactional
   public Expense createExpense(Expense expense) {
+    return metrics.record(ExpenseStage.SERVICE_CREATE, () -> doCreateExpense(expense));
+  }
+
+  private Expense doCreateExpense(Expense expense) {
     log.debug("Creating expense: {}", expense.description());
-    OffsetDateTime now = OffsetDateTime.now();
-    UUID id = UUID.randomUUID();
-
-    Expense expenseWithId =
-        Expense.builder()
-            .id(id)
-            .description(expense.description())
-            .dateTime(expense.dateTime())
-            .amount(expense.amount())
-            .currency(expense.currency())
-            .category(expense.category())
-            .notes(expense.notes())
-            .createdAt(now)
-            .updatedAt(now)
-            .build();
-
-    var entity = mapper.toEntity(expenseWithId);
-    var savedEntity = repository.save(entity);
+    Expense expenseWithId = withGeneratedFields(expense, OffsetDateTime.now());
+
+    var entity =
+        metrics.record(ExpenseStage.MAP_DOMAIN_TO_ENTITY, () -> mapper.toEntity(expenseWithId));
+    var savedEntity = metrics.record(ExpenseStage.PERSIST_SAVE, () -> repository.save(entity));
+    metrics.record(ExpenseStage.PERSIST_ROLLUP_UPDATE, () -> rollups.add(List.of(expenseWithId)));
+    analytics.add(List.of(expenseWithId));
     log.info("Created expense with id: {}", savedEntity.getId());
-    return mapper.toDomain(savedEntity);
+    return metrics.record(ExpenseStage.MAP_ENTITY_TO_DOMAIN, () -> mapper.toDomain(savedEntity));
+  }
+
+  @Override
+  public Expense createExpense(Expense expense, String idempotencyKey) {
+    return metrics.record(
+        ExpenseStage.SERVICE_CREATE, () -> doCreateExpense(expense, idempotencyKey));
+  }
+
+  private Expense doCreateExpense(Expense expense, String idempotencyKey) {
+    Optional<Expense> replay = idempotencyKeys.find(idempotencyKey, expense);
+    if (replay.isPresent()) {
+      log.info("Replayed expense with id: {}", replay.get().id());
+      return replay.get();
+    }
+    try {
+      return transactions.execute(
+          status -> {
+            Expense created = doCreateExpense(expense);
+            idempotencyKeys.record(idempotencyKey, expense, created);
+            return created;
+          });
+    } catch (DataIntegrityViolationException e) {
+      // A concurrent request with the same key committed first; its expense is the answer
+      return idempotencyKeys.find(idempotencyKey, expense).orElseThrow(() -> e);
+    }
+  }
+
+  @Override
+  public List<ExpenseCreationResult> createExpenses(List<Expense> expenses) {
+    return metrics.record(ExpenseStage.SERVICE_CREATE_BATCH, () -> doCreateExpenses(expenses));
+  }
+
+  private List<ExpenseCreationResult> doCreateExpenses(List<Expense> expenses) {
+    OffsetDateTime now = OffsetDateTime.now();
+    return insertInChunks(expenses.stream().map(e -> withGeneratedFields(e, now)).toList());
+  }
+
+  @Override
+  public Expense prepareExpense(Expense expense) {
+    return withGeneratedFields(expense, OffsetDateTime.now());
+  }
+
+  @Override
+  public List<ExpenseCreationResult> persistExpenses(List<Expense> expenses) {
+    return metrics.record(ExpenseStage.SERVICE_PERSIST_BATCH, () -> insertInChunks(expenses));
+  }
+
+  private List<ExpenseCreationResult> insertInChunks(List<Expense> prepared) {
+    int chunkSize = batchProperties.chunkSize();
+    log.debug("Creating {} expenses in chunks of {}", prepared.size(), chunkSize);
+    List<ExpenseCreationResult> results = new ArrayList<>(prepared.size());
+    for (int from = 0; from < prepared.size(); from += chunkSize) {
+      int to = Math.min(from + chunkSize, prepared.size());
+      results.addAll(insertChunk(prepared, from, to));
+    }
+
+    long failed = results.stream().filter(ExpenseCreationResult.Failed.class::isInstance).count();
+    log.info("Created {} of {} expenses in bulk", results.size() - failed, results.size());
+    return results;
   }
 
   @Override
   @Transactional(readOnly = true)
-  public List<Expense> listExpenses() {
-    log.debug("Retrieving all expenses");
-    return repository.findAll().stream().map(mapper::toDomain).toList();
+  public Expense getExpense(UUID id) {
+    return metrics.record(ExpenseStage.SERVICE_GET, () -> doGetExpense(id));
+  }
+
+  private Expense doGetExpense(UUID id) {
+    log.debug("Retrieving expense with id: {}", id);
+    ExpenseEntity entity =
+        metrics
+            .record(ExpenseStage.PERSIST_FIND_BY_ID, () -> repository.findById(id))
+            .orElseThrow(() -> new ExpenseNotFoundException(id));
+    return metrics.record(ExpenseStage.MAP_ENTITY_TO_DOMAIN, () -> mapper.toDomain(entity));
+  }
+
+  @Override
+  @Transactional
+  public ExpenseRevision updateExpense(
+      UUID id, Long expectedVersion, UnaryOperator<Expense> changes) {
+    return metrics.record(
+        ExpenseStage.SERVICE_UPDATE, () -> doUpdateExpense(id, expectedVersion, changes));
+  }
+
+  private ExpenseRevision doUpdateExpense(
+      UUID id, Long expectedVersion, UnaryOperator<Expense> changes) {
+    log.debug("Updating expense with id: {}", id);
+    ExpenseEntity entity = findForChange(id, expectedVersion);
+    Expense before =
+        metrics.record(ExpenseStage.MAP_ENTITY_TO_DOMAIN, () -> mapper.toDomain(entity));
+    if (!copyChanges(changes.apply(before), entity)) {
+      log.debug("Expense {} is unchanged", id);
+      return new ExpenseRevision(before, before);
+    }
+    entity.setUpdatedAt(OffsetDateTime.now());
+    // Runs the versioned UPDATE now, so a concurrent change fails here and the new version is known
+    metrics.record(ExpenseStage.PERSIST_UPDATE, repository::flush);
+    Expense after =
+        metrics.record(ExpenseStage.MAP_ENTITY_TO_DOMAIN, () -> mapper.toDomain(entity));
+    metrics.record(ExpenseStage.PERSIST_ROLLUP_UPDATE, () -> rollups.update(before, after));
+    analytics.update(before, after);
+    log.info("Updated expense with id: {} to version {}", id, after.version());
+    return new ExpenseRevision(before, after);
+  }
+
+  @Override
+  @Transactional
+  public Expense deleteExpense(UUID id, Long expectedVersion) {
+    return metrics.record(ExpenseStage.SERVICE_DELETE, () -> doDeleteExpense(id, expectedVersion));
+  }
+
+  private Expense doDeleteExpense(UUID id, Long expectedVersion) {
+    log.debug("Deleting expense with id: {}", id);
+    ExpenseEntity entity = findForChange(id, expectedVersion);
+    Expense deleted =
+        metrics.record(ExpenseStage.MAP_ENTITY_TO_DOMAIN, () -> mapper.toDomain(entity));
+    metrics.record(
+        ExpenseStage.PERSIST_DELETE,
+        () -> {
+          repository.delete(entity);
+          repository.flush();
+        });
+    metrics.record(ExpenseStage.PERSIST_ROLLUP_UPDATE, () -> rollups.remove(deleted));
+    analytics.remove(deleted);
+    log.info("Deleted expense with id: {}", id);
+    return deleted;
+  }
+
+  /** Reads an expense to change, failing early if it is not at the expected version. */
+  private ExpenseEntity findForChange(UUID id, Long expectedVersion) {
+    ExpenseEntity entity =
+        metrics
+            .record(ExpenseStage.PERSIST_FIND_BY_ID, () -> repository.findById(id))
+            .orElseThrow(() -> new ExpenseNotFoundException(id));
+    if (expectedVersion != null && !expectedVersion.equals(entity.getVersion())) {
+      throw new ExpenseVersionConflictException(id, entity.getVersion(), expectedVersion);
+    }
+    return entity;
+  }
+
+  /**
+   * Sets the entity fields whose requested value differs from the stored one.
+   *
+   * <p>Amounts and date-times are compared by value, so a request repeating the stored ones with a
+   * different scale or offset changes nothing. Untouched fields stay clean, so the dynamic update
+   * leaves their columns out of the statement.
+   *
+   * @return {@code true} if any field changed
+   */
+  private static boolean copyChanges(Expense requested, ExpenseEntity entity) {
+    boolean changed = false;
+    if (!requested.description().equals(entity.getDescription())) {
+      entity.setDescription(requested.description());
+      changed = true;
+    }
+    if (!requested.dateTime().isEqual(entity.getDateTime())) {
+      entity.setDateTime(requested.dateTime());
+      changed = true;
+    }
+    if (requested.amount().compareTo(entity.getAmount()) != 0) {
+      entity.setAmount(requested.amount());
+      changed = true;
+    }
+    if (!requested.currency().equals(entity.getCurrency())) {
+      entity.setCurrency(requested.currency());
+      changed = true;
+    }
+    if (requested.category() != entity.getCategory()) {
+      entity.setCategory(requested.category());
+      changed = true;
+    }
+    if (!Objects.equals(requested.notes(), entity.getNotes())) {
+      entity.setNotes(requested.notes());
+      changed = true;
+    }
+    return changed;
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public ExpensePage listExpenses(ExpenseFilter filter, ExpenseCursor cursor, int limit) {
+    return metrics.record(ExpenseStage.SERVICE_LIST, () -> doListExpenses(filter, cursor, limit));
+  }
+
+  private ExpensePage doListExpenses(ExpenseFilter filter, ExpenseCursor cursor, int limit) {
+    log.debug("Retrieving {} expenses matching {} after cursor: {}", limit, filter, cursor);
+    // One extra row tells whether another page exists without a separate count query
+    List<Expense> rows =
+        metrics.record(
+            ExpenseStage.PERSIST_FIND_PAGE,
+            () -> repository.findPage(filter, cursor, Limit.of(limit + 1)));
+
+    List<Expense> expenses = rows.stream().limit(limit).toList();
+    ExpenseCursor nextCursor = rows.size() > limit ? ExpenseCursor.after(expenses.getLast()) : null;
+    return new ExpensePage(expenses, nextCursor);
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public ExpenseSearchPage searchExpenses(String query, ExpenseSearchCursor cursor, int limit) {
+    return metrics.record(
+        ExpenseStage.SERVICE_SEARCH, () -> doSearchExpenses(query, cursor, limit));
+  }
+
+  private ExpenseSearchPage doSearchExpenses(String query, ExpenseSearchCursor cursor, int limit) {
+    log.debug("Searching {} expenses matching '{}' after cursor: {}", limit, query, cursor);
+    // One extra row tells whether another page exists without a separate count query
+    List<ExpenseSearchProjection> rows =
+        metrics.record(
+            ExpenseStage.PERSIST_SEARCH,
+            () ->
+                cursor == null
+                    ? repository.search(query, null, null, null, limit + 1)
+                    : repository.search(
+                        query, cursor.rank(), cursor.dateTime(), cursor.id(), limit + 1));
+
+    List<ExpenseSearchProjection> matches = rows.stream().limit(limit).toList();
+    ExpenseSearchCursor nextCursor = null;
+    if (rows.size() > limit) {
+      ExpenseSearchProjection last = matches.getLast();
+      nextCursor =
+          new ExpenseSearchCursor(
+              last.getRank(), mapper.toDateTime(last.getDateTime()), last.getId());
+    }
+    List<Expense> expenses =
+        metrics.record(
+            ExpenseStage.MAP_ENTITY_TO_DOMAIN,
+            () -> matches.stream().map(mapper::toDomain).toList());
+    return new ExpenseSearchPage(expenses, nextCursor);
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public void exportExpenses(Consumer<Expense> sink) {
+    log.debug("Exporting all expenses");
+    try (Stream<ExpenseEntity> entities = repository.streamAll()) {
+      entities.forEach(
+          entity -> {
+            // Detach each row so the persistence context stays empty however many rows are read
+            entityManager.detach(entity);
+            sink.accept(mapper.toDomain(entity));
+          });
+    }
+  }
+
+  // Not transactional: every query opens its own read-only transaction, so a summary split into
+  // parallel month chunks holds no connection while it waits for them
+  @Override
+  public List<ExpenseSummary> summarizeExpenses(
+      SummaryPeriod period, OffsetDateTime from, OffsetDateTime to, String baseCurrency) {
+    return metrics.record(
+        ExpenseStage.SERVICE_SUMMARIZE,
+        () ->
+            baseCurrency == null
+                ? doSummarizeExpenses(period, from, to)
+                : doSummarizeExpenses(period, from, to, baseCurrency));
+  }
+
+  private List<ExpenseSummary> doSummarizeExpenses(
+      SummaryPeriod period, OffsetDateTime from, OffsetDateTime to, String baseCurrency) {
+    log.debug(
+        "Summarizing expenses per {} between {} and {} in {}", period, from, to, baseCurrency);
+    requireExchangeRates(baseCurrency, from, to);
+    var rows =
+        metrics.record(
+            ExpenseStage.PERSIST_SUMMARIZE,
+            () ->
+                repository.summarizeIn(
+                    period.sqlUnit(), from, to, baseCurrency, exchangeRates.referenceCurrency()));
+    return metrics.record(
+        ExpenseStage.MAP_ENTITY_TO_DOMAIN, () -> rows.stream().map(mapper::toDomain).toList());
+  }
+
+  /**
+   * Fails unless every currency the summary converts has rates.
+   *
+   * <p>The currencies are read from the rollups of the whole months around the range, one row per
+   * month, category and currency, so the check never scans expenses. A currency used only in the
+   * part of a boundary month outside the range still has to have rates.
+   */
+  private void requireExchangeRates(String baseCurrency, OffsetDateTime from, OffsetDateTime to) {
+    if (!exchangeRates.supports(baseCurrency)) {
+      throw new ExchangeRateUnavailableException(baseCurrency);
+    }
+    LocalDate toMonth =
+        to == null || ExpenseMonthlyRollups.isMonthBoundary(to)
+            ? monthOrNull(to)
+            : ExpenseMonthlyRollups.monthOf(to).plusMonths(1);
+    rollupRepository.findCurrencies(monthOrNull(from), toMonth).stream()
+        .filter(currency -> !exchangeRates.supports(currency))
+        .findFirst()
+        .ifPresent(
+            currency -> {
+              throw new ExchangeRateUnavailableException(currency);
+            });
+  }
+
+  private List<ExpenseSummary> doSummarizeExpenses(
+      SummaryPeriod period, OffsetDateTime from, OffsetDateTime to) {
+    log.debug("Summarizing expenses per {} between {} and {}", period, from, to);
+    // Whole months can be answered from the rollups, reading one row per group instead of scanning
+    boolean fromRollups =
+        period == SummaryPeriod.MONTH
+            && ExpenseMonthlyRollups.isMonthBoundary(from)
+            && ExpenseMonthlyRollups.isMonthBoundary(to);
+    if (!fromRollups) {
+      Optional<List<ExpenseSummary>> inMemory =
+          metrics.record(
+              ExpenseStage.PERSIST_ANALYTICS_SUMMARIZE,
+              () -> analytics.summarize(period, from, to));
+      return inMemory.orElseGet(
+          () ->
+              metrics.record(
+                  ExpenseStage.PERSIST_SUMMARIZE, () -> summaryEngine.summarize(period, from, to)));
+    }
+    var rows =
+        metrics.record(
+            ExpenseStage.PERSIST_SUMMARIZE,
+            () -> rollupRepository.summarize(monthOrNull(from), monthOrNull(to)));
+    return metrics.record(
+        ExpenseStage.MAP_ENTITY_TO_DOMAIN, () -> rows.stream().map(mapper::toDomain).toList());
+  }
+
+  @Override
+  // Read-write so it runs on the primary: a lagging replica would confirm listings a client
+  // already saw changing
+  @Transactional
+  public ExpenseVersion getExpenseVersion() {
+    return readVersion();
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public ExpenseVersion getRecentExpenseVersion() {
+    return readVersion();
+  }
+
+  private ExpenseVersion readVersion() {
+    return metrics.record(
+        ExpenseStage.SERVICE_VERSION,
+        () -> {
+          ExpenseVersionProjection version = rollupRepository.findVersion();
+          return new ExpenseVersion(version.getRevision(), version.getLastModified());
+        });
+  }
+
+  private List<ExpenseCreationResult> insertChunk(List<Expense> expenses, int from, int to) {
+    try {
+      insertAll(expenses.subList(from, to));
+      return IntStream.range(from, to)
+          .<ExpenseCreationResult>mapToObj(i -> new Created(i, expenses.get(i)))
+          .toList();
+    } catch (DataAccessException e) {
+      // The chunk was rolled back as a whole; isolate the offending rows by inserting one at a time
+      log.warn("Bulk insert of expenses [{}, {}) failed, retrying individually", from, to, e);
+      return IntStream.range(from, to).mapToObj(i -> insertOne(i, expenses.get(i))).toList();
+    }
+  }
+
+  private ExpenseCreationResult insertOne(int index, Expense expense) {
+    try {
+      insertAll(List.of(expense));
+      return new Created(index, expense);
+    } catch (DataAccessException e) {
+      return new Failed(
+          index, "Expense could not be stored: " + e.getMostSpecificCause().getMessage());
+    }
+  }
+
+  private void insertAll(List<Expense> expenses) {
+    // Expenses and their rollup deltas commit or roll back together
+    transactions.executeWithoutResult(
+        status -> {
+          List<ExpenseEntity> entities =
+              metrics.record(
+                  ExpenseStage.MAP_DOMAIN_TO_ENTITY,
+                  () -> expenses.stream().map(mapper::toEntity).toList());
+          metrics.record(ExpenseStage.PERSIST_INSERT_BATCH, () -> repository.insertAll(entities));
+          metrics.record(ExpenseStage.PERSIST_ROLLUP_UPDATE, () -> rollups.add(expenses));
+          analytics.add(expenses);
+        });
+  }
+
+  private static LocalDate monthOrNull(OffsetDateTime dateTime) {
+    return dateTime == null ? null : ExpenseMonthlyRollups.monthOf(dateTime);
+  }
+
+  private Expense withGeneratedFields(Expense expense, OffsetDateTime now) {
+    return Expense.builder()
+        .id(idGenerator.nextId())
+        .description(expense.description())
+        .dateTime(expense.dateTime())
+        .amount(expense.amount())
+        .currency(expense.currency())
+        .category(expense.category())
+        .notes(expense.notes())
+        .createdAt(now)
+        .updatedAt(now)
+        .version(0L)
+        .build();
   }
 }
@@ -0,0 +1,218 @@
+package io.github.alvarorg14.kashy.api.service;
+
+import io.github.alvarorg14.kashy.api.config.ExpenseSummaryProperties;
+import io.github.alvarorg14.kashy.api.config.ReadReplicaProperties;
+import io.github.alvarorg14.kashy.api.mapper.ExpenseEntityMapper;
+import io.github.alvarorg14.kashy.api.model.domain.ExpenseSummary;
+import io.github.alvarorg14.kashy.api.model.domain.SummaryPeriod;
+import io.github.alvarorg14.kashy.api.model.projection.ExpenseDateTimeRangeProjection;
+import io.github.alvarorg14.kashy.api.model.projection.ExpenseSummaryProjection;
+import io.github.alvarorg14.kashy.api.money.MinorUnits;
+import io.github.alvarorg14.kashy.api.money.MinorUnitsSum;
+import io.github.alvarorg14.kashy.api.repository.ExpenseRepository;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Aggregates expense summaries in the database, splitting long ranges into month chunks that run in
+ * parallel.
+ *
+ * <p>A range spanning at least {@link ExpenseSummaryProperties#minimumMonths()} months is cut at
+ * UTC month starts and each month is summarized by its own read-only query on a virtual thread,
+ * touching a single partition. The months are derived from the bounds themselves, narrowed to the
+ * first and last expense within them, so no expense is left out of every chunk. The partial rows
+ * are merged by period, category and currency: counts and totals are added up exactly in {@link
+ * MinorUnits} and averages recomputed. Only weeks straddling a month start have more than one
+ * partial row.
+ *
+ * <p>The summary is only eventually consistent. Every chunk reads its own snapshot, possibly on a
+ * different replica, so a write committing while the chunks run may show in some months and not in
+ * others, and an expense moved to another month meanwhile may be counted twice or not at all. Each
+ * month is consistent by itself, and without concurrent writes the result equals that of one query
+ * over the whole range. A shared exported snapshot would need every chunk on the server that
+ * exported it, giving up the replicas.
+ *
+ * <p>The chunks of all summaries share {@link ExpenseSummaryProperties#parallelism()} connections,
+ * at most half of the pool they are read from: the primary pool, or with read replicas the smaller
+ * of a replica pool and the primary pool, which serves reads while no replica is healthy. A burst
+ * of summaries therefore cannot starve the other requests. Callers must not hold a transaction:
+ * each chunk runs in its own, and a caller waiting on its chunks while holding a connection could
+ * exhaust the pool.
+ */
+@Component
+@Slf4j
+public class ExpenseSummaryEngine {
+
+  private static final Comparator<ExpenseSummary> GROUP_ORDER =
+      Comparator.comparing(ExpenseSummary::periodStart)
+          .thenComparing(summary -> summary.category().name())
+          .thenComparing(ExpenseSummary::currency);
+
+  private final ExpenseRepository repository;
+  private final ExpenseEntityMapper mapper;
+  private final int minimumMonths;
+  private final int parallelism;
+  private final Semaphore connections;
+
+  public ExpenseSummaryEngine(
+      ExpenseRepository repository,
+      ExpenseEntityMapper mapper,
+      ExpenseSummaryProperties properties,
+      ReadReplicaProperties replicas,
+      @Value("${spring.datasource.hikari.maximum-pool-size:10}") int primaryPoolSize) {
+    this.repository = repository;
+    this.mapper = mapper;
+    this.minimumMonths = properties.minimumMonths();
+    // Chunks are read-only, so they draw from a replica pool, or the primary one as fallback
+    int poolSize =
+        replicas.enabled() && !replicas.replicas().isEmpty()
+            ? Math.min(replicas.maximumPoolSize(), primaryPoolSize)
+            : primaryPoolSize;
+    this.parallelism = Math.max(1, Math.min(properties.parallelism(), poolSize / 2));
+    this.connections = new Semaphore(parallelism);
+    if (parallelism < properties.parallelism()) {
+      log.info(
+          "Summary parallelism capped at {} by a pool of {} connections", parallelism, poolSize);
+    }
+  }
+
+  /**
+   * Aggregates expenses by period, category and currency.
+   *
+   * @param period period to group by, truncated in UTC
+   * @param from inclusive lower bound of the expense date-time, or {@code null} for no bound
+   * @param to exclusive upper bound of the expense date-time, or {@code null} for no bound
+   * @return one summary per period, category and currency, ordered by period start, category and
+   *     currency
+   */
+  public List<ExpenseSummary> summarize(
+      SummaryPeriod period, OffsetDateTime from, OffsetDateTime to) {
+    List<LocalDate> months = parallelism == 1 ? List.of() : months(from, to);
+    if (months.size() < minimumMonths) {
+      return toDomain(repository.summarize(period.sqlUnit(), from, to));
+    }
+
+    log.debug("Summarizing {} months in parallel, {} at a time", months.size(), parallelism);
+    List<List<ExpenseSummaryProjection>> partials = new ArrayList<>(months.size());
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      List<Future<List<ExpenseSummaryProjection>>> chunks =
+          months.stream()
+              .map(month -> executor.submit(() -> summarizeMonth(period, month, from, to)))
+              .toList();
+      for (Future<List<ExpenseSummaryProjection>> chunk : chunks) {
+        partials.add(chunk.get());
+      }
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw new IllegalStateException("Summary chunk failed", e.getCause());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while summarizing expenses", e);
+    }
+    return merge(partials);
+  }
+
+  /**
+   * Lists the months a range spans, from that of its first expense to that of its last.
+   *
+   * <p>Ranges with both bounds spanning fewer than the minimum months are not probed.
+   */
+  private List<LocalDate> months(OffsetDateTime from, OffsetDateTime to) {
+    if (from != null
+        && to != null
+        && ExpenseMonthlyRollups.monthOf(from).plusMonths(minimumMonths).isAfter(monthAfter(to))) {
+      return List.of();
+    }
+    ExpenseDateTimeRangeProjection range = repository.findDateTimeRange(from, to);
+    if (range.getFirst() == null) {
+      return List.of();
+    }
+    LocalDate month = ExpenseMonthlyRollups.monthOf(range.getFirst().atOffset(ZoneOffset.UTC));
+    LocalDate last = ExpenseMonthlyRollups.monthOf(range.getLast().atOffset(ZoneOffset.UTC));
+    List<LocalDate> months = new ArrayList<>();
+    for (; !month.isAfter(last); month = month.plusMonths(1)) {
+      months.add(month);
+    }
+    return months;
+  }
+
+  private List<ExpenseSummaryProjection> summarizeMonth(
+      SummaryPeriod period, LocalDate month, OffsetDateTime from, OffsetDateTime to)
+      throws InterruptedException {
+    OffsetDateTime start = month.atStartOfDay().atOffset(ZoneOffset.UTC);
+    OffsetDateTime end = start.plusMonths(1);
+    OffsetDateTime chunkFrom = from != null && from.isAfter(start) ? from : start;
+    OffsetDateTime chunkTo = to != null && to.isBefore(end) ? to : end;
+    connections.acquire();
+    try {
+      return repository.summarize(period.sqlUnit(), chunkFrom, chunkTo);
+    } finally {
+      connections.release();
+    }
+  }
+
+  private List<ExpenseSummary> merge(List<List<ExpenseSummaryProjection>> partials) {
+    Map<ExpenseSummary, Group> groups = new TreeMap<>(GROUP_ORDER);
+    for (List<ExpenseSummaryProjection> partial : partials) {
+      for (ExpenseSummary row : toDomain(partial)) {
+        groups.computeIfAbsent(row, key -> new Group()).add(row);
+      }
+    }
+    List<ExpenseSummary> summaries = new ArrayList<>(groups.size());
+    groups.forEach((key, group) -> summaries.add(group.toSummary(key)));
+    return summaries;
+  }
+
+  private List<ExpenseSummary> toDomain(List<ExpenseSummaryProjection> rows) {
+    return rows.stream().map(mapper::toDomain).toList();
+  }
+
+  /** Returns the first month entirely at or after an exclusive bound. */
+  private static LocalDate monthAfter(OffsetDateTime to) {
+    return ExpenseMonthlyRollups.isMonthBoundary(to)
+        ? ExpenseMonthlyRollups.monthOf(to)
+        : ExpenseMonthlyRollups.monthOf(to).plusMonths(1);
+  }
+
+  /** Partial rows of one period, category and currency added up. */
+  private static final class Group {
+
+    private long count;
+    private final MinorUnitsSum total = new MinorUnitsSum();
+
+    void add(ExpenseSummary row) {
+      count += row.count();
+      total.add(row.total());
+    }
+
+    ExpenseSummary toSummary(ExpenseSummary key) {
+      BigDecimal sum = total.toDecimal();
+      return ExpenseSummary.builder()
+          .periodStart(key.periodStart())
+          .category(key.category())
+          .currency(key.currency())
+          .count(count)
+          .total(sum)
+          .average(sum.divide(BigDecimal.valueOf(count), MinorUnits.SCALE, RoundingMode.HALF_UP))
+          .build();
+    }
+  }
+}
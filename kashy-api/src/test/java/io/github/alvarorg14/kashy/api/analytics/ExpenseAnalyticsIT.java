@@ -0,0 +1,205 @@
+package io.github.alvarorg14.kashy.api.analytics;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.github.alvarorg14.kashy.api.config.AbstractIT;
+import io.github.alvarorg14.kashy.api.job.ExpenseAnalyticsVerifyJob;
+import io.github.alvarorg14.kashy.api.mapper.ExpenseEntityMapper;
+import io.github.alvarorg14.kashy.api.model.domain.ExpenseSummary;
+import io.github.alvarorg14.kashy.api.model.domain.SummaryPeriod;
+import io.github.alvarorg14.kashy.api.repository.ExpenseMonthlyRollupRepository;
+import io.github.alvarorg14.kashy.api.repository.ExpenseRepository;
+import io.github.alvarorg14.kashy.api.service.CachingExpenseService;
+import io.restassured.RestAssured;
+import io.restassured.http.ContentType;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest(
+    webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = "kashy.expenses.analytics.enabled=true")
+@ActiveProfiles("test")
+@DisplayName("Expense analytics store Integration Tests")
+class ExpenseAnalyticsIT extends AbstractIT {
+
+  private static final String EXPENSES_BASE_PATH = "/api/v1/expenses";
+
+  @Value("${local.server.port}")
+  private int port;
+
+  @Autowired private ExpenseRepository expenseRepository;
+
+  @Autowired private ExpenseMonthlyRollupRepository rollupRepository;
+
+  @Autowired private CachingExpenseService cachingExpenseService;
+
+  @Autowired private ExpenseAnalyticsStore store;
+
+  @Autowired private ExpenseEntityMapper mapper;
+
+  @Autowired private ExpenseAnalyticsVerifyJob verifyJob;
+
+  @BeforeEach
+  void setUp() {
+    RestAssured.port = port;
+    RestAssured.baseURI = "http://localhost";
+    expenseRepository.deleteAll();
+    rollupRepository.deleteAll();
+    cachingExpenseService.invalidateAll();
+    store.load();
+  }
+
+  @Test
+  @DisplayName("Given created expenses when summarizing then memory and database agree")
+  void givenCreatedExpenses_whenSummarizing_thenMemoryAndDatabaseAgree() {
+    createExpense("10.00", "FOOD", "EUR", "2024-01-05T10:00:00Z");
+    createExpense("12.345", "FOOD", "EUR", "2024-01-05T11:00:00Z");
+    createExpense("3.00", "TRANSPORT", "USD", "2024-01-09T23:30:00-02:00");
+    createExpense("7.00", "HOUSING", "EUR", "2024-02-01T00:00:00Z");
+
+    for (SummaryPeriod period : SummaryPeriod.values()) {
+      assertEquals(databaseSummary(period, null, null), store.summarize(period, null, null).get());
+    }
+    OffsetDateTime from = OffsetDateTime.parse("2024-01-05T10:30:00Z");
+    OffsetDateTime to = OffsetDateTime.parse("2024-02-01T00:00:00Z");
+    assertEquals(
+        databaseSummary(SummaryPeriod.WEEK, from, to),
+        store.summarize(SummaryPeriod.WEEK, from, to).get());
+
+    given()
+        .queryParam("period", "DAY")
+        .queryParam("from", "2024-01-05T00:00:00Z")
+        .queryParam("to", "2024-01-06T00:00:00Z")
+        .when()
+        .get(EXPENSES_BASE_PATH + "/summary")
+        .then()
+        .statusCode(200)
+        .body("data", hasSize(1))
+        .body("data[0].count", equalTo(2))
+        .body("data[0].total", equalTo(22.345f));
+  }
+
+  @Test
+  @DisplayName("Given changed and deleted expenses when summarizing then memory and database agree")
+  void givenChangedAndDeletedExpenses_whenSummarizing_thenMemoryAndDatabaseAgree() {
+    String moved = createExpense("10.00", "FOOD", "EUR", "2024-01-05T10:00:00Z");
+    String deleted = createExpense("5.00", "FOOD", "EUR", "2024-01-06T10:00:00Z");
+    createExpense("3.00", "TRANSPORT", "USD", "2024-01-09T10:00:00Z");
+
+    given()
+        .contentType(ContentType.JSON)
+        .body("{\"dateTime\": \"2024-02-02T10:00:00Z\", \"category\": \"HOUSING\"}")
+        .when()
+        .patch(EXPENSES_BASE_PATH + "/" + moved)
+        .then()
+        .statusCode(200);
+    given().when().delete(EXPENSES_BASE_PATH + "/" + deleted).then().statusCode(204);
+
+    for (SummaryPeriod period : SummaryPeriod.values()) {
+      assertEquals(databaseSummary(period, null, null), store.summarize(period, null, null).get());
+    }
+    assertEquals(2, store.load());
+  }
+
+  @Test
+  @DisplayName("Given stored expenses when reloading then each is held once")
+  void givenStoredExpenses_whenReloading_thenEachIsHeldOnce() {
+    createExpense("10.00", "FOOD", "EUR", "2024-01-05T10:00:00Z");
+    createExpense("5.00", "FOOD", "EUR", "2024-01-06T10:00:00Z");
+
+    int loaded = store.load();
+
+    assertEquals(2, loaded);
+    assertEquals(
+        databaseSummary(SummaryPeriod.MONTH, null, null),
+        store.summarize(SummaryPeriod.MONTH, null, null).get());
+  }
+
+  @Test
+  @DisplayName("Given writes during a reload when summarizing then memory and database agree")
+  void givenWritesDuringReload_whenSummarizing_thenMemoryAndDatabaseAgree() {
+    List<String> ids = new ArrayList<>();
+    for (int day = 1; day <= 20; day++) {
+      ids.add(createExpense("1.50", "FOOD", "EUR", "2024-01-%02dT10:00:00Z".formatted(day)));
+    }
+
+    CompletableFuture<Integer> reload = CompletableFuture.supplyAsync(store::load);
+    for (int i = 0; i < ids.size(); i += 2) {
+      createExpense("2.25", "TRANSPORT", "USD", "2024-02-%02dT10:00:00Z".formatted(i + 1));
+      given()
+          .contentType(ContentType.JSON)
+          .body("{\"amount\": 4.00}")
+          .when()
+          .patch(EXPENSES_BASE_PATH + "/" + ids.get(i))
+          .then()
+          .statusCode(200);
+      given().when().delete(EXPENSES_BASE_PATH + "/" + ids.get(i + 1)).then().statusCode(204);
+    }
+    reload.join();
+
+    for (SummaryPeriod period : SummaryPeriod.values()) {
+      assertEquals(databaseSummary(period, null, null), store.summarize(period, null, null).get());
+    }
+  }
+
+  @Test
+  @DisplayName("Given expenses deleted directly in the database when verifying then it reloads")
+  void givenExpensesDeletedInDatabase_whenVerifying_thenTheStoreIsReloaded() {
+    createExpense("10.00", "FOOD", "EUR", "2024-01-05T10:00:00Z");
+    String deleted = createExpense("5.00", "FOOD", "EUR", "2024-01-06T10:00:00Z");
+    assertFalse(store.drifted());
+
+    expenseRepository.deleteById(UUID.fromString(deleted));
+    assertTrue(store.drifted());
+    verifyJob.verify();
+
+    assertFalse(store.drifted());
+    assertEquals(
+        databaseSummary(SummaryPeriod.MONTH, null, null),
+        store.summarize(SummaryPeriod.MONTH, null, null).get());
+  }
+
+  private List<ExpenseSummary> databaseSummary(
+      SummaryPeriod period, OffsetDateTime from, OffsetDateTime to) {
+    return expenseRepository.summarize(period.sqlUnit(), from, to).stream()
+        .map(mapper::toDomain)
+        .toList();
+  }
+
+  private String createExpense(String amount, String category, String currency, String dateTime) {
+    return given()
+        .contentType(ContentType.JSON)
+        .body(
+            """
+            {
+              "description": "Expense",
+              "dateTime": "%s",
+              "amount": %s,
+              "currency": "%s",
+              "category": "%s"
+            }
+            """
+                .formatted(dateTime, amount, currency, category))
+        .when()
+        .post(EXPENSES_BASE_PATH)
+        .then()
+        .statusCode(201)
+        .extract()
+        .path("data.id");
+  }
+}
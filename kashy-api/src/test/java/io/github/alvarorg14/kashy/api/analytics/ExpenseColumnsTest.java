@@ -0,0 +1,192 @@
+package io.github.alvarorg14.kashy.api.analytics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.github.alvarorg14.kashy.api.model.domain.Category;
+import io.github.alvarorg14.kashy.api.model.domain.ExpenseSummary;
+import io.github.alvarorg14.kashy.api.model.domain.SummaryPeriod;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("ExpenseColumns Tests")
+class ExpenseColumnsTest {
+
+  private ExpenseColumns columns;
+
+  @BeforeEach
+  void setUp() {
+    columns = new ExpenseColumns(2);
+    append("2024-01-03T10:00:00Z", "10.00", Category.TRANSPORT, "EUR");
+    append("2024-01-05T10:00:00Z", "5.50", Category.TRANSPORT, "EUR");
+    append("2024-01-05T23:30:00-02:00", "7.25", Category.FOOD, "USD");
+    append("2024-01-07T08:00:00Z", "1.00005", Category.FOOD, "EUR");
+    append("2024-01-08T00:00:00Z", "3.00", Category.FOOD, "EUR");
+  }
+
+  @Test
+  @DisplayName("Given expenses when summarizing per week then groups are ordered by name")
+  void given_expenses_when_summarizingPerWeek_then_groupsAreOrderedByName() {
+    // When
+    List<ExpenseSummary> result =
+        columns.summarize(SummaryPeriod.WEEK, null, null, 1000).orElseThrow();
+
+    // Then
+    LocalDate firstWeek = LocalDate.of(2024, 1, 1);
+    assertEquals(
+        List.of(
+            summary(firstWeek, Category.FOOD, "EUR", 1, "1.0001", "1.0001"),
+            summary(firstWeek, Category.FOOD, "USD", 1, "7.2500", "7.2500"),
+            summary(firstWeek, Category.TRANSPORT, "EUR", 2, "15.5000", "7.7500"),
+            summary(LocalDate.of(2024, 1, 8), Category.FOOD, "EUR", 1, "3.0000", "3.0000")),
+        result);
+  }
+
+  @Test
+  @DisplayName("Given range when summarizing per day then only expenses within it count")
+  void given_range_when_summarizingPerDay_then_onlyExpensesWithinItCount() {
+    // When
+    List<ExpenseSummary> result =
+        columns
+            .summarize(
+                SummaryPeriod.DAY,
+                OffsetDateTime.parse("2024-01-05T00:00:00Z"),
+                OffsetDateTime.parse("2024-01-07T08:00:00Z"),
+                1000)
+            .orElseThrow();
+
+    // Then
+    assertEquals(
+        List.of(
+            summary(LocalDate.of(2024, 1, 5), Category.TRANSPORT, "EUR", 1, "5.5000", "5.5000"),
+            summary(LocalDate.of(2024, 1, 6), Category.FOOD, "USD", 1, "7.2500", "7.2500")),
+        result);
+  }
+
+  @Test
+  @DisplayName("Given a month removed when summarizing then its expenses are gone")
+  void given_monthRemoved_when_summarizing_then_itsExpensesAreGone() {
+    // Given
+    append("2024-02-01T00:00:00Z", "4.00", Category.OTHER, "EUR");
+
+    // When
+    int removed =
+        columns.removeBetween(
+            OffsetDateTime.parse("2024-01-01T00:00:00Z"),
+            OffsetDateTime.parse("2024-02-01T00:00:00Z"));
+    List<ExpenseSummary> result =
+        columns.summarize(SummaryPeriod.MONTH, null, null, 1000).orElseThrow();
+
+    // Then
+    assertEquals(5, removed);
+    assertEquals(1, columns.size());
+    assertEquals(
+        List.of(summary(LocalDate.of(2024, 2, 1), Category.OTHER, "EUR", 1, "4.0000", "4.0000")),
+        result);
+  }
+
+  @Test
+  @DisplayName("Given a stored expense when removed then it no longer counts")
+  void given_storedExpense_when_removed_then_itNoLongerCounts() {
+    // When
+    boolean removed =
+        columns.remove(
+            OffsetDateTime.parse("2024-01-03T10:00:00Z"),
+            new BigDecimal("10.0000"),
+            Category.TRANSPORT,
+            "EUR");
+    boolean unknown =
+        columns.remove(
+            OffsetDateTime.parse("2024-01-03T10:00:00Z"),
+            new BigDecimal("10.00"),
+            Category.TRANSPORT,
+            "GBP");
+    List<ExpenseSummary> result =
+        columns
+            .summarize(
+                SummaryPeriod.WEEK,
+                OffsetDateTime.parse("2024-01-01T00:00:00Z"),
+                OffsetDateTime.parse("2024-01-07T00:00:00Z"),
+                1000)
+            .orElseThrow();
+
+    // Then
+    assertTrue(removed);
+    assertFalse(unknown);
+    assertEquals(4, columns.size());
+    assertEquals(
+        List.of(
+            summary(LocalDate.of(2024, 1, 1), Category.FOOD, "USD", 1, "7.2500", "7.2500"),
+            summary(LocalDate.of(2024, 1, 1), Category.TRANSPORT, "EUR", 1, "5.5000", "5.5000")),
+        result);
+  }
+
+  @Test
+  @DisplayName("Given range without expenses when summarizing then the result is empty")
+  void given_rangeWithoutExpenses_when_summarizing_then_resultIsEmpty() {
+    // When
+    Optional<List<ExpenseSummary>> result =
+        columns.summarize(
+            SummaryPeriod.DAY, OffsetDateTime.parse("2025-01-01T00:00:00Z"), null, 1000);
+
+    // Then
+    assertEquals(Optional.of(List.of()), result);
+  }
+
+  @Test
+  @DisplayName("Given more groups than allowed when summarizing then it is declined")
+  void given_moreGroupsThanAllowed_when_summarizing_then_itIsDeclined() {
+    // When
+    Optional<List<ExpenseSummary>> result = columns.summarize(SummaryPeriod.DAY, null, null, 10);
+
+    // Then
+    assertTrue(result.isEmpty());
+  }
+
+  @Test
+  @DisplayName("Given a total beyond the long range when summarizing then it is declined")
+  void given_totalBeyondLongRange_when_summarizing_then_itIsDeclined() {
+    // Given
+    append("2024-01-03T11:00:00Z", "900000000000000", Category.TRANSPORT, "EUR");
+    append("2024-01-03T12:00:00Z", "900000000000000", Category.TRANSPORT, "EUR");
+
+    // When
+    Optional<List<ExpenseSummary>> result = columns.summarize(SummaryPeriod.DAY, null, null, 1000);
+
+    // Then
+    assertTrue(result.isEmpty());
+  }
+
+  @Test
+  @DisplayName("Given an amount beyond the long range when appending then it fails")
+  void given_amountBeyondLongRange_when_appending_then_itFails() {
+    // When / Then
+    assertThrows(
+        ArithmeticException.class,
+        () -> append("2024-01-03T11:00:00Z", "999999999999999.9999", Category.FOOD, "EUR"));
+    assertEquals(5, columns.size());
+  }
+
+  private void append(String dateTime, String amount, Category category, String currency) {
+    columns.append(OffsetDateTime.parse(dateTime), new BigDecimal(amount), category, currency);
+  }
+
+  private static ExpenseSummary summary(
+      LocalDate periodStart,
+      Category category,
+      String currency,
+      long count,
+      String total,
+      String average) {
+    return new ExpenseSummary(
+        periodStart, category, currency, count, new BigDecimal(total), new BigDecimal(average));
+  }
+}
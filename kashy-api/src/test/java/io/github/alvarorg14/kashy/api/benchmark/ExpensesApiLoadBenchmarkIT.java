@@ -0,0 +1,204 @@
+package io.github.alvarorg14.kashy.api.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.github.alvarorg14.kashy.api.config.AbstractIT;
+import io.github.alvarorg14.kashy.api.model.domain.Category;
+import io.github.alvarorg14.kashy.api.repository.ExpenseMonthlyRollupRepository;
+import io.github.alvarorg14.kashy.api.repository.ExpenseRepository;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * Mixed create and list load against the full HTTP stack and a PostgreSQL container.
+ *
+ * <p>Runs {@link LoadDriver} clients against the embedded server, logs p50, p99 and p999 latency
+ * and requests per second per operation next to the baseline in {@code
+ * benchmark/expenses-load-baseline.json}, and writes the run to {@code
+ * target/expenses-load-result.json} so it can replace the baseline.
+ *
+ * <p>Disabled by default. Run with {@code mvn verify -Dkashy.benchmarks=true
+ * -Dit.test=ExpensesApiLoadBenchmarkIT -Dfailsafe.failIfNoSpecifiedTests=false}. {@code
+ * -Dkashy.benchmarks.load.clients}, {@code .warm-up-seconds}, {@code .measurement-seconds} and
+ * {@code .create-ratio} shape the workload; {@code -Dkashy.benchmarks.load.max-regression=0.2}
+ * fails the run when throughput drops or p99 grows by more than 20% against the baseline.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "kashy.benchmarks", matches = "true")
+@DisplayName("Expenses API load benchmark")
+@Slf4j
+class ExpensesApiLoadBenchmarkIT extends AbstractIT {
+
+  private static final String BASELINE = "/benchmark/expenses-load-baseline.json";
+  private static final Path RESULT = Path.of("target", "expenses-load-result.json");
+  private static final int SEED_EXPENSES = 1_000;
+  private static final Category[] CATEGORIES = Category.values();
+
+  @Value("${local.server.port}")
+  private int port;
+
+  @Autowired private ObjectMapper objectMapper;
+
+  @Autowired private ExpenseRepository expenseRepository;
+
+  @Autowired private ExpenseMonthlyRollupRepository rollupRepository;
+
+  @Test
+  @DisplayName("Given seeded expenses when running mixed load then every request succeeds")
+  void given_seededExpenses_when_runningMixedLoad_then_everyRequestSucceeds() throws Exception {
+    int clients = Integer.getInteger("kashy.benchmarks.load.clients", 32);
+    Duration warmUp = Duration.ofSeconds(Long.getLong("kashy.benchmarks.load.warm-up-seconds", 10));
+    Duration measurement =
+        Duration.ofSeconds(Long.getLong("kashy.benchmarks.load.measurement-seconds", 30));
+    double createRatio =
+        Double.parseDouble(System.getProperty("kashy.benchmarks.load.create-ratio", "0.2"));
+
+    HttpClient client =
+        HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+    expenseRepository.deleteAll();
+    rollupRepository.deleteAll();
+    seed(client);
+
+    LoadDriver driver =
+        new LoadDriver(
+            client,
+            List.of(
+                new LoadDriver.Operation("create", createRatio, this::createRequest),
+                new LoadDriver.Operation("list", 1 - createRatio, this::listRequest)));
+    LoadReport report = driver.run(clients, warmUp, measurement);
+
+    LoadBaseline current =
+        new LoadBaseline(
+            "%d CPUs, Java %s"
+                .formatted(
+                    Runtime.getRuntime().availableProcessors(), System.getProperty("java.version")),
+            clients,
+            warmUp.toSeconds(),
+            measurement.toSeconds(),
+            createRatio,
+            report.operations());
+    LoadBaseline baseline = readBaseline();
+    log.info("{} clients, {} s, {}% creates", clients, measurement.toSeconds(), createRatio * 100);
+    report
+        .operations()
+        .forEach(
+            (operation, stats) -> {
+              log.info("{} | current  | {}", operation, stats);
+              log.info("{} | baseline | {}", operation, baseline.operations().get(operation));
+            });
+    Files.writeString(
+        RESULT, objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(current));
+
+    LoadReport.Stats all = report.operations().get(LoadReport.ALL);
+    assertTrue(all.requests() > 0);
+    assertEquals(0, all.errors());
+    String maxRegression = System.getProperty("kashy.benchmarks.load.max-regression");
+    if (maxRegression != null) {
+      double tolerance = Double.parseDouble(maxRegression);
+      LoadReport.Stats expected = baseline.operations().get(LoadReport.ALL);
+      assertTrue(all.requestsPerSecond() >= expected.requestsPerSecond() * (1 - tolerance));
+      assertTrue(all.p99Millis() <= expected.p99Millis() * (1 + tolerance));
+    }
+  }
+
+  private void seed(HttpClient client) throws IOException, InterruptedException {
+    for (int from = 0; from < SEED_EXPENSES; from += 500) {
+      String items =
+          IntStream.range(from, from + 500)
+              .mapToObj(this::expenseJson)
+              .collect(Collectors.joining(","));
+      HttpResponse<Void> response =
+          client.send(
+              post(uri("/api/v1/expenses:batch"), "{\"data\":[" + items + "]}"),
+              HttpResponse.BodyHandlers.discarding());
+      assertEquals(200, response.statusCode());
+    }
+  }
+
+  private HttpRequest createRequest() {
+    return post(
+        uri("/api/v1/expenses"), expenseJson(ThreadLocalRandom.current().nextInt(1_000_000)));
+  }
+
+  private HttpRequest listRequest() {
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    String query =
+        random.nextBoolean()
+            ? "?limit=20"
+            : "?limit=20&category=" + CATEGORIES[random.nextInt(CATEGORIES.length)];
+    return HttpRequest.newBuilder(uri("/api/v1/expenses" + query)).GET().build();
+  }
+
+  private String expenseJson(int i) {
+    OffsetDateTime dateTime =
+        OffsetDateTime.of(2024, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC).plusMinutes(i);
+    return """
+        {"description":"Load expense %d","dateTime":"%s","amount":%d.%02d,"currency":"EUR",\
+        "category":"%s"}"""
+        .formatted(i, dateTime, 1 + i % 500, i % 100, CATEGORIES[i % CATEGORIES.length]);
+  }
+
+  private URI uri(String path) {
+    return URI.create("http://localhost:" + port + path);
+  }
+
+  private static HttpRequest post(URI uri, String json) {
+    return HttpRequest.newBuilder(uri)
+        .header("Content-Type", "application/json")
+        .POST(HttpRequest.BodyPublishers.ofString(json))
+        .build();
+  }
+
+  private LoadBaseline readBaseline() throws IOException {
+    try (InputStream in = getClass().getResourceAsStream(BASELINE)) {
+      return objectMapper.readValue(in, LoadBaseline.class);
+    }
+  }
+
+  /**
+   * A recorded run, stored in the repository as the baseline future runs are compared against.
+   *
+   * @param environment hardware and JVM the run was recorded on
+   * @param clients number of concurrent clients
+   * @param warmUpSeconds warm-up before measuring
+   * @param measurementSeconds measured time
+   * @param createRatio share of create requests in the workload
+   * @param operations statistics per operation
+   */
+  record LoadBaseline(
+      String environment,
+      int clients,
+      long warmUpSeconds,
+      long measurementSeconds,
+      double createRatio,
+      Map<String, LoadReport.Stats> operations) {}
+}
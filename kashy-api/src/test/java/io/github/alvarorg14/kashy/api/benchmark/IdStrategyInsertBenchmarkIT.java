@@ -0,0 +1,107 @@
+package io.github.alvarorg14.kashy.api.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.github.alvarorg14.kashy.api.config.AbstractIT;
+import io.github.alvarorg14.kashy.api.id.IdGenerator;
+import io.github.alvarorg14.kashy.api.id.RandomUuidGenerator;
+import io.github.alvarorg14.kashy.api.id.UuidV7Generator;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Compares insert throughput and primary key index size of random (v4) and time-ordered (v7) ids
+ * against the Liquibase-managed {@code expenses} table.
+ *
+ * <p>Disabled by default. Run with {@code mvn verify -Dkashy.benchmarks=true
+ * -Dit.test=IdStrategyInsertBenchmarkIT -Dfailsafe.failIfNoSpecifiedTests=false}; {@code
+ * -Dkashy.benchmarks.rows} changes the row count.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "kashy.benchmarks", matches = "true")
+@DisplayName("Id strategy insert benchmark")
+@Slf4j
+class IdStrategyInsertBenchmarkIT extends AbstractIT {
+
+  private static final int BATCH_SIZE = 1_000;
+  private static final String INSERT_SQL =
+      """
+      INSERT INTO expenses
+        (id, description, date_time, amount, currency, category, notes, created_at, updated_at)
+      VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)
+      """;
+  private static final String PRIMARY_KEY_SIZE_SQL =
+      """
+      SELECT pg_relation_size(i.indexrelid)
+      FROM pg_index i
+      WHERE i.indrelid = 'expenses'::regclass AND i.indisprimary
+      """;
+
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  @Test
+  @DisplayName(
+      "Given v4 and v7 ids when inserting rows then v7 keeps the primary key index smaller")
+  void given_v4AndV7Ids_when_insertingRows_then_v7KeepsPrimaryKeyIndexSmaller() {
+    int rows = Integer.getInteger("kashy.benchmarks.rows", 200_000);
+
+    Result random = run("UUID v4", new RandomUuidGenerator(), rows);
+    Result timeOrdered = run("UUID v7", new UuidV7Generator(), rows);
+
+    log.info("{} rows | strategy | rows/s | pk index size", rows);
+    log.info("{}", random);
+    log.info("{}", timeOrdered);
+    assertTrue(timeOrdered.indexBytes() <= random.indexBytes());
+  }
+
+  private Result run(String name, IdGenerator idGenerator, int rows) {
+    jdbcTemplate.execute("TRUNCATE TABLE expenses");
+    Timestamp now = Timestamp.from(Instant.now());
+
+    long start = System.nanoTime();
+    for (int inserted = 0; inserted < rows; inserted += BATCH_SIZE) {
+      List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+      for (int i = 0; i < Math.min(BATCH_SIZE, rows - inserted); i++) {
+        batch.add(
+            new Object[] {
+              idGenerator.nextId(),
+              "Benchmark expense",
+              now,
+              BigDecimal.TEN,
+              "EUR",
+              "OTHER",
+              null,
+              now,
+              now
+            });
+      }
+      jdbcTemplate.batchUpdate(INSERT_SQL, batch);
+    }
+    Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+    Long indexBytes = jdbcTemplate.queryForObject(PRIMARY_KEY_SIZE_SQL, Long.class);
+    jdbcTemplate.execute("TRUNCATE TABLE expenses");
+    return new Result(name, rows * 1_000.0 / Math.max(1, elapsed.toMillis()), indexBytes);
+  }
+
+  private record Result(String strategy, double rowsPerSecond, long indexBytes) {
+
+    @Override
+    public String toString() {
+      return "%s | %.0f | %d KiB".formatted(strategy, rowsPerSecond, indexBytes / 1024);
+    }
+  }
+}
@@ -0,0 +1,150 @@
+package io.github.alvarorg14.kashy.api.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.github.alvarorg14.kashy.api.config.AbstractIT;
+import io.github.alvarorg14.kashy.api.mapper.ExpenseApiMapper;
+import io.github.alvarorg14.kashy.api.mapper.ExpenseEntityMapper;
+import io.github.alvarorg14.kashy.api.model.api.ExpenseResponse;
+import io.github.alvarorg14.kashy.api.model.domain.ExpenseFilter;
+import io.github.alvarorg14.kashy.api.repository.ExpenseMonthlyRollupRepository;
+import io.github.alvarorg14.kashy.api.repository.ExpenseRepository;
+import io.github.alvarorg14.kashy.api.repository.ExpenseSpecifications;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Compares latency and allocation of a listing page read through managed entities against the
+ * projected read path of {@link ExpenseRepository#findPage}.
+ *
+ * <p>The entity path materializes {@code ExpenseEntity} instances in the persistence context, maps
+ * them to domain expenses and then to responses; the projected path constructs domain expenses from
+ * the selected columns and maps them to responses. Allocation is measured on the calling thread,
+ * which runs the whole read.
+ *
+ * <p>Disabled by default. Run with {@code mvn verify -Dkashy.benchmarks=true
+ * -Dit.test=ListProjectionBenchmarkIT -Dfailsafe.failIfNoSpecifiedTests=false}; {@code
+ * -Dkashy.benchmarks.page-size} changes the page size.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "kashy.benchmarks", matches = "true")
+@DisplayName("List projection benchmark")
+@Slf4j
+class ListProjectionBenchmarkIT extends AbstractIT {
+
+  private static final int ROWS = 10_000;
+  private static final int WARM_UP = 200;
+  private static final int ITERATIONS = 1_000;
+
+  @Autowired private ExpenseRepository repository;
+  @Autowired private ExpenseMonthlyRollupRepository rollupRepository;
+  @Autowired private ExpenseEntityMapper entityMapper;
+  @Autowired private ExpenseApiMapper apiMapper;
+  @Autowired private JdbcTemplate jdbcTemplate;
+  @Autowired private TransactionTemplate transactions;
+
+  @Test
+  @DisplayName("Given a listing page when read through projections then it allocates less")
+  void given_listingPage_when_readThroughProjections_then_itAllocatesLess() {
+    int pageSize = Integer.getInteger("kashy.benchmarks.page-size", 100);
+    seed();
+    transactions.setReadOnly(true);
+
+    Result entities =
+        run(
+            "entities",
+            () ->
+                repository
+                    .findBy(
+                        ExpenseSpecifications.matching(ExpenseFilter.NONE),
+                        query ->
+                            query.sortBy(ExpenseSpecifications.KEYSET_ORDER).limit(pageSize).all())
+                    .stream()
+                    .map(entityMapper::toDomain)
+                    .map(apiMapper::toResponse)
+                    .toList());
+    Result projections =
+        run(
+            "projections",
+            () ->
+                repository.findPage(ExpenseFilter.NONE, null, Limit.of(pageSize)).stream()
+                    .map(apiMapper::toResponse)
+                    .toList());
+
+    log.info("{} rows per page | read path | ms/page | KiB allocated/page", pageSize);
+    log.info("{}", entities);
+    log.info("{}", projections);
+    assertTrue(projections.bytesPerPage() < entities.bytesPerPage());
+  }
+
+  private Result run(String name, Supplier<List<ExpenseResponse>> page) {
+    com.sun.management.ThreadMXBean threads =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    for (int i = 0; i < WARM_UP; i++) {
+      transactions.execute(status -> page.get());
+    }
+
+    long bytes = threads.getCurrentThreadAllocatedBytes();
+    long start = System.nanoTime();
+    for (int i = 0; i < ITERATIONS; i++) {
+      transactions.execute(status -> page.get());
+    }
+    long elapsed = System.nanoTime() - start;
+    long allocated = threads.getCurrentThreadAllocatedBytes() - bytes;
+    return new Result(name, elapsed / 1_000_000.0 / ITERATIONS, allocated / ITERATIONS);
+  }
+
+  private void seed() {
+    jdbcTemplate.execute("TRUNCATE TABLE expenses");
+    rollupRepository.deleteAll();
+    Instant now = Instant.now();
+    List<Object[]> rows = new ArrayList<>(ROWS);
+    for (int i = 0; i < ROWS; i++) {
+      Timestamp dateTime = Timestamp.from(now.minusSeconds(i));
+      rows.add(
+          new Object[] {
+            UUID.randomUUID(),
+            "Benchmark expense " + i,
+            dateTime,
+            BigDecimal.valueOf(100 + i, 2),
+            "EUR",
+            "OTHER",
+            i % 2 == 0 ? null : "Notes " + i,
+            dateTime,
+            dateTime
+          });
+    }
+    jdbcTemplate.batchUpdate(
+        """
+        INSERT INTO expenses
+          (id, description, date_time, amount, currency, category, notes, created_at, updated_at)
+        VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)
+        """,
+        rows);
+  }
+
+  private record Result(String readPath, double millisPerPage, long bytesPerPage) {
+
+    @Override
+    public String toString() {
+      return "%s | %.3f | %d".formatted(readPath, millisPerPage, bytesPerPage / 1024);
+    }
+  }
+}
@@ -0,0 +1,161 @@
+package io.github.alvarorg14.kashy.api.benchmark;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Closed-loop HTTP load driver running every simulated client on its own virtual thread.
+ *
+ * <p>Each client repeatedly picks a weighted {@link Operation}, sends it and waits for the response
+ * before sending the next one. Latencies observed after the warm-up are kept in full, so the
+ * reported percentiles are exact rather than bucketed. Being closed-loop, a stalled server also
+ * slows the clients down, so tail latencies are a lower bound of what an open arrival rate would
+ * see.
+ */
+final class LoadDriver {
+
+  private final HttpClient client;
+  private final List<Operation> operations;
+  private final double totalWeight;
+
+  LoadDriver(HttpClient client, List<Operation> operations) {
+    this.client = client;
+    this.operations = List.copyOf(operations);
+    this.totalWeight = operations.stream().mapToDouble(Operation::weight).sum();
+  }
+
+  /**
+   * A kind of request in the workload.
+   *
+   * @param name name the operation is reported under
+   * @param weight relative frequency of the operation
+   * @param request builds a fresh request on every call
+   */
+  record Operation(String name, double weight, Supplier<HttpRequest> request) {}
+
+  /**
+   * Runs the workload and reports the latencies observed after the warm-up.
+   *
+   * @param clients number of concurrent clients
+   * @param warmUp time the clients run before latencies are recorded
+   * @param measurement time latencies are recorded for
+   * @return per-operation statistics, plus an {@code all} entry across operations
+   */
+  LoadReport run(int clients, Duration warmUp, Duration measurement) throws Exception {
+    long start = System.nanoTime();
+    long measureFrom = start + warmUp.toNanos();
+    long measureTo = measureFrom + measurement.toNanos();
+
+    List<Future<Samples>> futures = new ArrayList<>(clients);
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      for (int i = 0; i < clients; i++) {
+        futures.add(executor.submit(() -> runClient(measureFrom, measureTo)));
+      }
+    }
+
+    Samples all = new Samples();
+    for (Future<Samples> future : futures) {
+      all.addAll(future.get());
+    }
+    return all.report(operations, measurement);
+  }
+
+  private Samples runClient(long measureFrom, long measureTo) throws InterruptedException {
+    Samples samples = new Samples();
+    long now = System.nanoTime();
+    while (now < measureTo) {
+      Operation operation = pick();
+      boolean ok = send(operation.request().get());
+      long end = System.nanoTime();
+      if (now >= measureFrom) {
+        samples.record(operation.name(), end - now, ok);
+      }
+      now = end;
+    }
+    return samples;
+  }
+
+  private boolean send(HttpRequest request) throws InterruptedException {
+    try {
+      int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+      return status >= 200 && status < 300;
+    } catch (IOException e) {
+      return false;
+    }
+  }
+
+  private Operation pick() {
+    double point = ThreadLocalRandom.current().nextDouble(totalWeight);
+    for (Operation operation : operations) {
+      point -= operation.weight();
+      if (point < 0) {
+        return operation;
+      }
+    }
+    return operations.getLast();
+  }
+
+  /** Latencies and error counts of one client, merged into the report once all clients finish. */
+  private static final class Samples {
+
+    private final Map<String, long[]> latencies = new LinkedHashMap<>();
+    private final Map<String, Integer> counts = new LinkedHashMap<>();
+    private final Map<String, Integer> errors = new LinkedHashMap<>();
+
+    void record(String operation, long nanos, boolean ok) {
+      int count = counts.merge(operation, 1, Integer::sum);
+      long[] values = latencies.computeIfAbsent(operation, k -> new long[1024]);
+      if (count > values.length) {
+        values = Arrays.copyOf(values, values.length * 2);
+        latencies.put(operation, values);
+      }
+      values[count - 1] = nanos;
+      if (!ok) {
+        errors.merge(operation, 1, Integer::sum);
+      }
+    }
+
+    void addAll(Samples other) {
+      other.counts.forEach(
+          (operation, count) -> {
+            long[] values = other.latencies.get(operation);
+            for (int i = 0; i < count; i++) {
+              record(operation, values[i], true);
+            }
+          });
+      other.errors.forEach((operation, count) -> errors.merge(operation, count, Integer::sum));
+    }
+
+    LoadReport report(List<Operation> operations, Duration measurement) {
+      Map<String, LoadReport.Stats> stats = new LinkedHashMap<>();
+      long[] combined = new long[0];
+      int combinedErrors = 0;
+      for (Operation operation : operations) {
+        int count = counts.getOrDefault(operation.name(), 0);
+        long[] values = Arrays.copyOf(latencies.getOrDefault(operation.name(), new long[0]), count);
+        int failed = errors.getOrDefault(operation.name(), 0);
+        stats.put(operation.name(), LoadReport.Stats.of(values, failed, measurement));
+
+        int offset = combined.length;
+        combined = Arrays.copyOf(combined, offset + count);
+        System.arraycopy(values, 0, combined, offset, count);
+        combinedErrors += failed;
+      }
+      stats.put(LoadReport.ALL, LoadReport.Stats.of(combined, combinedErrors, measurement));
+      return new LoadReport(stats);
+    }
+  }
+}
@@ -0,0 +1,66 @@
+package io.github.alvarorg14.kashy.api.benchmark;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Throughput and latency percentiles of a load test run, per operation.
+ *
+ * @param operations statistics keyed by operation name, including {@link #ALL}
+ */
+record LoadReport(Map<String, Stats> operations) {
+
+  /** Name of the entry aggregating every operation. */
+  static final String ALL = "all";
+
+  /**
+   * Statistics of a single operation.
+   *
+   * @param requests requests completed during the measurement
+   * @param errors requests answered with a non-2xx status or failing at the transport level
+   * @param requestsPerSecond completed requests per second of measurement
+   * @param p50Millis median latency
+   * @param p99Millis 99th percentile latency
+   * @param p999Millis 99.9th percentile latency
+   * @param maxMillis slowest request
+   */
+  record Stats(
+      long requests,
+      long errors,
+      double requestsPerSecond,
+      double p50Millis,
+      double p99Millis,
+      double p999Millis,
+      double maxMillis) {
+
+    static Stats of(long[] latencyNanos, long errors, Duration measurement) {
+      long[] sorted = latencyNanos.clone();
+      Arrays.sort(sorted);
+      return new Stats(
+          sorted.length,
+          errors,
+          sorted.length * 1_000.0 / measurement.toMillis(),
+          percentile(sorted, 0.50),
+          percentile(sorted, 0.99),
+          percentile(sorted, 0.999),
+          percentile(sorted, 1.0));
+    }
+
+    /** Nearest-rank percentile in milliseconds. */
+    private static double percentile(long[] sorted, double quantile) {
+      if (sorted.length == 0) {
+        return 0;
+      }
+      int rank = (int) Math.ceil(quantile * sorted.length);
+      return sorted[Math.max(0, rank - 1)] / 1_000_000.0;
+    }
+
+    @Override
+    public String toString() {
+      return "%d req | %d err | %.0f req/s | p50 %.2f ms | p99 %.2f ms | p999 %.2f ms | max %.2f ms"
+          .formatted(
+              requests, errors, requestsPerSecond, p50Millis, p99Millis, p999Millis, maxMillis);
+    }
+  }
+}
@@ -0,0 +1,148 @@
+package io.github.alvarorg14.kashy.api.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.github.alvarorg14.kashy.api.config.AbstractIT;
+import io.github.alvarorg14.kashy.api.model.domain.ExpenseSearchCursor;
+import io.github.alvarorg14.kashy.api.model.domain.ExpenseSearchPage;
+import io.github.alvarorg14.kashy.api.repository.ExpenseMonthlyRollupRepository;
+import io.github.alvarorg14.kashy.api.service.ExpensePartitions;
+import io.github.alvarorg14.kashy.api.service.ExpenseServiceImpl;
+import java.time.YearMonth;
+import java.util.Arrays;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Measures search latency over a million expenses spread across 36 monthly partitions.
+ *
+ * <p>Searches go through {@link ExpenseServiceImpl} directly, so the read cache is not involved.
+ * Each term is searched for its first page and for the page after it, reporting the median and the
+ * 95th percentile. The 20 ms budget is asserted on the median for terms matching up to a few
+ * thousand expenses, like a merchant name; the frequent term shows how ranking cost grows with the
+ * number of matches, since every match is ranked before the page is cut.
+ *
+ * <p>Disabled by default. Run with {@code mvn verify -Dkashy.benchmarks=true
+ * -Dit.test=SearchLatencyBenchmarkIT -Dfailsafe.failIfNoSpecifiedTests=false}; {@code
+ * -Dkashy.benchmarks.rows} changes the number of expenses.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "kashy.benchmarks", matches = "true")
+@DisplayName("Search latency benchmark")
+@Slf4j
+class SearchLatencyBenchmarkIT extends AbstractIT {
+
+  private static final int WARM_UP = 300;
+  private static final int ITERATIONS = 200;
+  private static final int PAGE_SIZE = 20;
+  private static final double BUDGET_MILLIS = 20;
+  private static final YearMonth FIRST_MONTH = YearMonth.of(2022, 1);
+
+  @Autowired private ExpenseServiceImpl expenseService;
+  @Autowired private ExpenseMonthlyRollupRepository rollupRepository;
+  @Autowired private ExpensePartitions partitions;
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  @Test
+  @DisplayName("Given a million expenses when searching a merchant then pages stay within budget")
+  void given_millionExpenses_when_searchingMerchant_then_pagesStayWithinBudget() {
+    seed(Integer.getInteger("kashy.benchmarks.rows", 1_000_000));
+
+    log.info("query | matches | first page p50 / p95 ms | next page p50 / p95 ms");
+    Result uber = run("uber");
+    Result pharmacy = run("pharmacy");
+    Result phrase = run("\"coffee beans\"");
+    Result frequent = run("groceries");
+    for (Result result : new Result[] {uber, pharmacy, phrase, frequent}) {
+      log.info("{}", result);
+    }
+
+    for (Result result : new Result[] {uber, pharmacy, phrase}) {
+      assertTrue(result.firstPage().p50() < BUDGET_MILLIS, result.toString());
+      assertTrue(result.nextPage().p50() < BUDGET_MILLIS, result.toString());
+    }
+  }
+
+  private Result run(String query) {
+    ExpenseSearchPage first = expenseService.searchExpenses(query, null, PAGE_SIZE);
+    assertFalse(first.expenses().isEmpty(), query);
+    ExpenseSearchCursor cursor = first.nextCursor();
+    long matches =
+        jdbcTemplate.queryForObject(
+            "SELECT count(*) FROM expenses WHERE search_vector @@ websearch_to_tsquery('simple', ?)",
+            Long.class,
+            query);
+    return new Result(
+        query,
+        matches,
+        time(() -> expenseService.searchExpenses(query, null, PAGE_SIZE)),
+        time(() -> expenseService.searchExpenses(query, cursor, PAGE_SIZE)));
+  }
+
+  private Percentiles time(Runnable search) {
+    for (int i = 0; i < WARM_UP; i++) {
+      search.run();
+    }
+    double[] millis = new double[ITERATIONS];
+    for (int i = 0; i < ITERATIONS; i++) {
+      long start = System.nanoTime();
+      search.run();
+      millis[i] = (System.nanoTime() - start) / 1_000_000.0;
+    }
+    Arrays.sort(millis);
+    return new Percentiles(millis[ITERATIONS / 2], millis[ITERATIONS * 95 / 100]);
+  }
+
+  /**
+   * Seeds expenses whose descriptions name one of a few thousand stores. Merchant words are rare:
+   * one expense in 500 is an Uber trip, one in 1000 has a pharmacy in its notes and one in 2000
+   * buys coffee beans, while one in 20 mentions groceries.
+   */
+  private void seed(int rows) {
+    jdbcTemplate.execute("TRUNCATE TABLE expenses");
+    rollupRepository.deleteAll();
+    jdbcTemplate.update(
+        """
+        INSERT INTO expenses
+          (id, description, date_time, amount, currency, category, notes, created_at, updated_at)
+        SELECT gen_random_uuid(),
+               CASE WHEN i % 500 = 0 THEN 'Uber trip ' || i
+                    WHEN i % 2000 = 1 THEN 'Coffee beans ' || i
+                    ELSE 'Store ' || (i % 5000) END,
+               ts,
+               (i % 10000) / 100.0,
+               'EUR',
+               'OTHER',
+               CASE WHEN i % 1000 = 7 THEN 'Pharmacy receipt ' || i
+                    WHEN i % 20 = 3 THEN 'Weekly groceries'
+                    WHEN i % 2 = 0 THEN 'Paid by card' END,
+               ts,
+               ts
+        FROM generate_series(1, ?) AS i,
+             LATERAL (SELECT TIMESTAMPTZ '2022-01-01 00:00:00+00'
+                             + make_interval(secs => i * (94608000.0 / ?))) AS t(ts)
+        """,
+        rows, rows);
+    partitions.createPartitions(FIRST_MONTH);
+    jdbcTemplate.execute("VACUUM ANALYZE expenses");
+  }
+
+  private record Percentiles(double p50, double p95) {}
+
+  private record Result(String query, long matches, Percentiles firstPage, Percentiles nextPage) {
+
+    @Override
+    public String toString() {
+      return "%s | %d | %.2f / %.2f | %.2f / %.2f"
+          .formatted(query, matches, firstPage.p50, firstPage.p95, nextPage.p50, nextPage.p95);
+    }
+  }
+}
@@ -0,0 +1,155 @@
+package io.github.alvarorg14.kashy.api.controller;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.endsWith;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import io.github.alvarorg14.kashy.api.config.AbstractIT;
+import io.github.alvarorg14.kashy.api.repository.ExpenseMonthlyRollupRepository;
+import io.github.alvarorg14.kashy.api.repository.ExpenseRepository;
+import io.github.alvarorg14.kashy.api.service.CachingExpenseService;
+import io.restassured.RestAssured;
+import io.restassured.http.ContentType;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest(
+    webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = "kashy.expenses.ingestion.enabled=true")
+@ActiveProfiles("test")
+@DisplayName("Expense ingestion Integration Tests")
+class ExpenseIngestionIT extends AbstractIT {
+
+  private static final String EXPENSES_BASE_PATH = "/api/v1/expenses";
+
+  @Value("${local.server.port}")
+  private int port;
+
+  @Autowired private ExpenseRepository expenseRepository;
+
+  @Autowired private ExpenseMonthlyRollupRepository rollupRepository;
+
+  @Autowired private CachingExpenseService cachingExpenseService;
+
+  @BeforeEach
+  void setUp() {
+    RestAssured.port = port;
+    RestAssured.baseURI = "http://localhost";
+    expenseRepository.deleteAll();
+    rollupRepository.deleteAll();
+    cachingExpenseService.invalidateAll();
+  }
+
+  @Test
+  @DisplayName("Given ingestion mode when creating expense then it is accepted and later persisted")
+  void given_ingestionMode_when_creatingExpense_then_itIsAcceptedAndLaterPersisted()
+      throws InterruptedException {
+    // When
+    String location =
+        given()
+            .contentType(ContentType.JSON)
+            .body(
+                """
+                {
+                  "description": "Grocery shopping",
+                  "dateTime": "2024-01-15T10:30:00Z",
+                  "amount": 45.99,
+                  "currency": "EUR",
+                  "category": "FOOD"
+                }
+                """)
+            .when()
+            .post(EXPENSES_BASE_PATH)
+            .then()
+            .statusCode(202)
+            .body("data.description", equalTo("Grocery shopping"))
+            .header("Location", endsWith("/ingestion"))
+            .extract()
+            .header("Location");
+    UUID id = UUID.fromString(location.split("/")[4]);
+
+    // Then
+    assertEquals("PERSISTED", awaitStatus(location, "PERSISTED"));
+    given()
+        .when()
+        .get(EXPENSES_BASE_PATH + "/{id}", id)
+        .then()
+        .statusCode(200)
+        .body("data.amount", equalTo(45.99f));
+    given()
+        .queryParam("period", "MONTH")
+        .when()
+        .get(EXPENSES_BASE_PATH + "/summary")
+        .then()
+        .statusCode(200)
+        .body("data[0].count", equalTo(1));
+  }
+
+  @Test
+  @DisplayName("Given repeated idempotency key when creating expense then it is queued once")
+  void given_repeatedIdempotencyKey_when_creatingExpense_then_itIsQueuedOnce()
+      throws InterruptedException {
+    // Given
+    String key = UUID.randomUUID().toString();
+    String body =
+        """
+        {
+          "description": "Grocery shopping",
+          "dateTime": "2024-01-15T10:30:00Z",
+          "amount": 45.99,
+          "currency": "EUR",
+          "category": "FOOD"
+        }
+        """;
+
+    // When
+    String first = acceptWithKey(key, body);
+    String second = acceptWithKey(key, body);
+
+    // Then
+    assertEquals(first, second);
+    assertEquals("PERSISTED", awaitStatus(first, "PERSISTED"));
+    assertEquals("PERSISTED", awaitStatus(acceptWithKey(key, body), "PERSISTED"));
+    assertEquals(1, expenseRepository.count());
+  }
+
+  @Test
+  @DisplayName("Given unknown id when getting ingestion status then returns 404")
+  void given_unknownId_when_gettingIngestionStatus_then_returns404() {
+    given()
+        .when()
+        .get(EXPENSES_BASE_PATH + "/{id}/ingestion", UUID.randomUUID())
+        .then()
+        .statusCode(404)
+        .body("errors[0].code", equalTo("NOT_FOUND"));
+  }
+
+  private String acceptWithKey(String key, String body) {
+    return given()
+        .contentType(ContentType.JSON)
+        .header("Idempotency-Key", key)
+        .body(body)
+        .when()
+        .post(EXPENSES_BASE_PATH)
+        .then()
+        .statusCode(202)
+        .extract()
+        .header("Location");
+  }
+
+  private String awaitStatus(String location, String expected) throws InterruptedException {
+    String status = null;
+    for (int attempt = 0; attempt < 50 && !expected.equals(status); attempt++) {
+      Thread.sleep(100);
+      status = given().when().get(location).then().statusCode(200).extract().path("data.status");
+    }
+    return status;
+  }
+}
@@ -1,36 +1,98 @@
 package io.github.alvarorg14.kashy.api.controller;
 
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.endsWith;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import io.github.alvarorg14.kashy.api.config.WireFormatConfiguration;
+import io.github.alvarorg14.kashy.api.exception.ExchangeRateUnavailableException;
+import io.github.alvarorg14.kashy.api.exception.ExpenseNotFoundException;
+import io.github.alvarorg14.kashy.api.exception.ExpenseVersionConflictException;
+import io.github.alvarorg14.kashy.api.exception.IdempotencyKeyReusedException;
+import io.github.alvarorg14.kashy.api.exception.IngestionQueueFullException;
+import io.github.alvarorg14.kashy.api.ingestion.ExpenseIngestionQueue;
 import io.github.alvarorg14.kashy.api.mapper.ExpenseApiMapper;
+import io.github.alvarorg14.kashy.api.metrics.ExpenseMetrics;
 import io.github.alvarorg14.kashy.api.model.api.CreateExpenseRequest;
+import io.github.alvarorg14.kashy.api.model.api.CreateExpensesBatchRequest;
+import io.github.alvarorg14.kashy.api.model.api.ExpenseIngestionStatus;
 import io.github.alvarorg14.kashy.api.model.api.ExpenseResponse;
+import io.github.alvarorg14.kashy.api.model.api.ExpenseSummaryItem;
+import io.github.alvarorg14.kashy.api.model.api.ListExpensesResponse;
+import io.github.alvarorg14.kashy.api.model.api.PatchExpenseRequest;
+import io.github.alvarorg14.kashy.api.model.api.UpdateExpenseRequest;
 import io.github.alvarorg14.kashy.api.model.domain.Category;
 import io.github.alvarorg14.kashy.api.model.domain.Expense;
+import io.github.alvarorg14.kashy.api.model.domain.ExpenseCreationResult;
+import io.github.alvarorg14.kashy.api.model.domain.ExpenseCursor;
+import io.github.alvarorg14.kashy.api.model.domain.ExpenseFilter;
+import io.github.alvarorg14.kashy.api.model.domain.ExpenseIngestion;
+import io.github.alvarorg14.kashy.api.model.domain.ExpensePage;
+import io.github.alvarorg14.kashy.api.model.domain.ExpenseRevision;
+import io.github.alvarorg14.kashy.api.model.domain.ExpenseSearchCursor;
+import io.github.alvarorg14.kashy.api.model.domain.ExpenseSearchPage;
+import io.github.alvarorg14.kashy.api.model.domain.ExpenseSummary;
+import io.github.alvarorg14.kashy.api.model.domain.ExpenseVersion;
+import io.github.alvarorg14.kashy.api.model.domain.SummaryPeriod;
+import io.github.alvarorg14.kashy.api.service.ExchangeRates;
+import io.github.alvarorg14.kashy.api.service.ExpenseIdempotencyKeys;
 import io.github.alvarorg14.kashy.api.service.ExpenseService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
 import java.time.OffsetDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
 import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import tools.jackson.databind.ObjectMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
 
 @WebMvcTest(ExpensesApiController.class)
-@Import(ExpensesApiDelegateImpl.class)
+@Import({
+  ExpensesApiDelegateImpl.class,
+  ExpenseMetrics.class,
+  SimpleMeterRegistry.class,
+  WireFormatConfiguration.class
+})
 @DisplayName("ExpensesApiDelegateImpl Controller Tests")
 class ExpensesApiDelegateImplTest {
 
@@ -38,10 +100,21 @@ class ExpensesApiDelegateImplTest {
 
   @Autowired private ObjectMapper objectMapper;
 
+  @Autowired private CBORMapper cborMapper;
+
   @MockitoBean private ExpenseService expenseService;
 
   @MockitoBean private ExpenseApiMapper apiMapper;
 
+  @MockitoBean private ExpenseIngestionQueue ingestionQueue;
+
+  @MockitoBean private ExpenseIdempotencyKeys idempotencyKeys;
+
+  @MockitoBean private ExchangeRates exchangeRates;
+
+  private final ExpenseVersion version =
+      new ExpenseVersion(2, Instant.parse("2024-01-15T10:30:00.123456Z"));
+
   private CreateExpenseRequest createRequest;
   private Expense expense;
   private ExpenseResponse expenseResponse;
@@ -70,6 +143,7 @@ class ExpensesApiDelegateImplTest {
             .notes("Test notes")
             .createdAt(now)
             .updatedAt(now)
+            .version(3L)
             .build();
 
     expenseResponse = new ExpenseResponse();
@@ -82,6 +156,10 @@ class ExpensesApiDelegateImplTest {
     expenseResponse.setNotes("Test notes");
     expenseResponse.setCreatedAt(now);
     expenseResponse.setUpdatedAt(now);
+    expenseResponse.setVersion(3L);
+
+    when(expenseService.getExpenseVersion()).thenReturn(version);
+    when(expenseService.getRecentExpenseVersion()).thenReturn(version);
   }
 
   @Test
@@ -108,6 +186,140 @@ class ExpensesApiDelegateImplTest {
     // Then - assertions above
   }
 
+  @Test
+  @DisplayName("Given idempotency key when createExpense then key is passed to the service")
+  void given_idempotencyKey_when_createExpense_then_keyIsPassedToTheService() throws Exception {
+    // Given
+    when(apiMapper.toDomain(any(CreateExpenseRequest.class))).thenReturn(expense);
+    when(expenseService.createExpense(expense, "key-1")).thenReturn(expense);
+    when(apiMapper.toResponse(any(Expense.class))).thenReturn(expenseResponse);
+
+    // When
+    mockMvc
+        .perform(
+            post("/api/v1/expenses")
+                .header("Idempotency-Key", "key-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(createRequest)))
+        .andExpect(status().isCreated())
+        .andExpect(jsonPath("$.data.id").value(expense.id().toString()));
+
+    // Then
+    verify(expenseService, never()).createExpense(any(Expense.class));
+  }
+
+  @Test
+  @DisplayName("Given reused idempotency key when createExpense then unprocessable is returned")
+  void given_reusedIdempotencyKey_when_createExpense_then_unprocessableIsReturned()
+      throws Exception {
+    // Given
+    when(apiMapper.toDomain(any(CreateExpenseRequest.class))).thenReturn(expense);
+    when(expenseService.createExpense(expense, "key-1"))
+        .thenThrow(new IdempotencyKeyReusedException("key-1"));
+
+    // When & Then
+    mockMvc
+        .perform(
+            post("/api/v1/expenses")
+                .header("Idempotency-Key", "key-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(createRequest)))
+        .andExpect(status().isUnprocessableContent())
+        .andExpect(jsonPath("$.errors[0].code").value("IDEMPOTENCY_KEY_REUSED"));
+  }
+
+  @Test
+  @DisplayName("Given ingestion mode when createExpense then expense is accepted and queued")
+  void given_ingestionMode_when_createExpense_then_expenseIsAcceptedAndQueued() throws Exception {
+    // Given
+    when(ingestionQueue.enabled()).thenReturn(true);
+    when(apiMapper.toDomain(any(CreateExpenseRequest.class))).thenReturn(expense);
+    when(expenseService.prepareExpense(expense)).thenReturn(expense);
+    when(apiMapper.toResponse(any(Expense.class))).thenReturn(expenseResponse);
+
+    // When
+    mockMvc
+        .perform(
+            post("/api/v1/expenses")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(createRequest)))
+        .andExpect(status().isAccepted())
+        .andExpect(
+            header()
+                .string(HttpHeaders.LOCATION, "/api/v1/expenses/" + expense.id() + "/ingestion"))
+        .andExpect(jsonPath("$.data.id").value(expense.id().toString()));
+
+    // Then
+    verify(ingestionQueue).accept(expense);
+    verify(expenseService, never()).createExpense(any(Expense.class));
+  }
+
+  @Test
+  @DisplayName("Given full ingestion queue when createExpense then too many requests is returned")
+  void given_fullIngestionQueue_when_createExpense_then_tooManyRequestsIsReturned()
+      throws Exception {
+    // Given
+    when(ingestionQueue.enabled()).thenReturn(true);
+    when(apiMapper.toDomain(any(CreateExpenseRequest.class))).thenReturn(expense);
+    when(expenseService.prepareExpense(expense)).thenReturn(expense);
+    doThrow(new IngestionQueueFullException(Duration.ofSeconds(2)))
+        .when(ingestionQueue)
+        .accept(expense);
+
+    // When & Then
+    mockMvc
+        .perform(
+            post("/api/v1/expenses")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(createRequest)))
+        .andExpect(status().isTooManyRequests())
+        .andExpect(header().string(HttpHeaders.RETRY_AFTER, "2"))
+        .andExpect(jsonPath("$.errors[0].code").value("TOO_MANY_REQUESTS"));
+  }
+
+  @Test
+  @DisplayName("Given ingestion mode and used key when createExpense then expense is not queued")
+  void given_ingestionModeAndUsedKey_when_createExpense_then_expenseIsNotQueued() throws Exception {
+    // Given
+    when(ingestionQueue.enabled()).thenReturn(true);
+    when(apiMapper.toDomain(any(CreateExpenseRequest.class))).thenReturn(expense);
+    when(idempotencyKeys.find("key-1", expense)).thenReturn(Optional.of(expense));
+    when(apiMapper.toResponse(any(Expense.class))).thenReturn(expenseResponse);
+
+    // When
+    mockMvc
+        .perform(
+            post("/api/v1/expenses")
+                .header("Idempotency-Key", "key-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(createRequest)))
+        .andExpect(status().isAccepted())
+        .andExpect(jsonPath("$.data.id").value(expense.id().toString()));
+
+    // Then
+    verify(expenseService, never()).prepareExpense(any(Expense.class));
+    verify(ingestionQueue, never()).accept(any(Expense.class));
+  }
+
+  @Test
+  @DisplayName("Given queued id when getExpenseIngestion then pending status is returned")
+  void given_queuedId_when_getExpenseIngestion_then_pendingStatusIsReturned() throws Exception {
+    // Given
+    ExpenseIngestion ingestion = ExpenseIngestion.pending(expense.id());
+    when(ingestionQueue.status(expense.id())).thenReturn(ingestion);
+    when(apiMapper.toResponse(ingestion))
+        .thenReturn(
+            new io.github.alvarorg14.kashy.api.model.api.ExpenseIngestion(
+                expense.id(), ExpenseIngestionStatus.PENDING));
+
+    // When & Then
+    mockMvc
+        .perform(get("/api/v1/expenses/{id}/ingestion", expense.id()))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.data.id").value(expense.id().toString()))
+        .andExpect(jsonPath("$.data.status").value("PENDING"));
+  }
+
   @Test
   @DisplayName("Given invalid expense request when createExpense then bad request is returned")
   void given_invalidExpenseRequest_when_createExpense_then_badRequestIsReturned() throws Exception {
@@ -126,6 +338,196 @@ class ExpensesApiDelegateImplTest {
     // Then - bad request status returned
   }
 
+  @Test
+  @DisplayName("Given batch request when createExpenses then a result per item is returned")
+  void given_batchRequest_when_createExpenses_then_resultPerItemIsReturned() throws Exception {
+    // Given
+    when(apiMapper.toDomain(any(CreateExpenseRequest.class))).thenReturn(expense);
+    when(expenseService.createExpenses(List.of(expense, expense)))
+        .thenReturn(
+            List.of(
+                new ExpenseCreationResult.Created(0, expense),
+                new ExpenseCreationResult.Failed(1, "numeric field overflow")));
+    when(apiMapper.toResponse(expense)).thenReturn(expenseResponse);
+    CreateExpensesBatchRequest batchRequest =
+        new CreateExpensesBatchRequest(List.of(createRequest, createRequest));
+
+    // When
+    mockMvc
+        .perform(
+            post("/api/v1/expenses:batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(batchRequest)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.data.length()").value(2))
+        .andExpect(jsonPath("$.data[0].index").value(0))
+        .andExpect(jsonPath("$.data[0].status").value("CREATED"))
+        .andExpect(jsonPath("$.data[0].data.id").value(expense.id().toString()))
+        .andExpect(jsonPath("$.data[1].index").value(1))
+        .andExpect(jsonPath("$.data[1].status").value("FAILED"))
+        .andExpect(jsonPath("$.data[1].error.code").value("PERSISTENCE_ERROR"))
+        .andExpect(jsonPath("$.data[1].error.reason").value("numeric field overflow"));
+    // Then - assertions above
+  }
+
+  @Test
+  @DisplayName("Given empty batch request when createExpenses then bad request is returned")
+  void given_emptyBatchRequest_when_createExpenses_then_badRequestIsReturned() throws Exception {
+    mockMvc
+        .perform(
+            post("/api/v1/expenses:batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"data\": []}"))
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  @DisplayName("Given existing id when getExpense then expense is returned")
+  void given_existingId_when_getExpense_then_expenseIsReturned() throws Exception {
+    // Given
+    when(expenseService.getExpense(expense.id())).thenReturn(expense);
+    when(apiMapper.toResponse(expense)).thenReturn(expenseResponse);
+
+    // When & Then
+    mockMvc
+        .perform(get("/api/v1/expenses/{id}", expense.id()))
+        .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.ETAG, "\"3\""))
+        .andExpect(jsonPath("$.data.description").value("Test expense"))
+        .andExpect(jsonPath("$.data.version").value(3));
+  }
+
+  @Test
+  @DisplayName("Given unknown id when getExpense then not found is returned")
+  void given_unknownId_when_getExpense_then_notFoundIsReturned() throws Exception {
+    // Given
+    UUID id = UUID.randomUUID();
+    when(expenseService.getExpense(id)).thenThrow(new ExpenseNotFoundException(id));
+
+    // When & Then
+    mockMvc
+        .perform(get("/api/v1/expenses/{id}", id))
+        .andExpect(status().isNotFound())
+        .andExpect(jsonPath("$.errors[0].code").value("NOT_FOUND"));
+  }
+
+  @Test
+  @DisplayName(
+      "Given If-Match version when updateExpense then updated expense and ETag are returned")
+  void given_ifMatchVersion_when_updateExpense_then_updatedExpenseAndETagAreReturned()
+      throws Exception {
+    // Given
+    Expense updated = expense.toBuilder().description("Updated expense").version(4L).build();
+    expenseResponse.setDescription("Updated expense");
+    expenseResponse.setVersion(4L);
+    when(apiMapper.toDomain(any(UpdateExpenseRequest.class))).thenReturn(updated);
+    when(expenseService.updateExpense(eq(expense.id()), eq(3L), any()))
+        .thenAnswer(
+            invocation -> {
+              UnaryOperator<Expense> changes = invocation.getArgument(2);
+              return new ExpenseRevision(expense, changes.apply(expense));
+            });
+    when(apiMapper.toResponse(updated)).thenReturn(expenseResponse);
+
+    // When & Then
+    mockMvc
+        .perform(
+            put("/api/v1/expenses/{id}", expense.id())
+                .header(HttpHeaders.IF_MATCH, "\"3\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(createRequest)))
+        .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.ETAG, "\"4\""))
+        .andExpect(jsonPath("$.data.description").value("Updated expense"))
+        .andExpect(jsonPath("$.data.version").value(4));
+  }
+
+  @Test
+  @DisplayName("Given no If-Match when patchExpense then the patch applies to any version")
+  void given_noIfMatch_when_patchExpense_then_thePatchAppliesToAnyVersion() throws Exception {
+    // Given
+    Expense patched = expense.toBuilder().notes("Patched").version(4L).build();
+    when(apiMapper.applyPatch(eq(expense), any(PatchExpenseRequest.class))).thenReturn(patched);
+    when(expenseService.updateExpense(eq(expense.id()), isNull(), any()))
+        .thenAnswer(
+            invocation -> {
+              UnaryOperator<Expense> changes = invocation.getArgument(2);
+              return new ExpenseRevision(expense, changes.apply(expense));
+            });
+    when(apiMapper.toResponse(patched)).thenReturn(expenseResponse);
+
+    // When & Then
+    mockMvc
+        .perform(
+            patch("/api/v1/expenses/{id}", expense.id())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"notes\":\"Patched\"}"))
+        .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.ETAG, "\"4\""));
+    verify(apiMapper).applyPatch(eq(expense), eq(new PatchExpenseRequest().notes("Patched")));
+  }
+
+  @Test
+  @DisplayName("Given malformed If-Match when patchExpense then bad request is returned")
+  void given_malformedIfMatch_when_patchExpense_then_badRequestIsReturned() throws Exception {
+    // When & Then
+    mockMvc
+        .perform(
+            patch("/api/v1/expenses/{id}", expense.id())
+                .header(HttpHeaders.IF_MATCH, "W/\"3\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"notes\":\"Patched\"}"))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.errors[0].code").value("VALIDATION_ERROR"));
+    verify(expenseService, never()).updateExpense(any(), any(), any());
+  }
+
+  @Test
+  @DisplayName("Given outdated If-Match when patchExpense then conflict is returned")
+  void given_outdatedIfMatch_when_patchExpense_then_conflictIsReturned() throws Exception {
+    // Given
+    when(expenseService.updateExpense(eq(expense.id()), eq(2L), any()))
+        .thenThrow(new ExpenseVersionConflictException(expense.id(), 3, 2));
+
+    // When & Then
+    mockMvc
+        .perform(
+            patch("/api/v1/expenses/{id}", expense.id())
+                .header(HttpHeaders.IF_MATCH, "\"2\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"notes\":\"Patched\"}"))
+        .andExpect(status().isConflict())
+        .andExpect(jsonPath("$.errors[0].code").value("VERSION_CONFLICT"));
+  }
+
+  @Test
+  @DisplayName("Given concurrent change when deleteExpense then conflict is returned")
+  void given_concurrentChange_when_deleteExpense_then_conflictIsReturned() throws Exception {
+    // Given
+    when(expenseService.deleteExpense(expense.id(), null))
+        .thenThrow(new ObjectOptimisticLockingFailureException(Expense.class, expense.id()));
+
+    // When & Then
+    mockMvc
+        .perform(delete("/api/v1/expenses/{id}", expense.id()))
+        .andExpect(status().isConflict())
+        .andExpect(jsonPath("$.errors[0].code").value("VERSION_CONFLICT"));
+  }
+
+  @Test
+  @DisplayName("Given existing id when deleteExpense then no content is returned")
+  void given_existingId_when_deleteExpense_then_noContentIsReturned() throws Exception {
+    // Given
+    when(expenseService.deleteExpense(expense.id(), 3L)).thenReturn(expense);
+
+    // When & Then
+    mockMvc
+        .perform(
+            delete("/api/v1/expenses/{id}", expense.id()).header(HttpHeaders.IF_MATCH, "\"3\""))
+        .andExpect(status().isNoContent());
+    verify(expenseService).deleteExpense(expense.id(), 3L);
+  }
+
   @Test
   @DisplayName("Given multiple expenses when listExpenses then all expenses are returned")
   void given_multipleExpenses_when_listExpenses_then_allExpensesAreReturned() throws Exception {
@@ -151,7 +553,9 @@ class ExpensesApiDelegateImplTest {
     response2.setCurrency("USD");
     response2.setCategory(io.github.alvarorg14.kashy.api.model.api.Category.TRANSPORT);
 
-    when(expenseService.listExpenses()).thenReturn(List.of(expense, expense2));
+    when(apiMapper.toFilter(null, null, null, null, null, null)).thenReturn(ExpenseFilter.NONE);
+    when(expenseService.listExpenses(ExpenseFilter.NONE, null, 20))
+        .thenReturn(new ExpensePage(List.of(expense, expense2), null));
     when(apiMapper.toResponse(expense)).thenReturn(expenseResponse);
     when(apiMapper.toResponse(expense2)).thenReturn(response2);
 
@@ -163,7 +567,347 @@ class ExpensesApiDelegateImplTest {
         .andExpect(jsonPath("$.data").isArray())
         .andExpect(jsonPath("$.data.length()").value(2))
         .andExpect(jsonPath("$.data[0].description").value("Test expense"))
-        .andExpect(jsonPath("$.data[1].description").value("Second expense"));
+        .andExpect(jsonPath("$.data[1].description").value("Second expense"))
+        .andExpect(jsonPath("$.nextCursor").doesNotExist());
     // Then - all expenses returned in data array
   }
+
+  @Test
+  @DisplayName("Given base currency when listExpenses then normalized amounts are returned")
+  void given_baseCurrency_when_listExpenses_then_normalizedAmountsAreReturned() throws Exception {
+    // Given
+    ExchangeRates.Converter converter = mock(ExchangeRates.Converter.class);
+    when(exchangeRates.converterTo("USD")).thenReturn(converter);
+    when(exchangeRates.version()).thenReturn("3-x");
+    when(converter.convert(eq(expense.amount()), eq("EUR"), any(LocalDate.class)))
+        .thenReturn(new BigDecimal("110.0011"));
+    when(apiMapper.toFilter(null, null, null, null, null, null)).thenReturn(ExpenseFilter.NONE);
+    when(expenseService.listExpenses(ExpenseFilter.NONE, null, 20))
+        .thenReturn(new ExpensePage(List.of(expense), null));
+    when(apiMapper.toResponse(expense)).thenReturn(expenseResponse);
+
+    // When & Then
+    mockMvc
+        .perform(get("/api/v1/expenses").param("baseCurrency", "USD"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.data[0].amount").value(100.5))
+        .andExpect(jsonPath("$.data[0].normalizedAmount").value(110.0011))
+        .andExpect(header().string(HttpHeaders.ETAG, "W/\"" + version.tag() + "-3-x\""))
+        .andExpect(header().doesNotExist(HttpHeaders.LAST_MODIFIED));
+  }
+
+  @Test
+  @DisplayName("Given base currency without rates when listExpenses then unprocessable is returned")
+  void given_baseCurrencyWithoutRates_when_listExpenses_then_unprocessableIsReturned()
+      throws Exception {
+    // Given
+    when(apiMapper.toFilter(null, null, null, null, null, null)).thenReturn(ExpenseFilter.NONE);
+    when(exchangeRates.converterTo("XAU")).thenThrow(new ExchangeRateUnavailableException("XAU"));
+
+    // When
+    mockMvc
+        .perform(get("/api/v1/expenses").param("baseCurrency", "XAU"))
+        .andExpect(status().isUnprocessableContent())
+        .andExpect(jsonPath("$.errors[0].code").value("EXCHANGE_RATE_UNAVAILABLE"));
+
+    // Then
+    verify(expenseService, never()).listExpenses(any(), any(), anyInt());
+  }
+
+  @Test
+  @DisplayName(
+      "Given unconditional listing when listExpenses then recent version validators are returned")
+  void given_unconditionalListing_when_listExpenses_then_recentVersionValidatorsAreReturned()
+      throws Exception {
+    // Given
+    when(apiMapper.toFilter(null, null, null, null, null, null)).thenReturn(ExpenseFilter.NONE);
+    when(expenseService.listExpenses(ExpenseFilter.NONE, null, 20))
+        .thenReturn(new ExpensePage(List.of(), null));
+
+    // When & Then
+    mockMvc
+        .perform(get("/api/v1/expenses"))
+        .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.ETAG, "W/\"" + version.tag() + "\""))
+        .andExpect(header().dateValue(HttpHeaders.LAST_MODIFIED, 1705314600000L))
+        .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT));
+
+    // Then
+    verify(expenseService, never()).getExpenseVersion();
+  }
+
+  @Test
+  @DisplayName("Given current ETag when listExpenses then not modified is returned without rows")
+  void given_currentEtag_when_listExpenses_then_notModifiedIsReturnedWithoutRows()
+      throws Exception {
+    // When
+    mockMvc
+        .perform(
+            get("/api/v1/expenses")
+                .header(HttpHeaders.IF_NONE_MATCH, "W/\"" + version.tag() + "\""))
+        .andExpect(status().isNotModified())
+        .andExpect(content().string(""));
+
+    // Then
+    verify(expenseService, never()).listExpenses(any(), any(), anyInt());
+  }
+
+  @Test
+  @DisplayName("Given stale ETag when listExpenses then page is returned")
+  void given_staleEtag_when_listExpenses_then_pageIsReturned() throws Exception {
+    // Given
+    when(apiMapper.toFilter(null, null, null, null, null, null)).thenReturn(ExpenseFilter.NONE);
+    when(expenseService.listExpenses(ExpenseFilter.NONE, null, 20))
+        .thenReturn(new ExpensePage(List.of(expense), null));
+    when(apiMapper.toResponse(expense)).thenReturn(expenseResponse);
+
+    // When & Then
+    mockMvc
+        .perform(get("/api/v1/expenses").header(HttpHeaders.IF_NONE_MATCH, "W/\"1-abc\""))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.data.length()").value(1));
+  }
+
+  @Test
+  @DisplayName("Given CBOR accept header when listExpenses then page is encoded as CBOR")
+  void given_cborAcceptHeader_when_listExpenses_then_pageIsEncodedAsCbor() throws Exception {
+    // Given
+    when(apiMapper.toFilter(null, null, null, null, null, null)).thenReturn(ExpenseFilter.NONE);
+    when(expenseService.listExpenses(ExpenseFilter.NONE, null, 20))
+        .thenReturn(new ExpensePage(List.of(expense), null));
+    when(apiMapper.toResponse(expense)).thenReturn(expenseResponse);
+
+    // When
+    MvcResult result =
+        mockMvc
+            .perform(get("/api/v1/expenses").accept(MediaType.APPLICATION_CBOR))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+            .andReturn();
+
+    // Then
+    ListExpensesResponse page =
+        cborMapper.readValue(
+            result.getResponse().getContentAsByteArray(), ListExpensesResponse.class);
+    assertEquals(expense.id(), page.getData().getFirst().getId());
+    assertEquals(0, expense.amount().compareTo(page.getData().getFirst().getAmount()));
+    assertNull(page.getNextCursor());
+  }
+
+  @Test
+  @DisplayName("Given cursor and limit when listExpenses then next page and cursor are returned")
+  void given_cursorAndLimit_when_listExpenses_then_nextPageAndCursorAreReturned() throws Exception {
+    // Given
+    ExpenseCursor cursor = new ExpenseCursor(expense.dateTime(), UUID.randomUUID());
+    ExpenseCursor nextCursor = ExpenseCursor.after(expense);
+    when(apiMapper.toFilter(null, null, null, null, null, null)).thenReturn(ExpenseFilter.NONE);
+    when(expenseService.listExpenses(eq(ExpenseFilter.NONE), any(ExpenseCursor.class), eq(1)))
+        .thenReturn(new ExpensePage(List.of(expense), nextCursor));
+    when(apiMapper.toResponse(expense)).thenReturn(expenseResponse);
+
+    // When
+    mockMvc
+        .perform(get("/api/v1/expenses").param("limit", "1").param("cursor", cursor.encode()))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.data.length()").value(1))
+        .andExpect(jsonPath("$.nextCursor").value(nextCursor.encode()));
+
+    // Then
+    verify(expenseService).listExpenses(ExpenseFilter.NONE, cursor, 1);
+  }
+
+  @Test
+  @DisplayName("Given filter parameters when listExpenses then filter is passed to the service")
+  void given_filterParameters_when_listExpenses_then_filterIsPassedToTheService() throws Exception {
+    // Given
+    OffsetDateTime from = OffsetDateTime.parse("2024-01-01T00:00:00Z");
+    OffsetDateTime to = OffsetDateTime.parse("2024-02-01T00:00:00Z");
+    ExpenseFilter filter =
+        ExpenseFilter.builder().from(from).to(to).category(Category.FOOD).currency("EUR").build();
+    when(apiMapper.toFilter(
+            from,
+            to,
+            io.github.alvarorg14.kashy.api.model.api.Category.FOOD,
+            "EUR",
+            BigDecimal.ONE,
+            BigDecimal.TEN))
+        .thenReturn(filter);
+    when(expenseService.listExpenses(filter, null, 20))
+        .thenReturn(new ExpensePage(List.of(), null));
+
+    // When & Then
+    mockMvc
+        .perform(
+            get("/api/v1/expenses")
+                .param("from", "2024-01-01T00:00:00Z")
+                .param("to", "2024-02-01T00:00:00Z")
+                .param("category", "FOOD")
+                .param("currency", "EUR")
+                .param("minAmount", "1")
+                .param("maxAmount", "10"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.data.length()").value(0));
+  }
+
+  @Test
+  @DisplayName("Given lowercase currency when listExpenses then bad request is returned")
+  void given_lowercaseCurrency_when_listExpenses_then_badRequestIsReturned() throws Exception {
+    mockMvc
+        .perform(get("/api/v1/expenses").param("currency", "eur"))
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  @DisplayName("Given limit above the cap when listExpenses then bad request is returned")
+  void given_limitAboveCap_when_listExpenses_then_badRequestIsReturned() throws Exception {
+    mockMvc
+        .perform(get("/api/v1/expenses").param("limit", "101"))
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  @DisplayName("Given malformed cursor when listExpenses then bad request is returned")
+  void given_malformedCursor_when_listExpenses_then_badRequestIsReturned() throws Exception {
+    mockMvc
+        .perform(get("/api/v1/expenses").param("cursor", "not-a-cursor"))
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  @DisplayName(
+      "Given query and cursor when searchExpenses then ranked page and cursor are returned")
+  void given_queryAndCursor_when_searchExpenses_then_rankedPageAndCursorAreReturned()
+      throws Exception {
+    // Given
+    ExpenseSearchCursor cursor =
+        new ExpenseSearchCursor(0.5f, expense.dateTime(), UUID.randomUUID());
+    ExpenseSearchCursor nextCursor =
+        new ExpenseSearchCursor(0.25f, expense.dateTime(), expense.id());
+    when(expenseService.searchExpenses("uber", cursor, 1))
+        .thenReturn(new ExpenseSearchPage(List.of(expense), nextCursor));
+    when(apiMapper.toResponse(expense)).thenReturn(expenseResponse);
+
+    // When & Then
+    mockMvc
+        .perform(
+            get("/api/v1/expenses/search")
+                .param("q", "uber")
+                .param("limit", "1")
+                .param("cursor", cursor.encode()))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.data.length()").value(1))
+        .andExpect(jsonPath("$.nextCursor").value(nextCursor.encode()));
+  }
+
+  @Test
+  @DisplayName("Given no query when searchExpenses then bad request is returned")
+  void given_noQuery_when_searchExpenses_then_badRequestIsReturned() throws Exception {
+    mockMvc.perform(get("/api/v1/expenses/search")).andExpect(status().isBadRequest());
+    verify(expenseService, never()).searchExpenses(any(), any(), anyInt());
+  }
+
+  @Test
+  @DisplayName("Given malformed cursor when searchExpenses then bad request is returned")
+  void given_malformedCursor_when_searchExpenses_then_badRequestIsReturned() throws Exception {
+    mockMvc
+        .perform(get("/api/v1/expenses/search").param("q", "uber").param("cursor", "not-a-cursor"))
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  @DisplayName("Given no period when summarizeExpenses then monthly summary is returned")
+  void given_noPeriod_when_summarizeExpenses_then_monthlySummaryIsReturned() throws Exception {
+    // Given
+    ExpenseSummary summary = ExpenseSummary.builder().category(Category.FOOD).count(2).build();
+    ExpenseSummaryItem item =
+        new ExpenseSummaryItem()
+            .periodStart(LocalDate.of(2024, 1, 1))
+            .category(io.github.alvarorg14.kashy.api.model.api.Category.FOOD)
+            .currency("EUR")
+            .count(2L)
+            .total(BigDecimal.valueOf(20))
+            .average(BigDecimal.TEN);
+    when(apiMapper.toDomain(io.github.alvarorg14.kashy.api.model.api.SummaryPeriod.MONTH))
+        .thenReturn(SummaryPeriod.MONTH);
+    when(expenseService.summarizeExpenses(eq(SummaryPeriod.MONTH), isNull(), isNull(), isNull()))
+        .thenReturn(List.of(summary));
+    when(apiMapper.toResponse(summary)).thenReturn(item);
+
+    // When & Then
+    mockMvc
+        .perform(get("/api/v1/expenses/summary"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.period").value("MONTH"))
+        .andExpect(jsonPath("$.data.length()").value(1))
+        .andExpect(jsonPath("$.data[0].periodStart").value("2024-01-01"))
+        .andExpect(jsonPath("$.data[0].category").value("FOOD"))
+        .andExpect(jsonPath("$.data[0].count").value(2));
+  }
+
+  @Test
+  @DisplayName("Given unknown period when summarizeExpenses then bad request is returned")
+  void given_unknownPeriod_when_summarizeExpenses_then_badRequestIsReturned() throws Exception {
+    mockMvc
+        .perform(get("/api/v1/expenses/summary").param("period", "YEAR"))
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  @DisplayName("Given expenses when exportExpenses then expenses are streamed as NDJSON")
+  void given_expenses_when_exportExpenses_then_expensesAreStreamedAsNdjson() throws Exception {
+    // Given
+    givenExportedExpenses();
+
+    // When
+    MvcResult result =
+        mockMvc
+            .perform(get("/api/v1/expenses/export").accept(MediaType.APPLICATION_NDJSON))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+    // Then
+    mockMvc
+        .perform(asyncDispatch(result))
+        .andExpect(status().isOk())
+        .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+        .andExpect(
+            header().string(HttpHeaders.CONTENT_DISPOSITION, containsString("expenses.ndjson")))
+        .andExpect(content().string(startsWith("{")))
+        .andExpect(content().string(containsString("\"description\":\"Test expense\"")))
+        .andExpect(content().string(endsWith("}\n")));
+  }
+
+  @Test
+  @DisplayName("Given CSV accept header when exportExpenses then expenses are streamed as CSV")
+  void given_csvAcceptHeader_when_exportExpenses_then_expensesAreStreamedAsCsv() throws Exception {
+    // Given
+    givenExportedExpenses();
+
+    // When
+    MvcResult result =
+        mockMvc
+            .perform(get("/api/v1/expenses/export").accept("text/csv"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+    // Then
+    mockMvc
+        .perform(asyncDispatch(result))
+        .andExpect(status().isOk())
+        .andExpect(content().contentTypeCompatibleWith("text/csv"))
+        .andExpect(content().string(startsWith("id,description,dateTime,amount")))
+        .andExpect(content().string(containsString(expense.id() + ",Test expense,")));
+  }
+
+  private void givenExportedExpenses() {
+    doAnswer(
+            invocation -> {
+              Consumer<Expense> sink = invocation.getArgument(0);
+              sink.accept(expense);
+              return null;
+            })
+        .when(expenseService)
+        .exportExpenses(any());
+    when(apiMapper.toResponse(expense)).thenReturn(expenseResponse);
+  }
 }
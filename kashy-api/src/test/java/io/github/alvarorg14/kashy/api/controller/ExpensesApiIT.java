@@ -1,16 +1,36 @@
 package io.github.alvarorg14.kashy.api.controller;
 
 import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.emptyOrNullString;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.hasKey;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import io.github.alvarorg14.kashy.api.config.AbstractIT;
+import io.github.alvarorg14.kashy.api.model.api.ListExpensesResponse;
+import io.github.alvarorg14.kashy.api.repository.ExpenseMonthlyRollupRepository;
 import io.github.alvarorg14.kashy.api.repository.ExpenseRepository;
+import io.github.alvarorg14.kashy.api.repository.IdempotencyKeyRepository;
+import io.github.alvarorg14.kashy.api.service.CachingExpenseService;
 import io.restassured.RestAssured;
 import io.restassured.http.ContentType;
+import io.restassured.response.ValidatableResponse;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -25,6 +45,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
+import tools.jackson.dataformat.cbor.CBORMapper;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 @ActiveProfiles("test")
@@ -39,11 +60,22 @@ class ExpensesApiIT extends AbstractIT {
 
   @Autowired private ExpenseRepository expenseRepository;
 
+  @Autowired private ExpenseMonthlyRollupRepository rollupRepository;
+
+  @Autowired private IdempotencyKeyRepository idempotencyKeyRepository;
+
+  @Autowired private CachingExpenseService cachingExpenseService;
+
+  @Autowired private CBORMapper cborMapper;
+
   @BeforeEach
   void setUp() {
     RestAssured.port = port;
     RestAssured.baseURI = "http://localhost";
     expenseRepository.deleteAll();
+    rollupRepository.deleteAll();
+    idempotencyKeyRepository.deleteAll();
+    cachingExpenseService.invalidateAll();
   }
 
   @Nested
@@ -196,12 +228,492 @@ class ExpensesApiIT extends AbstractIT {
             .body("data.category", equalTo(category));
       }
     }
+
+    @Test
+    @DisplayName(
+        "Given repeated idempotency key, when creating expense, then original expense is replayed")
+    void givenRepeatedIdempotencyKey_whenCreatingExpense_thenOriginalExpenseIsReplayed() {
+      String key = UUID.randomUUID().toString();
+
+      String firstId =
+          createWithKey(key, IDEMPOTENT_REQUEST).statusCode(201).extract().path("data.id");
+      createWithKey(key, IDEMPOTENT_REQUEST)
+          .statusCode(201)
+          .body("data.id", equalTo(firstId))
+          .body("data.dateTime", equalTo("2024-01-15T10:30:00Z"));
+
+      assertEquals(1, expenseRepository.count());
+      assertEquals(1, rollupRepository.findAll().getFirst().getExpenseCount());
+    }
+
+    @Test
+    @DisplayName(
+        "Given concurrent requests with one idempotency key, when creating expense, then one expense is created")
+    void
+        givenConcurrentRequestsWithOneIdempotencyKey_whenCreatingExpense_thenOneExpenseIsCreated() {
+      String key = UUID.randomUUID().toString();
+
+      Set<String> ids =
+          IntStream.range(0, 8)
+              .parallel()
+              .mapToObj(
+                  i ->
+                      createWithKey(key, IDEMPOTENT_REQUEST)
+                          .statusCode(201)
+                          .extract()
+                          .<String>path("data.id"))
+              .collect(Collectors.toSet());
+
+      assertEquals(1, ids.size());
+      assertEquals(1, expenseRepository.count());
+    }
+
+    @Test
+    @DisplayName(
+        "Given idempotency key reused with other payload, when creating expense, then returns 422")
+    void givenIdempotencyKeyReusedWithOtherPayload_whenCreatingExpense_thenReturns422() {
+      String key = UUID.randomUUID().toString();
+      createWithKey(key, IDEMPOTENT_REQUEST).statusCode(201);
+
+      createWithKey(key, IDEMPOTENT_REQUEST.replace("45.99", "46.99"))
+          .statusCode(422)
+          .body("errors[0].code", equalTo("IDEMPOTENCY_KEY_REUSED"));
+
+      assertEquals(1, expenseRepository.count());
+    }
+
+    private static final String IDEMPOTENT_REQUEST =
+        """
+        {
+          "description": "Grocery shopping",
+          "dateTime": "2024-01-15T10:30:00Z",
+          "amount": 45.99,
+          "currency": "EUR",
+          "category": "FOOD"
+        }
+        """;
+
+    private ValidatableResponse createWithKey(String key, String requestBody) {
+      return given()
+          .contentType(ContentType.JSON)
+          .header("Idempotency-Key", key)
+          .body(requestBody)
+          .when()
+          .post(EXPENSES_BASE_PATH)
+          .then();
+    }
+  }
+
+  @Nested
+  @DisplayName("POST /api/v1/expenses:batch - Create Expenses In Bulk")
+  class CreateExpensesInBulk {
+
+    @Test
+    @DisplayName(
+        "Given valid batch request, when creating expenses, then returns a created result per item")
+    void givenValidBatchRequest_whenCreatingExpenses_thenReturnsCreatedResultPerItem() {
+      given()
+          .contentType(ContentType.JSON)
+          .body(batchRequestBody("45.99", "2.50", "15.99"))
+          .when()
+          .post(EXPENSES_BASE_PATH + ":batch")
+          .then()
+          .statusCode(200)
+          .body("data", hasSize(3))
+          .body("data.status", everyItem(equalTo("CREATED")))
+          .body("data.index", contains(0, 1, 2))
+          .body("data[0].data.id", notNullValue());
+
+      assertEquals(3, expenseRepository.count());
+    }
+
+    @Test
+    @DisplayName(
+        "Given batch with an unstorable amount, when creating expenses, then only that item fails")
+    void givenBatchWithUnstorableAmount_whenCreatingExpenses_thenOnlyThatItemFails() {
+      given()
+          .contentType(ContentType.JSON)
+          .body(batchRequestBody("45.99", "100000000000000000000", "15.99"))
+          .when()
+          .post(EXPENSES_BASE_PATH + ":batch")
+          .then()
+          .statusCode(200)
+          .body("data.status", contains("CREATED", "FAILED", "CREATED"))
+          .body("data[1].error.code", equalTo("PERSISTENCE_ERROR"));
+
+      assertEquals(2, expenseRepository.count());
+    }
+
+    @Test
+    @DisplayName("Given batch with an invalid item, when creating expenses, then returns 400")
+    void givenBatchWithInvalidItem_whenCreatingExpenses_thenReturns400() {
+      given()
+          .contentType(ContentType.JSON)
+          .body(batchRequestBody("45.99", "-1"))
+          .when()
+          .post(EXPENSES_BASE_PATH + ":batch")
+          .then()
+          .statusCode(400);
+
+      assertEquals(0, expenseRepository.count());
+    }
+
+    private String batchRequestBody(String... amounts) {
+      String items =
+          Stream.of(amounts)
+              .map(
+                  amount ->
+                      """
+                      {
+                        "description": "Imported expense",
+                        "dateTime": "2024-01-15T10:30:00Z",
+                        "amount": %s,
+                        "currency": "EUR",
+                        "category": "OTHER"
+                      }
+                      """
+                          .formatted(amount))
+              .collect(Collectors.joining(","));
+      return "{\"data\": [" + items + "]}";
+    }
+  }
+
+  @Nested
+  @DisplayName("GET /api/v1/expenses/{id} - Get Expense")
+  class GetExpense {
+
+    @Test
+    @DisplayName("Given expense exists, when getting it by id, then returns 200 with the expense")
+    void givenExpenseExists_whenGettingById_thenReturns200WithExpense() {
+      createExpense("Grocery shopping", "45.99", "FOOD");
+      String id = given().when().get(EXPENSES_BASE_PATH).then().extract().path("data[0].id");
+
+      given()
+          .when()
+          .get(EXPENSES_BASE_PATH + "/" + id)
+          .then()
+          .statusCode(200)
+          .contentType(ContentType.JSON)
+          .body("data.id", equalTo(id))
+          .body("data.description", equalTo("Grocery shopping"));
+    }
+
+    @Test
+    @DisplayName("Given unknown id, when getting expense, then returns 404")
+    void givenUnknownId_whenGettingExpense_thenReturns404() {
+      given()
+          .when()
+          .get(EXPENSES_BASE_PATH + "/" + UUID.randomUUID())
+          .then()
+          .statusCode(404)
+          .body("errors[0].code", equalTo("NOT_FOUND"));
+    }
+  }
+
+  @Nested
+  @DisplayName("PUT, PATCH and DELETE /api/v1/expenses/{id} - Change Expense")
+  class ChangeExpense {
+
+    @Test
+    @DisplayName(
+        "Given current version, when patching the date, then the expense moves to the other month")
+    void givenCurrentVersion_whenPatchingTheDate_thenTheExpenseMovesToTheOtherMonth() {
+      String id = createExpenseAndGetId("Groceries", "10.00", "FOOD", "Weekly");
+      summarizeMonth("2024-01-01T00:00:00Z", "2024-02-01T00:00:00Z").body("data", hasSize(1));
+
+      given()
+          .contentType(ContentType.JSON)
+          .header("If-Match", "\"0\"")
+          .body("{\"dateTime\": \"2024-02-03T10:00:00Z\", \"amount\": 12.50}")
+          .when()
+          .patch(EXPENSES_BASE_PATH + "/" + id)
+          .then()
+          .statusCode(200)
+          .header("ETag", equalTo("\"1\""))
+          .body("data.version", equalTo(1))
+          .body("data.description", equalTo("Groceries"))
+          .body("data.notes", equalTo("Weekly"))
+          .body("data.amount", equalTo(12.5f));
+
+      summarizeMonth("2024-01-01T00:00:00Z", "2024-02-01T00:00:00Z").body("data", hasSize(0));
+      summarizeMonth("2024-02-01T00:00:00Z", "2024-03-01T00:00:00Z")
+          .body("data", hasSize(1))
+          .body("data[0].total", equalTo(12.5f));
+      given()
+          .when()
+          .get(EXPENSES_BASE_PATH + "/" + id)
+          .then()
+          .header("ETag", equalTo("\"1\""))
+          .body("data.dateTime", equalTo("2024-02-03T10:00:00Z"));
+    }
+
+    @Test
+    @DisplayName(
+        "Given outdated version, when replacing the expense, then returns 409 and keeps it")
+    void givenOutdatedVersion_whenReplacingTheExpense_thenReturns409AndKeepsIt() {
+      String id = createExpenseAndGetId("Groceries", "10.00", "FOOD", "Weekly");
+      given()
+          .contentType(ContentType.JSON)
+          .body("{\"notes\": \"Monthly\"}")
+          .when()
+          .patch(EXPENSES_BASE_PATH + "/" + id)
+          .then()
+          .statusCode(200)
+          .body("data.version", equalTo(1));
+
+      given()
+          .contentType(ContentType.JSON)
+          .header("If-Match", "\"0\"")
+          .body(replacement("Restaurant"))
+          .when()
+          .put(EXPENSES_BASE_PATH + "/" + id)
+          .then()
+          .statusCode(409)
+          .body("errors[0].code", equalTo("VERSION_CONFLICT"));
+
+      given()
+          .when()
+          .get(EXPENSES_BASE_PATH + "/" + id)
+          .then()
+          .body("data.description", equalTo("Groceries"))
+          .body("data.notes", equalTo("Monthly"));
+    }
+
+    @Test
+    @DisplayName(
+        "Given replacement without notes, when replacing the expense, then notes are cleared")
+    void givenReplacementWithoutNotes_whenReplacingTheExpense_thenNotesAreCleared() {
+      String id = createExpenseAndGetId("Groceries", "10.00", "FOOD", "Weekly");
+      given().when().get(EXPENSES_BASE_PATH).then().body("data[0].notes", equalTo("Weekly"));
+
+      given()
+          .contentType(ContentType.JSON)
+          .header("If-Match", "*")
+          .body(replacement("Restaurant"))
+          .when()
+          .put(EXPENSES_BASE_PATH + "/" + id)
+          .then()
+          .statusCode(200)
+          .body("data.version", equalTo(1))
+          .body("data.notes", emptyOrNullString());
+
+      given()
+          .when()
+          .get(EXPENSES_BASE_PATH)
+          .then()
+          .body("data[0].description", equalTo("Restaurant"))
+          .body("data[0].notes", emptyOrNullString());
+    }
+
+    @Test
+    @DisplayName(
+        "Given the stored values, when replacing the expense, then the version does not change")
+    void givenTheStoredValues_whenReplacingTheExpense_thenTheVersionDoesNotChange() {
+      String id = createExpenseAndGetId("Groceries", "10.00", "FOOD", "Weekly");
+
+      given()
+          .contentType(ContentType.JSON)
+          .body(
+              """
+              {
+                "description": "Groceries",
+                "dateTime": "2024-01-15T11:30:00+01:00",
+                "amount": 10,
+                "currency": "EUR",
+                "category": "FOOD",
+                "notes": "Weekly"
+              }
+              """)
+          .when()
+          .put(EXPENSES_BASE_PATH + "/" + id)
+          .then()
+          .statusCode(200)
+          .header("ETag", equalTo("\"0\""))
+          .body("data.version", equalTo(0));
+    }
+
+    @Test
+    @DisplayName(
+        "Given current version, when deleting the expense, then it and its totals are gone")
+    void givenCurrentVersion_whenDeletingTheExpense_thenItAndItsTotalsAreGone() {
+      String id = createExpenseAndGetId("Groceries", "10.00", "FOOD", "Weekly");
+      given().when().get(EXPENSES_BASE_PATH + "/" + id).then().statusCode(200);
+
+      given()
+          .header("If-Match", "\"0\"")
+          .when()
+          .delete(EXPENSES_BASE_PATH + "/" + id)
+          .then()
+          .statusCode(204);
+
+      given().when().get(EXPENSES_BASE_PATH + "/" + id).then().statusCode(404);
+      summarizeMonth("2024-01-01T00:00:00Z", "2024-02-01T00:00:00Z").body("data", hasSize(0));
+      given()
+          .when()
+          .delete(EXPENSES_BASE_PATH + "/" + id)
+          .then()
+          .statusCode(404)
+          .body("errors[0].code", equalTo("NOT_FOUND"));
+    }
+
+    private ValidatableResponse summarizeMonth(String from, String to) {
+      return given()
+          .queryParam("from", from)
+          .queryParam("to", to)
+          .when()
+          .get(EXPENSES_BASE_PATH + "/summary")
+          .then()
+          .statusCode(200);
+    }
+
+    private String replacement(String description) {
+      return """
+          {
+            "description": "%s",
+            "dateTime": "2024-01-15T10:30:00Z",
+            "amount": 10.00,
+            "currency": "EUR",
+            "category": "FOOD"
+          }
+          """
+          .formatted(description);
+    }
+  }
+
+  @Nested
+  @DisplayName("Read cache")
+  class ReadCache {
+
+    @Test
+    @DisplayName(
+        "Given cached first page and summary, when creating an expense, then both reflect it")
+    void givenCachedFirstPageAndSummary_whenCreatingExpense_thenBothReflectIt() {
+      createExpense("Older", "1.00", "FOOD", "2024-01-14T10:30:00Z");
+      given().when().get(EXPENSES_BASE_PATH).then().body("data", hasSize(1));
+      given().when().get(EXPENSES_BASE_PATH + "/summary").then().body("data[0].count", equalTo(1));
+
+      createExpense("Newer", "2.00", "FOOD", "2024-01-15T10:30:00Z");
+
+      given()
+          .when()
+          .get(EXPENSES_BASE_PATH)
+          .then()
+          .body("data", hasSize(2))
+          .body("data[0].description", equalTo("Newer"));
+      given().when().get(EXPENSES_BASE_PATH + "/summary").then().body("data[0].count", equalTo(2));
+    }
+  }
+
+  @Nested
+  @DisplayName("GET /actuator/prometheus - Metrics")
+  class Metrics {
+
+    @Test
+    @DisplayName(
+        "Given a listing request, when scraping Prometheus, then stage timers and rows are exposed")
+    void givenListingRequest_whenScrapingPrometheus_thenStageTimersAndRowsAreExposed() {
+      createExpense("Grocery shopping", "45.99", "FOOD");
+      given().when().get(EXPENSES_BASE_PATH).then().statusCode(200);
+
+      String scrape =
+          given().when().get("/actuator/prometheus").then().statusCode(200).extract().asString();
+
+      assertTrue(scrape.contains("kashy_expenses_controller_seconds_bucket{"));
+      assertTrue(
+          scrape.contains("kashy_expenses_mapping_seconds_count{stage=\"entity-to-domain\"}"));
+      assertTrue(scrape.contains("kashy_expenses_persistence_seconds_count{stage=\"find-page\"}"));
+      assertTrue(scrape.contains("kashy_expenses_listed_rows_total"));
+    }
   }
 
   @Nested
   @DisplayName("GET /api/v1/expenses - List Expenses")
   class ListExpenses {
 
+    @Test
+    @DisplayName(
+        "Given unchanged expenses, when listing with the previous ETag, then returns 304 until a write")
+    void givenUnchangedExpenses_whenListingWithPreviousEtag_thenReturns304UntilAWrite() {
+      createExpense("Grocery shopping", "45.99", "FOOD");
+      String etag =
+          given()
+              .when()
+              .get(EXPENSES_BASE_PATH)
+              .then()
+              .statusCode(200)
+              .header("Last-Modified", notNullValue())
+              .extract()
+              .header("ETag");
+
+      given()
+          .header("If-None-Match", etag)
+          .when()
+          .get(EXPENSES_BASE_PATH + "?limit=5")
+          .then()
+          .statusCode(304)
+          .header("ETag", equalTo(etag));
+
+      createExpense("Bus ticket", "2.50", "TRANSPORT");
+
+      given()
+          .header("If-None-Match", etag)
+          .when()
+          .get(EXPENSES_BASE_PATH)
+          .then()
+          .statusCode(200)
+          .header("ETag", not(equalTo(etag)))
+          .body("data", hasSize(2));
+    }
+
+    @Test
+    @DisplayName(
+        "Given CBOR accept header, when listing expenses, then returns the page encoded as CBOR")
+    void givenCborAcceptHeader_whenListingExpenses_thenReturnsThePageEncodedAsCbor() {
+      createExpense("Grocery shopping", "45.99", "FOOD");
+
+      byte[] body =
+          given()
+              .accept("application/cbor")
+              .when()
+              .get(EXPENSES_BASE_PATH)
+              .then()
+              .statusCode(200)
+              .contentType("application/cbor")
+              .extract()
+              .asByteArray();
+
+      ListExpensesResponse page = cborMapper.readValue(body, ListExpensesResponse.class);
+      assertEquals(1, page.getData().size());
+      assertEquals("Grocery shopping", page.getData().getFirst().getDescription());
+      assertEquals(0, new BigDecimal("45.99").compareTo(page.getData().getFirst().getAmount()));
+    }
+
+    @Test
+    @DisplayName(
+        "Given gzip accept encoding, when listing expenses, then only pages over the threshold are compressed")
+    void givenGzipAcceptEncoding_whenListingExpenses_thenOnlyPagesOverTheThresholdAreCompressed() {
+      given()
+          .header("Accept-Encoding", "gzip")
+          .when()
+          .get(EXPENSES_BASE_PATH)
+          .then()
+          .statusCode(200)
+          .header("Content-Encoding", nullValue());
+
+      for (int i = 0; i < 20; i++) {
+        createExpense("Grocery shopping " + i, "45.99", "FOOD");
+      }
+
+      given()
+          .header("Accept-Encoding", "gzip")
+          .when()
+          .get(EXPENSES_BASE_PATH + "?limit=20")
+          .then()
+          .statusCode(200)
+          .header("Content-Encoding", equalTo("gzip"))
+          .body("data", hasSize(20));
+    }
+
     @Test
     @DisplayName("Given no expenses exist, when listing expenses, then returns 200 with empty list")
     void givenNoExpensesExist_whenListingExpenses_thenReturns200WithEmptyList() {
@@ -274,20 +786,447 @@ class ExpensesApiIT extends AbstractIT {
           .body("data[0].createdAt", not(emptyOrNullString()))
           .body("data[0].updatedAt", not(emptyOrNullString()));
     }
+
+    @Test
+    @DisplayName(
+        "Given more expenses than the page size, when following cursors, then every expense is returned once newest first")
+    void givenMoreExpensesThanPageSize_whenFollowingCursors_thenEveryExpenseIsReturnedOnce() {
+      createExpense("Oldest", "1.00", "FOOD", "2024-01-13T10:30:00Z");
+      createExpense("Middle", "2.00", "FOOD", "2024-01-14T10:30:00Z");
+      createExpense("Newest", "3.00", "FOOD", "2024-01-15T10:30:00Z");
+
+      String nextCursor =
+          given()
+              .queryParam("limit", 2)
+              .when()
+              .get(EXPENSES_BASE_PATH)
+              .then()
+              .statusCode(200)
+              .body("data", hasSize(2))
+              .body("data[0].description", equalTo("Newest"))
+              .body("data[1].description", equalTo("Middle"))
+              .body("nextCursor", notNullValue())
+              .extract()
+              .path("nextCursor");
+
+      given()
+          .queryParam("limit", 2)
+          .queryParam("cursor", nextCursor)
+          .when()
+          .get(EXPENSES_BASE_PATH)
+          .then()
+          .statusCode(200)
+          .body("data", hasSize(1))
+          .body("data[0].description", equalTo("Oldest"))
+          .body("nextCursor", nullValue());
+    }
+
+    @Test
+    @DisplayName(
+        "Given filters, when following cursors, then only matching expenses are returned across pages")
+    void givenFilters_whenFollowingCursors_thenOnlyMatchingExpensesAreReturnedAcrossPages() {
+      createExpense("Lunch", "12.00", "FOOD", "2024-01-10T12:00:00Z");
+      createExpense("Dinner", "40.00", "FOOD", "2024-01-11T20:00:00Z");
+      createExpense("Snack", "2.00", "FOOD", "2024-01-12T16:00:00Z");
+      createExpense("Taxi", "25.00", "TRANSPORT", "2024-01-12T23:00:00Z");
+      createExpense("Brunch", "30.00", "FOOD", "2024-02-01T11:00:00Z");
+
+      String nextCursor =
+          given()
+              .queryParam("limit", 1)
+              .queryParam("category", "FOOD")
+              .queryParam("minAmount", "10")
+              .queryParam("from", "2024-01-01T00:00:00Z")
+              .queryParam("to", "2024-02-01T00:00:00Z")
+              .when()
+              .get(EXPENSES_BASE_PATH)
+              .then()
+              .statusCode(200)
+              .body("data", hasSize(1))
+              .body("data[0].description", equalTo("Dinner"))
+              .extract()
+              .path("nextCursor");
+
+      given()
+          .queryParam("limit", 1)
+          .queryParam("cursor", nextCursor)
+          .queryParam("category", "FOOD")
+          .queryParam("minAmount", "10")
+          .queryParam("from", "2024-01-01T00:00:00Z")
+          .queryParam("to", "2024-02-01T00:00:00Z")
+          .when()
+          .get(EXPENSES_BASE_PATH)
+          .then()
+          .statusCode(200)
+          .body("data", hasSize(1))
+          .body("data[0].description", equalTo("Lunch"))
+          .body("nextCursor", nullValue());
+    }
+
+    @ParameterizedTest(name = "Given {0}, when listing expenses, then returns 400")
+    @MethodSource("invalidPageRequests")
+    void givenInvalidPageRequest_whenListingExpenses_thenReturns400(
+        String scenario, String parameter, String value) {
+      given().queryParam(parameter, value).when().get(EXPENSES_BASE_PATH).then().statusCode(400);
+    }
+
+    static Stream<Arguments> invalidPageRequests() {
+      return Stream.of(
+          Arguments.of("zero limit", "limit", "0"),
+          Arguments.of("limit above the cap", "limit", "101"),
+          Arguments.of("malformed cursor", "cursor", "not-a-cursor"),
+          Arguments.of("unknown category", "category", "PETS"),
+          Arguments.of("lowercase currency", "currency", "eur"),
+          Arguments.of("negative minimum amount", "minAmount", "-1"),
+          Arguments.of("malformed date-time", "from", "yesterday"));
+    }
+  }
+
+  @Nested
+  @DisplayName("GET /api/v1/expenses/search - Search Expenses")
+  class SearchExpenses {
+
+    @Test
+    @DisplayName(
+        "Given matches in description and notes, when searching, then description matches rank first")
+    void givenMatchesInDescriptionAndNotes_whenSearching_thenDescriptionMatchesRankFirst() {
+      createExpenseAndGetId("Dinner out", "40.00", "FOOD", "Uber ride home afterwards");
+      createExpense("Uber to the office", "14.20", "TRANSPORT", "2024-01-10T08:00:00Z");
+      createExpense("Pharmacy", "9.99", "HEALTHCARE");
+
+      given()
+          .queryParam("q", "UBER")
+          .when()
+          .get(EXPENSES_BASE_PATH + "/search")
+          .then()
+          .statusCode(200)
+          .contentType(ContentType.JSON)
+          .body("data.description", contains("Uber to the office", "Dinner out"))
+          .body("data[0].dateTime", equalTo("2024-01-10T08:00:00Z"))
+          .body("nextCursor", nullValue());
+    }
+
+    @Test
+    @DisplayName(
+        "Given more matches than the page size, when following cursors, then every match is returned once")
+    void givenMoreMatchesThanPageSize_whenFollowingCursors_thenEveryMatchIsReturnedOnce() {
+      IntStream.rangeClosed(1, 5)
+          .forEach(
+              day ->
+                  createExpense(
+                      "Taxi ride " + day, "10.00", "TRANSPORT", "2024-01-0" + day + "T10:00:00Z"));
+      createExpense("Bus ticket", "2.50", "TRANSPORT");
+
+      List<String> seen = new ArrayList<>();
+      String cursor = null;
+      do {
+        var request = given().queryParam("q", "taxi").queryParam("limit", 2);
+        if (cursor != null) {
+          request.queryParam("cursor", cursor);
+        }
+        ValidatableResponse page =
+            request.when().get(EXPENSES_BASE_PATH + "/search").then().statusCode(200);
+        seen.addAll(page.extract().jsonPath().getList("data.description", String.class));
+        cursor = page.extract().path("nextCursor");
+      } while (cursor != null);
+
+      assertEquals(
+          List.of("Taxi ride 5", "Taxi ride 4", "Taxi ride 3", "Taxi ride 2", "Taxi ride 1"), seen);
+    }
+
+    @Test
+    @DisplayName("Given no matching expense, when searching, then returns an empty page")
+    void givenNoMatchingExpense_whenSearching_thenReturnsAnEmptyPage() {
+      createExpense("Grocery shopping", "45.99", "FOOD");
+
+      given()
+          .queryParam("q", "pharmacy")
+          .when()
+          .get(EXPENSES_BASE_PATH + "/search")
+          .then()
+          .statusCode(200)
+          .body("data", hasSize(0))
+          .body("nextCursor", nullValue());
+    }
+  }
+
+  @Nested
+  @DisplayName("GET /api/v1/expenses/export - Export Expenses")
+  class ExportExpenses {
+
+    @Test
+    @DisplayName(
+        "Given expenses exist, when exporting as NDJSON, then returns one line per expense newest first")
+    void givenExpensesExist_whenExportingAsNdjson_thenReturnsOneLinePerExpenseNewestFirst() {
+      createExpense("Older", "1.00", "FOOD", "2024-01-14T10:30:00Z");
+      createExpense("Newer", "2.00", "TRANSPORT", "2024-01-15T10:30:00Z");
+
+      String body =
+          given()
+              .accept("application/x-ndjson")
+              .when()
+              .get(EXPENSES_BASE_PATH + "/export")
+              .then()
+              .statusCode(200)
+              .contentType(startsWith("application/x-ndjson"))
+              .extract()
+              .asString();
+
+      String[] lines = body.split("\n");
+      assertEquals(2, lines.length);
+      assertTrue(lines[0].contains("\"description\":\"Newer\""));
+      assertTrue(lines[1].contains("\"description\":\"Older\""));
+    }
+
+    @Test
+    @DisplayName(
+        "Given expenses exist, when exporting as CSV, then returns header and one row per expense")
+    void givenExpensesExist_whenExportingAsCsv_thenReturnsHeaderAndOneRowPerExpense() {
+      createExpense("Grocery shopping", "45.99", "FOOD");
+
+      String body =
+          given()
+              .accept("text/csv")
+              .when()
+              .get(EXPENSES_BASE_PATH + "/export")
+              .then()
+              .statusCode(200)
+              .contentType(startsWith("text/csv"))
+              .extract()
+              .asString();
+
+      String[] lines = body.split("\r\n");
+      assertEquals(2, lines.length);
+      assertTrue(lines[0].startsWith("id,description,dateTime"));
+      assertTrue(lines[1].contains(",Grocery shopping,2024-01-15T10:30:00Z,45.9900,EUR,FOOD,"));
+    }
+  }
+
+  @Nested
+  @DisplayName("GET /api/v1/expenses/summary - Summarize Expenses")
+  class SummarizeExpenses {
+
+    @Test
+    @DisplayName(
+        "Given expenses in several months, when summarizing per month, then returns one group per month and category")
+    void
+        givenExpensesInSeveralMonths_whenSummarizingPerMonth_thenReturnsGroupPerMonthAndCategory() {
+      createExpense("Groceries", "10.00", "FOOD", "2024-01-05T10:00:00Z");
+      createExpense("Restaurant", "30.00", "FOOD", "2024-01-20T21:00:00Z");
+      createExpense("Bus ticket", "2.50", "TRANSPORT", "2024-01-21T08:00:00Z");
+      createExpense("Groceries", "12.00", "FOOD", "2024-02-02T10:00:00Z");
+
+      given()
+          .queryParam("period", "MONTH")
+          .when()
+          .get(EXPENSES_BASE_PATH + "/summary")
+          .then()
+          .statusCode(200)
+          .contentType(ContentType.JSON)
+          .body("period", equalTo("MONTH"))
+          .body("data", hasSize(3))
+          .body("data[0].periodStart", equalTo("2024-01-01"))
+          .body("data[0].category", equalTo("FOOD"))
+          .body("data[0].currency", equalTo("EUR"))
+          .body("data[0].count", equalTo(2))
+          .body("data[0].total", equalTo(40.0f))
+          .body("data[0].average", equalTo(20.0f))
+          .body("data[1].category", equalTo("TRANSPORT"))
+          .body("data[2].periodStart", equalTo("2024-02-01"));
+    }
+
+    @Test
+    @DisplayName(
+        "Given expenses created in bulk, when summarizing whole months, then rollups match the expenses")
+    void givenExpensesCreatedInBulk_whenSummarizingWholeMonths_thenRollupsMatchExpenses() {
+      String requestBody =
+          """
+          {
+            "data": [
+              {"description": "A", "dateTime": "2024-03-01T00:00:00Z", "amount": 1.25,
+               "currency": "EUR", "category": "FOOD"},
+              {"description": "B", "dateTime": "2024-03-31T23:59:59Z", "amount": 2.75,
+               "currency": "EUR", "category": "FOOD"},
+              {"description": "C", "dateTime": "2024-04-01T00:00:00Z", "amount": 4.00,
+               "currency": "EUR", "category": "FOOD"}
+            ]
+          }
+          """;
+      given()
+          .contentType(ContentType.JSON)
+          .body(requestBody)
+          .when()
+          .post(EXPENSES_BASE_PATH + ":batch")
+          .then()
+          .statusCode(200);
+
+      given()
+          .queryParam("from", "2024-03-01T00:00:00Z")
+          .queryParam("to", "2024-04-01T00:00:00Z")
+          .when()
+          .get(EXPENSES_BASE_PATH + "/summary")
+          .then()
+          .statusCode(200)
+          .body("data", hasSize(1))
+          .body("data[0].periodStart", equalTo("2024-03-01"))
+          .body("data[0].count", equalTo(2))
+          .body("data[0].total", equalTo(4.0f))
+          .body("data[0].average", equalTo(2.0f));
+    }
+
+    @Test
+    @DisplayName(
+        "Given date range, when summarizing per day, then only expenses within the range are grouped")
+    void givenDateRange_whenSummarizingPerDay_thenOnlyExpensesWithinRangeAreGrouped() {
+      createExpense("Groceries", "10.00", "FOOD", "2024-01-05T10:00:00Z");
+      createExpense("Groceries", "12.00", "FOOD", "2024-01-06T10:00:00Z");
+
+      given()
+          .queryParam("period", "DAY")
+          .queryParam("from", "2024-01-06T00:00:00Z")
+          .queryParam("to", "2024-01-07T00:00:00Z")
+          .when()
+          .get(EXPENSES_BASE_PATH + "/summary")
+          .then()
+          .statusCode(200)
+          .body("data", hasSize(1))
+          .body("data[0].periodStart", equalTo("2024-01-06"))
+          .body("data[0].count", equalTo(1));
+    }
+  }
+
+  @Nested
+  @DisplayName("?baseCurrency - Currency Normalization")
+  class NormalizeToBaseCurrency {
+
+    // Rates of src/test/resources/exchange-rates/rates.csv, imported on startup
+
+    @Test
+    @DisplayName(
+        "Given expenses in two currencies, when listing in a base currency, then each carries its amount at the rates of its day")
+    void givenExpensesInTwoCurrencies_whenListingInBaseCurrency_thenEachCarriesNormalizedAmount() {
+      createExpenseIn("Groceries", "100.00", "EUR", "2024-01-04T10:00:00Z");
+      createExpenseIn("Tea", "10.00", "GBP", "2024-01-05T10:00:00Z");
+
+      given()
+          .queryParam("baseCurrency", "USD")
+          .when()
+          .get(EXPENSES_BASE_PATH)
+          .then()
+          .statusCode(200)
+          .body("data", hasSize(2))
+          .body("data[0].currency", equalTo("GBP"))
+          .body("data[0].amount", equalTo(10.0f))
+          .body("data[0].normalizedAmount", equalTo(12.687f))
+          .body("data[1].currency", equalTo("EUR"))
+          .body("data[1].normalizedAmount", equalTo(109.19f));
+
+      given()
+          .when()
+          .get(EXPENSES_BASE_PATH)
+          .then()
+          .statusCode(200)
+          .body("data[0]", not(hasKey("normalizedAmount")));
+    }
+
+    @Test
+    @DisplayName(
+        "Given expenses in two currencies, when summarizing in a base currency, then they share one group")
+    void givenExpensesInTwoCurrencies_whenSummarizingInBaseCurrency_thenTheyShareOneGroup() {
+      createExpenseIn("Groceries", "100.00", "EUR", "2024-01-04T10:00:00Z");
+      createExpenseIn("Tea", "10.00", "GBP", "2024-01-05T10:00:00Z");
+
+      given()
+          .queryParam("baseCurrency", "USD")
+          .when()
+          .get(EXPENSES_BASE_PATH + "/summary")
+          .then()
+          .statusCode(200)
+          .body("data", hasSize(1))
+          .body("data[0].periodStart", equalTo("2024-01-01"))
+          .body("data[0].currency", equalTo("USD"))
+          .body("data[0].count", equalTo(2))
+          .body("data[0].total", equalTo(121.877f))
+          .body("data[0].average", equalTo(60.9385f));
+    }
+
+    @Test
+    @DisplayName(
+        "Given base currency without rates, when listing or summarizing, then returns 422 Unprocessable Content")
+    void givenBaseCurrencyWithoutRates_whenListingOrSummarizing_thenReturns422() {
+      createExpenseIn("Groceries", "100.00", "EUR", "2024-01-04T10:00:00Z");
+
+      given()
+          .queryParam("baseCurrency", "XAU")
+          .when()
+          .get(EXPENSES_BASE_PATH)
+          .then()
+          .statusCode(422)
+          .body("errors[0].code", equalTo("EXCHANGE_RATE_UNAVAILABLE"));
+      given()
+          .queryParam("baseCurrency", "XAU")
+          .when()
+          .get(EXPENSES_BASE_PATH + "/summary")
+          .then()
+          .statusCode(422)
+          .body("errors[0].code", equalTo("EXCHANGE_RATE_UNAVAILABLE"));
+    }
+
+    @Test
+    @DisplayName(
+        "Given expense in a currency without rates, when summarizing in a base currency, then returns 422 Unprocessable Content")
+    void givenExpenseInCurrencyWithoutRates_whenSummarizingInBaseCurrency_thenReturns422() {
+      createExpenseIn("Fondue", "30.00", "CHF", "2024-01-04T10:00:00Z");
+
+      given()
+          .queryParam("baseCurrency", "USD")
+          .when()
+          .get(EXPENSES_BASE_PATH + "/summary")
+          .then()
+          .statusCode(422)
+          .body("errors[0].reason", containsString("CHF"));
+    }
+
+    private void createExpenseIn(
+        String description, String amount, String currency, String dateTime) {
+      String requestBody =
+          """
+          {
+            "description": "%s",
+            "dateTime": "%s",
+            "amount": %s,
+            "currency": "%s",
+            "category": "FOOD"
+          }
+          """
+              .formatted(description, dateTime, amount, currency);
+
+      given()
+          .contentType(ContentType.JSON)
+          .body(requestBody)
+          .when()
+          .post(EXPENSES_BASE_PATH)
+          .then()
+          .statusCode(201);
+    }
   }
 
   private void createExpense(String description, String amount, String category) {
+    createExpense(description, amount, category, "2024-01-15T10:30:00Z");
+  }
+
+  private void createExpense(String description, String amount, String category, String dateTime) {
     String requestBody =
         """
         {
           "description": "%s",
-          "dateTime": "2024-01-15T10:30:00Z",
+          "dateTime": "%s",
           "amount": %s,
           "currency": "EUR",
           "category": "%s"
         }
         """
-            .formatted(description, amount, category);
+            .formatted(description, dateTime, amount, category);
 
     given()
         .contentType(ContentType.JSON)
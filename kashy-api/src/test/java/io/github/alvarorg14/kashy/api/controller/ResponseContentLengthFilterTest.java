@@ -0,0 +1,87 @@
+package io.github.alvarorg14.kashy.api.controller;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.unit.DataSize;
+
+@DisplayName("ResponseContentLengthFilter Tests")
+class ResponseContentLengthFilterTest {
+
+  private final ResponseContentLengthFilter filter =
+      new ResponseContentLengthFilter(DataSize.ofBytes(1024));
+
+  @Test
+  @DisplayName("Given body below the threshold when filtered then it is sent with a length")
+  void given_bodyBelowThreshold_when_filtered_then_itIsSentWithLength() throws Exception {
+    // Given
+    byte[] body = body(1023);
+    MockHttpServletResponse response = new MockHttpServletResponse();
+
+    // When
+    filter.doFilter(
+        new MockHttpServletRequest("GET", "/api/v1/expenses"),
+        response,
+        (req, res) -> res.getOutputStream().write(body));
+
+    // Then
+    assertEquals("1023", response.getHeader("Content-Length"));
+    assertArrayEquals(body, response.getContentAsByteArray());
+  }
+
+  @Test
+  @DisplayName("Given body reaching the threshold when filtered then it streams without a length")
+  void given_bodyReachingThreshold_when_filtered_then_itStreamsWithoutLength() throws Exception {
+    // Given
+    byte[] body = body(4096);
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    boolean[] committedWhileWriting = new boolean[1];
+
+    // When
+    filter.doFilter(
+        new MockHttpServletRequest("GET", "/api/v1/expenses"),
+        response,
+        (req, res) -> {
+          res.getOutputStream().write(body, 0, 2048);
+          res.getOutputStream().flush();
+          committedWhileWriting[0] = response.isCommitted();
+          res.getOutputStream().write(body, 2048, 2048);
+        });
+
+    // Then
+    assertTrue(committedWhileWriting[0]);
+    assertNull(response.getHeader("Content-Length"));
+    assertArrayEquals(body, response.getContentAsByteArray());
+  }
+
+  @Test
+  @DisplayName("Given export when filtered then nothing is buffered")
+  void given_export_when_filtered_then_nothingIsBuffered() throws Exception {
+    // Given
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    boolean[] wrapped = new boolean[1];
+
+    // When
+    filter.doFilter(
+        new MockHttpServletRequest("GET", ExpensesApi.PATH_EXPORT_EXPENSES),
+        response,
+        (req, res) -> wrapped[0] = res != response);
+
+    // Then
+    assertFalse(wrapped[0]);
+  }
+
+  private static byte[] body(int size) {
+    byte[] body = new byte[size];
+    Arrays.fill(body, (byte) 'a');
+    return body;
+  }
+}
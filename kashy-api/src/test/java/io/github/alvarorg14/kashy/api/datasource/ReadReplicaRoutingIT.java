@@ -0,0 +1,90 @@
+package io.github.alvarorg14.kashy.api.datasource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import io.github.alvarorg14.kashy.api.config.AbstractIT;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@DisplayName("Read replica routing Integration Tests")
+class ReadReplicaRoutingIT {
+
+  private static final String APPLICATION_NAME = "SELECT current_setting('application_name')";
+
+  @Nested
+  @SpringBootTest(
+      properties = {
+        "kashy.datasource.read-replicas.enabled=true",
+        // The test database stands in for the replica; pools are told apart by application name
+        "kashy.datasource.read-replicas.replicas[0].url=${spring.datasource.url}"
+      })
+  @ActiveProfiles("test")
+  @DisplayName("With a healthy replica")
+  class HealthyReplica extends AbstractIT {
+
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    @Test
+    @DisplayName("Given read-only transaction when querying then the replica serves it")
+    void given_readOnlyTransaction_when_querying_then_replicaServesIt() {
+      assertEquals("kashy-replica-1", applicationName(true));
+    }
+
+    @Test
+    @DisplayName("Given read-write transaction when querying then the primary serves it")
+    void given_readWriteTransaction_when_querying_then_primaryServesIt() {
+      assertEquals("kashy-primary", applicationName(false));
+    }
+
+    private String applicationName(boolean readOnly) {
+      TransactionTemplate transactions = new TransactionTemplate(transactionManager);
+      transactions.setReadOnly(readOnly);
+      return transactions.execute(
+          status -> jdbcTemplate.queryForObject(APPLICATION_NAME, String.class));
+    }
+  }
+
+  @Nested
+  @SpringBootTest(
+      properties = {
+        "kashy.datasource.read-replicas.enabled=true",
+        "kashy.datasource.read-replicas.replicas[0].url=jdbc:postgresql://localhost:1/kashy",
+        "kashy.datasource.read-replicas.connection-timeout=250ms"
+      })
+  @ActiveProfiles("test")
+  @DisplayName("With an unreachable replica")
+  class UnreachableReplica extends AbstractIT {
+
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    @Autowired private ReplicaDataSource replicaDataSource;
+
+    @Test
+    @DisplayName("Given read-only transaction when querying then the primary serves it")
+    void given_readOnlyTransaction_when_querying_then_primaryServesIt() {
+      TransactionTemplate transactions = new TransactionTemplate(transactionManager);
+      transactions.setReadOnly(true);
+
+      String applicationName =
+          transactions.execute(
+              status -> jdbcTemplate.queryForObject(APPLICATION_NAME, String.class));
+
+      assertEquals("kashy-primary", applicationName);
+      assertFalse(replicaDataSource.hasHealthyReplica());
+      replicaDataSource.checkHealth();
+      assertFalse(replicaDataSource.hasHealthyReplica());
+    }
+  }
+}
@@ -0,0 +1,112 @@
+package io.github.alvarorg14.kashy.api.export;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.github.alvarorg14.kashy.api.model.api.Category;
+import io.github.alvarorg14.kashy.api.model.api.ExpenseResponse;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+@DisplayName("ExpenseExportWriter Tests")
+class ExpenseExportWriterTest {
+
+  private final ObjectMapper objectMapper = JsonMapper.builder().build();
+
+  private ByteArrayOutputStream out;
+  private ExpenseResponse expense;
+
+  @BeforeEach
+  void setUp() {
+    out = new ByteArrayOutputStream();
+    OffsetDateTime dateTime = OffsetDateTime.of(2024, 1, 15, 10, 30, 0, 0, ZoneOffset.UTC);
+
+    expense = new ExpenseResponse();
+    expense.setId(UUID.fromString("550e8400-e29b-41d4-a716-446655440000"));
+    expense.setDescription("Grocery shopping");
+    expense.setDateTime(dateTime);
+    expense.setAmount(new BigDecimal("45.9900"));
+    expense.setCurrency("EUR");
+    expense.setCategory(Category.FOOD);
+    expense.setNotes(null);
+    expense.setCreatedAt(dateTime);
+    expense.setUpdatedAt(dateTime);
+  }
+
+  @Test
+  @DisplayName("Given expenses when writing NDJSON then one JSON object per line is written")
+  void given_expenses_when_writingNdjson_then_oneJsonObjectPerLineIsWritten() {
+    // Given
+    ExpenseExportWriter writer = ExpenseExportWriter.create(ExportFormat.NDJSON, out, objectMapper);
+
+    // When
+    writer.write(expense);
+    writer.write(expense);
+    writer.flush();
+
+    // Then
+    String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+    assertEquals(2, lines.length);
+    assertTrue(lines[0].startsWith("{") && lines[0].endsWith("}"));
+    assertTrue(lines[0].contains("\"description\":\"Grocery shopping\""));
+  }
+
+  @Test
+  @DisplayName("Given expense when writing CSV then header and record are written")
+  void given_expense_when_writingCsv_then_headerAndRecordAreWritten() {
+    // Given
+    ExpenseExportWriter writer = ExpenseExportWriter.create(ExportFormat.CSV, out, objectMapper);
+
+    // When
+    writer.write(expense);
+    writer.flush();
+
+    // Then
+    assertEquals(
+        CsvExpenseExportWriter.HEADER
+            + "\r\n"
+            + "550e8400-e29b-41d4-a716-446655440000,Grocery shopping,2024-01-15T10:30:00Z,"
+            + "45.9900,EUR,FOOD,,2024-01-15T10:30:00Z,2024-01-15T10:30:00Z\r\n",
+        out.toString(StandardCharsets.UTF_8));
+  }
+
+  @Test
+  @DisplayName("Given special characters when writing CSV then fields are quoted and escaped")
+  void given_specialCharacters_when_writingCsv_then_fieldsAreQuotedAndEscaped() {
+    // Given
+    expense.setDescription("Dinner, \"La Tasca\"");
+    expense.setNotes("line one\nline two");
+    ExpenseExportWriter writer = ExpenseExportWriter.create(ExportFormat.CSV, out, objectMapper);
+
+    // When
+    writer.write(expense);
+    writer.flush();
+
+    // Then
+    String csv = out.toString(StandardCharsets.UTF_8);
+    assertTrue(csv.contains(",\"Dinner, \"\"La Tasca\"\"\","));
+    assertTrue(csv.contains(",\"line one\nline two\","));
+  }
+
+  @Test
+  @DisplayName("Given no expenses when writing CSV then only the header is written")
+  void given_noExpenses_when_writingCsv_then_onlyHeaderIsWritten() {
+    // Given
+    ExpenseExportWriter writer = ExpenseExportWriter.create(ExportFormat.CSV, out, objectMapper);
+
+    // When
+    writer.flush();
+
+    // Then
+    assertEquals(CsvExpenseExportWriter.HEADER + "\r\n", out.toString(StandardCharsets.UTF_8));
+  }
+}
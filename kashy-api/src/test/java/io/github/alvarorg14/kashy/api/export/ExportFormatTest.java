@@ -0,0 +1,34 @@
+package io.github.alvarorg14.kashy.api.export;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.NullAndEmptySource;
+
+@DisplayName("ExportFormat Tests")
+class ExportFormatTest {
+
+  @ParameterizedTest(name = "Given Accept [{0}] when negotiate then {1}")
+  @CsvSource(
+      delimiter = '|',
+      value = {
+        "application/x-ndjson | NDJSON",
+        "text/csv | CSV",
+        "text/* | CSV",
+        "*/* | NDJSON",
+        "text/csv;q=0.5, application/x-ndjson | NDJSON",
+        "application/json, text/csv;q=0.9 | CSV"
+      })
+  void given_acceptHeader_when_negotiate_then_preferredFormatIsReturned(
+      String accept, ExportFormat expected) {
+    assertEquals(expected, ExportFormat.negotiate(accept));
+  }
+
+  @ParameterizedTest(name = "Given Accept [{0}] when negotiate then NDJSON")
+  @NullAndEmptySource
+  void given_missingAcceptHeader_when_negotiate_then_ndjsonIsReturned(String accept) {
+    assertEquals(ExportFormat.NDJSON, ExportFormat.negotiate(accept));
+  }
+}
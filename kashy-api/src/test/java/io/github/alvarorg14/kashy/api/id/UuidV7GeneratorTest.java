@@ -0,0 +1,98 @@
+package io.github.alvarorg14.kashy.api.id;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Instant;
+import java.time.InstantSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("UuidV7Generator Tests")
+class UuidV7GeneratorTest {
+
+  private static final Instant NOW = Instant.parse("2024-01-15T10:30:00.123Z");
+
+  @Test
+  @DisplayName("Given generator when nextId then version 7 RFC 9562 UUID is returned")
+  void given_generator_when_nextId_then_version7UuidIsReturned() {
+    // Given
+    UuidV7Generator generator = new UuidV7Generator(InstantSource.fixed(NOW));
+
+    // When
+    UUID id = generator.nextId();
+
+    // Then
+    assertEquals(7, id.version());
+    assertEquals(2, id.variant());
+    assertEquals(NOW.toEpochMilli(), id.getMostSignificantBits() >>> 16);
+  }
+
+  @Test
+  @DisplayName(
+      "Given many ids in the same millisecond when nextId then ids are strictly increasing")
+  void given_manyIdsInSameMillisecond_when_nextId_then_idsAreStrictlyIncreasing() {
+    // Given
+    UuidV7Generator generator = new UuidV7Generator(InstantSource.fixed(NOW));
+
+    // When - more ids than the 12-bit sequence holds, forcing a carry into the timestamp
+    List<UUID> ids = IntStream.range(0, 10_000).mapToObj(i -> generator.nextId()).toList();
+
+    // Then
+    for (int i = 1; i < ids.size(); i++) {
+      assertTrue(compareUnsigned(ids.get(i - 1), ids.get(i)) < 0, "id " + i + " is not increasing");
+    }
+  }
+
+  @Test
+  @DisplayName("Given clock moving backwards when nextId then ids keep increasing")
+  void given_clockMovingBackwards_when_nextId_then_idsKeepIncreasing() {
+    // Given
+    List<Instant> instants = new ArrayList<>(List.of(NOW, NOW.minusSeconds(5)));
+    UuidV7Generator generator = new UuidV7Generator(() -> instants.removeFirst());
+
+    // When
+    UUID first = generator.nextId();
+    UUID second = generator.nextId();
+
+    // Then
+    assertTrue(compareUnsigned(first, second) < 0);
+  }
+
+  @Test
+  @DisplayName("Given concurrent virtual threads when nextId then all ids are unique")
+  void given_concurrentVirtualThreads_when_nextId_then_allIdsAreUnique() {
+    // Given
+    UuidV7Generator generator = new UuidV7Generator();
+    Set<UUID> ids = ConcurrentHashMap.newKeySet();
+
+    // When
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      IntStream.range(0, 100)
+          .forEach(
+              task ->
+                  executor.submit(
+                      () -> IntStream.range(0, 1_000).forEach(i -> ids.add(generator.nextId()))));
+    }
+
+    // Then
+    assertEquals(100_000, ids.size());
+  }
+
+  // UUID.compareTo compares signed longs, which misorders ids once the top bit is set
+  private static int compareUnsigned(UUID left, UUID right) {
+    int result =
+        Long.compareUnsigned(left.getMostSignificantBits(), right.getMostSignificantBits());
+    return result != 0
+        ? result
+        : Long.compareUnsigned(left.getLeastSignificantBits(), right.getLeastSignificantBits());
+  }
+}
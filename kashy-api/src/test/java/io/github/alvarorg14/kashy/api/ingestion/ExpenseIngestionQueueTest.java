@@ -0,0 +1,277 @@
+package io.github.alvarorg14.kashy.api.ingestion;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.github.alvarorg14.kashy.api.config.ExpenseIngestionProperties;
+import io.github.alvarorg14.kashy.api.exception.ExpenseNotFoundException;
+import io.github.alvarorg14.kashy.api.exception.IngestionQueueFullException;
+import io.github.alvarorg14.kashy.api.model.domain.Category;
+import io.github.alvarorg14.kashy.api.model.domain.Expense;
+import io.github.alvarorg14.kashy.api.model.domain.ExpenseCreationResult;
+import io.github.alvarorg14.kashy.api.model.domain.ExpenseIngestion;
+import io.github.alvarorg14.kashy.api.repository.ExpenseRepository;
+import io.github.alvarorg14.kashy.api.service.ExpenseIdempotencyKeys;
+import io.github.alvarorg14.kashy.api.service.ExpenseService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionOperations;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ExpenseIngestionQueue Tests")
+class ExpenseIngestionQueueTest {
+
+  @Mock private ExpenseService expenseService;
+
+  @Mock private ExpenseRepository repository;
+
+  @Mock private ExpenseIdempotencyKeys idempotencyKeys;
+
+  private ExpenseIngestionQueue queue;
+
+  @AfterEach
+  void tearDown() {
+    if (queue.isRunning()) {
+      queue.stop();
+    }
+  }
+
+  @Test
+  @DisplayName("Given expenses queued during a write when writer catches up then one batch is used")
+  void given_expensesQueuedDuringWrite_when_writerCatchesUp_then_oneBatchIsUsed() throws Exception {
+    // Given
+    queue = queue(10);
+    CountDownLatch writing = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    when(expenseService.persistExpenses(anyList()))
+        .thenAnswer(
+            i -> {
+              writing.countDown();
+              release.await();
+              return created(i.getArgument(0));
+            });
+    queue.start();
+    queue.accept(expense());
+    writing.await();
+    Expense first = expense();
+    Expense second = expense();
+    queue.accept(first);
+    queue.accept(second);
+
+    // When
+    release.countDown();
+
+    // Then
+    verify(expenseService, timeout(1000)).persistExpenses(List.of(first, second));
+  }
+
+  @Test
+  @DisplayName("Given stopped queue when accept then expense is rejected")
+  void given_stoppedQueue_when_accept_then_expenseIsRejected() {
+    // Given
+    queue = queue(10);
+    Expense expense = expense();
+
+    // When & Then
+    assertThrows(IngestionQueueFullException.class, () -> queue.accept(expense));
+    when(repository.existsById(expense.id())).thenReturn(false);
+    assertThrows(ExpenseNotFoundException.class, () -> queue.status(expense.id()));
+  }
+
+  @Test
+  @DisplayName("Given full queue when accept then expense is rejected until the writer catches up")
+  void given_fullQueue_when_accept_then_expenseIsRejectedUntilWriterCatchesUp() throws Exception {
+    // Given
+    queue = queue(1);
+    CountDownLatch writing = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    when(expenseService.persistExpenses(anyList()))
+        .thenAnswer(
+            i -> {
+              writing.countDown();
+              release.await();
+              return created(i.getArgument(0));
+            });
+    queue.start();
+    Expense inFlight = expense();
+    Expense queued = expense();
+    queue.accept(inFlight);
+    writing.await();
+    queue.accept(queued);
+
+    // When & Then
+    assertThrows(IngestionQueueFullException.class, () -> queue.accept(expense()));
+    assertEquals(ExpenseIngestion.Status.PENDING, queue.status(queued.id()).status());
+    release.countDown();
+    verify(expenseService, timeout(1000)).persistExpenses(List.of(queued));
+  }
+
+  @Test
+  @DisplayName("Given failing expense when written then failed status and reason are reported")
+  void given_failingExpense_when_written_then_failedStatusAndReasonAreReported() {
+    // Given
+    queue = queue(10);
+    Expense expense = expense();
+    when(expenseService.persistExpenses(List.of(expense)))
+        .thenReturn(List.of(new ExpenseCreationResult.Failed(0, "numeric field overflow")));
+    queue.start();
+
+    // When
+    queue.accept(expense);
+    verify(expenseService, timeout(1000)).persistExpenses(List.of(expense));
+    queue.stop();
+
+    // Then
+    assertEquals(
+        ExpenseIngestion.failed(expense.id(), "numeric field overflow"),
+        queue.status(expense.id()));
+  }
+
+  @Test
+  @DisplayName("Given a batch throwing an error when written then the writer keeps draining")
+  void given_batchThrowingError_when_written_then_writerKeepsDraining() {
+    // Given
+    queue = queue(10);
+    Expense broken = expense();
+    Expense next = expense();
+    when(expenseService.persistExpenses(List.of(broken)))
+        .thenThrow(new StackOverflowError("too deep"));
+    when(expenseService.persistExpenses(List.of(next))).thenReturn(created(List.of(next)));
+    queue.start();
+
+    // When
+    queue.accept(broken, "key-1");
+    verify(expenseService, timeout(1000)).persistExpenses(List.of(broken));
+    queue.accept(next);
+    verify(expenseService, timeout(1000)).persistExpenses(List.of(next));
+    queue.stop();
+
+    // Then
+    assertEquals(
+        ExpenseIngestion.failed(broken.id(), "Expense could not be stored: too deep"),
+        queue.status(broken.id()));
+    verify(idempotencyKeys).remove("key-1");
+  }
+
+  @Test
+  @DisplayName("Given keyed expenses when a write fails then only the failed keys are forgotten")
+  void given_keyedExpenses_when_writeFails_then_onlyTheFailedKeysAreForgotten() {
+    // Given
+    queue = queue(10);
+    Expense failing = expense();
+    Expense stored = expense();
+    when(expenseService.persistExpenses(anyList()))
+        .thenAnswer(
+            i -> {
+              List<Expense> batch = i.getArgument(0);
+              List<ExpenseCreationResult> results = new ArrayList<>();
+              for (int index = 0; index < batch.size(); index++) {
+                results.add(
+                    batch.get(index) == failing
+                        ? new ExpenseCreationResult.Failed(index, "numeric field overflow")
+                        : new ExpenseCreationResult.Created(index, batch.get(index)));
+              }
+              return results;
+            });
+    queue.start();
+
+    // When
+    queue.accept(failing, "key-1");
+    queue.accept(stored, "key-2");
+    queue.stop();
+
+    // Then
+    verify(idempotencyKeys).remove("key-1");
+    verify(idempotencyKeys, never()).remove("key-2");
+  }
+
+  @Test
+  @DisplayName("Given queued expenses when stop then queue is drained before returning")
+  void given_queuedExpenses_when_stop_then_queueIsDrainedBeforeReturning() {
+    // Given
+    queue = queue(100);
+    List<Expense> written = new ArrayList<>();
+    when(expenseService.persistExpenses(anyList()))
+        .thenAnswer(
+            i -> {
+              List<Expense> batch = i.getArgument(0);
+              written.addAll(batch);
+              return created(batch);
+            });
+    queue.start();
+    List<Expense> accepted = new ArrayList<>();
+    for (int i = 0; i < 50; i++) {
+      Expense expense = expense();
+      queue.accept(expense);
+      accepted.add(expense);
+    }
+
+    // When
+    queue.stop();
+
+    // Then
+    assertEquals(accepted, written);
+    Expense last = accepted.getLast();
+    when(repository.existsById(last.id())).thenReturn(true);
+    assertEquals(ExpenseIngestion.persisted(last.id()), queue.status(last.id()));
+    verify(expenseService, never()).getExpense(last.id());
+  }
+
+  private ExpenseIngestionQueue queue(int capacity) {
+    ExpenseIngestionProperties properties =
+        new ExpenseIngestionProperties(
+            true,
+            capacity,
+            20,
+            Duration.ofSeconds(1),
+            Duration.ofSeconds(5),
+            Duration.ofHours(1),
+            1000);
+    return new ExpenseIngestionQueue(
+        expenseService,
+        repository,
+        idempotencyKeys,
+        TransactionOperations.withoutTransaction(),
+        properties,
+        new SimpleMeterRegistry());
+  }
+
+  private static List<ExpenseCreationResult> created(List<Expense> batch) {
+    List<ExpenseCreationResult> results = new ArrayList<>();
+    for (int i = 0; i < batch.size(); i++) {
+      results.add(new ExpenseCreationResult.Created(i, batch.get(i)));
+    }
+    return results;
+  }
+
+  private static Expense expense() {
+    OffsetDateTime now = OffsetDateTime.now();
+    return Expense.builder()
+        .id(UUID.randomUUID())
+        .description("Expense")
+        .dateTime(now)
+        .amount(BigDecimal.TEN)
+        .currency("EUR")
+        .category(Category.FOOD)
+        .createdAt(now)
+        .updatedAt(now)
+        .build();
+  }
+}
@@ -0,0 +1,151 @@
+package io.github.alvarorg14.kashy.api.json;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.github.alvarorg14.kashy.api.model.api.Category;
+import io.github.alvarorg14.kashy.api.model.api.ExpenseResponse;
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.json.JsonTest;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.databind.module.SimpleModule;
+import tools.jackson.dataformat.cbor.CBORMapper;
+
+/**
+ * Compares the serializer with the bean serializer of the application's own mappers, which the
+ * slice configures without {@code WireFormatConfiguration} and so without the serializer.
+ */
+@JsonTest
+@DisplayName("ExpenseResponseSerializer Tests")
+class ExpenseResponseSerializerTest {
+
+  private static final SimpleModule MODULE =
+      new SimpleModule().addSerializer(ExpenseResponse.class, new ExpenseResponseSerializer());
+
+  @Autowired private JsonMapper jsonMapper;
+
+  @Autowired private CBORMapper cborMapper;
+
+  static Stream<ExpenseResponse> responses() {
+    OffsetDateTime dateTime = OffsetDateTime.of(2024, 1, 15, 10, 30, 0, 0, ZoneOffset.UTC);
+    ExpenseResponse withNotes = response(dateTime, "Weekly groceries");
+    ExpenseResponse withoutNotes =
+        response(dateTime.withOffsetSameInstant(ZoneOffset.ofHours(2)).plusNanos(123_000), null);
+    withoutNotes.setAmount(new BigDecimal("45.9900"));
+    ExpenseResponse normalized = response(dateTime, "Weekly groceries");
+    normalized.setNormalizedAmount(new BigDecimal("50.2418"));
+    return Stream.of(withNotes, withoutNotes, normalized, new ExpenseResponse(), everyProperty());
+  }
+
+  @Test
+  @DisplayName("Given every property set when serialized then each one is written")
+  void given_everyPropertySet_when_serialized_then_eachOneIsWritten() {
+    // Given
+    ObjectMapper specialized = jsonMapper.rebuild().addModule(MODULE).build();
+
+    // When
+    JsonNode document = specialized.readTree(specialized.writeValueAsString(everyProperty()));
+
+    // Then
+    for (Method getter : properties()) {
+      String name = getter.getAnnotation(JsonProperty.class).value();
+      assertTrue(document.hasNonNull(name), () -> "Property " + name + " is not written");
+    }
+  }
+
+  @ParameterizedTest
+  @MethodSource("responses")
+  @DisplayName("Given response when serialized as JSON then output matches the bean serializer")
+  void given_response_when_serializedAsJson_then_outputMatchesTheBeanSerializer(
+      ExpenseResponse response) {
+    // Given
+    ObjectMapper specialized = jsonMapper.rebuild().addModule(MODULE).build();
+
+    // When / Then
+    assertEquals(jsonMapper.writeValueAsString(response), specialized.writeValueAsString(response));
+  }
+
+  @ParameterizedTest
+  @MethodSource("responses")
+  @DisplayName("Given response when serialized as CBOR then output matches the bean serializer")
+  void given_response_when_serializedAsCbor_then_outputMatchesTheBeanSerializer(
+      ExpenseResponse response) {
+    // Given
+    ObjectMapper specialized = cborMapper.rebuild().addModule(MODULE).build();
+
+    // When / Then
+    assertArrayEquals(
+        cborMapper.writeValueAsBytes(response), specialized.writeValueAsBytes(response));
+  }
+
+  /** Returns a response with every JSON property of the generated model set, including new ones. */
+  private static ExpenseResponse everyProperty() {
+    ExpenseResponse response = new ExpenseResponse();
+    for (Method getter : properties()) {
+      Class<?> type = getter.getReturnType();
+      try {
+        ExpenseResponse.class
+            .getMethod("set" + getter.getName().substring("get".length()), type)
+            .invoke(response, sample(type));
+      } catch (ReflectiveOperationException e) {
+        throw new AssertionError("Cannot set " + getter.getName(), e);
+      }
+    }
+    return response;
+  }
+
+  private static List<Method> properties() {
+    return Arrays.stream(ExpenseResponse.class.getMethods())
+        .filter(method -> method.isAnnotationPresent(JsonProperty.class))
+        .toList();
+  }
+
+  private static Object sample(Class<?> type) {
+    if (type == UUID.class) {
+      return UUID.fromString("0190a0b2-7c4e-7d3a-9f12-3456789abcde");
+    } else if (type == String.class) {
+      return "Text";
+    } else if (type == OffsetDateTime.class) {
+      return OffsetDateTime.of(2024, 2, 29, 23, 59, 59, 999_000_000, ZoneOffset.ofHours(-3));
+    } else if (type == BigDecimal.class) {
+      return new BigDecimal("1234.5678");
+    } else if (type == Long.class) {
+      return 7L;
+    } else if (type == Category.class) {
+      return Category.TRAVEL;
+    }
+    return fail("No sample value for properties of type " + type.getName());
+  }
+
+  private static ExpenseResponse response(OffsetDateTime dateTime, String notes) {
+    ExpenseResponse response = new ExpenseResponse();
+    response.setId(UUID.fromString("550e8400-e29b-41d4-a716-446655440000"));
+    response.setDescription("Grocery shopping");
+    response.setDateTime(dateTime);
+    response.setAmount(new BigDecimal("45.99"));
+    response.setCurrency("EUR");
+    response.setCategory(Category.FOOD);
+    response.setNotes(notes);
+    response.setCreatedAt(dateTime);
+    response.setUpdatedAt(dateTime);
+    response.setVersion(3L);
+    return response;
+  }
+}
@@ -6,9 +6,13 @@ import static org.junit.jupiter.api.Assertions.assertNull;
 
 import io.github.alvarorg14.kashy.api.model.api.CreateExpenseRequest;
 import io.github.alvarorg14.kashy.api.model.api.ExpenseResponse;
+import io.github.alvarorg14.kashy.api.model.api.ExpenseSummaryItem;
+import io.github.alvarorg14.kashy.api.model.api.PatchExpenseRequest;
 import io.github.alvarorg14.kashy.api.model.domain.Category;
 import io.github.alvarorg14.kashy.api.model.domain.Expense;
+import io.github.alvarorg14.kashy.api.model.domain.ExpenseSummary;
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.OffsetDateTime;
 import java.util.UUID;
 import org.junit.jupiter.api.BeforeEach;
@@ -70,6 +74,24 @@ class ExpenseApiMapperTest {
     assertNull(result.updatedAt());
   }
 
+  @Test
+  @DisplayName("Given PatchExpenseRequest when applyPatch then only its fields are replaced")
+  void given_patchExpenseRequest_when_applyPatch_then_onlyItsFieldsAreReplaced() {
+    // Given
+    PatchExpenseRequest patch =
+        new PatchExpenseRequest()
+            .amount(new BigDecimal("12.00"))
+            .category(io.github.alvarorg14.kashy.api.model.api.Category.TRANSPORT);
+
+    // When
+    Expense result = mapper.applyPatch(expense, patch);
+
+    // Then
+    assertEquals(
+        expense.toBuilder().amount(new BigDecimal("12.00")).category(Category.TRANSPORT).build(),
+        result);
+  }
+
   @Test
   @DisplayName("Given domain Expense when mapToResponse then ExpenseResponse is returned")
   void given_domainExpense_when_mapToResponse_then_expenseResponseIsReturned() {
@@ -87,4 +109,30 @@ class ExpenseApiMapperTest {
     assertEquals(expense.createdAt(), result.getCreatedAt());
     assertEquals(expense.updatedAt(), result.getUpdatedAt());
   }
+
+  @Test
+  @DisplayName("Given domain ExpenseSummary when mapToResponse then ExpenseSummaryItem is returned")
+  void given_domainExpenseSummary_when_mapToResponse_then_expenseSummaryItemIsReturned() {
+    // Given
+    ExpenseSummary summary =
+        ExpenseSummary.builder()
+            .periodStart(LocalDate.of(2024, 1, 1))
+            .category(Category.FOOD)
+            .currency("EUR")
+            .count(2)
+            .total(BigDecimal.valueOf(20))
+            .average(BigDecimal.TEN)
+            .build();
+
+    // When
+    ExpenseSummaryItem item = mapper.toResponse(summary);
+
+    // Then
+    assertEquals(summary.periodStart(), item.getPeriodStart());
+    assertEquals(io.github.alvarorg14.kashy.api.model.api.Category.FOOD, item.getCategory());
+    assertEquals("EUR", item.getCurrency());
+    assertEquals(2L, item.getCount());
+    assertEquals(summary.total(), item.getTotal());
+    assertEquals(summary.average(), item.getAverage());
+  }
 }
@@ -0,0 +1,55 @@
+package io.github.alvarorg14.kashy.api.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("ExpenseMetrics Tests")
+class ExpenseMetricsTest {
+
+  private MeterRegistry registry;
+  private ExpenseMetrics metrics;
+
+  @BeforeEach
+  void setUp() {
+    registry = new SimpleMeterRegistry();
+    metrics = new ExpenseMetrics(registry);
+  }
+
+  @Test
+  @DisplayName("Given every stage when registered then each has a timer tagged by stage")
+  void given_everyStage_when_registered_then_eachHasATimerTaggedByStage() {
+    for (ExpenseStage stage : ExpenseStage.values()) {
+      assertEquals(0, registry.get(stage.meterName()).tag("stage", stage.tag()).timer().count());
+    }
+  }
+
+  @Test
+  @DisplayName("Given work when recorded then its result is returned and the stage timer counts it")
+  void given_work_when_recorded_then_resultIsReturnedAndStageTimerCountsIt() {
+    // When
+    String result = metrics.record(ExpenseStage.PERSIST_SAVE, () -> "saved");
+
+    // Then
+    assertEquals("saved", result);
+    assertEquals(
+        1, registry.get("kashy.expenses.persistence").tag("stage", "save").timer().count());
+    assertEquals(
+        0, registry.get("kashy.expenses.persistence").tag("stage", "find-page").timer().count());
+  }
+
+  @Test
+  @DisplayName("Given listed pages when counted then rows accumulate")
+  void given_listedPages_when_counted_then_rowsAccumulate() {
+    // When
+    metrics.countListed(20);
+    metrics.countListed(3);
+
+    // Then
+    assertEquals(23.0, registry.get("kashy.expenses.listed.rows").counter().count());
+  }
+}
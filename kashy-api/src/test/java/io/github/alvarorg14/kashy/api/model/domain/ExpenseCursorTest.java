@@ -0,0 +1,66 @@
+package io.github.alvarorg14.kashy.api.model.domain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.github.alvarorg14.kashy.api.exception.InvalidCursorException;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.UUID;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+@DisplayName("ExpenseCursor Tests")
+class ExpenseCursorTest {
+
+  @Test
+  @DisplayName("Given cursor when encode and decode then same position is returned")
+  void given_cursor_when_encodeAndDecode_then_samePositionIsReturned() {
+    // Given
+    OffsetDateTime dateTime = OffsetDateTime.of(2024, 1, 15, 10, 30, 0, 123456000, ZoneOffset.UTC);
+    ExpenseCursor cursor = new ExpenseCursor(dateTime, UUID.randomUUID());
+
+    // When
+    ExpenseCursor decoded = ExpenseCursor.decode(cursor.encode());
+
+    // Then
+    assertEquals(cursor, decoded);
+  }
+
+  @Test
+  @DisplayName("Given non-UTC date-time when encode and decode then same instant is returned")
+  void given_nonUtcDateTime_when_encodeAndDecode_then_sameInstantIsReturned() {
+    // Given
+    OffsetDateTime dateTime = OffsetDateTime.of(2024, 1, 15, 12, 30, 0, 0, ZoneOffset.ofHours(2));
+    ExpenseCursor cursor = new ExpenseCursor(dateTime, UUID.randomUUID());
+
+    // When
+    ExpenseCursor decoded = ExpenseCursor.decode(cursor.encode());
+
+    // Then
+    assertEquals(dateTime.toInstant(), decoded.dateTime().toInstant());
+    assertEquals(cursor.id(), decoded.id());
+  }
+
+  @ParameterizedTest(name = "Given token [{0}] when decode then InvalidCursorException")
+  @ValueSource(strings = {"", "not-a-cursor", "!!!", "MjAyNC0wMS0xNVQxMDozMDowMFo"})
+  void given_malformedToken_when_decode_then_invalidCursorExceptionIsThrown(String token) {
+    assertThrows(InvalidCursorException.class, () -> ExpenseCursor.decode(token));
+  }
+
+  @Test
+  @DisplayName("Given token with invalid id when decode then InvalidCursorException")
+  void given_tokenWithInvalidId_when_decode_then_invalidCursorExceptionIsThrown() {
+    // Given
+    String token =
+        Base64.getUrlEncoder()
+            .encodeToString("2024-01-15T10:30:00Z|nope".getBytes(StandardCharsets.UTF_8));
+
+    // When / Then
+    assertThrows(InvalidCursorException.class, () -> ExpenseCursor.decode(token));
+  }
+}
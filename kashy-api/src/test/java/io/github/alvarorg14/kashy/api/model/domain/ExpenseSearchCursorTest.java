@@ -0,0 +1,61 @@
+package io.github.alvarorg14.kashy.api.model.domain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.github.alvarorg14.kashy.api.exception.InvalidCursorException;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.UUID;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+@DisplayName("ExpenseSearchCursor Tests")
+class ExpenseSearchCursorTest {
+
+  @Test
+  @DisplayName("Given cursor when encode and decode then same position and exact rank are returned")
+  void given_cursor_when_encodeAndDecode_then_samePositionAndExactRankAreReturned() {
+    // Given
+    OffsetDateTime dateTime = OffsetDateTime.of(2024, 1, 15, 10, 30, 0, 123456000, ZoneOffset.UTC);
+    ExpenseSearchCursor cursor = new ExpenseSearchCursor(0.0607927f, dateTime, UUID.randomUUID());
+
+    // When
+    ExpenseSearchCursor decoded = ExpenseSearchCursor.decode(cursor.encode());
+
+    // Then
+    assertEquals(cursor, decoded);
+    assertEquals(Float.floatToIntBits(cursor.rank()), Float.floatToIntBits(decoded.rank()));
+  }
+
+  @ParameterizedTest(name = "Given raw token [{0}] when decode then InvalidCursorException")
+  @ValueSource(
+      strings = {
+        "2024-01-15T10:30:00Z|550e8400-e29b-41d4-a716-446655440000",
+        "high|2024-01-15T10:30:00Z|550e8400-e29b-41d4-a716-446655440000",
+        "NaN|2024-01-15T10:30:00Z|550e8400-e29b-41d4-a716-446655440000",
+        "0.5|yesterday|550e8400-e29b-41d4-a716-446655440000",
+        "0.5|2024-01-15T10:30:00Z|nope"
+      })
+  void given_malformedToken_when_decode_then_invalidCursorExceptionIsThrown(String raw) {
+    // Given
+    String token = Base64.getUrlEncoder().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+
+    // When / Then
+    assertThrows(InvalidCursorException.class, () -> ExpenseSearchCursor.decode(token));
+  }
+
+  @Test
+  @DisplayName("Given listing cursor when decode as search cursor then InvalidCursorException")
+  void given_listingCursor_when_decodeAsSearchCursor_then_invalidCursorExceptionIsThrown() {
+    // Given
+    String token = new ExpenseCursor(OffsetDateTime.now(), UUID.randomUUID()).encode();
+
+    // When / Then
+    assertThrows(InvalidCursorException.class, () -> ExpenseSearchCursor.decode(token));
+  }
+}
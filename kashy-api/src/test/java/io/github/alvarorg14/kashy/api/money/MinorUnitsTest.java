@@ -0,0 +1,110 @@
+package io.github.alvarorg14.kashy.api.money;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+@DisplayName("MinorUnits Tests")
+class MinorUnitsTest {
+
+  @Test
+  @DisplayName("Given amounts when converting then they round like numeric(19,4) and convert back")
+  void given_amounts_when_converting_then_theyRoundLikeNumericAndConvertBack() {
+    // Given / When / Then
+    assertEquals(459_900L, MinorUnits.of(new BigDecimal("45.99")));
+    assertEquals(10_001L, MinorUnits.of(new BigDecimal("1.00005")));
+    assertEquals(-10_001L, MinorUnits.of(new BigDecimal("-1.00005")));
+    assertEquals(10_000L, MinorUnits.of(new BigDecimal("1.00004")));
+    assertEquals(1_000_000L, MinorUnits.of(new BigDecimal("1E+2")));
+    assertEquals(new BigDecimal("45.9900"), MinorUnits.toDecimal(459_900L));
+  }
+
+  @Test
+  @DisplayName("Given an amount beyond the long range when converting then it fails")
+  void given_amountBeyondLongRange_when_converting_then_itFails() {
+    // Given
+    BigDecimal amount = new BigDecimal("999999999999999.9999");
+
+    // When / Then
+    assertThrows(ArithmeticException.class, () -> MinorUnits.of(amount));
+    assertThrows(ArithmeticException.class, () -> MinorUnits.add(Long.MAX_VALUE, 1));
+  }
+
+  @ParameterizedTest
+  @ValueSource(
+      strings = {
+        "0.0000",
+        "0.0001",
+        "45.9900",
+        "-45.9900",
+        "-0.5000",
+        "100.0000",
+        "922337203685477.5807",
+        "-922337203685477.5808"
+      })
+  @DisplayName("Given minor units when writing then the output matches toPlainString")
+  void given_minorUnits_when_writing_then_outputMatchesToPlainString(String amount)
+      throws IOException {
+    // Given
+    BigDecimal decimal = new BigDecimal(amount);
+    StringWriter out = new StringWriter();
+
+    // When
+    MinorUnits.write(MinorUnits.of(decimal), out);
+
+    // Then
+    assertEquals(decimal.toPlainString(), out.toString());
+  }
+
+  @Test
+  @DisplayName("Given a sum leaving the long range when adding then it stays exact")
+  void given_sumLeavingLongRange_when_adding_then_itStaysExact() {
+    // Given
+    MinorUnitsSum sum = new MinorUnitsSum();
+    BigDecimal large = MinorUnits.toDecimal(Long.MAX_VALUE);
+
+    // When
+    sum.add(Long.MAX_VALUE);
+    sum.add(Long.MAX_VALUE);
+    sum.add(new BigDecimal("999999999999999.9999"));
+    sum.add(-1L);
+
+    // Then
+    assertTrue(sum.overflowed());
+    assertEquals(
+        large
+            .add(large)
+            .add(new BigDecimal("999999999999999.9999"))
+            .subtract(MinorUnits.toDecimal(1)),
+        sum.toDecimal());
+    assertThrows(ArithmeticException.class, sum::toMinorUnits);
+  }
+
+  @Test
+  @DisplayName("Given partial sums when merging then the total is their sum")
+  void given_partialSums_when_merging_then_totalIsTheirSum() {
+    // Given
+    MinorUnitsSum first = new MinorUnitsSum();
+    first.add(new BigDecimal("10.5000"));
+    first.add(new BigDecimal("0.00005"));
+    MinorUnitsSum second = new MinorUnitsSum();
+    second.add(20_000L);
+
+    // When
+    first.add(second);
+
+    // Then
+    assertFalse(first.overflowed());
+    assertEquals(125_001L, first.toMinorUnits());
+    assertEquals(new BigDecimal("12.5001"), first.toDecimal());
+  }
+}
@@ -0,0 +1,196 @@
+package io.github.alvarorg14.kashy.api.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.github.alvarorg14.kashy.api.config.AbstractIT;
+import io.github.alvarorg14.kashy.api.model.domain.Category;
+import io.github.alvarorg14.kashy.api.model.entity.ExpenseEntity;
+import io.github.alvarorg14.kashy.api.model.entity.ExpenseMonthlyRollupEntity;
+import io.github.alvarorg14.kashy.api.model.projection.ExpenseSummaryProjection;
+import io.github.alvarorg14.kashy.api.model.projection.ExpenseVersionProjection;
+import io.github.alvarorg14.kashy.api.service.ExpenseMonthlyRollups;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionOperations;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("ExpenseMonthlyRollupRepository Integration Tests")
+class ExpenseMonthlyRollupRepositoryIT extends AbstractIT {
+
+  private static final LocalDate JANUARY = LocalDate.of(2024, 1, 1);
+
+  @Autowired private ExpenseMonthlyRollupRepository repository;
+
+  @Autowired private ExpenseRepository expenseRepository;
+
+  @Autowired private ExpenseMonthlyRollups rollups;
+
+  @Autowired private TransactionOperations transactions;
+
+  @BeforeEach
+  void setUp() {
+    expenseRepository.deleteAll();
+    repository.deleteAll();
+  }
+
+  @Test
+  @DisplayName("Given existing rollup when add then count and total are accumulated")
+  void given_existingRollup_when_add_then_countAndTotalAreAccumulated() {
+    // Given
+    transactions.executeWithoutResult(
+        status -> repository.add(JANUARY, "FOOD", "EUR", 1, new BigDecimal("10.00")));
+
+    // When
+    transactions.executeWithoutResult(
+        status -> repository.add(JANUARY, "FOOD", "EUR", 2, new BigDecimal("5.50")));
+
+    // Then
+    ExpenseMonthlyRollupEntity rollup =
+        repository
+            .findById(new ExpenseMonthlyRollupEntity.Key(JANUARY, Category.FOOD, "EUR"))
+            .orElseThrow();
+    assertEquals(3, rollup.getExpenseCount());
+    assertEquals(0, new BigDecimal("15.50").compareTo(rollup.getTotalAmount()));
+  }
+
+  @Test
+  @DisplayName("Given a write committing last when reading version then it still moves it")
+  void given_writeCommittingLast_when_readingVersion_then_itStillMovesIt() throws Exception {
+    // Given
+    ExpenseVersionProjection before = repository.findVersion();
+    CountDownLatch written = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    CompletableFuture<Void> first =
+        CompletableFuture.runAsync(
+            () ->
+                transactions.executeWithoutResult(
+                    status -> {
+                      repository.add(JANUARY, "FOOD", "EUR", 1, BigDecimal.TEN);
+                      written.countDown();
+                      await(release);
+                    }));
+    await(written);
+
+    // When
+    CompletableFuture<Void> second =
+        CompletableFuture.runAsync(
+            () ->
+                transactions.executeWithoutResult(
+                    status -> repository.add(JANUARY, "TRANSPORT", "EUR", 1, BigDecimal.ONE)));
+    second.get(10, TimeUnit.SECONDS);
+    ExpenseVersionProjection during = repository.findVersion();
+    release.countDown();
+    first.get(10, TimeUnit.SECONDS);
+
+    // Then
+    ExpenseVersionProjection after = repository.findVersion();
+    assertTrue(during.getRevision() > before.getRevision());
+    assertTrue(after.getRevision() > during.getRevision());
+    assertTrue(
+        before.getLastModified() == null
+            || after.getLastModified().isAfter(before.getLastModified()));
+  }
+
+  @Test
+  @DisplayName("Given emptied month when reading version then it still moves")
+  void given_emptiedMonth_when_readingVersion_then_itStillMoves() {
+    // Given
+    transactions.executeWithoutResult(
+        status -> repository.add(JANUARY, "FOOD", "EUR", 1, BigDecimal.TEN));
+    ExpenseVersionProjection before = repository.findVersion();
+
+    // When
+    int rows = transactions.execute(status -> repository.clearMonth(JANUARY));
+
+    // Then
+    assertEquals(1, rows);
+    assertTrue(repository.findVersion().getRevision() > before.getRevision());
+    assertTrue(repository.summarize(null, null).isEmpty());
+  }
+
+  @Test
+  @DisplayName("Given drifted rollups when rebuild then rollups match the expenses table")
+  void given_driftedRollups_when_rebuild_then_rollupsMatchExpensesTable() {
+    // Given
+    expenseRepository.saveAll(
+        List.of(
+            expense("2024-01-05T10:00:00Z", "10.00", Category.FOOD),
+            expense("2024-01-20T10:00:00Z", "20.00", Category.FOOD),
+            expense("2024-02-01T10:00:00Z", "2.50", Category.TRANSPORT)));
+    transactions.executeWithoutResult(
+        status -> repository.add(JANUARY, "HOUSING", "EUR", 1, BigDecimal.ONE));
+
+    // When
+    int rows = rollups.rebuild();
+
+    // Then
+    assertEquals(2, rows);
+    List<ExpenseSummaryProjection> summary = repository.summarize(null, null);
+    assertEquals(2, summary.size());
+    assertEquals(JANUARY, summary.getFirst().getPeriodStart());
+    assertEquals("FOOD", summary.getFirst().getCategory());
+    assertEquals(2, summary.getFirst().getCount());
+    assertEquals(0, new BigDecimal("30.00").compareTo(summary.getFirst().getTotal()));
+    assertEquals(0, new BigDecimal("15.00").compareTo(summary.getFirst().getAverage()));
+    assertEquals("TRANSPORT", summary.get(1).getCategory());
+  }
+
+  @Test
+  @DisplayName("Given month bounds when summarize then only months within the bounds are returned")
+  void given_monthBounds_when_summarize_then_onlyMonthsWithinBoundsAreReturned() {
+    // Given
+    transactions.executeWithoutResult(
+        status -> {
+          repository.add(JANUARY, "FOOD", "EUR", 1, BigDecimal.TEN);
+          repository.add(JANUARY.plusMonths(1), "FOOD", "EUR", 1, BigDecimal.TEN);
+          repository.add(JANUARY.plusMonths(2), "FOOD", "EUR", 1, BigDecimal.TEN);
+        });
+
+    // When
+    List<ExpenseSummaryProjection> summary =
+        repository.summarize(JANUARY.plusMonths(1), JANUARY.plusMonths(2));
+
+    // Then
+    assertEquals(1, summary.size());
+    assertEquals(JANUARY.plusMonths(1), summary.getFirst().getPeriodStart());
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      if (!latch.await(10, TimeUnit.SECONDS)) {
+        throw new IllegalStateException("Timed out waiting for the other transaction");
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private ExpenseEntity expense(String dateTime, String amount, Category category) {
+    OffsetDateTime now = OffsetDateTime.now();
+    return ExpenseEntity.builder()
+        .id(UUID.randomUUID())
+        .description("Expense")
+        .dateTime(OffsetDateTime.parse(dateTime))
+        .amount(new BigDecimal(amount))
+        .currency("EUR")
+        .category(category)
+        .createdAt(now)
+        .updatedAt(now)
+        .build();
+  }
+}
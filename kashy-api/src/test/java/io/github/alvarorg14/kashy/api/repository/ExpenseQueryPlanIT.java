@@ -0,0 +1,195 @@
+package io.github.alvarorg14.kashy.api.repository;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.github.alvarorg14.kashy.api.config.AbstractIT;
+import io.github.alvarorg14.kashy.api.model.domain.Category;
+import io.github.alvarorg14.kashy.api.service.ExpensePartitions;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.regex.Pattern;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Verifies with {@code EXPLAIN} that the listing queries are served by the Liquibase-managed
+ * indexes rather than by sequential scans.
+ *
+ * <p>The rows span several months and are moved into their monthly partitions first, so the plans
+ * read the per-partition copies of the indexes, named {@code expenses_YYYY_MM_<columns>_idx}.
+ *
+ * <p>The statements mirror the SQL generated for {@link ExpenseRepository#findPage}: the set
+ * filters, the optional keyset predicate, the {@code (date_time, id)} descending order and the page
+ * limit. The search statement mirrors {@link ExpenseRepository#search}.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("Expense query plan Integration Tests")
+class ExpenseQueryPlanIT extends AbstractIT {
+
+  private static final int ROWS = 20_000;
+  private static final Instant START = Instant.parse("2022-01-01T00:00:00Z");
+  private static final String PAGE = " ORDER BY date_time DESC, id DESC LIMIT 21";
+  private static final String SELECT = "SELECT * FROM expenses";
+
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  @Autowired private ExpensePartitions partitions;
+
+  @BeforeEach
+  void setUp() {
+    jdbcTemplate.execute("TRUNCATE TABLE expenses");
+    Category[] categories = Category.values();
+    String[] currencies = {"EUR", "USD", "GBP"};
+    List<Object[]> rows = new ArrayList<>(ROWS);
+    for (int i = 0; i < ROWS; i++) {
+      Timestamp dateTime = Timestamp.from(START.plus(Duration.ofHours(i)));
+      rows.add(
+          new Object[] {
+            UUID.randomUUID(),
+            "Expense " + i,
+            dateTime,
+            BigDecimal.valueOf(i % 500),
+            currencies[i % currencies.length],
+            categories[i % categories.length].name(),
+            dateTime,
+            dateTime
+          });
+    }
+    jdbcTemplate.batchUpdate(
+        """
+        INSERT INTO expenses
+          (id, description, date_time, amount, currency, category, created_at, updated_at)
+        VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+        """,
+        rows);
+    partitions.createPartitions(YearMonth.from(START.atOffset(ZoneOffset.UTC)));
+    jdbcTemplate.execute("ANALYZE expenses");
+  }
+
+  @AfterEach
+  void tearDown() {
+    jdbcTemplate.execute("TRUNCATE TABLE expenses");
+  }
+
+  @Test
+  @DisplayName("Given no filter when planning first page then keyset index is used")
+  void given_noFilter_when_planningFirstPage_then_keysetIndexIsUsed() {
+    String plan = explain(SELECT + PAGE);
+
+    assertIndexScan(plan, "date_time_id");
+  }
+
+  @Test
+  @DisplayName("Given cursor when planning next page then keyset index is used with a bound")
+  void given_cursor_when_planningNextPage_then_keysetIndexIsUsedWithBound() {
+    Timestamp cursor = Timestamp.from(START.plus(Duration.ofHours(ROWS / 2)));
+
+    String plan =
+        explain(
+            SELECT + " WHERE date_time <= ? AND (date_time < ? OR id < ?)" + PAGE,
+            cursor,
+            cursor,
+            UUID.randomUUID());
+
+    assertIndexScan(plan, "date_time_id");
+    assertTrue(plan.contains("Index Cond: (date_time <="), plan);
+  }
+
+  @Test
+  @DisplayName("Given category filter when planning page then category index is used")
+  void given_categoryFilter_when_planningPage_then_categoryIndexIsUsed() {
+    String plan = explain(SELECT + " WHERE category = ?" + PAGE, Category.TRAVEL.name());
+
+    assertIndexScan(plan, "category_date_time_id");
+  }
+
+  @Test
+  @DisplayName("Given currency and date range when planning page then an index is used")
+  void given_currencyAndDateRange_when_planningPage_then_indexIsUsed() {
+    Timestamp from = Timestamp.from(START.plus(Duration.ofDays(100)));
+    Timestamp to = Timestamp.from(START.plus(Duration.ofDays(130)));
+
+    String plan =
+        explain(
+            SELECT + " WHERE date_time >= ? AND date_time < ? AND currency = ?" + PAGE,
+            from,
+            to,
+            "GBP");
+
+    assertIndexScan(plan, "\\w+");
+  }
+
+  @Test
+  @DisplayName("Given amount range when planning page then keyset index is used")
+  void given_amountRange_when_planningPage_then_keysetIndexIsUsed() {
+    String plan =
+        explain(
+            SELECT + " WHERE amount >= ? AND amount <= ?" + PAGE,
+            BigDecimal.valueOf(10),
+            BigDecimal.valueOf(200));
+
+    assertIndexScan(plan, "date_time_id");
+  }
+
+  @Test
+  @DisplayName("Given search terms when planning search then search vector index is used")
+  void given_searchTerms_when_planningSearch_then_searchVectorIndexIsUsed() {
+    // Each fixture partition fits in a few pages, so the planner would rather scan them; ruling
+    // scans out shows that the GIN index matches the search predicate
+    String plan =
+        jdbcTemplate.execute(
+            (ConnectionCallback<String>)
+                connection -> {
+                  try (Statement statement = connection.createStatement()) {
+                    statement.execute("SET enable_seqscan = off");
+                    try (ResultSet rows =
+                        statement.executeQuery(
+                            "EXPLAIN SELECT e.*, ts_rank(search_vector, q) AS rank FROM expenses e,"
+                                + " websearch_to_tsquery('simple', '1234') q"
+                                + " WHERE search_vector @@ q"
+                                + " ORDER BY rank DESC, date_time DESC, id DESC LIMIT 21")) {
+                      StringBuilder lines = new StringBuilder();
+                      while (rows.next()) {
+                        lines.append(rows.getString(1)).append('\n');
+                      }
+                      return lines.toString();
+                    } finally {
+                      statement.execute("RESET enable_seqscan");
+                    }
+                  }
+                });
+
+    Pattern index =
+        Pattern.compile("Bitmap Index Scan on expenses_\\d{4}_\\d{2}_search_vector_idx");
+    assertTrue(index.matcher(plan).find(), plan);
+  }
+
+  private String explain(String sql, Object... args) {
+    return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class, args));
+  }
+
+  private void assertIndexScan(String plan, String columns) {
+    assertFalse(plan.contains("Seq Scan"), plan);
+    assertTrue(plan.contains("Index Scan") || plan.contains("Index Only Scan"), plan);
+    Pattern index = Pattern.compile("using expenses_(default|\\d{4}_\\d{2})_" + columns + "_idx ");
+    assertTrue(index.matcher(plan).find(), plan);
+  }
+}
@@ -3,21 +3,32 @@ package io.github.alvarorg14.kashy.api.repository;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import io.github.alvarorg14.kashy.api.config.AbstractIT;
 import io.github.alvarorg14.kashy.api.model.domain.Category;
+import io.github.alvarorg14.kashy.api.model.domain.Expense;
+import io.github.alvarorg14.kashy.api.model.domain.ExpenseCursor;
+import io.github.alvarorg14.kashy.api.model.domain.ExpenseFilter;
 import io.github.alvarorg14.kashy.api.model.entity.ExpenseEntity;
+import io.github.alvarorg14.kashy.api.model.projection.ExpenseSummaryProjection;
+import jakarta.persistence.EntityManager;
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.UUID;
+import org.hibernate.Session;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionOperations;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 @ActiveProfiles("test")
@@ -26,12 +37,19 @@ class ExpenseRepositoryIT extends AbstractIT {
 
   @Autowired private ExpenseRepository repository;
 
+  @Autowired private ExpenseMonthlyRollupRepository rollupRepository;
+
+  @Autowired private EntityManager entityManager;
+
+  @Autowired private TransactionOperations transactions;
+
   private ExpenseEntity testEntity1;
   private ExpenseEntity testEntity2;
 
   @BeforeEach
   void setUp() {
     repository.deleteAll();
+    rollupRepository.deleteAll();
 
     UUID id1 = UUID.randomUUID();
     UUID id2 = UUID.randomUUID();
@@ -92,6 +110,39 @@ class ExpenseRepositoryIT extends AbstractIT {
     assertEquals("Grocery shopping", found.get().getDescription());
   }
 
+  @Test
+  @DisplayName("Given id used in another month when insertAll then the insert is rejected")
+  void given_idUsedInAnotherMonth_when_insertAll_then_theInsertIsRejected() {
+    // Given
+    repository.insertAll(List.of(testEntity1));
+    ExpenseEntity reused = copyOf(testEntity1, testEntity1.getDateTime().minusMonths(3));
+    reused.setId(testEntity1.getId());
+
+    // When / Then
+    assertThrows(
+        DataIntegrityViolationException.class, () -> repository.insertAll(List.of(reused)));
+    assertEquals(1, repository.count());
+  }
+
+  @Test
+  @DisplayName("Given expense moved to another month when findById then it is still found")
+  void given_expenseMovedToAnotherMonth_when_findById_then_itIsStillFound() {
+    // Given
+    repository.insertAll(List.of(testEntity1));
+    OffsetDateTime moved = OffsetDateTime.parse("2024-01-15T10:00:00Z");
+    transactions.executeWithoutResult(
+        status -> repository.findById(testEntity1.getId()).orElseThrow().setDateTime(moved));
+
+    // When
+    var found = repository.findById(testEntity1.getId());
+
+    // Then
+    assertTrue(found.isPresent());
+    assertTrue(moved.isEqual(found.get().getDateTime()));
+    assertEquals(1L, found.get().getVersion());
+    assertTrue(repository.existsById(testEntity1.getId()));
+  }
+
   @Test
   @DisplayName("Given multiple expenses when findAll then all expenses are returned")
   void given_multipleExpenses_when_findAll_then_allExpensesAreReturned() {
@@ -114,6 +165,162 @@ class ExpenseRepositoryIT extends AbstractIT {
             .anyMatch(desc -> desc.equals("Bus ticket")));
   }
 
+  @Test
+  @DisplayName("Given multiple expenses when findPage then newest expenses are returned first")
+  void given_multipleExpenses_when_findPage_then_newestExpensesAreReturnedFirst() {
+    // Given
+    repository.save(testEntity1);
+    repository.save(testEntity2);
+
+    // When
+    List<Expense> page = repository.findPage(ExpenseFilter.NONE, null, Limit.of(1));
+
+    // Then
+    assertEquals(1, page.size());
+    assertEquals("Bus ticket", page.getFirst().description());
+  }
+
+  @Test
+  @DisplayName(
+      "Given keyset position when findPage after cursor then only older expenses are returned")
+  void given_keysetPosition_when_findPageAfterCursor_then_onlyOlderExpensesAreReturned() {
+    // Given
+    repository.save(testEntity1);
+    ExpenseEntity newest = repository.save(testEntity2);
+
+    // When
+    List<Expense> page =
+        repository.findPage(
+            ExpenseFilter.NONE,
+            new ExpenseCursor(newest.getDateTime(), newest.getId()),
+            Limit.of(10));
+
+    // Then
+    assertEquals(1, page.size());
+    assertEquals("Grocery shopping", page.getFirst().description());
+  }
+
+  @Test
+  @DisplayName(
+      "Given expenses sharing a date-time when findPage after cursor then ties are broken by id")
+  void given_expensesSharingDateTime_when_findPageAfterCursor_then_tiesAreBrokenById() {
+    // Given
+    UUID lowerId = UUID.fromString("00000000-0000-0000-0000-000000000001");
+    UUID higherId = UUID.fromString("00000000-0000-0000-0000-000000000002");
+    testEntity1.setId(lowerId);
+    testEntity1.setDateTime(testEntity2.getDateTime());
+    testEntity2.setId(higherId);
+    repository.save(testEntity1);
+    repository.save(testEntity2);
+
+    // When
+    List<Expense> first = repository.findPage(ExpenseFilter.NONE, null, Limit.of(1));
+    List<Expense> second =
+        repository.findPage(
+            ExpenseFilter.NONE,
+            new ExpenseCursor(first.getFirst().dateTime(), first.getFirst().id()),
+            Limit.of(1));
+
+    // Then
+    assertEquals(higherId, first.getFirst().id());
+    assertEquals(lowerId, second.getFirst().id());
+  }
+
+  @Test
+  @DisplayName("Given filter when findPage then only matching expenses are returned")
+  void given_filter_when_findPage_then_onlyMatchingExpensesAreReturned() {
+    // Given
+    ExpenseEntity dollars = copyOf(testEntity1, testEntity1.getDateTime());
+    dollars.setCurrency("USD");
+    ExpenseEntity expensive = copyOf(testEntity1, testEntity1.getDateTime().minusDays(1));
+    expensive.setAmount(BigDecimal.valueOf(500));
+    repository.saveAll(List.of(testEntity1, testEntity2, dollars, expensive));
+    ExpenseFilter filter =
+        ExpenseFilter.builder()
+            .from(testEntity1.getDateTime().minusHours(1))
+            .to(testEntity2.getDateTime())
+            .category(Category.FOOD)
+            .currency("EUR")
+            .minAmount(BigDecimal.TEN)
+            .maxAmount(BigDecimal.valueOf(100))
+            .build();
+
+    // When
+    List<Expense> page = repository.findPage(filter, null, Limit.of(10));
+
+    // Then
+    assertEquals(1, page.size());
+    assertEquals(testEntity1.getId(), page.getFirst().id());
+  }
+
+  @Test
+  @DisplayName("Given expenses when findPage then no entity enters the persistence context")
+  void given_expenses_when_findPage_then_noEntityEntersThePersistenceContext() {
+    // Given
+    repository.saveAll(List.of(testEntity1, testEntity2));
+
+    // When
+    Integer managed =
+        transactions.execute(
+            status -> {
+              repository.findPage(ExpenseFilter.NONE, null, Limit.of(10));
+              return entityManager.unwrap(Session.class).getStatistics().getEntityCount();
+            });
+
+    // Then
+    assertEquals(0, managed);
+  }
+
+  @Test
+  @DisplayName("Given expenses when summarize per month then groups are aggregated in the database")
+  void given_expenses_when_summarizePerMonth_then_groupsAreAggregatedInTheDatabase() {
+    // Given
+    OffsetDateTime january = OffsetDateTime.parse("2024-01-15T10:00:00Z");
+    testEntity1.setDateTime(january);
+    testEntity2.setDateTime(january.plusDays(3));
+    testEntity2.setCategory(Category.FOOD);
+    testEntity2.setAmount(BigDecimal.valueOf(10));
+    ExpenseEntity february = copyOf(testEntity1, january.plusMonths(1));
+    ExpenseEntity dollars = copyOf(testEntity1, january);
+    dollars.setCurrency("USD");
+    repository.saveAll(List.of(testEntity1, testEntity2, february, dollars));
+
+    // When
+    List<ExpenseSummaryProjection> summary = repository.summarize("month", null, null);
+
+    // Then
+    assertEquals(3, summary.size());
+    ExpenseSummaryProjection januaryEur = summary.getFirst();
+    assertEquals(LocalDate.of(2024, 1, 1), januaryEur.getPeriodStart());
+    assertEquals("FOOD", januaryEur.getCategory());
+    assertEquals("EUR", januaryEur.getCurrency());
+    assertEquals(2, januaryEur.getCount());
+    assertEquals(0, new BigDecimal("55.99").compareTo(januaryEur.getTotal()));
+    assertEquals(0, new BigDecimal("27.995").compareTo(januaryEur.getAverage()));
+    assertEquals("USD", summary.get(1).getCurrency());
+    assertEquals(LocalDate.of(2024, 2, 1), summary.get(2).getPeriodStart());
+  }
+
+  @Test
+  @DisplayName("Given date range when summarize then only expenses within the range are counted")
+  void given_dateRange_when_summarize_then_onlyExpensesWithinTheRangeAreCounted() {
+    // Given
+    OffsetDateTime monday = OffsetDateTime.parse("2024-01-15T10:00:00Z");
+    testEntity1.setDateTime(monday);
+    testEntity2.setDateTime(monday.plusWeeks(1));
+    repository.saveAll(List.of(testEntity1, testEntity2));
+
+    // When
+    List<ExpenseSummaryProjection> summary =
+        repository.summarize("week", monday.minusDays(1), monday.plusDays(7));
+
+    // Then
+    assertEquals(1, summary.size());
+    assertEquals(LocalDate.of(2024, 1, 15), summary.getFirst().getPeriodStart());
+    assertEquals("FOOD", summary.getFirst().getCategory());
+    assertEquals(1, summary.getFirst().getCount());
+  }
+
   @Test
   @DisplayName("Given saved expense when update then expense is updated")
   void given_savedExpense_when_update_then_expenseIsUpdated() {
@@ -143,4 +350,18 @@ class ExpenseRepositoryIT extends AbstractIT {
     // Then
     assertFalse(repository.findById(saved.getId()).isPresent());
   }
+
+  private ExpenseEntity copyOf(ExpenseEntity entity, OffsetDateTime dateTime) {
+    return ExpenseEntity.builder()
+        .id(UUID.randomUUID())
+        .description(entity.getDescription())
+        .dateTime(dateTime)
+        .amount(entity.getAmount())
+        .currency(entity.getCurrency())
+        .category(entity.getCategory())
+        .notes(entity.getNotes())
+        .createdAt(entity.getCreatedAt())
+        .updatedAt(entity.getUpdatedAt())
+        .build();
+  }
 }
@@ -0,0 +1,317 @@
+package io.github.alvarorg14.kashy.api.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.github.alvarorg14.kashy.api.config.ExpenseCacheProperties;
+import io.github.alvarorg14.kashy.api.model.domain.Category;
+import io.github.alvarorg14.kashy.api.model.domain.Expense;
+import io.github.alvarorg14.kashy.api.model.domain.ExpenseCreationResult;
+import io.github.alvarorg14.kashy.api.model.domain.ExpenseCursor;
+import io.github.alvarorg14.kashy.api.model.domain.ExpenseFilter;
+import io.github.alvarorg14.kashy.api.model.domain.ExpensePage;
+import io.github.alvarorg14.kashy.api.model.domain.ExpenseRevision;
+import io.github.alvarorg14.kashy.api.model.domain.ExpenseSummary;
+import io.github.alvarorg14.kashy.api.model.domain.ExpenseVersion;
+import io.github.alvarorg14.kashy.api.model.domain.SummaryPeriod;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CachingExpenseService Tests")
+class CachingExpenseServiceTest {
+
+  private static final OffsetDateTime JANUARY_15 = OffsetDateTime.parse("2024-01-15T10:00:00Z");
+
+  @Mock private ExpenseServiceImpl delegate;
+  @Mock private ExchangeRates exchangeRates;
+
+  private MeterRegistry registry;
+  private CachingExpenseService service;
+
+  @BeforeEach
+  void setUp() {
+    ExpenseCacheProperties.Spec spec = new ExpenseCacheProperties.Spec(100, Duration.ofMinutes(5));
+    registry = new SimpleMeterRegistry();
+    service =
+        new CachingExpenseService(
+            delegate,
+            new ExpenseCacheProperties(
+                true, spec, spec, spec, Duration.ZERO, Duration.ofMinutes(5)),
+            exchangeRates,
+            registry);
+  }
+
+  @Test
+  @DisplayName("Given cached expense when getExpense again then delegate is called once")
+  void given_cachedExpense_when_getExpenseAgain_then_delegateIsCalledOnce() {
+    // Given
+    Expense expense = expense(JANUARY_15, Category.FOOD);
+    when(delegate.getExpense(expense.id())).thenReturn(expense);
+
+    // When
+    service.getExpense(expense.id());
+    Expense result = service.getExpense(expense.id());
+
+    // Then
+    assertSame(expense, result);
+    verify(delegate).getExpense(expense.id());
+    assertEquals(
+        1.0,
+        registry
+            .get("cache.gets")
+            .tags("cache", "expenses", "result", "hit")
+            .functionCounter()
+            .count());
+    assertEquals(
+        1.0,
+        registry
+            .get("cache.gets")
+            .tags("cache", "expenses", "result", "miss")
+            .functionCounter()
+            .count());
+  }
+
+  @Test
+  @DisplayName("Given cached first page when expense is created within it then page is reloaded")
+  void given_cachedFirstPage_when_expenseCreatedWithinIt_then_pageIsReloaded() {
+    // Given
+    ExpensePage page = new ExpensePage(List.of(expense(JANUARY_15, Category.FOOD)), null);
+    when(delegate.listExpenses(ExpenseFilter.NONE, null, 20)).thenReturn(page);
+    service.listExpenses(ExpenseFilter.NONE, null, 20);
+    Expense created = expense(JANUARY_15.plusDays(1), Category.FOOD);
+    when(delegate.createExpense(created)).thenReturn(created);
+
+    // When
+    service.createExpense(created);
+    service.listExpenses(ExpenseFilter.NONE, null, 20);
+
+    // Then
+    verify(delegate, times(2)).listExpenses(ExpenseFilter.NONE, null, 20);
+  }
+
+  @Test
+  @DisplayName("Given cached pages when unrelated expense is created then pages stay cached")
+  void given_cachedPages_when_unrelatedExpenseIsCreated_then_pagesStayCached() {
+    // Given
+    Expense older = expense(JANUARY_15, Category.FOOD);
+    ExpenseCursor nextCursor = ExpenseCursor.after(older);
+    ExpenseFilter transport = ExpenseFilter.builder().category(Category.TRANSPORT).build();
+    when(delegate.listExpenses(ExpenseFilter.NONE, null, 1))
+        .thenReturn(new ExpensePage(List.of(older), nextCursor));
+    when(delegate.listExpenses(transport, null, 20)).thenReturn(new ExpensePage(List.of(), null));
+    service.listExpenses(ExpenseFilter.NONE, null, 1);
+    service.listExpenses(transport, null, 20);
+    // Sorts after the last row of the full first page and does not match the transport filter
+    Expense created = expense(JANUARY_15.minusDays(1), Category.FOOD);
+    when(delegate.createExpense(created)).thenReturn(created);
+
+    // When
+    service.createExpense(created);
+    service.listExpenses(ExpenseFilter.NONE, null, 1);
+    service.listExpenses(transport, null, 20);
+
+    // Then
+    verify(delegate).listExpenses(ExpenseFilter.NONE, null, 1);
+    verify(delegate).listExpenses(transport, null, 20);
+  }
+
+  @Test
+  @DisplayName("Given cached summaries when expenses are created in bulk then covering ones reload")
+  void given_cachedSummaries_when_expensesCreatedInBulk_then_coveringOnesReload() {
+    // Given
+    OffsetDateTime january = OffsetDateTime.parse("2024-01-01T00:00:00Z");
+    OffsetDateTime february = OffsetDateTime.parse("2024-02-01T00:00:00Z");
+    OffsetDateTime march = OffsetDateTime.parse("2024-03-01T00:00:00Z");
+    List<ExpenseSummary> none = List.of();
+    when(delegate.summarizeExpenses(SummaryPeriod.MONTH, january, february, null)).thenReturn(none);
+    when(delegate.summarizeExpenses(SummaryPeriod.MONTH, february, march, null)).thenReturn(none);
+    service.summarizeExpenses(SummaryPeriod.MONTH, january, february, null);
+    service.summarizeExpenses(SummaryPeriod.MONTH, february, march, null);
+    Expense created = expense(JANUARY_15, Category.FOOD);
+    when(delegate.createExpenses(List.of(created)))
+        .thenReturn(List.of(new ExpenseCreationResult.Created(0, created)));
+
+    // When
+    service.createExpenses(List.of(created));
+    service.summarizeExpenses(SummaryPeriod.MONTH, january, february, null);
+    service.summarizeExpenses(SummaryPeriod.MONTH, february, march, null);
+
+    // Then
+    verify(delegate, times(2)).summarizeExpenses(SummaryPeriod.MONTH, january, february, null);
+    verify(delegate).summarizeExpenses(SummaryPeriod.MONTH, february, march, null);
+  }
+
+  @Test
+  @DisplayName("Given cached expense when it moves to another month then both summaries reload")
+  void given_cachedExpense_when_itMovesToAnotherMonth_then_bothSummariesReload() {
+    // Given
+    OffsetDateTime january = OffsetDateTime.parse("2024-01-01T00:00:00Z");
+    OffsetDateTime february = OffsetDateTime.parse("2024-02-01T00:00:00Z");
+    OffsetDateTime march = OffsetDateTime.parse("2024-03-01T00:00:00Z");
+    OffsetDateTime april = OffsetDateTime.parse("2024-04-01T00:00:00Z");
+    List<ExpenseSummary> none = List.of();
+    when(delegate.summarizeExpenses(SummaryPeriod.MONTH, january, february, null)).thenReturn(none);
+    when(delegate.summarizeExpenses(SummaryPeriod.MONTH, february, march, null)).thenReturn(none);
+    when(delegate.summarizeExpenses(SummaryPeriod.MONTH, march, april, null)).thenReturn(none);
+    service.summarizeExpenses(SummaryPeriod.MONTH, january, february, null);
+    service.summarizeExpenses(SummaryPeriod.MONTH, february, march, null);
+    service.summarizeExpenses(SummaryPeriod.MONTH, march, april, null);
+    Expense previous = expense(JANUARY_15, Category.FOOD);
+    Expense current = previous.toBuilder().dateTime(JANUARY_15.plusMonths(1)).version(1L).build();
+    when(delegate.getExpense(previous.id())).thenReturn(previous, current);
+    service.getExpense(previous.id());
+    when(delegate.updateExpense(previous.id(), 0L, null))
+        .thenReturn(new ExpenseRevision(previous, current));
+
+    // When
+    service.updateExpense(previous.id(), 0L, null);
+    Expense result = service.getExpense(previous.id());
+    service.summarizeExpenses(SummaryPeriod.MONTH, january, february, null);
+    service.summarizeExpenses(SummaryPeriod.MONTH, february, march, null);
+    service.summarizeExpenses(SummaryPeriod.MONTH, march, april, null);
+
+    // Then
+    assertSame(current, result);
+    verify(delegate, times(2)).summarizeExpenses(SummaryPeriod.MONTH, january, february, null);
+    verify(delegate, times(2)).summarizeExpenses(SummaryPeriod.MONTH, february, march, null);
+    verify(delegate).summarizeExpenses(SummaryPeriod.MONTH, march, april, null);
+  }
+
+  @Test
+  @DisplayName("Given cached expense when it is deleted then it is loaded again")
+  void given_cachedExpense_when_itIsDeleted_then_itIsLoadedAgain() {
+    // Given
+    Expense expense = expense(JANUARY_15, Category.FOOD);
+    when(delegate.getExpense(expense.id())).thenReturn(expense);
+    service.getExpense(expense.id());
+    when(delegate.deleteExpense(expense.id(), null)).thenReturn(expense);
+
+    // When
+    service.deleteExpense(expense.id(), null);
+    service.getExpense(expense.id());
+
+    // Then
+    verify(delegate, times(2)).getExpense(expense.id());
+  }
+
+  @Test
+  @DisplayName("Given load racing an update when it finishes then its stale result is not cached")
+  void given_loadRacingAnUpdate_when_itFinishes_then_itsStaleResultIsNotCached() {
+    // Given
+    Expense previous = expense(JANUARY_15, Category.FOOD);
+    Expense current = previous.toBuilder().description("Updated").version(1L).build();
+    when(delegate.updateExpense(previous.id(), 0L, null))
+        .thenReturn(new ExpenseRevision(previous, current));
+    when(delegate.getExpense(previous.id()))
+        .thenAnswer(
+            invocation -> {
+              service.updateExpense(previous.id(), 0L, null);
+              return previous;
+            })
+        .thenReturn(current);
+
+    // When
+    Expense raced = service.getExpense(previous.id());
+    Expense result = service.getExpense(previous.id());
+
+    // Then
+    assertSame(previous, raced);
+    assertSame(current, result);
+    verify(delegate, times(2)).getExpense(previous.id());
+  }
+
+  @Test
+  @DisplayName(
+      "Given recent write when expense is loaded within settle period then it is not cached")
+  void given_recentWrite_when_expenseLoadedWithinSettlePeriod_then_itIsNotCached() {
+    // Given
+    ExpenseCacheProperties.Spec spec = new ExpenseCacheProperties.Spec(100, Duration.ofMinutes(5));
+    service =
+        new CachingExpenseService(
+            delegate,
+            new ExpenseCacheProperties(
+                true, spec, spec, spec, Duration.ofHours(1), Duration.ofMinutes(5)),
+            exchangeRates,
+            registry);
+    Expense deleted = expense(JANUARY_15, Category.FOOD);
+    Expense expense = expense(JANUARY_15, Category.HOUSING);
+    when(delegate.deleteExpense(deleted.id(), null)).thenReturn(deleted);
+    when(delegate.getExpense(expense.id())).thenReturn(expense);
+    service.deleteExpense(deleted.id(), null);
+
+    // When
+    service.getExpense(expense.id());
+    service.getExpense(expense.id());
+
+    // Then
+    verify(delegate, times(2)).getExpense(expense.id());
+  }
+
+  @Test
+  @DisplayName("Given cached recent version when an expense is written then it is read again")
+  void given_cachedRecentVersion_when_expenseWritten_then_itIsReadAgain() {
+    // Given
+    Expense deleted = expense(JANUARY_15, Category.FOOD);
+    ExpenseVersion before = new ExpenseVersion(1L, JANUARY_15.toInstant());
+    ExpenseVersion after = new ExpenseVersion(2L, JANUARY_15.toInstant());
+    when(delegate.getRecentExpenseVersion()).thenReturn(before, after);
+    when(delegate.deleteExpense(deleted.id(), null)).thenReturn(deleted);
+    service.getRecentExpenseVersion();
+    ExpenseVersion cached = service.getRecentExpenseVersion();
+
+    // When
+    service.deleteExpense(deleted.id(), null);
+    ExpenseVersion result = service.getRecentExpenseVersion();
+
+    // Then
+    assertSame(before, cached);
+    assertSame(after, result);
+    verify(delegate, times(2)).getRecentExpenseVersion();
+  }
+
+  @Test
+  @DisplayName("Given cached normalized summary when exchange rates change then it reloads")
+  void given_cachedNormalizedSummary_when_exchangeRatesChange_then_itReloads() {
+    // Given
+    List<ExpenseSummary> none = List.of();
+    when(delegate.summarizeExpenses(SummaryPeriod.MONTH, null, null, "USD")).thenReturn(none);
+    when(exchangeRates.version()).thenReturn("1-a", "1-a", "2-b");
+    service.summarizeExpenses(SummaryPeriod.MONTH, null, null, "USD");
+
+    // When
+    service.summarizeExpenses(SummaryPeriod.MONTH, null, null, "USD");
+    service.summarizeExpenses(SummaryPeriod.MONTH, null, null, "USD");
+
+    // Then
+    verify(delegate, times(2)).summarizeExpenses(SummaryPeriod.MONTH, null, null, "USD");
+  }
+
+  private Expense expense(OffsetDateTime dateTime, Category category) {
+    return Expense.builder()
+        .id(UUID.randomUUID())
+        .description("Expense")
+        .dateTime(dateTime)
+        .amount(BigDecimal.TEN)
+        .currency("EUR")
+        .category(category)
+        .createdAt(dateTime)
+        .updatedAt(dateTime)
+        .version(0L)
+        .build();
+  }
+}
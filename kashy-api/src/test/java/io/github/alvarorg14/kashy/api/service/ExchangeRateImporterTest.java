@@ -0,0 +1,115 @@
+package io.github.alvarorg14.kashy.api.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.github.alvarorg14.kashy.api.config.ExchangeRateProperties;
+import io.github.alvarorg14.kashy.api.model.domain.ExchangeRate;
+import io.github.alvarorg14.kashy.api.repository.ExchangeRateRepository;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.transaction.support.TransactionOperations;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ExchangeRateImporter Tests")
+class ExchangeRateImporterTest {
+
+  @Mock private ExchangeRateRepository repository;
+
+  @Test
+  @DisplayName("Given ECB CSV when parse then reference, empty and N/A cells are skipped")
+  void given_ecbCsv_when_parse_then_referenceEmptyAndNaCellsAreSkipped() throws Exception {
+    // Given
+    String csv =
+        """
+        Date, USD, JPY, EUR, XAU,
+        2024-01-03, 1.0919, 155.52, 1, N/A,
+        2024-01-02, 1.0956, , 1, ,
+        """;
+
+    // When
+    List<ExchangeRate> rates = ExchangeRateImporter.parse(new StringReader(csv), "EUR");
+
+    // Then
+    assertEquals(
+        List.of(
+            new ExchangeRate("USD", LocalDate.of(2024, 1, 3), new BigDecimal("1.0919")),
+            new ExchangeRate("JPY", LocalDate.of(2024, 1, 3), new BigDecimal("155.52")),
+            new ExchangeRate("USD", LocalDate.of(2024, 1, 2), new BigDecimal("1.0956"))),
+        rates);
+  }
+
+  @Test
+  @DisplayName("Given malformed rate when parse then the line is reported")
+  void given_malformedRate_when_parse_then_theLineIsReported() {
+    // Given
+    String csv = "Date,USD\n2024-01-02,1.09\n2024-01-03,abc\n";
+
+    // When
+    IllegalArgumentException exception =
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> ExchangeRateImporter.parse(new StringReader(csv), "EUR"));
+
+    // Then
+    assertTrue(exception.getMessage().contains("line 3"));
+  }
+
+  @Test
+  @DisplayName("Given source when importRates then rates are upserted in chunks")
+  void given_source_when_importRates_then_ratesAreUpsertedInChunks() {
+    // Given
+    ExchangeRateImporter importer =
+        new ExchangeRateImporter(
+            repository,
+            new ExchangeRateProperties("EUR", new ClassPathResource("exchange-rates/rates.csv"), 5),
+            TransactionOperations.withoutTransaction());
+    when(repository.upsertAll(anyString())).thenReturn(5, 4);
+
+    // When
+    int written = importer.importRates();
+
+    // Then
+    ArgumentCaptor<String> chunks = ArgumentCaptor.forClass(String.class);
+    verify(repository, times(2)).upsertAll(chunks.capture());
+    assertEquals(9, written);
+    assertTrue(
+        chunks
+            .getAllValues()
+            .getFirst()
+            .startsWith("[{\"currency\":\"USD\",\"date\":\"2024-01-03\",\"rate\":1.0919}"));
+  }
+
+  @Test
+  @DisplayName("Given no source when importRates then nothing is written")
+  void given_noSource_when_importRates_then_nothingIsWritten() {
+    // Given
+    ExchangeRateImporter importer =
+        new ExchangeRateImporter(
+            repository,
+            new ExchangeRateProperties("EUR", null, 5),
+            TransactionOperations.withoutTransaction());
+
+    // When
+    int written = importer.importRates();
+
+    // Then
+    assertEquals(0, written);
+    verify(repository, never()).upsertAll(anyString());
+  }
+}
@@ -0,0 +1,159 @@
+package io.github.alvarorg14.kashy.api.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+import io.github.alvarorg14.kashy.api.config.ExchangeRateProperties;
+import io.github.alvarorg14.kashy.api.exception.ExchangeRateUnavailableException;
+import io.github.alvarorg14.kashy.api.model.domain.ExchangeRate;
+import io.github.alvarorg14.kashy.api.repository.ExchangeRateRepository;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ExchangeRates Tests")
+class ExchangeRatesTest {
+
+  private static final LocalDate JANUARY_2 = LocalDate.of(2024, 1, 2);
+  private static final LocalDate JANUARY_3 = LocalDate.of(2024, 1, 3);
+  private static final LocalDate JANUARY_5 = LocalDate.of(2024, 1, 5);
+
+  @Mock private ExchangeRateRepository repository;
+
+  private ExchangeRates exchangeRates;
+
+  @BeforeEach
+  void setUp() {
+    exchangeRates = new ExchangeRates(repository, new ExchangeRateProperties("EUR", null, 5000));
+  }
+
+  @Test
+  @DisplayName("Given rate of the day when convert then that rate is used")
+  void given_rateOfTheDay_when_convert_then_thatRateIsUsed() {
+    // Given
+    givenStoredRates();
+
+    // When
+    BigDecimal result =
+        exchangeRates.converterTo("USD").convert(new BigDecimal("100.00"), "EUR", JANUARY_3);
+
+    // Then
+    assertEquals(new BigDecimal("109.1900"), result);
+  }
+
+  @Test
+  @DisplayName("Given day without rate when convert then latest earlier rate is used")
+  void given_dayWithoutRate_when_convert_then_latestEarlierRateIsUsed() {
+    // Given
+    givenStoredRates();
+
+    // When
+    BigDecimal result =
+        exchangeRates
+            .converterTo("USD")
+            .convert(new BigDecimal("100.00"), "EUR", LocalDate.of(2024, 1, 4));
+
+    // Then
+    assertEquals(new BigDecimal("109.1900"), result);
+  }
+
+  @Test
+  @DisplayName("Given day before first rate when convert then earliest rate is used")
+  void given_dayBeforeFirstRate_when_convert_then_earliestRateIsUsed() {
+    // Given
+    givenStoredRates();
+
+    // When
+    BigDecimal result =
+        exchangeRates
+            .converterTo("EUR")
+            .convert(new BigDecimal("109.56"), "USD", LocalDate.of(2023, 12, 31));
+
+    // Then
+    assertEquals(new BigDecimal("100.0000"), result);
+  }
+
+  @Test
+  @DisplayName("Given two quoted currencies when convert then cross rate is used")
+  void given_twoQuotedCurrencies_when_convert_then_crossRateIsUsed() {
+    // Given
+    givenStoredRates();
+
+    // When
+    BigDecimal result =
+        exchangeRates.converterTo("GBP").convert(new BigDecimal("10.00"), "USD", JANUARY_5);
+
+    // Then
+    assertEquals(new BigDecimal("7.8821"), result);
+  }
+
+  @Test
+  @DisplayName("Given amount in base currency when convert then it is unchanged")
+  void given_amountInBaseCurrency_when_convert_then_itIsUnchanged() {
+    // Given
+    givenStoredRates();
+
+    // When
+    BigDecimal result =
+        exchangeRates.converterTo("USD").convert(new BigDecimal("12.34"), "USD", JANUARY_2);
+
+    // Then
+    assertEquals(new BigDecimal("12.34"), result);
+  }
+
+  @Test
+  @DisplayName("Given currency without rates when converting then it fails")
+  void given_currencyWithoutRates_when_converting_then_itFails() {
+    // Given
+    givenStoredRates();
+
+    // When / Then
+    assertThrows(ExchangeRateUnavailableException.class, () -> exchangeRates.converterTo("XAU"));
+    ExchangeRates.Converter converter = exchangeRates.converterTo("USD");
+    assertThrows(
+        ExchangeRateUnavailableException.class,
+        () -> converter.convert(BigDecimal.ONE, "XAU", JANUARY_2));
+    assertTrue(exchangeRates.supports("EUR"));
+    assertFalse(exchangeRates.supports("XAU"));
+  }
+
+  @Test
+  @DisplayName("Given changed rate when reload then version changes")
+  void given_changedRate_when_reload_then_versionChanges() {
+    // Given
+    givenStoredRates();
+    String before = exchangeRates.version();
+    when(repository.findAllRates())
+        .thenReturn(List.of(new ExchangeRate("USD", JANUARY_2, new BigDecimal("1.1000"))));
+
+    // When
+    exchangeRates.reload();
+
+    // Then
+    assertNotEquals(before, exchangeRates.version());
+    assertFalse(exchangeRates.supports("GBP"));
+  }
+
+  private void givenStoredRates() {
+    when(repository.findAllRates())
+        .thenReturn(
+            List.of(
+                new ExchangeRate("GBP", JANUARY_2, new BigDecimal("0.8637")),
+                new ExchangeRate("GBP", JANUARY_5, new BigDecimal("0.8608")),
+                new ExchangeRate("USD", JANUARY_2, new BigDecimal("1.0956")),
+                new ExchangeRate("USD", JANUARY_3, new BigDecimal("1.0919")),
+                new ExchangeRate("USD", JANUARY_5, new BigDecimal("1.0921"))));
+    exchangeRates.reload();
+  }
+}
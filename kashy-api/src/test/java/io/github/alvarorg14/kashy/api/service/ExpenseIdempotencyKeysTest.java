@@ -0,0 +1,166 @@
+package io.github.alvarorg14.kashy.api.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.github.alvarorg14.kashy.api.config.IdempotencyProperties;
+import io.github.alvarorg14.kashy.api.exception.IdempotencyKeyReusedException;
+import io.github.alvarorg14.kashy.api.model.domain.Category;
+import io.github.alvarorg14.kashy.api.model.domain.Expense;
+import io.github.alvarorg14.kashy.api.model.entity.IdempotencyKeyEntity;
+import io.github.alvarorg14.kashy.api.repository.IdempotencyKeyRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Optional;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionOperations;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ExpenseIdempotencyKeys Tests")
+class ExpenseIdempotencyKeysTest {
+
+  @Mock private IdempotencyKeyRepository repository;
+
+  private ExpenseIdempotencyKeys idempotencyKeys;
+  private Expense request;
+
+  @BeforeEach
+  void setUp() {
+    idempotencyKeys =
+        new ExpenseIdempotencyKeys(
+            repository,
+            new IdempotencyProperties(Duration.ofHours(24), 100),
+            TransactionOperations.withoutTransaction(),
+            new SimpleMeterRegistry());
+    request = request(OffsetDateTime.of(2024, 1, 15, 10, 30, 0, 0, ZoneOffset.UTC), "45.99");
+  }
+
+  @Test
+  @DisplayName("Given equivalent requests when fingerprint then fingerprints match")
+  void given_equivalentRequests_when_fingerprint_then_fingerprintsMatch() {
+    // Given
+    Expense reformatted =
+        request(request.dateTime().withOffsetSameInstant(ZoneOffset.ofHours(2)), "45.9900");
+    Expense different = request(request.dateTime(), "46.00");
+
+    // When / Then
+    assertEquals(
+        ExpenseIdempotencyKeys.fingerprint(request),
+        ExpenseIdempotencyKeys.fingerprint(reformatted));
+    assertNotEquals(
+        ExpenseIdempotencyKeys.fingerprint(request), ExpenseIdempotencyKeys.fingerprint(different));
+  }
+
+  @Test
+  @DisplayName("Given stored key when find then stored expense is returned and indexed")
+  void given_storedKey_when_find_then_storedExpenseIsReturnedAndIndexed() {
+    // Given
+    UUID id = UUID.randomUUID();
+    when(repository.findById("key-1"))
+        .thenReturn(
+            Optional.of(
+                new IdempotencyKeyEntity(
+                    "key-1",
+                    ExpenseIdempotencyKeys.fingerprint(request),
+                    id,
+                    """
+                    {"id":"%s","description":"Grocery shopping",\
+                    "dateTime":"2024-01-15T12:30:00+02:00","amount":45.99,"currency":"EUR",\
+                    "category":"FOOD","notes":"Weekly groceries"}
+                    """
+                        .formatted(id),
+                    OffsetDateTime.now())));
+
+    // When
+    Optional<Expense> first = idempotencyKeys.find("key-1", request);
+    Optional<Expense> second = idempotencyKeys.find("key-1", request);
+
+    // Then
+    assertTrue(first.isPresent());
+    assertEquals(id, first.get().id());
+    assertEquals(ZoneOffset.ofHours(2), first.get().dateTime().getOffset());
+    assertEquals(first, second);
+    verify(repository).findById("key-1");
+  }
+
+  @Test
+  @DisplayName("Given key used for other request when find then reuse is rejected")
+  void given_keyUsedForOtherRequest_when_find_then_reuseIsRejected() {
+    // Given
+    when(repository.findById("key-1"))
+        .thenReturn(
+            Optional.of(
+                new IdempotencyKeyEntity(
+                    "key-1", "other-hash", UUID.randomUUID(), "{}", OffsetDateTime.now())));
+
+    // When / Then
+    assertThrows(IdempotencyKeyReusedException.class, () -> idempotencyKeys.find("key-1", request));
+  }
+
+  @Test
+  @DisplayName("Given key about to expire when find then it leaves the index when it expires")
+  void given_keyAboutToExpire_when_find_then_itLeavesTheIndexWhenItExpires() throws Exception {
+    // Given
+    when(repository.findById("key-1"))
+        .thenReturn(
+            Optional.of(
+                new IdempotencyKeyEntity(
+                    "key-1",
+                    ExpenseIdempotencyKeys.fingerprint(request),
+                    UUID.randomUUID(),
+                    "{}",
+                    OffsetDateTime.now().minusHours(24).plusSeconds(1))));
+    assertTrue(idempotencyKeys.find("key-1", request).isPresent());
+
+    // When
+    Thread.sleep(1500);
+    Optional<Expense> result = idempotencyKeys.find("key-1", request);
+
+    // Then
+    assertTrue(result.isEmpty());
+    verify(repository, times(2)).findById("key-1");
+  }
+
+  @Test
+  @DisplayName("Given expired key when find then nothing is returned")
+  void given_expiredKey_when_find_then_nothingIsReturned() {
+    // Given
+    when(repository.findById("key-1"))
+        .thenReturn(
+            Optional.of(
+                new IdempotencyKeyEntity(
+                    "key-1",
+                    ExpenseIdempotencyKeys.fingerprint(request),
+                    UUID.randomUUID(),
+                    "{}",
+                    OffsetDateTime.now().minusDays(2))));
+
+    // When / Then
+    assertTrue(idempotencyKeys.find("key-1", request).isEmpty());
+  }
+
+  private static Expense request(OffsetDateTime dateTime, String amount) {
+    return Expense.builder()
+        .description("Grocery shopping")
+        .dateTime(dateTime)
+        .amount(new BigDecimal(amount))
+        .currency("EUR")
+        .category(Category.FOOD)
+        .notes("Weekly groceries")
+        .build();
+  }
+}
@@ -0,0 +1,142 @@
+package io.github.alvarorg14.kashy.api.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+import io.github.alvarorg14.kashy.api.model.domain.Category;
+import io.github.alvarorg14.kashy.api.model.domain.Expense;
+import io.github.alvarorg14.kashy.api.repository.ExpenseMonthlyRollupRepository;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ExpenseMonthlyRollups Tests")
+class ExpenseMonthlyRollupsTest {
+
+  @Mock private ExpenseMonthlyRollupRepository repository;
+
+  @InjectMocks private ExpenseMonthlyRollups rollups;
+
+  @Test
+  @DisplayName("Given expenses of the same group when add then the group is updated once")
+  void given_expensesOfSameGroup_when_add_then_groupIsUpdatedOnce() {
+    // Given
+    List<Expense> expenses =
+        List.of(
+            expense("2024-01-05T10:00:00Z", "10.00", Category.FOOD),
+            expense("2024-01-31T23:30:00-02:00", "5.50", Category.FOOD),
+            expense("2024-01-20T10:00:00Z", "2.50", Category.TRANSPORT));
+
+    // When
+    rollups.add(expenses);
+
+    // Then
+    verify(repository).add(LocalDate.of(2024, 1, 1), "FOOD", "EUR", 1, new BigDecimal("10.0000"));
+    verify(repository).add(LocalDate.of(2024, 2, 1), "FOOD", "EUR", 1, new BigDecimal("5.5000"));
+    verify(repository)
+        .add(LocalDate.of(2024, 1, 1), "TRANSPORT", "EUR", 1, new BigDecimal("2.5000"));
+    verifyNoMoreInteractions(repository);
+  }
+
+  @Test
+  @DisplayName("Given expenses of one month when add then counts and amounts are summed")
+  void given_expensesOfOneMonth_when_add_then_countsAndAmountsAreSummed() {
+    // When
+    rollups.add(
+        List.of(
+            expense("2024-01-05T10:00:00Z", "10.00", Category.FOOD),
+            expense("2024-01-06T10:00:00Z", "5.50", Category.FOOD)));
+
+    // Then
+    verify(repository).add(LocalDate.of(2024, 1, 1), "FOOD", "EUR", 2, new BigDecimal("15.5000"));
+  }
+
+  @Test
+  @DisplayName("Given expense moved to another month when update then it leaves one for the other")
+  void given_expenseMovedToAnotherMonth_when_update_then_itLeavesOneForTheOther() {
+    // When
+    rollups.update(
+        expense("2024-01-31T10:00:00Z", "10.00", Category.FOOD),
+        expense("2024-02-01T10:00:00Z", "12.00", Category.FOOD));
+
+    // Then
+    verify(repository).add(LocalDate.of(2024, 1, 1), "FOOD", "EUR", -1, new BigDecimal("-10.0000"));
+    verify(repository).add(LocalDate.of(2024, 2, 1), "FOOD", "EUR", 1, new BigDecimal("12.0000"));
+    verifyNoMoreInteractions(repository);
+  }
+
+  @Test
+  @DisplayName("Given amount changed within a month when update then only the difference is added")
+  void given_amountChangedWithinMonth_when_update_then_onlyTheDifferenceIsAdded() {
+    // When
+    rollups.update(
+        expense("2024-01-05T10:00:00Z", "10.00", Category.FOOD),
+        expense("2024-01-06T10:00:00Z", "12.50", Category.FOOD));
+
+    // Then
+    verify(repository).add(LocalDate.of(2024, 1, 1), "FOOD", "EUR", 0, new BigDecimal("2.5000"));
+    verifyNoMoreInteractions(repository);
+  }
+
+  @Test
+  @DisplayName("Given expense when remove then its count and amount are subtracted")
+  void given_expense_when_remove_then_itsCountAndAmountAreSubtracted() {
+    // When
+    rollups.remove(expense("2024-01-05T10:00:00Z", "10.00", Category.FOOD));
+
+    // Then
+    verify(repository).add(LocalDate.of(2024, 1, 1), "FOOD", "EUR", -1, new BigDecimal("-10.0000"));
+  }
+
+  @Test
+  @DisplayName("Given rebuild when run then rollups are locked, cleared and recomputed")
+  void given_rebuild_when_run_then_rollupsAreLockedClearedAndRecomputed() {
+    // Given
+    when(repository.insertFromExpenses()).thenReturn(3);
+
+    // When
+    int rows = rollups.rebuild();
+
+    // Then
+    assertEquals(3, rows);
+    InOrder order = inOrder(repository);
+    order.verify(repository).lockForRebuild();
+    order.verify(repository).clearAllRollups();
+    order.verify(repository).insertFromExpenses();
+  }
+
+  @Test
+  @DisplayName("Given date-times when checking month boundaries then only UTC month starts match")
+  void given_dateTimes_when_checkingMonthBoundaries_then_onlyUtcMonthStartsMatch() {
+    assertTrue(ExpenseMonthlyRollups.isMonthBoundary(null));
+    assertTrue(ExpenseMonthlyRollups.isMonthBoundary(OffsetDateTime.parse("2024-03-01T00:00Z")));
+    assertTrue(
+        ExpenseMonthlyRollups.isMonthBoundary(OffsetDateTime.parse("2024-03-01T02:00+02:00")));
+    assertFalse(
+        ExpenseMonthlyRollups.isMonthBoundary(OffsetDateTime.parse("2024-03-01T00:00+02:00")));
+    assertFalse(ExpenseMonthlyRollups.isMonthBoundary(OffsetDateTime.parse("2024-03-02T00:00Z")));
+  }
+
+  private Expense expense(String dateTime, String amount, Category category) {
+    return Expense.builder()
+        .dateTime(OffsetDateTime.parse(dateTime))
+        .amount(new BigDecimal(amount))
+        .currency("EUR")
+        .category(category)
+        .build();
+  }
+}
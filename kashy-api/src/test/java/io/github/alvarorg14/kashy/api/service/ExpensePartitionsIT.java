@@ -0,0 +1,197 @@
+package io.github.alvarorg14.kashy.api.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.github.alvarorg14.kashy.api.config.AbstractIT;
+import io.github.alvarorg14.kashy.api.model.domain.Category;
+import io.github.alvarorg14.kashy.api.model.domain.Expense;
+import io.github.alvarorg14.kashy.api.model.entity.ExpenseEntity;
+import io.github.alvarorg14.kashy.api.repository.ExpenseMonthlyRollupRepository;
+import io.github.alvarorg14.kashy.api.repository.ExpenseRepository;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionOperations;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("ExpensePartitions Integration Tests")
+class ExpensePartitionsIT extends AbstractIT {
+
+  private static final YearMonth MARCH_2019 = YearMonth.of(2019, 3);
+  private static final YearMonth APRIL_2019 = YearMonth.of(2019, 4);
+
+  @Autowired private ExpensePartitions partitions;
+
+  @Autowired private ExpenseRepository expenseRepository;
+
+  @Autowired private ExpenseMonthlyRollupRepository rollupRepository;
+
+  @Autowired private ExpenseMonthlyRollups rollups;
+
+  @Autowired private TransactionOperations transactions;
+
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  @BeforeEach
+  void setUp() {
+    dropTestPartitions();
+    expenseRepository.deleteAll();
+    rollupRepository.deleteAll();
+  }
+
+  @AfterEach
+  void tearDown() {
+    expenseRepository.deleteAll();
+    dropTestPartitions();
+  }
+
+  @Test
+  @DisplayName("Given current month when create partitions then the months ahead are partitioned")
+  void given_currentMonth_when_createPartitions_then_monthsAheadArePartitioned() {
+    // When
+    partitions.createPartitions(YearMonth.of(2019, 1));
+
+    // Then
+    List<String> names = partitionNames();
+    assertTrue(names.containsAll(List.of("expenses_2019_01", "expenses_2019_04")), names::toString);
+    assertFalse(names.contains("expenses_2019_05"), names::toString);
+    assertEquals(0, partitions.createPartitions(YearMonth.of(2019, 1)));
+  }
+
+  @Test
+  @DisplayName("Given back-dated expense when create partitions then it moves to its month")
+  void given_backDatedExpense_when_createPartitions_then_itMovesToItsMonth() {
+    // Given
+    ExpenseEntity expense = expenseRepository.save(expense("2019-03-31T23:30:00-02:00"));
+    assertEquals("expenses_default", partitionOf(expense.getId()));
+
+    // When
+    partitions.createPartitions(YearMonth.of(2019, 1));
+
+    // Then
+    assertEquals("expenses_2019_04", partitionOf(expense.getId()));
+    assertEquals(1, expenseRepository.count());
+    assertTrue(expenseRepository.findById(expense.getId()).isPresent());
+  }
+
+  @Test
+  @DisplayName("Given date range filter when planning then only the partitions in range are read")
+  void given_dateRangeFilter_when_planning_then_onlyPartitionsInRangeAreRead() {
+    // Given
+    partitionMonths(MARCH_2019, APRIL_2019);
+
+    // When
+    String plan =
+        String.join(
+            "\n",
+            jdbcTemplate.queryForList(
+                """
+                EXPLAIN SELECT * FROM expenses
+                WHERE date_time >= '2019-04-01T00:00:00Z' AND date_time < '2019-04-15T00:00:00Z'
+                ORDER BY date_time DESC, id DESC LIMIT 21
+                """,
+                String.class));
+
+    // Then
+    assertTrue(plan.contains("expenses_2019_04"), plan);
+    assertFalse(plan.contains("expenses_2019_03"), plan);
+    assertFalse(plan.contains("expenses_default"), plan);
+  }
+
+  @Test
+  @DisplayName(
+      "Given partitioned month when detach then its expenses and ids leave, its rollups are emptied")
+  void given_partitionedMonth_when_detach_then_expensesLeaveAndRollupsAreEmptied() {
+    // Given
+    partitionMonths(MARCH_2019, APRIL_2019);
+    transactions.executeWithoutResult(
+        status -> {
+          List<ExpenseEntity> saved =
+              expenseRepository.saveAll(
+                  List.of(expense("2019-03-10T10:00:00Z"), expense("2019-04-10T10:00:00Z")));
+          rollups.add(saved.stream().map(this::toDomain).toList());
+        });
+
+    // When
+    boolean detached = partitions.detach(MARCH_2019);
+
+    // Then
+    assertTrue(detached);
+    assertFalse(partitionNames().contains("expenses_2019_03"));
+    assertEquals(1, expenseRepository.count());
+    assertEquals(
+        1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM expenses_2019_03", Integer.class));
+    assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM expense_ids", Integer.class));
+    List<LocalDate> months =
+        jdbcTemplate.queryForList(
+            "SELECT month FROM expense_monthly_rollups WHERE expense_count > 0", LocalDate.class);
+    assertEquals(List.of(APRIL_2019.atDay(1)), months);
+    assertFalse(partitions.detach(MARCH_2019));
+  }
+
+  private void partitionMonths(YearMonth... months) {
+    for (YearMonth month : months) {
+      jdbcTemplate.queryForObject(
+          "SELECT create_expenses_partition(?)", Boolean.class, month.atDay(1));
+    }
+  }
+
+  private List<String> partitionNames() {
+    return jdbcTemplate.queryForList(
+        "SELECT inhrelid::regclass::text FROM pg_inherits WHERE inhparent = 'expenses'::regclass",
+        String.class);
+  }
+
+  private String partitionOf(UUID id) {
+    return jdbcTemplate.queryForObject(
+        "SELECT tableoid::regclass::text FROM expenses WHERE id = ?", String.class, id);
+  }
+
+  private void dropTestPartitions() {
+    for (int month = 1; month <= 4; month++) {
+      jdbcTemplate.execute("DROP TABLE IF EXISTS expenses_2019_0" + month);
+    }
+  }
+
+  private Expense toDomain(ExpenseEntity entity) {
+    return new Expense(
+        entity.getId(),
+        entity.getDescription(),
+        entity.getDateTime(),
+        entity.getAmount(),
+        entity.getCurrency(),
+        entity.getCategory(),
+        entity.getNotes(),
+        entity.getCreatedAt(),
+        entity.getUpdatedAt(),
+        entity.getVersion());
+  }
+
+  private ExpenseEntity expense(String dateTime) {
+    OffsetDateTime now = OffsetDateTime.now();
+    return ExpenseEntity.builder()
+        .id(UUID.randomUUID())
+        .description("Expense")
+        .dateTime(OffsetDateTime.parse(dateTime))
+        .amount(BigDecimal.TEN)
+        .currency("EUR")
+        .category(Category.FOOD)
+        .createdAt(now)
+        .updatedAt(now)
+        .build();
+  }
+}
@@ -1,27 +1,70 @@
 package io.github.alvarorg14.kashy.api.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import io.github.alvarorg14.kashy.api.analytics.ExpenseAnalyticsStore;
+import io.github.alvarorg14.kashy.api.config.ExpenseBatchProperties;
+import io.github.alvarorg14.kashy.api.exception.ExchangeRateUnavailableException;
+import io.github.alvarorg14.kashy.api.exception.ExpenseNotFoundException;
+import io.github.alvarorg14.kashy.api.exception.ExpenseVersionConflictException;
+import io.github.alvarorg14.kashy.api.id.IdGenerator;
+import io.github.alvarorg14.kashy.api.id.UuidV7Generator;
 import io.github.alvarorg14.kashy.api.mapper.ExpenseEntityMapper;
+import io.github.alvarorg14.kashy.api.metrics.ExpenseMetrics;
 import io.github.alvarorg14.kashy.api.model.domain.Category;
 import io.github.alvarorg14.kashy.api.model.domain.Expense;
+import io.github.alvarorg14.kashy.api.model.domain.ExpenseCreationResult;
+import io.github.alvarorg14.kashy.api.model.domain.ExpenseCreationResult.Created;
+import io.github.alvarorg14.kashy.api.model.domain.ExpenseCreationResult.Failed;
+import io.github.alvarorg14.kashy.api.model.domain.ExpenseCursor;
+import io.github.alvarorg14.kashy.api.model.domain.ExpenseFilter;
+import io.github.alvarorg14.kashy.api.model.domain.ExpensePage;
+import io.github.alvarorg14.kashy.api.model.domain.ExpenseRevision;
+import io.github.alvarorg14.kashy.api.model.domain.ExpenseSearchCursor;
+import io.github.alvarorg14.kashy.api.model.domain.ExpenseSearchPage;
+import io.github.alvarorg14.kashy.api.model.domain.ExpenseSummary;
+import io.github.alvarorg14.kashy.api.model.domain.SummaryPeriod;
 import io.github.alvarorg14.kashy.api.model.entity.ExpenseEntity;
+import io.github.alvarorg14.kashy.api.model.projection.ExpenseSearchProjection;
+import io.github.alvarorg14.kashy.api.model.projection.ExpenseSummaryProjection;
+import io.github.alvarorg14.kashy.api.repository.ExpenseMonthlyRollupRepository;
 import io.github.alvarorg14.kashy.api.repository.ExpenseRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionOperations;
 
 @ExtendWith(MockitoExtension.class)
 @DisplayName("ExpenseService Tests")
@@ -31,6 +74,28 @@ class ExpenseServiceTest {
 
   @Mock private ExpenseEntityMapper mapper;
 
+  @Mock private EntityManager entityManager;
+
+  @Spy private ExpenseBatchProperties batchProperties = new ExpenseBatchProperties(2);
+
+  @Spy private IdGenerator idGenerator = new UuidV7Generator();
+
+  @Mock private ExpenseMonthlyRollups rollups;
+
+  @Mock private ExpenseMonthlyRollupRepository rollupRepository;
+
+  @Spy private TransactionOperations transactions = TransactionOperations.withoutTransaction();
+
+  @Spy private ExpenseMetrics metrics = new ExpenseMetrics(new SimpleMeterRegistry());
+
+  @Mock private ExpenseIdempotencyKeys idempotencyKeys;
+
+  @Mock private ExchangeRates exchangeRates;
+
+  @Mock private ExpenseAnalyticsStore analytics;
+
+  @Mock private ExpenseSummaryEngine summaryEngine;
+
   @InjectMocks private ExpenseServiceImpl expenseService;
 
   private Expense testExpense;
@@ -99,16 +164,273 @@ class ExpenseServiceTest {
     assertEquals(0, result.amount().compareTo(BigDecimal.valueOf(100.50)));
     assertNotNull(result.createdAt());
     assertNotNull(result.updatedAt());
+    verify(idGenerator).nextId();
+    verify(repository).save(any(ExpenseEntity.class));
+    verify(rollups).add(anyList());
+    verify(analytics).add(anyList());
+  }
+
+  @Test
+  @DisplayName("Given new idempotency key when createExpense then expense and key are recorded")
+  void given_newIdempotencyKey_when_createExpense_then_expenseAndKeyAreRecorded() {
+    // Given
+    when(idempotencyKeys.find("key-1", testExpense)).thenReturn(Optional.empty());
+    when(mapper.toEntity(any(Expense.class))).thenReturn(testEntity);
+    when(repository.save(any(ExpenseEntity.class))).thenReturn(testEntity);
+    when(mapper.toDomain(testEntity)).thenReturn(testExpense);
+
+    // When
+    Expense result = expenseService.createExpense(testExpense, "key-1");
+
+    // Then
+    assertEquals(testExpense, result);
+    verify(transactions).execute(any());
     verify(repository).save(any(ExpenseEntity.class));
+    verify(idempotencyKeys).record("key-1", testExpense, testExpense);
+  }
+
+  @Test
+  @DisplayName("Given used idempotency key when createExpense then original expense is replayed")
+  void given_usedIdempotencyKey_when_createExpense_then_originalExpenseIsReplayed() {
+    // Given
+    when(idempotencyKeys.find("key-1", testExpense)).thenReturn(Optional.of(testExpense));
+
+    // When
+    Expense result = expenseService.createExpense(testExpense, "key-1");
+
+    // Then
+    assertEquals(testExpense, result);
+    verify(repository, never()).save(any(ExpenseEntity.class));
+    verify(rollups, never()).add(anyList());
+    verify(idempotencyKeys, never()).record(any(), any(), any());
+  }
+
+  @Test
+  @DisplayName(
+      "Given idempotency key recorded concurrently when createExpense then winner is replayed")
+  void given_idempotencyKeyRecordedConcurrently_when_createExpense_then_winnerIsReplayed() {
+    // Given
+    when(idempotencyKeys.find("key-1", testExpense))
+        .thenReturn(Optional.empty())
+        .thenReturn(Optional.of(testExpense));
+    when(mapper.toEntity(any(Expense.class))).thenReturn(testEntity);
+    when(repository.save(any(ExpenseEntity.class))).thenReturn(testEntity);
+    when(mapper.toDomain(testEntity)).thenReturn(testExpense);
+    doAnswer(
+            invocation -> {
+              throw new DataIntegrityViolationException("duplicate key value");
+            })
+        .when(idempotencyKeys)
+        .record(any(), any(), any());
+
+    // When
+    Expense result = expenseService.createExpense(testExpense, "key-1");
+
+    // Then
+    assertEquals(testExpense, result);
+    verify(idempotencyKeys, times(2)).find("key-1", testExpense);
+  }
+
+  @Test
+  @DisplayName("Given expenses when createExpenses then they are inserted in chunks")
+  void given_expenses_when_createExpenses_then_theyAreInsertedInChunks() {
+    // Given
+    List<Expense> expenses = List.of(testExpense, testExpense, testExpense);
+    when(mapper.toEntity(any(Expense.class))).thenReturn(testEntity);
+
+    // When
+    List<ExpenseCreationResult> results = expenseService.createExpenses(expenses);
+
+    // Then
+    assertEquals(3, results.size());
+    assertTrue(results.stream().allMatch(Created.class::isInstance));
+    assertEquals(List.of(0, 1, 2), results.stream().map(ExpenseCreationResult::index).toList());
+    Expense created = ((Created) results.getFirst()).expense();
+    assertNotNull(created.id());
+    assertNotEquals(testExpense.id(), created.id());
+    assertNotNull(created.createdAt());
+    verify(repository).insertAll(List.of(testEntity, testEntity));
+    verify(repository).insertAll(List.of(testEntity));
+    verify(transactions, times(2)).executeWithoutResult(any());
+    verify(rollups, times(2)).add(anyList());
+  }
+
+  @Test
+  @DisplayName("Given failing chunk when createExpenses then only offending expenses fail")
+  void given_failingChunk_when_createExpenses_then_onlyOffendingExpensesFail() {
+    // Given
+    ExpenseEntity badEntity = ExpenseEntity.builder().id(UUID.randomUUID()).build();
+    Expense badExpense = Expense.builder().description("Bad expense").build();
+    when(mapper.toEntity(any(Expense.class)))
+        .thenAnswer(
+            invocation ->
+                "Bad expense".equals(invocation.<Expense>getArgument(0).description())
+                    ? badEntity
+                    : testEntity);
+    doAnswer(
+            invocation -> {
+              if (invocation.<List<ExpenseEntity>>getArgument(0).contains(badEntity)) {
+                throw new DataIntegrityViolationException("numeric field overflow");
+              }
+              return null;
+            })
+        .when(repository)
+        .insertAll(anyList());
+
+    // When
+    List<ExpenseCreationResult> results =
+        expenseService.createExpenses(List.of(testExpense, badExpense));
+
+    // Then
+    assertInstanceOf(Created.class, results.get(0));
+    Failed failed = assertInstanceOf(Failed.class, results.get(1));
+    assertEquals(1, failed.index());
+    assertTrue(failed.reason().contains("numeric field overflow"));
+    verify(repository).insertAll(List.of(testEntity));
+  }
+
+  @Test
+  @DisplayName("Given existing id when getExpense then expense is returned")
+  void given_existingId_when_getExpense_then_expenseIsReturned() {
+    // Given
+    when(repository.findById(testEntity.getId())).thenReturn(Optional.of(testEntity));
+    when(mapper.toDomain(testEntity)).thenReturn(testExpense);
+
+    // When
+    Expense result = expenseService.getExpense(testEntity.getId());
+
+    // Then
+    assertEquals(testExpense, result);
+  }
+
+  @Test
+  @DisplayName("Given unknown id when getExpense then ExpenseNotFoundException is thrown")
+  void given_unknownId_when_getExpense_then_expenseNotFoundExceptionIsThrown() {
+    // Given
+    UUID id = UUID.randomUUID();
+    when(repository.findById(id)).thenReturn(Optional.empty());
+
+    // When & Then
+    assertThrows(ExpenseNotFoundException.class, () -> expenseService.getExpense(id));
+  }
+
+  @Test
+  @DisplayName("Given changed fields when updateExpense then only they are written and rolled up")
+  void given_changedFields_when_updateExpense_then_onlyTheyAreWrittenAndRolledUp() {
+    // Given
+    testEntity.setVersion(2L);
+    testEntity.setUpdatedAt(testEntity.getCreatedAt().minusDays(1));
+    when(repository.findById(testEntity.getId())).thenReturn(Optional.of(testEntity));
+    when(mapper.toDomain(testEntity)).thenAnswer(invocation -> toDomain(testEntity));
+    doAnswer(
+            invocation -> {
+              testEntity.setVersion(testEntity.getVersion() + 1);
+              return null;
+            })
+        .when(repository)
+        .flush();
+
+    // When
+    ExpenseRevision result =
+        expenseService.updateExpense(
+            testEntity.getId(),
+            2L,
+            current ->
+                current.toBuilder()
+                    .amount(new BigDecimal("80.00"))
+                    .category(Category.TRANSPORT)
+                    .build());
+
+    // Then
+    assertTrue(result.changed());
+    assertEquals(2L, result.previous().version());
+    assertEquals(3L, result.current().version());
+    assertEquals(new BigDecimal("80.00"), testEntity.getAmount());
+    assertEquals(Category.TRANSPORT, testEntity.getCategory());
+    assertEquals("Test notes", testEntity.getNotes());
+    assertTrue(result.current().updatedAt().isAfter(result.previous().updatedAt()));
+    verify(rollups).update(result.previous(), result.current());
+    verify(analytics).update(result.previous(), result.current());
+  }
+
+  @Test
+  @DisplayName("Given equal values when updateExpense then nothing is written")
+  void given_equalValues_when_updateExpense_then_nothingIsWritten() {
+    // Given
+    testEntity.setVersion(2L);
+    when(repository.findById(testEntity.getId())).thenReturn(Optional.of(testEntity));
+    when(mapper.toDomain(testEntity)).thenAnswer(invocation -> toDomain(testEntity));
+
+    // When
+    ExpenseRevision result =
+        expenseService.updateExpense(
+            testEntity.getId(),
+            null,
+            current -> current.toBuilder().amount(new BigDecimal("100.5000")).build());
+
+    // Then
+    assertFalse(result.changed());
+    assertEquals(testEntity.getCreatedAt(), testEntity.getUpdatedAt());
+    verify(repository, never()).flush();
+    verify(rollups, never()).update(any(), any());
+    verify(analytics, never()).update(any(), any());
+  }
+
+  @Test
+  @DisplayName("Given outdated version when updateExpense then ExpenseVersionConflictException")
+  void given_outdatedVersion_when_updateExpense_then_expenseVersionConflictExceptionIsThrown() {
+    // Given
+    testEntity.setVersion(3L);
+    when(repository.findById(testEntity.getId())).thenReturn(Optional.of(testEntity));
+
+    // When & Then
+    assertThrows(
+        ExpenseVersionConflictException.class,
+        () ->
+            expenseService.updateExpense(
+                testEntity.getId(), 2L, current -> current.toBuilder().notes(null).build()));
+    assertEquals("Test notes", testEntity.getNotes());
+    verify(repository, never()).flush();
+  }
+
+  @Test
+  @DisplayName("Given unknown id when deleteExpense then ExpenseNotFoundException is thrown")
+  void given_unknownId_when_deleteExpense_then_expenseNotFoundExceptionIsThrown() {
+    // Given
+    UUID id = UUID.randomUUID();
+    when(repository.findById(id)).thenReturn(Optional.empty());
+
+    // When & Then
+    assertThrows(ExpenseNotFoundException.class, () -> expenseService.deleteExpense(id, null));
+    verify(repository, never()).delete(any(ExpenseEntity.class));
+  }
+
+  @Test
+  @DisplayName("Given current version when deleteExpense then expense and its rollups are removed")
+  void given_currentVersion_when_deleteExpense_then_expenseAndItsRollupsAreRemoved() {
+    // Given
+    testEntity.setVersion(2L);
+    when(repository.findById(testEntity.getId())).thenReturn(Optional.of(testEntity));
+    when(mapper.toDomain(testEntity)).thenAnswer(invocation -> toDomain(testEntity));
+
+    // When
+    Expense result = expenseService.deleteExpense(testEntity.getId(), 2L);
+
+    // Then
+    assertEquals(toDomain(testEntity), result);
+    verify(repository).delete(testEntity);
+    verify(repository).flush();
+    verify(rollups).remove(result);
+    verify(analytics).remove(result);
   }
 
   @Test
-  @DisplayName("Given multiple expenses when listExpenses then all expenses are returned")
-  void given_multipleExpenses_when_listExpenses_then_allExpensesAreReturned() {
+  @DisplayName("Given fewer expenses than the limit when listExpenses then last page is returned")
+  void given_fewerExpensesThanLimit_when_listExpenses_then_lastPageIsReturned() {
     // Given
     OffsetDateTime now2 = OffsetDateTime.now();
-    ExpenseEntity entity2 =
-        ExpenseEntity.builder()
+    Expense expense2 =
+        Expense.builder()
             .id(UUID.randomUUID())
             .description("Second expense")
             .dateTime(now2)
@@ -119,30 +441,239 @@ class ExpenseServiceTest {
             .updatedAt(now2)
             .build();
 
-    Expense expense2 =
-        Expense.builder()
-            .id(entity2.getId())
-            .description(entity2.getDescription())
-            .dateTime(entity2.getDateTime())
-            .amount(entity2.getAmount())
-            .currency(entity2.getCurrency())
-            .category(entity2.getCategory())
-            .notes(entity2.getNotes())
-            .createdAt(entity2.getCreatedAt())
-            .updatedAt(entity2.getUpdatedAt())
-            .build();
+    when(repository.findPage(ExpenseFilter.NONE, null, Limit.of(11)))
+        .thenReturn(List.of(testExpense, expense2));
+
+    // When
+    ExpensePage result = expenseService.listExpenses(ExpenseFilter.NONE, null, 10);
+
+    // Then
+    assertEquals(2, result.expenses().size());
+    assertEquals("Test expense", result.expenses().get(0).description());
+    assertEquals("Second expense", result.expenses().get(1).description());
+    assertTrue(result.next().isEmpty());
+    verify(repository).findPage(ExpenseFilter.NONE, null, Limit.of(11));
+    verify(mapper, never()).toDomain(any(ExpenseEntity.class));
+  }
+
+  @Test
+  @DisplayName("Given more expenses than the limit when listExpenses then next cursor is returned")
+  void given_moreExpensesThanLimit_when_listExpenses_then_nextCursorIsReturned() {
+    // Given
+    Expense extraExpense = Expense.builder().id(UUID.randomUUID()).build();
+    when(repository.findPage(ExpenseFilter.NONE, null, Limit.of(2)))
+        .thenReturn(List.of(testExpense, extraExpense));
+
+    // When
+    ExpensePage result = expenseService.listExpenses(ExpenseFilter.NONE, null, 1);
+
+    // Then
+    assertEquals(List.of(testExpense), result.expenses());
+    assertEquals(ExpenseCursor.after(testExpense), result.nextCursor());
+  }
 
-    when(repository.findAll()).thenReturn(List.of(testEntity, entity2));
+  @Test
+  @DisplayName("Given cursor when listExpenses then page after the cursor is returned")
+  void given_cursor_when_listExpenses_then_pageAfterCursorIsReturned() {
+    // Given
+    ExpenseCursor cursor = new ExpenseCursor(OffsetDateTime.now(), UUID.randomUUID());
+    when(repository.findPage(ExpenseFilter.NONE, cursor, Limit.of(11)))
+        .thenReturn(List.of(testExpense));
+
+    // When
+    ExpensePage result = expenseService.listExpenses(ExpenseFilter.NONE, cursor, 10);
+
+    // Then
+    assertEquals(List.of(testExpense), result.expenses());
+    assertNull(result.nextCursor());
+  }
+
+  @Test
+  @DisplayName("Given more matches than the limit when searchExpenses then next cursor is returned")
+  void given_moreMatchesThanLimit_when_searchExpenses_then_nextCursorIsReturned() {
+    // Given
+    ExpenseSearchProjection match = mock(ExpenseSearchProjection.class);
+    when(match.getRank()).thenReturn(0.6f);
+    when(match.getDateTime()).thenReturn(testExpense.dateTime().toInstant());
+    when(mapper.toDateTime(testExpense.dateTime().toInstant())).thenReturn(testExpense.dateTime());
+    when(match.getId()).thenReturn(testExpense.id());
+    ExpenseSearchProjection extra = mock(ExpenseSearchProjection.class);
+    when(repository.search("test", null, null, null, 2)).thenReturn(List.of(match, extra));
+    when(mapper.toDomain(match)).thenReturn(testExpense);
+
+    // When
+    ExpenseSearchPage result = expenseService.searchExpenses("test", null, 1);
+
+    // Then
+    assertEquals(List.of(testExpense), result.expenses());
+    assertEquals(
+        new ExpenseSearchCursor(0.6f, testExpense.dateTime(), testExpense.id()),
+        result.nextCursor());
+    verify(mapper, never()).toDomain(extra);
+  }
+
+  @Test
+  @DisplayName("Given cursor when searchExpenses then matches after the cursor are returned")
+  void given_cursor_when_searchExpenses_then_matchesAfterTheCursorAreReturned() {
+    // Given
+    ExpenseSearchCursor cursor =
+        new ExpenseSearchCursor(0.3f, OffsetDateTime.now(), UUID.randomUUID());
+    ExpenseSearchProjection match = mock(ExpenseSearchProjection.class);
+    when(repository.search("test", 0.3f, cursor.dateTime(), cursor.id(), 11))
+        .thenReturn(List.of(match));
+    when(mapper.toDomain(match)).thenReturn(testExpense);
+
+    // When
+    ExpenseSearchPage result = expenseService.searchExpenses("test", cursor, 10);
+
+    // Then
+    assertEquals(List.of(testExpense), result.expenses());
+    assertNull(result.nextCursor());
+  }
+
+  @Test
+  @DisplayName("Given expenses when exportExpenses then each expense is streamed and detached")
+  void given_expenses_when_exportExpenses_then_eachExpenseIsStreamedAndDetached() {
+    // Given
+    List<Expense> exported = new ArrayList<>();
+    when(repository.streamAll()).thenReturn(Stream.of(testEntity));
     when(mapper.toDomain(testEntity)).thenReturn(testExpense);
-    when(mapper.toDomain(entity2)).thenReturn(expense2);
 
     // When
-    List<Expense> result = expenseService.listExpenses();
+    expenseService.exportExpenses(exported::add);
+
+    // Then
+    assertEquals(List.of(testExpense), exported);
+    verify(entityManager).detach(testEntity);
+  }
+
+  @Test
+  @DisplayName("Given period and range when summarizeExpenses then the database aggregates")
+  void given_periodAndRange_when_summarizeExpenses_then_databaseAggregates() {
+    // Given
+    OffsetDateTime from = OffsetDateTime.parse("2024-01-01T00:00:00Z");
+    OffsetDateTime to = OffsetDateTime.parse("2024-02-01T00:00:00Z");
+    ExpenseSummary summary = ExpenseSummary.builder().category(Category.FOOD).count(3).build();
+    when(summaryEngine.summarize(SummaryPeriod.WEEK, from, to)).thenReturn(List.of(summary));
+
+    // When
+    List<ExpenseSummary> result =
+        expenseService.summarizeExpenses(SummaryPeriod.WEEK, from, to, null);
+
+    // Then
+    assertEquals(List.of(summary), result);
+  }
+
+  @Test
+  @DisplayName("Given whole months when summarizeExpenses per month then rollups are read")
+  void given_wholeMonths_when_summarizeExpensesPerMonth_then_rollupsAreRead() {
+    // Given
+    OffsetDateTime from = OffsetDateTime.parse("2024-01-01T00:00:00Z");
+    ExpenseSummaryProjection row = mock(ExpenseSummaryProjection.class);
+    ExpenseSummary summary = ExpenseSummary.builder().category(Category.FOOD).count(3).build();
+    when(rollupRepository.summarize(LocalDate.of(2024, 1, 1), null)).thenReturn(List.of(row));
+    when(mapper.toDomain(row)).thenReturn(summary);
+
+    // When
+    List<ExpenseSummary> result =
+        expenseService.summarizeExpenses(SummaryPeriod.MONTH, from, null, null);
 
     // Then
-    assertEquals(2, result.size());
-    assertEquals("Test expense", result.get(0).description());
-    assertEquals("Second expense", result.get(1).description());
-    verify(repository).findAll();
+    assertEquals(List.of(summary), result);
+    verify(summaryEngine, never()).summarize(any(), any(), any());
+    verify(analytics, never()).summarize(any(), any(), any());
+  }
+
+  @Test
+  @DisplayName("Given loaded analytics store when summarizeExpenses then it answers in memory")
+  void given_loadedAnalyticsStore_when_summarizeExpenses_then_itAnswersInMemory() {
+    // Given
+    OffsetDateTime from = OffsetDateTime.parse("2024-01-15T00:00:00Z");
+    ExpenseSummary summary = ExpenseSummary.builder().category(Category.FOOD).count(3).build();
+    when(analytics.summarize(SummaryPeriod.DAY, from, null))
+        .thenReturn(Optional.of(List.of(summary)));
+
+    // When
+    List<ExpenseSummary> result =
+        expenseService.summarizeExpenses(SummaryPeriod.DAY, from, null, null);
+
+    // Then
+    assertEquals(List.of(summary), result);
+    verify(summaryEngine, never()).summarize(any(), any(), any());
+  }
+
+  @Test
+  @DisplayName("Given partial month when summarizeExpenses per month then expenses are aggregated")
+  void given_partialMonth_when_summarizeExpensesPerMonth_then_expensesAreAggregated() {
+    // Given
+    OffsetDateTime from = OffsetDateTime.parse("2024-01-15T00:00:00Z");
+    when(summaryEngine.summarize(SummaryPeriod.MONTH, from, null)).thenReturn(List.of());
+
+    // When
+    List<ExpenseSummary> result =
+        expenseService.summarizeExpenses(SummaryPeriod.MONTH, from, null, null);
+
+    // Then
+    assertTrue(result.isEmpty());
+    verify(rollupRepository, never()).summarize(any(), any());
+  }
+
+  @Test
+  @DisplayName(
+      "Given base currency when summarizeExpenses then amounts are converted in the database")
+  void given_baseCurrency_when_summarizeExpenses_then_amountsAreConvertedInTheDatabase() {
+    // Given
+    OffsetDateTime from = OffsetDateTime.parse("2024-01-01T00:00:00Z");
+    OffsetDateTime to = OffsetDateTime.parse("2024-02-15T00:00:00Z");
+    ExpenseSummaryProjection row = mock(ExpenseSummaryProjection.class);
+    ExpenseSummary summary = ExpenseSummary.builder().category(Category.FOOD).count(3).build();
+    when(exchangeRates.supports(any())).thenReturn(true);
+    when(exchangeRates.referenceCurrency()).thenReturn("EUR");
+    when(rollupRepository.findCurrencies(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 3, 1)))
+        .thenReturn(List.of("EUR", "GBP"));
+    when(repository.summarizeIn("month", from, to, "USD", "EUR")).thenReturn(List.of(row));
+    when(mapper.toDomain(row)).thenReturn(summary);
+
+    // When
+    List<ExpenseSummary> result =
+        expenseService.summarizeExpenses(SummaryPeriod.MONTH, from, to, "USD");
+
+    // Then
+    assertEquals(List.of(summary), result);
+    verify(rollupRepository, never()).summarize(any(), any());
+  }
+
+  @Test
+  @DisplayName("Given currency without rates when summarizeExpenses in base currency then it fails")
+  void given_currencyWithoutRates_when_summarizeExpensesInBaseCurrency_then_itFails() {
+    // Given
+    when(exchangeRates.supports("USD")).thenReturn(true);
+    when(exchangeRates.supports("XAU")).thenReturn(false);
+    when(rollupRepository.findCurrencies(null, null)).thenReturn(List.of("USD", "XAU"));
+
+    // When
+    ExchangeRateUnavailableException exception =
+        assertThrows(
+            ExchangeRateUnavailableException.class,
+            () -> expenseService.summarizeExpenses(SummaryPeriod.DAY, null, null, "USD"));
+
+    // Then
+    assertTrue(exception.getMessage().contains("XAU"));
+    verify(repository, never()).summarizeIn(any(), any(), any(), any(), any());
+  }
+
+  private static Expense toDomain(ExpenseEntity entity) {
+    return Expense.builder()
+        .id(entity.getId())
+        .description(entity.getDescription())
+        .dateTime(entity.getDateTime())
+        .amount(entity.getAmount())
+        .currency(entity.getCurrency())
+        .category(entity.getCategory())
+        .notes(entity.getNotes())
+        .createdAt(entity.getCreatedAt())
+        .updatedAt(entity.getUpdatedAt())
+        .version(entity.getVersion())
+        .build();
   }
 }
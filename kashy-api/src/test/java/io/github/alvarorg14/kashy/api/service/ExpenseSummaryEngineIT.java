@@ -0,0 +1,101 @@
+package io.github.alvarorg14.kashy.api.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import io.github.alvarorg14.kashy.api.config.AbstractIT;
+import io.github.alvarorg14.kashy.api.mapper.ExpenseEntityMapper;
+import io.github.alvarorg14.kashy.api.model.domain.Category;
+import io.github.alvarorg14.kashy.api.model.domain.Expense;
+import io.github.alvarorg14.kashy.api.model.domain.ExpenseSummary;
+import io.github.alvarorg14.kashy.api.model.domain.SummaryPeriod;
+import io.github.alvarorg14.kashy.api.repository.ExpenseMonthlyRollupRepository;
+import io.github.alvarorg14.kashy.api.repository.ExpenseRepository;
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest(properties = "kashy.expenses.summaries.minimum-months=2")
+@ActiveProfiles("test")
+@DisplayName("ExpenseSummaryEngine Integration Tests")
+class ExpenseSummaryEngineIT extends AbstractIT {
+
+  @Autowired private ExpenseSummaryEngine engine;
+
+  @Autowired private ExpenseService expenseService;
+
+  @Autowired private ExpenseRepository expenseRepository;
+
+  @Autowired private ExpenseMonthlyRollupRepository rollupRepository;
+
+  @Autowired private ExpenseEntityMapper mapper;
+
+  @BeforeEach
+  void setUp() {
+    expenseRepository.deleteAll();
+    rollupRepository.deleteAll();
+  }
+
+  @Test
+  @DisplayName("Given expenses over several months when summarize then chunks match one query")
+  void givenExpensesOverSeveralMonths_whenSummarize_thenChunksMatchOneQuery() {
+    expenseService.createExpenses(
+        List.of(
+            expense("2024-01-05T10:00:00Z", "10.00", Category.FOOD, "EUR"),
+            expense("2024-01-31T23:30:00Z", "12.345", Category.FOOD, "EUR"),
+            expense("2024-02-01T00:30:00Z", "2.50", Category.FOOD, "EUR"),
+            expense("2024-02-14T09:00:00-05:00", "3.00", Category.TRANSPORT, "USD"),
+            expense("2024-03-31T22:00:00Z", "7.00", Category.HOUSING, "EUR"),
+            expense("2024-04-01T01:00:00Z", "1.00", Category.HOUSING, "EUR")));
+
+    for (SummaryPeriod period : SummaryPeriod.values()) {
+      assertEquals(singleQuery(period, null, null), engine.summarize(period, null, null));
+    }
+    OffsetDateTime from = OffsetDateTime.parse("2024-01-20T00:00:00Z");
+    OffsetDateTime to = OffsetDateTime.parse("2024-04-01T00:30:00Z");
+    assertEquals(
+        singleQuery(SummaryPeriod.WEEK, from, to), engine.summarize(SummaryPeriod.WEEK, from, to));
+  }
+
+  @Test
+  @DisplayName("Given months missing from the rollups when summarize then they are still counted")
+  void givenMonthsMissingFromRollups_whenSummarize_thenTheyAreStillCounted() {
+    expenseService.createExpenses(
+        List.of(
+            expense("2024-01-05T10:00:00Z", "10.00", Category.FOOD, "EUR"),
+            expense("2024-02-10T10:00:00Z", "2.50", Category.FOOD, "EUR"),
+            expense("2024-03-15T10:00:00Z", "7.00", Category.HOUSING, "EUR")));
+    rollupRepository.deleteAll();
+
+    assertEquals(
+        singleQuery(SummaryPeriod.MONTH, null, null),
+        engine.summarize(SummaryPeriod.MONTH, null, null));
+    OffsetDateTime from = OffsetDateTime.parse("2024-01-01T00:00:00Z");
+    assertEquals(
+        singleQuery(SummaryPeriod.DAY, from, null),
+        engine.summarize(SummaryPeriod.DAY, from, null));
+  }
+
+  private List<ExpenseSummary> singleQuery(
+      SummaryPeriod period, OffsetDateTime from, OffsetDateTime to) {
+    return expenseRepository.summarize(period.sqlUnit(), from, to).stream()
+        .map(mapper::toDomain)
+        .toList();
+  }
+
+  private static Expense expense(
+      String dateTime, String amount, Category category, String currency) {
+    return Expense.builder()
+        .description("Expense")
+        .dateTime(OffsetDateTime.parse(dateTime))
+        .amount(new BigDecimal(amount))
+        .currency(currency)
+        .category(category)
+        .build();
+  }
+}
@@ -0,0 +1,289 @@
+package io.github.alvarorg14.kashy.api.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.github.alvarorg14.kashy.api.config.ExpenseSummaryProperties;
+import io.github.alvarorg14.kashy.api.config.ReadReplicaProperties;
+import io.github.alvarorg14.kashy.api.mapper.ExpenseEntityMapperImpl;
+import io.github.alvarorg14.kashy.api.model.domain.Category;
+import io.github.alvarorg14.kashy.api.model.domain.ExpenseSummary;
+import io.github.alvarorg14.kashy.api.model.domain.SummaryPeriod;
+import io.github.alvarorg14.kashy.api.model.projection.ExpenseDateTimeRangeProjection;
+import io.github.alvarorg14.kashy.api.model.projection.ExpenseSummaryProjection;
+import io.github.alvarorg14.kashy.api.repository.ExpenseRepository;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ExpenseSummaryEngine Tests")
+class ExpenseSummaryEngineTest {
+
+  @Mock private ExpenseRepository repository;
+
+  @Test
+  @DisplayName("Given fewer months than the minimum when summarize then one query aggregates")
+  void given_fewerMonthsThanMinimum_when_summarize_then_oneQueryAggregates() {
+    // Given
+    OffsetDateTime from = OffsetDateTime.parse("2024-01-10T00:00:00Z");
+    OffsetDateTime to = OffsetDateTime.parse("2024-02-10T00:00:00Z");
+    when(repository.summarize("day", from, to))
+        .thenReturn(List.of(row("2024-01-10", "FOOD", 2, "3.0000")));
+
+    // When
+    List<ExpenseSummary> result = engine(4, 10).summarize(SummaryPeriod.DAY, from, to);
+
+    // Then
+    assertEquals(List.of(summary("2024-01-10", Category.FOOD, 2, "3.0000", "1.5000")), result);
+    verify(repository, never()).findDateTimeRange(any(), any());
+  }
+
+  @Test
+  @DisplayName("Given several months when summarize then each month is aggregated and merged")
+  void given_severalMonths_when_summarize_then_eachMonthIsAggregatedAndMerged() {
+    // Given
+    OffsetDateTime from = OffsetDateTime.parse("2024-01-10T00:00:00Z");
+    OffsetDateTime to = OffsetDateTime.parse("2024-03-10T00:00:00Z");
+    OffsetDateTime february = OffsetDateTime.parse("2024-02-01T00:00:00Z");
+    OffsetDateTime march = OffsetDateTime.parse("2024-03-01T00:00:00Z");
+    when(repository.findDateTimeRange(from, to))
+        .thenReturn(range("2024-01-12T00:00:00Z", "2024-03-05T00:00:00Z"));
+    // The week of 2024-01-29 straddles January and February
+    when(repository.summarize("week", from, february))
+        .thenReturn(List.of(row("2024-01-29", "FOOD", 1, "1.0000")));
+    when(repository.summarize("week", february, march))
+        .thenReturn(
+            List.of(
+                row("2024-01-29", "FOOD", 2, "2.0000"), row("2024-02-26", "FOOD", 1, "4.0000")));
+    when(repository.summarize("week", march, to))
+        .thenReturn(List.of(row("2024-02-26", "FOOD", 1, "1.0000")));
+
+    // When
+    List<ExpenseSummary> result = engine(4, 10).summarize(SummaryPeriod.WEEK, from, to);
+
+    // Then
+    assertEquals(
+        List.of(
+            summary("2024-01-29", Category.FOOD, 3, "3.0000", "1.0000"),
+            summary("2024-02-26", Category.FOOD, 2, "5.0000", "2.5000")),
+        result);
+    verify(repository, never()).summarize("week", from, to);
+  }
+
+  @Test
+  @DisplayName("Given replica pools of two connections when summarize then one query aggregates")
+  void given_replicaPoolsOfTwoConnections_when_summarize_then_oneQueryAggregates() {
+    // Given
+    when(repository.summarize("month", null, null)).thenReturn(List.of());
+    ReadReplicaProperties replicas =
+        new ReadReplicaProperties(
+            true,
+            List.of(
+                new ReadReplicaProperties.Replica("jdbc:postgresql://replica/kashy", null, null)),
+            2,
+            Duration.ofSeconds(1),
+            Duration.ofSeconds(5));
+    ExpenseSummaryEngine engine =
+        new ExpenseSummaryEngine(
+            repository,
+            new ExpenseEntityMapperImpl(),
+            new ExpenseSummaryProperties(4, 3),
+            replicas,
+            20);
+
+    // When
+    List<ExpenseSummary> result = engine.summarize(SummaryPeriod.MONTH, null, null);
+
+    // Then
+    assertEquals(List.of(), result);
+    verify(repository, never()).findDateTimeRange(any(), any());
+  }
+
+  @Test
+  @DisplayName("Given a pool of two connections when summarize then one query aggregates")
+  void given_poolOfTwoConnections_when_summarize_then_oneQueryAggregates() {
+    // Given
+    when(repository.summarize("month", null, null)).thenReturn(List.of());
+
+    // When
+    List<ExpenseSummary> result = engine(4, 2).summarize(SummaryPeriod.MONTH, null, null);
+
+    // Then
+    assertEquals(List.of(), result);
+    verify(repository, never()).findDateTimeRange(any(), any());
+  }
+
+  @Test
+  @DisplayName("Given a failing month when summarize then the failure is propagated")
+  void given_failingMonth_when_summarize_then_failureIsPropagated() {
+    // Given
+    QueryTimeoutException failure = new QueryTimeoutException("timeout");
+    when(repository.findDateTimeRange(null, null))
+        .thenReturn(range("2024-01-05T00:00:00Z", "2024-03-20T00:00:00Z"));
+    when(repository.summarize(any(), any(), any())).thenReturn(List.of());
+    when(repository.summarize(
+            "month",
+            OffsetDateTime.parse("2024-02-01T00:00:00Z"),
+            OffsetDateTime.parse("2024-03-01T00:00:00Z")))
+        .thenThrow(failure);
+
+    // When / Then
+    ExpenseSummaryEngine engine = engine(4, 10);
+    assertSame(
+        failure,
+        assertThrows(
+            QueryTimeoutException.class, () -> engine.summarize(SummaryPeriod.MONTH, null, null)));
+  }
+
+  @Test
+  @DisplayName(
+      "Given open bounds when summarize then every month up to the last expense is chunked")
+  void given_openBounds_when_summarize_then_everyMonthUpToLastExpenseIsChunked() {
+    // Given
+    OffsetDateTime january = OffsetDateTime.parse("2024-01-01T00:00:00Z");
+    OffsetDateTime february = OffsetDateTime.parse("2024-02-01T00:00:00Z");
+    OffsetDateTime march = OffsetDateTime.parse("2024-03-01T00:00:00Z");
+    OffsetDateTime april = OffsetDateTime.parse("2024-04-01T00:00:00Z");
+    when(repository.findDateTimeRange(null, null))
+        .thenReturn(range("2024-01-20T00:00:00Z", "2024-03-31T23:00:00Z"));
+    when(repository.summarize("month", january, february))
+        .thenReturn(List.of(row("2024-01-01", "FOOD", 1, "1.0000")));
+    when(repository.summarize("month", february, march)).thenReturn(List.of());
+    when(repository.summarize("month", march, april))
+        .thenReturn(List.of(row("2024-03-01", "FOOD", 1, "2.0000")));
+
+    // When
+    List<ExpenseSummary> result = engine(4, 10).summarize(SummaryPeriod.MONTH, null, null);
+
+    // Then
+    assertEquals(
+        List.of(
+            summary("2024-01-01", Category.FOOD, 1, "1.0000", "1.0000"),
+            summary("2024-03-01", Category.FOOD, 1, "2.0000", "2.0000")),
+        result);
+    verify(repository).summarize("month", february, march);
+  }
+
+  @Test
+  @DisplayName("Given no expenses in range when summarize then one query aggregates")
+  void given_noExpensesInRange_when_summarize_then_oneQueryAggregates() {
+    // Given
+    OffsetDateTime from = OffsetDateTime.parse("2024-01-01T00:00:00Z");
+    when(repository.findDateTimeRange(from, null)).thenReturn(range(null, null));
+    when(repository.summarize("month", from, null)).thenReturn(List.of());
+
+    // When
+    List<ExpenseSummary> result = engine(4, 10).summarize(SummaryPeriod.MONTH, from, null);
+
+    // Then
+    assertEquals(List.of(), result);
+  }
+
+  private ExpenseSummaryEngine engine(int parallelism, int poolSize) {
+    return new ExpenseSummaryEngine(
+        repository,
+        new ExpenseEntityMapperImpl(),
+        new ExpenseSummaryProperties(parallelism, 3),
+        new ReadReplicaProperties(
+            false, List.of(), 10, Duration.ofSeconds(1), Duration.ofSeconds(5)),
+        poolSize);
+  }
+
+  private static ExpenseSummaryProjection row(
+      String periodStart, String category, long count, String total) {
+    return new Row(
+        LocalDate.parse(periodStart),
+        category,
+        "EUR",
+        count,
+        new BigDecimal(total),
+        new BigDecimal(total).divide(BigDecimal.valueOf(count), 4, RoundingMode.HALF_UP));
+  }
+
+  private static ExpenseDateTimeRangeProjection range(String first, String last) {
+    return new DateTimeRange(
+        first == null ? null : Instant.parse(first), last == null ? null : Instant.parse(last));
+  }
+
+  private static ExpenseSummary summary(
+      String periodStart, Category category, long count, String total, String average) {
+    return ExpenseSummary.builder()
+        .periodStart(LocalDate.parse(periodStart))
+        .category(category)
+        .currency("EUR")
+        .count(count)
+        .total(new BigDecimal(total))
+        .average(new BigDecimal(average))
+        .build();
+  }
+
+  private record DateTimeRange(Instant first, Instant last)
+      implements ExpenseDateTimeRangeProjection {
+
+    @Override
+    public Instant getFirst() {
+      return first;
+    }
+
+    @Override
+    public Instant getLast() {
+      return last;
+    }
+  }
+
+  private record Row(
+      LocalDate periodStart,
+      String category,
+      String currency,
+      long count,
+      BigDecimal total,
+      BigDecimal average)
+      implements ExpenseSummaryProjection {
+
+    @Override
+    public LocalDate getPeriodStart() {
+      return periodStart;
+    }
+
+    @Override
+    public String getCategory() {
+      return category;
+    }
+
+    @Override
+    public String getCurrency() {
+      return currency;
+    }
+
+    @Override
+    public long getCount() {
+      return count;
+    }
+
+    @Override
+    public BigDecimal getTotal() {
+      return total;
+    }
+
+    @Override
+    public BigDecimal getAverage() {
+      return average;
+    }
+  }
+}
@@ -0,0 +1,72 @@
+package io.github.alvarorg14.kashy.benchmarks;
+
+import io.github.alvarorg14.kashy.api.analytics.ExpenseColumns;
+import io.github.alvarorg14.kashy.api.model.domain.Expense;
+import io.github.alvarorg14.kashy.api.model.domain.ExpenseSummary;
+import io.github.alvarorg14.kashy.api.model.domain.SummaryPeriod;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of summarizing the columnar analytics store, which scans every row once per summary.
+ *
+ * <p>The fixtures place one expense per minute, so 10M rows span about nineteen years. The ranged
+ * case filters down to one year, which still scans all rows.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(
+    value = 1,
+    jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Benchmark)
+public class ExpenseAnalyticsBenchmark {
+
+  private static final OffsetDateTime FROM =
+      OffsetDateTime.of(2030, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+
+  @Param({"1000000", "10000000"})
+  private int rows;
+
+  private ExpenseColumns columns;
+
+  @Setup
+  public void setUp() {
+    columns = new ExpenseColumns(rows);
+    for (int i = 0; i < rows; i++) {
+      Expense expense = ExpenseFixtures.expense(i);
+      columns.append(expense.dateTime(), expense.amount(), expense.category(), expense.currency());
+    }
+  }
+
+  @Benchmark
+  public List<ExpenseSummary> summarizePerMonth() {
+    return columns.summarize(SummaryPeriod.MONTH, null, null, Integer.MAX_VALUE).orElseThrow();
+  }
+
+  @Benchmark
+  public List<ExpenseSummary> summarizePerDay() {
+    return columns.summarize(SummaryPeriod.DAY, null, null, Integer.MAX_VALUE).orElseThrow();
+  }
+
+  @Benchmark
+  public List<ExpenseSummary> summarizeOneYearPerWeek() {
+    return columns
+        .summarize(SummaryPeriod.WEEK, FROM, FROM.plusYears(1), Integer.MAX_VALUE)
+        .orElseThrow();
+  }
+}
@@ -0,0 +1,63 @@
+package io.github.alvarorg14.kashy.benchmarks;
+
+import io.github.alvarorg14.kashy.api.model.domain.Category;
+import io.github.alvarorg14.kashy.api.model.domain.Expense;
+import io.github.alvarorg14.kashy.api.model.entity.ExpenseEntity;
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+/**
+ * Deterministic expense data shared by the benchmarks.
+ *
+ * <p>Rows vary in category, amount and notes so mapping sees realistic branches and value shapes.
+ */
+final class ExpenseFixtures {
+
+  private static final OffsetDateTime START =
+      OffsetDateTime.of(2024, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+  private static final Category[] CATEGORIES = Category.values();
+
+  private ExpenseFixtures() {}
+
+  static Expense expense(int i) {
+    OffsetDateTime dateTime = START.plusMinutes(i);
+    return Expense.builder()
+        .id(new UUID(0x018d_0000_0000_7000L, i))
+        .description("Expense " + i)
+        .dateTime(dateTime)
+        .amount(BigDecimal.valueOf(100 + i % 10_000, 2))
+        .currency(i % 3 == 0 ? "USD" : "EUR")
+        .category(CATEGORIES[i % CATEGORIES.length])
+        .notes(i % 2 == 0 ? null : "Notes of expense " + i)
+        .createdAt(dateTime)
+        .updatedAt(dateTime)
+        .build();
+  }
+
+  static ExpenseEntity entity(int i) {
+    Expense expense = expense(i);
+    return ExpenseEntity.builder()
+        .id(expense.id())
+        .description(expense.description())
+        .dateTime(expense.dateTime())
+        .amount(expense.amount())
+        .currency(expense.currency())
+        .category(expense.category())
+        .notes(expense.notes())
+        .createdAt(expense.createdAt())
+        .updatedAt(expense.updatedAt())
+        .build();
+  }
+
+  static List<Expense> expenses(int rows) {
+    return IntStream.range(0, rows).mapToObj(ExpenseFixtures::expense).toList();
+  }
+
+  static List<ExpenseEntity> entities(int rows) {
+    return IntStream.range(0, rows).mapToObj(ExpenseFixtures::entity).toList();
+  }
+}
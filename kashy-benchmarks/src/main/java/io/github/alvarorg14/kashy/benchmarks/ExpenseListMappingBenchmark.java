@@ -0,0 +1,70 @@
+package io.github.alvarorg14.kashy.benchmarks;
+
+import io.github.alvarorg14.kashy.api.mapper.ExpenseApiMapper;
+import io.github.alvarorg14.kashy.api.mapper.ExpenseApiMapperImpl;
+import io.github.alvarorg14.kashy.api.mapper.ExpenseEntityMapper;
+import io.github.alvarorg14.kashy.api.mapper.ExpenseEntityMapperImpl;
+import io.github.alvarorg14.kashy.api.model.api.ExpenseResponse;
+import io.github.alvarorg14.kashy.api.model.domain.Expense;
+import io.github.alvarorg14.kashy.api.model.entity.ExpenseEntity;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of mapping whole result sets the way the service and controller map listing pages.
+ *
+ * <p>The largest size keeps a million entities, domain expenses and responses alive at once, hence
+ * the fixed heap; comparing allocation per operation across sizes shows whether mapping stays
+ * linear.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(
+    value = 1,
+    jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class ExpenseListMappingBenchmark {
+
+  @Param({"1000", "100000", "1000000"})
+  private int rows;
+
+  private final ExpenseApiMapper apiMapper = new ExpenseApiMapperImpl();
+  private final ExpenseEntityMapper entityMapper = new ExpenseEntityMapperImpl();
+
+  private List<ExpenseEntity> entities;
+  private List<Expense> expenses;
+
+  @Setup
+  public void setUp() {
+    entities = ExpenseFixtures.entities(rows);
+    expenses = ExpenseFixtures.expenses(rows);
+  }
+
+  @Benchmark
+  public List<Expense> entitiesToDomain() {
+    return entities.stream().map(entityMapper::toDomain).toList();
+  }
+
+  @Benchmark
+  public List<ExpenseResponse> expensesToResponses() {
+    return expenses.stream().map(apiMapper::toResponse).toList();
+  }
+
+  @Benchmark
+  public List<ExpenseResponse> entitiesToResponses() {
+    return entities.stream().map(entityMapper::toDomain).map(apiMapper::toResponse).toList();
+  }
+}
@@ -0,0 +1,72 @@
+package io.github.alvarorg14.kashy.benchmarks;
+
+import io.github.alvarorg14.kashy.api.mapper.ExpenseApiMapper;
+import io.github.alvarorg14.kashy.api.mapper.ExpenseApiMapperImpl;
+import io.github.alvarorg14.kashy.api.mapper.ExpenseEntityMapper;
+import io.github.alvarorg14.kashy.api.mapper.ExpenseEntityMapperImpl;
+import io.github.alvarorg14.kashy.api.model.api.ExpenseResponse;
+import io.github.alvarorg14.kashy.api.model.domain.Expense;
+import io.github.alvarorg14.kashy.api.model.entity.ExpenseEntity;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of mapping a single expense through each step of the request pipeline.
+ *
+ * <p>Covers the API mapper, the entity mapper and the Lombok builder that every write goes through.
+ * Run with {@code -prof gc} to see the bytes allocated per operation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class ExpenseMappingBenchmark {
+
+  private final ExpenseApiMapper apiMapper = new ExpenseApiMapperImpl();
+  private final ExpenseEntityMapper entityMapper = new ExpenseEntityMapperImpl();
+
+  private Expense expense;
+  private ExpenseEntity entity;
+
+  @Setup
+  public void setUp() {
+    expense = ExpenseFixtures.expense(1);
+    entity = ExpenseFixtures.entity(1);
+  }
+
+  @Benchmark
+  public ExpenseResponse apiMapperToResponse() {
+    return apiMapper.toResponse(expense);
+  }
+
+  @Benchmark
+  public Expense entityMapperToDomain() {
+    return entityMapper.toDomain(entity);
+  }
+
+  @Benchmark
+  public Expense builder() {
+    return Expense.builder()
+        .id(expense.id())
+        .description(expense.description())
+        .dateTime(expense.dateTime())
+        .amount(expense.amount())
+        .currency(expense.currency())
+        .category(expense.category())
+        .notes(expense.notes())
+        .createdAt(expense.createdAt())
+        .updatedAt(expense.updatedAt())
+        .build();
+  }
+}
@@ -0,0 +1,94 @@
+package io.github.alvarorg14.kashy.benchmarks;
+
+import io.github.alvarorg14.kashy.api.json.ExpenseResponseSerializer;
+import io.github.alvarorg14.kashy.api.mapper.ExpenseApiMapper;
+import io.github.alvarorg14.kashy.api.mapper.ExpenseApiMapperImpl;
+import io.github.alvarorg14.kashy.api.model.api.ExpenseResponse;
+import io.github.alvarorg14.kashy.api.model.api.ListExpensesResponse;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.databind.module.SimpleModule;
+
+/**
+ * CPU cost of writing listing pages with the reflective bean serializer and with {@link
+ * ExpenseResponseSerializer}, with and without the gzip step applied by the server.
+ *
+ * <p>Both serializers produce identical JSON. The raw and gzipped payload sizes are printed once
+ * per fork, since JMH only reports timings and allocation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ExpenseResponseSerializationBenchmark {
+
+  /** Serializers available for {@link ExpenseResponse}. */
+  public enum Serializer {
+    REFLECTIVE(JsonMapper.builder().build()),
+    SPECIALIZED(
+        JsonMapper.builder()
+            .addModule(
+                new SimpleModule("expense-response")
+                    .addSerializer(ExpenseResponse.class, new ExpenseResponseSerializer()))
+            .build());
+
+    private final ObjectMapper mapper;
+
+    Serializer(ObjectMapper mapper) {
+      this.mapper = mapper;
+    }
+  }
+
+  @Param({"1000"})
+  private int rows;
+
+  @Param({"REFLECTIVE", "SPECIALIZED"})
+  private Serializer serializer;
+
+  private ListExpensesResponse page;
+
+  @Setup
+  public void setUp() {
+    ExpenseApiMapper apiMapper = new ExpenseApiMapperImpl();
+    page =
+        new ListExpensesResponse(
+            ExpenseFixtures.expenses(rows).stream().map(apiMapper::toResponse).toList());
+    System.out.printf(
+        "%n%s page of %d rows: %d bytes, %d bytes gzipped%n",
+        serializer, rows, serialize().length, serializeGzipped().length);
+  }
+
+  @Benchmark
+  public byte[] serialize() {
+    return serializer.mapper.writeValueAsBytes(page);
+  }
+
+  @Benchmark
+  public byte[] serializeGzipped() {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+      serializer.mapper.writeValue(gzip, page);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return bytes.toByteArray();
+  }
+}
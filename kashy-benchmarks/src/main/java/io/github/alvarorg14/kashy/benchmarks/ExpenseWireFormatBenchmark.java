@@ -0,0 +1,76 @@
+package io.github.alvarorg14.kashy.benchmarks;
+
+import io.github.alvarorg14.kashy.api.mapper.ExpenseApiMapper;
+import io.github.alvarorg14.kashy.api.mapper.ExpenseApiMapperImpl;
+import io.github.alvarorg14.kashy.api.model.api.ListExpensesResponse;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+
+/**
+ * Cost of encoding and decoding listing pages as JSON and as CBOR.
+ *
+ * <p>Both formats write the same {@link ListExpensesResponse} the controller returns. The payload
+ * size of each format is printed once per fork, since JMH only reports timings and allocation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ExpenseWireFormatBenchmark {
+
+  /** Wire formats the API can negotiate. */
+  public enum WireFormat {
+    JSON(JsonMapper.builder().build()),
+    CBOR(CBORMapper.builder().build());
+
+    private final ObjectMapper mapper;
+
+    WireFormat(ObjectMapper mapper) {
+      this.mapper = mapper;
+    }
+  }
+
+  @Param({"10000"})
+  private int rows;
+
+  @Param({"JSON", "CBOR"})
+  private WireFormat format;
+
+  private ListExpensesResponse page;
+  private byte[] encoded;
+
+  @Setup
+  public void setUp() {
+    ExpenseApiMapper apiMapper = new ExpenseApiMapperImpl();
+    page =
+        new ListExpensesResponse(
+            ExpenseFixtures.expenses(rows).stream().map(apiMapper::toResponse).toList());
+    encoded = format.mapper.writeValueAsBytes(page);
+    System.out.printf("%n%s payload of %d rows: %d bytes%n", format, rows, encoded.length);
+  }
+
+  @Benchmark
+  public byte[] serialize() {
+    return format.mapper.writeValueAsBytes(page);
+  }
+
+  @Benchmark
+  public ListExpensesResponse deserialize() {
+    return format.mapper.readValue(encoded, ListExpensesResponse.class);
+  }
+}
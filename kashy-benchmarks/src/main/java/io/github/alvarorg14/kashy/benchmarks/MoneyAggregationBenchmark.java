@@ -0,0 +1,95 @@
+package io.github.alvarorg14.kashy.benchmarks;
+
+import io.github.alvarorg14.kashy.api.money.MinorUnits;
+import io.github.alvarorg14.kashy.api.money.MinorUnitsSum;
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of adding up and formatting amounts as {@link BigDecimal} versus as {@link MinorUnits}.
+ *
+ * <p>Amounts are at scale 4, as read from the {@code numeric(19,4)} column. The {@code
+ * minorUnitsFromDecimal} case includes the conversion at the boundary, which is what the rollup
+ * path pays; {@code minorUnits} is the cost once amounts are already held as {@code long}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MoneyAggregationBenchmark {
+
+  @Param({"1000", "100000"})
+  private int rows;
+
+  private final Writer out = Writer.nullWriter();
+
+  private BigDecimal[] amounts;
+  private long[] minorUnits;
+
+  @Setup
+  public void setUp() {
+    amounts = new BigDecimal[rows];
+    minorUnits = new long[rows];
+    for (int i = 0; i < rows; i++) {
+      amounts[i] = ExpenseFixtures.expense(i).amount().setScale(4, RoundingMode.UNNECESSARY);
+      minorUnits[i] = MinorUnits.of(amounts[i]);
+    }
+  }
+
+  @Benchmark
+  public BigDecimal sumBigDecimal() {
+    BigDecimal total = BigDecimal.ZERO;
+    for (BigDecimal amount : amounts) {
+      total = total.add(amount);
+    }
+    return total;
+  }
+
+  @Benchmark
+  public BigDecimal sumMinorUnitsFromDecimal() {
+    MinorUnitsSum total = new MinorUnitsSum();
+    for (BigDecimal amount : amounts) {
+      total.add(amount);
+    }
+    return total.toDecimal();
+  }
+
+  @Benchmark
+  public BigDecimal sumMinorUnits() {
+    MinorUnitsSum total = new MinorUnitsSum();
+    for (long amount : minorUnits) {
+      total.add(amount);
+    }
+    return total.toDecimal();
+  }
+
+  @Benchmark
+  public void formatBigDecimal() throws IOException {
+    for (BigDecimal amount : amounts) {
+      out.write(amount.toPlainString());
+    }
+  }
+
+  @Benchmark
+  public void formatMinorUnits() throws IOException {
+    for (long amount : minorUnits) {
+      MinorUnits.write(amount, out);
+    }
+  }
+}